@@ -0,0 +1,81 @@
+package br.com.example.davidarchanjo.benchmark;
+
+import br.com.example.davidarchanjo.enumeration.DuplicateFileStrategy;
+import br.com.example.davidarchanjo.enumeration.IdFormat;
+import br.com.example.davidarchanjo.util.FileNameGenerator;
+import br.com.example.davidarchanjo.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unique file name generation before and after IdGenerator, run on 8 threads to expose contention.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}; add {@code -Djmh.args="-prof gc"} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class FileNameGeneratorBenchmark {
+
+    private static final String FILE_NAME = "quarterly-report.pdf";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    @Benchmark
+    public String legacyUuidSuffix() {
+        String uuid = UUID.randomUUID().toString().substring(0, 8);
+        return String.format("%s_%s%s", "quarterly-report", uuid, ".pdf");
+    }
+
+    @Benchmark
+    public String legacyTimestampSuffix() {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        return String.format("%s_%s%s", "quarterly-report", timestamp, ".pdf");
+    }
+
+    @Benchmark
+    public String legacyUniqueId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String shortSuffix() {
+        return FileNameGenerator.generateFileName(FILE_NAME, DuplicateFileStrategy.UUID_SUFFIX, null, IdFormat.SHORT);
+    }
+
+    @Benchmark
+    public String ulidSuffix() {
+        return FileNameGenerator.generateFileName(FILE_NAME, DuplicateFileStrategy.UUID_SUFFIX, null, IdFormat.ULID);
+    }
+
+    @Benchmark
+    public String timestampSuffix() {
+        return FileNameGenerator.generateFileName(FILE_NAME, DuplicateFileStrategy.TIMESTAMP_SUFFIX, null);
+    }
+
+    @Benchmark
+    public String uuidV7() {
+        return IdGenerator.uuidV7();
+    }
+
+    @Benchmark
+    public String ulid() {
+        return IdGenerator.ulid();
+    }
+}
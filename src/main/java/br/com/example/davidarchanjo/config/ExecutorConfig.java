@@ -0,0 +1,226 @@
+package br.com.example.davidarchanjo.config;
+
+import br.com.example.davidarchanjo.util.RequestPriorityContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executors used for fan-out of storage operations.
+ * Fan-out tasks carry the priority class of the request that started them.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ExecutorConfig {
+
+    private final StorageProperties storageProperties;
+
+    /**
+     * Executor for concurrent PUTs issued by batch uploads.
+     * Callers run the task themselves when the queue is full, which throttles the producer.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchUploadExecutor() {
+        StorageProperties.Batch batch = storageProperties.getBatch();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batch.getConcurrency());
+        executor.setMaxPoolSize(batch.getConcurrency());
+        executor.setQueueCapacity(batch.getMaxInFlight());
+        executor.setThreadNamePrefix("batch-upload-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for objects fetched ahead of the entry currently written to an archive
+     */
+    @Bean
+    public ThreadPoolTaskExecutor archivePrefetchExecutor() {
+        StorageProperties.Archive archive = storageProperties.getArchive();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(archive.getPrefetchThreads());
+        executor.setMaxPoolSize(archive.getPrefetchThreads());
+        executor.setThreadNamePrefix("archive-prefetch-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fork-join pool for listing keyspace partitions and prefetching their next pages
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool listingPool() {
+        return new ForkJoinPool(Math.max(1, storageProperties.getListing().getParallelism()));
+    }
+
+    /**
+     * Executor for listing export jobs.
+     * Jobs beyond the queue are rejected instead of piling up behind long-running exports.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor() {
+        StorageProperties.Export export = storageProperties.getExport();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(export.getThreads());
+        executor.setMaxPoolSize(export.getThreads());
+        executor.setQueueCapacity(export.getQueueCapacity());
+        executor.setThreadNamePrefix("listing-export-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread that fans journal changes out to open streams, keeping them in journal order
+     */
+    @Bean
+    public ThreadPoolTaskExecutor changeDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("change-dispatch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor replaying journal history to streams that connect with a cursor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor changeReplayExecutor() {
+        int threads = storageProperties.getJournal().getReplayThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("change-replay-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread building and compacting key indexes, so neither runs on a request thread
+     */
+    @Bean
+    public ThreadPoolTaskExecutor keyIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("key-index-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for the HEADs and GETs of batch stat and fetch requests.
+     * Each request bounds its own tasks in flight, so the queue is left unbounded.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchReadExecutor() {
+        int threads = storageProperties.getBatchRead().getThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("batch-read-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor waiting on the response headers of hedged GETs.
+     * There is no queue: when every thread is busy the caller issues the GET itself, unhedged.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor hedgeExecutor() {
+        int threads = storageProperties.getHedge().getThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("hedged-get-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor fetching byte ranges of large downloads
+     */
+    @Bean
+    public ThreadPoolTaskExecutor rangedDownloadExecutor() {
+        int threads = storageProperties.getRangedDownload().getThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("ranged-get-");
+        executor.setTaskDecorator(RequestPriorityContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor provisioning the buckets of known tenants at startup; its threads time out once that is done
+     */
+    @Bean
+    public ThreadPoolTaskExecutor provisioningExecutor() {
+        int threads = storageProperties.getProvisioning().getThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("bucket-provisioning-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor streaming response bodies of interactive requests
+     */
+    @Bean
+    public ThreadPoolTaskExecutor interactiveStreamingExecutor() {
+        StorageProperties.Priority priority = storageProperties.getPriority();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(priority.getInteractiveThreads());
+        executor.setMaxPoolSize(priority.getInteractiveThreads());
+        executor.setQueueCapacity(priority.getInteractiveQueueCapacity());
+        executor.setThreadNamePrefix("interactive-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor streaming response bodies of bulk requests, so archives and batch fetches never occupy the threads
+     * of interactive downloads
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkStreamingExecutor() {
+        StorageProperties.Priority priority = storageProperties.getPriority();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(priority.getBulkThreads());
+        executor.setMaxPoolSize(priority.getBulkThreads());
+        executor.setQueueCapacity(priority.getBulkQueueCapacity());
+        executor.setThreadNamePrefix("bulk-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
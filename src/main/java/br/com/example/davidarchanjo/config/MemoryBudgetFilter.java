@@ -0,0 +1,69 @@
+package br.com.example.davidarchanjo.config;
+
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Admits request bodies against the memory budget by their Content-Length, before any of them is read. Streamed
+ * bodies are left to their endpoint, which charges only what it buffers
+ */
+@Component
+public class MemoryBudgetFilter extends OncePerRequestFilter {
+
+    private final StorageProperties storageProperties;
+    private final MemoryBudgetService memoryBudgetService;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public MemoryBudgetFilter(
+            StorageProperties storageProperties,
+            MemoryBudgetService memoryBudgetService,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver
+    ) {
+        this.storageProperties = storageProperties;
+        this.memoryBudgetService = memoryBudgetService;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        StorageProperties.MemoryBudget settings = storageProperties.getMemoryBudget();
+        if (!settings.isEnabled() || request.getContentLengthLong() <= 0) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return settings.getStreamedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        MemoryBudgetService.Reservation reservation;
+        try {
+            reservation = memoryBudgetService.reserve(request.getContentLengthLong());
+        } catch (ServiceOverloadedException e) {
+            // Answered like any other overload, with the error body and Retry-After of the exception handler
+            handlerExceptionResolver.resolveException(request, response, null, e);
+            return;
+        }
+
+        try (reservation) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
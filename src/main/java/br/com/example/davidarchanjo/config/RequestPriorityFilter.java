@@ -0,0 +1,53 @@
+package br.com.example.davidarchanjo.config;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.service.RequestPriorityService;
+import br.com.example.davidarchanjo.util.RequestPriorityContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Tags each request with its priority class for the backend calls and streaming it causes
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestPriorityFilter extends OncePerRequestFilter {
+
+    private final StorageProperties storageProperties;
+    private final RequestPriorityService requestPriorityService;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !storageProperties.getPriority().isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestPriority priority = requestPriorityService.classify(
+                path, request.getHeader(storageProperties.getPriority().getHeader()));
+        if (priority == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestPriorityContext.set(priority);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestPriorityContext.clear();
+        }
+    }
+}
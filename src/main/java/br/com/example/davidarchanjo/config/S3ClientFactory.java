@@ -0,0 +1,172 @@
+package br.com.example.davidarchanjo.config;
+
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.service.ConcurrencyLimitService;
+import br.com.example.davidarchanjo.service.HedgedReadService;
+import br.com.example.davidarchanjo.service.KeyLayoutService;
+import br.com.example.davidarchanjo.service.PrefixRateLimitService;
+import br.com.example.davidarchanjo.service.RangedDownloadService;
+import br.com.example.davidarchanjo.service.RequestPriorityService;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Builds S3 clients wrapped in the gateway's request pipeline: concurrency limits, per-prefix shaping,
+ * key layout mapping, priority connection quotas, ranged downloads and hedged reads
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ClientFactory {
+
+    private final StorageProperties storageProperties;
+    private final ConcurrencyLimitService concurrencyLimitService;
+    private final PrefixRateLimitService prefixRateLimitService;
+    private final KeyLayoutService keyLayoutService;
+    private final HedgedReadService hedgedReadService;
+    private final RangedDownloadService rangedDownloadService;
+    private final RequestPriorityService requestPriorityService;
+
+    /**
+     * Client for the endpoint and credentials of the storage settings, on the SDK's default connection pool
+     */
+    public S3Client create() {
+        return create("default", new StorageProperties.ClientRegistry.Endpoint(), null);
+    }
+
+    /**
+     * Client with its own connection pool; unset endpoint fields fall back to the storage settings
+     *
+     * @param name           Name used in logs
+     * @param endpoint       Endpoint, region, credentials and pool size overrides
+     * @param maxConnections Connection pool size, or null for the SDK default
+     * @return Client wrapped in the request pipeline
+     */
+    public S3Client create(String name, StorageProperties.ClientRegistry.Endpoint endpoint, Integer maxConnections) {
+        log.info("Configuring S3 client '{}' for provider: {}", name, storageProperties.getProvider());
+
+        String region = endpoint.getRegion() != null ? endpoint.getRegion() : storageProperties.getRegion();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(getCredentialsProvider(endpoint));
+
+        // Configure for MinIO or custom endpoint
+        String endpointUrl = endpoint.getEndpointUrl() != null
+                ? endpoint.getEndpointUrl()
+                : storageProperties.getEndpointUrl();
+        if (endpointUrl != null && !endpointUrl.isEmpty()) {
+            log.info("Using custom endpoint: {}", endpointUrl);
+            builder.endpointOverride(URI.create(endpointUrl));
+        }
+
+        // Enable path-style access for MinIO
+        boolean pathStyleAccess = endpoint.getPathStyleAccess() != null
+                ? endpoint.getPathStyleAccess()
+                : storageProperties.isPathStyleAccess();
+        if (pathStyleAccess) {
+            log.info("Enabling path-style access");
+            builder.forcePathStyle(true);
+        }
+
+        if (maxConnections != null) {
+            StorageProperties.ClientRegistry registry = storageProperties.getClientRegistry();
+            builder.httpClientBuilder(ApacheHttpClient.builder()
+                    .maxConnections(maxConnections)
+                    .connectionAcquisitionTimeout(Duration.ofMillis(registry.getConnectionAcquisitionTimeoutMs())));
+        }
+
+        // Trailing checksums are computed and validated inline while the body streams
+        if (storageProperties.getChecksum().isEnabled()) {
+            builder.requestChecksumCalculation(RequestChecksumCalculation.WHEN_SUPPORTED)
+                    .responseChecksumValidation(ResponseChecksumValidation.WHEN_SUPPORTED);
+        } else {
+            log.info("Disabling flexible checksums");
+            builder.requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                    .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        }
+
+        S3Client backend = builder.build();
+
+        // Every request reaching the backend, hedges and ranges included, counts against the limit of its type
+        S3Client limited = InterceptingS3Client.wrap(backend, (method, args, proceed) ->
+                args != null && args.length > 0 && args[0] instanceof S3Request
+                        ? concurrencyLimitService.call(S3OperationType.of(method.getName()), proceed)
+                        : proceed.proceed());
+
+        // Requests then queue for the rate of their key prefix, which backs off when S3 answers SlowDown
+        S3Client shaped = InterceptingS3Client.wrap(limited, (method, args, proceed) ->
+                args != null && args.length > 0 && args[0] instanceof S3Request request
+                        ? prefixRateLimitService.call(S3OperationType.of(method.getName()), request, proceed)
+                        : proceed.proceed());
+
+        // Logical keys are mapped to their physical layout; sharded prefixes are listed shard by shard
+        S3Client client = InterceptingS3Client.wrap(shaped, (method, args, proceed) -> {
+            if (!keyLayoutService.isSharded() || args == null || args.length == 0
+                    || !(args[0] instanceof S3Request request)) {
+                return proceed.proceed();
+            }
+            if (request instanceof ListObjectsV2Request listing) {
+                return keyLayoutService.listObjects(listing, shaped::listObjectsV2);
+            }
+            Object[] physical = args.clone();
+            physical[0] = keyLayoutService.toPhysical(request);
+            return InterceptingS3Client.invoke(shaped, method, physical);
+        });
+
+        // Every call, each hedge and range included, holds a connection slot of its priority class until its body
+        // is closed; bulk calls wait while interactive ones are queued for a slot
+        S3Client prioritized = InterceptingS3Client.wrap(client, (method, args, proceed) ->
+                args != null && args.length > 0 && args[0] instanceof S3Request request
+                        ? requestPriorityService.call(request, proceed)
+                        : proceed.proceed());
+
+        // Streaming GETs are split into ranges for large objects and each GET is hedged;
+        // every other call reaches the client unchanged
+        return InterceptingS3Client.wrap(prioritized, (method, args, proceed) -> {
+            if (method.getName().equals("getObject") && args != null && args.length == 1
+                    && args[0] instanceof GetObjectRequest request) {
+                return rangedDownloadService.getObject(request,
+                        get -> hedgedReadService.getObject(get, prioritized::getObject));
+            }
+            return proceed.proceed();
+        });
+    }
+
+    private AwsCredentialsProvider getCredentialsProvider(StorageProperties.ClientRegistry.Endpoint endpoint) {
+        if (endpoint.getAccessKey() != null && endpoint.getSecretKey() != null) {
+            return staticCredentials(endpoint.getAccessKey(), endpoint.getSecretKey());
+        }
+
+        // Use static credentials if provided, otherwise use default credentials chain
+        if (storageProperties.getAccessKey() != null && storageProperties.getSecretKey() != null) {
+            return staticCredentials(storageProperties.getAccessKey(), storageProperties.getSecretKey());
+        }
+
+        log.info("Using default credentials provider chain");
+        return DefaultCredentialsProvider.builder().build();
+    }
+
+    private AwsCredentialsProvider staticCredentials(String accessKey, String secretKey) {
+        String maskedKey = accessKey.substring(0, Math.min(4, accessKey.length())) + "...";
+        log.info("Using static credentials with access key: {}", maskedKey);
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+}
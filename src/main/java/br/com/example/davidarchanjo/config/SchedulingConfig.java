@@ -0,0 +1,12 @@
+package br.com.example.davidarchanjo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs such as deduplicated blob garbage collection
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
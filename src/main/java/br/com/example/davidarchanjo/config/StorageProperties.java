@@ -1,12 +1,23 @@
 package br.com.example.davidarchanjo.config;
 
 import br.com.example.davidarchanjo.enumeration.BucketStrategy;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.ClientPartition;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
 import br.com.example.davidarchanjo.enumeration.DuplicateFileStrategy;
+import br.com.example.davidarchanjo.enumeration.IdFormat;
+import br.com.example.davidarchanjo.enumeration.KeyLayout;
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Validated
 @ConfigurationProperties(prefix = "storage")
@@ -81,6 +92,12 @@ public class StorageProperties {
      */
     private DuplicateFileStrategy duplicateFileStrategy = DuplicateFileStrategy.UUID_SUFFIX;
 
+    /**
+     * Format of the ID the UUID_SUFFIX strategy appends. SHORT carries only 32 random bits and collides after tens
+     * of thousands of names; ULID and UUID_V7 are time-ordered and practically collision-free.
+     */
+    private IdFormat fileNameIdFormat = IdFormat.ULID;
+
     /**
      * Enable multi-tenancy support (bucket prefixing/separation)
      */
@@ -90,5 +107,1099 @@ public class StorageProperties {
      * Enable storage quota enforcement
      */
     private boolean enforceQuota = true;
-}
 
+    // ===== Batch Upload Configuration =====
+
+    /**
+     * Batch upload settings
+     */
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Number of concurrent S3 PUTs per gateway instance
+         */
+        private int concurrency = 32;
+
+        /**
+         * Maximum number of entries buffered in memory awaiting upload; 0 sizes it so that this many entries of
+         * maxEntrySizeMb fit in a quarter of the heap
+         */
+        private int maxInFlight = 0;
+
+        /**
+         * Maximum number of entries accepted in a single batch
+         */
+        private int maxEntries = 50000;
+
+        /**
+         * Maximum size of a single archive entry in MB
+         */
+        private long maxEntrySizeMb = 10;
+    }
+
+    // ===== Archive Download Configuration =====
+
+    /**
+     * Archive download settings
+     */
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Archive {
+
+        /**
+         * Number of objects fetched ahead of the one being written
+         */
+        private int prefetchDepth = 8;
+
+        /**
+         * Maximum bytes held by prefetched objects per archive, in MB
+         */
+        private long prefetchBufferMb = 32;
+
+        /**
+         * Objects larger than this (in MB) are streamed directly instead of prefetched
+         */
+        private long prefetchMaxObjectMb = 8;
+
+        /**
+         * Threads shared by all archive downloads for prefetching
+         */
+        private int prefetchThreads = 16;
+    }
+
+    // ===== At-Rest Compression Configuration =====
+
+    /**
+     * At-rest compression settings
+     */
+    private Compression compression = new Compression();
+
+    @Data
+    public static class Compression {
+
+        /**
+         * Compress matching uploads before storing them
+         */
+        private boolean enabled = false;
+
+        /**
+         * Codec used for new uploads
+         */
+        private CompressionCodec codec = CompressionCodec.ZSTD;
+
+        /**
+         * Codec level (zstd: 1-22, gzip: 1-9)
+         */
+        private int level = 3;
+
+        /**
+         * Objects smaller than this are stored as-is
+         */
+        private long minSizeBytes = 1024;
+
+        /**
+         * Buckets to compress; empty means every bucket
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * Content type prefixes to compress
+         */
+        private List<String> contentTypes = new ArrayList<>(List.of(
+                "text/",
+                "application/json",
+                "application/x-ndjson",
+                "application/xml",
+                "application/csv"
+        ));
+    }
+
+    // ===== Content-Addressed Deduplication Configuration =====
+
+    /**
+     * Deduplication settings
+     */
+    private Dedup dedup = new Dedup();
+
+    @Data
+    public static class Dedup {
+
+        /**
+         * Store uploads once per SHA-256 and write the user key as a reference
+         */
+        private boolean enabled = false;
+
+        /**
+         * Buckets to deduplicate; empty means every bucket
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * Run the background garbage collector for unreferenced blobs
+         */
+        private boolean gcEnabled = true;
+
+        /**
+         * Delay between garbage collection runs in milliseconds
+         */
+        private long gcIntervalMs = 3_600_000;
+
+        /**
+         * Blobs and index markers younger than this are never collected, in minutes
+         */
+        private long gcGracePeriodMinutes = 60;
+    }
+
+    // ===== Integrity Checksum Configuration =====
+
+    /**
+     * Integrity checksum settings
+     */
+    private Checksum checksum = new Checksum();
+
+    @Data
+    public static class Checksum {
+
+        /**
+         * Compute checksums while uploading and validate them while downloading.
+         * Disable for S3-compatible backends without flexible checksum support.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Algorithm used for new uploads
+         */
+        private ChecksumType algorithm = ChecksumType.CRC32C;
+    }
+
+    // ===== Metadata Catalog Configuration =====
+
+    /**
+     * Metadata catalog settings
+     */
+    private Catalog catalog = new Catalog();
+
+    @Data
+    public static class Catalog {
+
+        /**
+         * Record every write and delete in the embedded catalog
+         */
+        private boolean enabled = true;
+
+        /**
+         * Largest page a search may request
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Rows written per batch during reconciliation
+         */
+        private int reconcileBatchSize = 500;
+
+        /**
+         * Cron for the scheduled reconciliation of every bucket; "-" disables it
+         */
+        private String reconcileCron = "-";
+    }
+
+    // ===== Key Index Configuration =====
+
+    /**
+     * In-memory key index settings
+     */
+    private KeyIndex keyIndex = new KeyIndex();
+
+    @Data
+    public static class KeyIndex {
+
+        /**
+         * Answer prefix listings and counts from an in-memory index instead of the backend
+         */
+        private boolean enabled = false;
+
+        /**
+         * Buckets to index; empty means every bucket
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * Keys per front-coded block
+         */
+        private int blockSize = 16;
+
+        /**
+         * Pending gateway writes merged into the index once this many accumulate
+         */
+        private int overlayLimit = 10_000;
+
+        /**
+         * Interval between full rebuilds from the backend
+         */
+        private long rebuildIntervalMs = 900_000;
+
+        /**
+         * Largest page a listing may request
+         */
+        private int maxPageSize = 1000;
+    }
+
+    // ===== Parallel Listing Configuration =====
+
+    /**
+     * Parallel listing settings
+     */
+    private Listing listing = new Listing();
+
+    @Data
+    public static class Listing {
+
+        /**
+         * Threads of the fork-join pool that lists partitions concurrently
+         */
+        private int parallelism = 16;
+
+        /**
+         * Folder levels below the listed prefix that are split into their own partitions
+         */
+        private int splitDepth = 2;
+
+        /**
+         * Keys requested per ListObjectsV2 page
+         */
+        private int pageSize = 1000;
+    }
+
+    // ===== Listing Export Configuration =====
+
+    /**
+     * Listing export settings
+     */
+    private Export export = new Export();
+
+    @Data
+    public static class Export {
+
+        /**
+         * Export jobs running at the same time
+         */
+        private int threads = 2;
+
+        /**
+         * Export jobs waiting for a thread before new ones are rejected
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * Key prefix of inventory objects written to a bucket
+         */
+        private String keyPrefix = "exports/";
+
+        /**
+         * Directory for inventory files written locally
+         */
+        private String localDirectory = "./data/exports";
+
+        /**
+         * Part size of inventory objects uploaded to a bucket (minimum 5 MB)
+         */
+        private int partSizeMb = 8;
+
+        /**
+         * Finished jobs kept for status queries
+         */
+        private int retainedJobs = 100;
+
+        /**
+         * Margin subtracted from since before comparing it with backend modification times, covering clock
+         * skew between the gateway, which takes the snapshot time, and the backend, which stamps the objects
+         */
+        private long sinceSkewMs = 300_000;
+
+        /**
+         * Seconds a client is asked to wait when the export queue is full
+         */
+        private long rejectedRetryAfterSeconds = 30;
+    }
+
+    // ===== Change Journal Configuration =====
+
+    /**
+     * Change journal settings
+     */
+    private Journal journal = new Journal();
+
+    @Data
+    public static class Journal {
+
+        /**
+         * Append every write and delete to the journal and serve the change feed
+         */
+        private boolean enabled = true;
+
+        /**
+         * Largest page a feed request may ask for; also the replay page of a stream
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Days a change is kept before it is pruned
+         */
+        private int retentionDays = 7;
+
+        /**
+         * Cron for pruning expired changes; "-" disables it
+         */
+        private String pruneCron = "0 30 3 * * *";
+
+        /**
+         * Lifetime of a server-sent event stream before the client must reconnect
+         */
+        private long streamTimeoutMs = 1_800_000;
+
+        /**
+         * Interval between keep-alive comments on open streams
+         */
+        private long heartbeatIntervalMs = 15_000;
+
+        /**
+         * Threads replaying history to newly connected streams
+         */
+        private int replayThreads = 4;
+    }
+
+    // ===== Missing Object Filter Configuration =====
+
+    /**
+     * Missing object fast path settings
+     */
+    private MissFilter missFilter = new MissFilter();
+
+    @Data
+    public static class MissFilter {
+
+        /**
+         * Answer downloads of keys known to be absent without contacting the backend
+         */
+        private boolean enabled = false;
+
+        /**
+         * Buckets to keep a Bloom filter of known keys for; other buckets only use the negative cache
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * Keys a bucket filter is sized for; grows to twice the last listed count on rebuild
+         */
+        private long expectedKeys = 1_000_000;
+
+        /**
+         * Target rate of absent keys the Bloom filter still reports as possibly present
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Interval between filter rebuilds from a full listing; also bounds how long a key written
+         * directly to the backend is reported missing
+         */
+        private long rebuildIntervalMs = 900_000;
+
+        /**
+         * How long a key or bucket the backend reported missing is answered from memory
+         */
+        private long negativeTtlMs = 30_000;
+
+        /**
+         * Most missing keys and buckets remembered at once
+         */
+        private long negativeMaxEntries = 100_000;
+    }
+
+    // ===== Metadata Cache Configuration =====
+
+    /**
+     * Object metadata cache settings
+     */
+    private MetadataCache metadataCache = new MetadataCache();
+
+    @Data
+    public static class MetadataCache {
+
+        /**
+         * Serve HEAD and stat requests from memory while an entry is fresh
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long cached metadata is trusted before the backend is asked again
+         */
+        private long ttlMs = 60_000;
+
+        /**
+         * Most objects whose metadata is cached at once
+         */
+        private long maxEntries = 100_000;
+    }
+
+    // ===== Batch Read Configuration =====
+
+    /**
+     * Batch stat and fetch settings
+     */
+    private BatchRead batchRead = new BatchRead();
+
+    @Data
+    public static class BatchRead {
+
+        /**
+         * Concurrent HEADs and GETs issued for batch reads per gateway instance
+         */
+        private int threads = 32;
+
+        /**
+         * Most keys accepted by one batch stat
+         */
+        private int maxStatKeys = 1000;
+
+        /**
+         * HEADs one batch stat keeps in flight, so a large batch cannot flood the shared executor queue
+         */
+        private int statWindow = 32;
+
+        /**
+         * Most keys accepted by one batch fetch
+         */
+        private int maxFetchKeys = 100;
+
+        /**
+         * Objects one batch fetch reads ahead of the response; bounds its memory to this many objects
+         */
+        private int fetchWindow = 16;
+
+        /**
+         * Largest object a batch fetch returns; bigger ones get an error part and must be downloaded alone
+         */
+        private int maxObjectSizeKb = 1024;
+    }
+
+    // ===== Hedged Read Configuration =====
+
+    /**
+     * Hedged GET settings
+     */
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * Issue a second GET when the first has not responded after the hedge delay
+         */
+        private boolean enabled = false;
+
+        /**
+         * Percentile of recent time-to-first-byte used as the hedge delay
+         */
+        private double percentile = 95;
+
+        /**
+         * Hedge delay used until enough samples were recorded
+         */
+        private long initialDelayMs = 500;
+
+        /**
+         * Lower bound of the hedge delay
+         */
+        private long minDelayMs = 20;
+
+        /**
+         * Upper bound of the hedge delay
+         */
+        private long maxDelayMs = 2000;
+
+        /**
+         * Samples needed before the delay follows the observed percentile
+         */
+        private int minSamples = 100;
+
+        /**
+         * Most recent GETs the percentile is computed over
+         */
+        private int windowSize = 1000;
+
+        /**
+         * Hedges allowed as a percentage of GETs, so a slow backend never sees more than this extra load
+         */
+        private double budgetPercent = 5;
+
+        /**
+         * Hedges that may be issued back to back once the budget has accumulated
+         */
+        private int budgetBurst = 10;
+
+        /**
+         * Threads waiting for GET responses; when all are busy GETs run unhedged on the caller
+         */
+        private int threads = 64;
+    }
+
+    // ===== Ranged Download Configuration =====
+
+    /**
+     * Parallel ranged GET settings
+     */
+    private RangedDownload rangedDownload = new RangedDownload();
+
+    @Data
+    public static class RangedDownload {
+
+        /**
+         * Fetch large objects as concurrent byte ranges
+         */
+        private boolean enabled = false;
+
+        /**
+         * Objects up to this size are streamed from a single GET; larger ones read this many leading bytes from it
+         */
+        private int thresholdMb = 16;
+
+        /**
+         * Smallest ranged part
+         */
+        private int minPartSizeMb = 5;
+
+        /**
+         * Largest ranged part
+         */
+        private int maxPartSizeMb = 32;
+
+        /**
+         * Time one part should take at the observed per-connection throughput
+         */
+        private long targetPartMs = 1000;
+
+        /**
+         * Most ranges of one object fetched at the same time
+         */
+        private int maxParallelism = 8;
+
+        /**
+         * Most bytes of one object fetched or buffered ahead of the client
+         */
+        private int maxBufferMb = 64;
+
+        /**
+         * Threads fetching ranges, shared by all downloads
+         */
+        private int threads = 32;
+    }
+
+    // ===== Concurrency Limit Configuration =====
+
+    /**
+     * Adaptive concurrency limits on backend calls, kept separately for reads, writes and listings
+     */
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        /**
+         * Reject backend calls beyond the adaptive limit with 503
+         */
+        private boolean enabled = false;
+
+        /**
+         * Limit of each operation type before any latency was observed
+         */
+        private int initialLimit = 32;
+
+        /**
+         * Lowest limit, kept even when the backend is slow
+         */
+        private int minLimit = 4;
+
+        /**
+         * Highest limit
+         */
+        private int maxLimit = 256;
+
+        /**
+         * Weight of each new limit estimate, between 0 and 1
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Slowdown over the baseline round-trip time tolerated before the limit shrinks
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Calls averaged into the baseline round-trip time
+         */
+        private int longWindow = 600;
+
+        /**
+         * Factor applied to the limit when the backend throttles or times out a call
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Retry-After sent with rejections
+         */
+        private long retryAfterSeconds = 1;
+    }
+
+    // ===== Request Shaping Configuration =====
+
+    /**
+     * Per-prefix request rates that back off when S3 throttles
+     */
+    private RequestShaping requestShaping = new RequestShaping();
+
+    @Data
+    public static class RequestShaping {
+
+        /**
+         * Shape the request rate of each prefix and turn S3 SlowDown into 503 responses
+         */
+        private boolean enabled = false;
+
+        /**
+         * Leading key folders forming a rate-limited prefix (2 = client and environment)
+         */
+        private int prefixDepth = 2;
+
+        /**
+         * Starting and highest GET/HEAD/LIST rate per prefix, in requests per second
+         */
+        private double readRate = 5500;
+
+        /**
+         * Starting and highest PUT/DELETE rate per prefix, in requests per second
+         */
+        private double writeRate = 3500;
+
+        /**
+         * Lowest rate backoff may reach
+         */
+        private double minRate = 10;
+
+        /**
+         * Factor applied to a prefix's rate when S3 throttles it
+         */
+        private double decreaseFactor = 0.5;
+
+        /**
+         * Requests per second regained for each second of unthrottled traffic
+         */
+        private double increasePerSecond = 50;
+
+        /**
+         * Seconds of unused rate that may be spent at once after an idle period
+         */
+        private double burstSeconds = 1;
+
+        /**
+         * Longest a request waits for its prefix's rate before being rejected
+         */
+        private long maxWaitMs = 2000;
+
+        /**
+         * Retry-After sent with throttled requests
+         */
+        private long retryAfterSeconds = 1;
+
+        /**
+         * Most prefixes tracked at once
+         */
+        private long maxPrefixes = 10_000;
+
+        /**
+         * Idle time after which a prefix's rate is forgotten
+         */
+        private long idleExpiryMs = 600_000;
+    }
+
+    // ===== Key Layout Configuration =====
+
+    /**
+     * How object keys are laid out in the bucket. Fixed for the life of a bucket: keys written under one layout
+     * are not found under another.
+     */
+    private KeyLayout keyLayout = KeyLayout.HIERARCHICAL;
+
+    /**
+     * Hash shard settings of the HASH_SHARDED layout
+     */
+    private Sharding sharding = new Sharding();
+
+    @Data
+    public static class Sharding {
+
+        /**
+         * Number of shard folders a prefix is spread over; listings of a prefix issue one request per shard
+         */
+        private int shardCount = 16;
+
+        /**
+         * Key folders above the shard folder (2 = client and environment)
+         */
+        private int depth = 2;
+    }
+
+    // ===== Bucket Provisioning Configuration =====
+
+    /**
+     * Bucket auto-provisioning settings
+     */
+    private Provisioning provisioning = new Provisioning();
+
+    @Data
+    public static class Provisioning {
+
+        /**
+         * Provision or verify the buckets of the known tenants before the application accepts requests
+         */
+        private boolean onStartup = false;
+
+        /**
+         * Client IDs whose buckets are provisioned at startup
+         */
+        private List<String> clients = new ArrayList<>();
+
+        /**
+         * Environments (dev, staging, ...) provisioned for each client; empty means every environment
+         */
+        private List<String> environments = new ArrayList<>();
+
+        /**
+         * Buckets provisioned concurrently at startup
+         */
+        private int threads = 8;
+
+        /**
+         * Longest startup waits for provisioning before serving requests anyway
+         */
+        private long startupTimeoutMs = 60_000;
+
+        /**
+         * How long a bucket that exists is not checked again
+         */
+        private long readyTtlMs = 3_600_000;
+
+        /**
+         * How long a failed provisioning is reported to later callers instead of being retried
+         */
+        private long failureTtlMs = 5_000;
+    }
+
+    // ===== Client Registry Configuration =====
+
+    /**
+     * Per-tenant or per-environment S3 clients with isolated connection pools
+     */
+    private ClientRegistry clientRegistry = new ClientRegistry();
+
+    @Data
+    public static class ClientRegistry {
+
+        /**
+         * Route storage requests through a client of their tenant or environment instead of the shared one
+         */
+        private boolean enabled = false;
+
+        /**
+         * Whether clients are kept per tenant or per environment
+         */
+        private ClientPartition partition = ClientPartition.TENANT;
+
+        /**
+         * Connection pool size of each client
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Longest a request waits for a pooled connection before failing
+         */
+        private long connectionAcquisitionTimeoutMs = 10_000;
+
+        /**
+         * Clients unused for this long are closed
+         */
+        private long idleExpiryMs = 1_800_000;
+
+        /**
+         * Grace period before closing an evicted client once no call or stream uses it, for callers that obtained
+         * it just before eviction; open streams always hold the client, however long they run
+         */
+        private long closeDelayMs = 60_000;
+
+        /**
+         * Most clients kept at once
+         */
+        private int maxClients = 256;
+
+        /**
+         * Endpoint, credentials and pool size of particular tenants or environments, by client ID or environment
+         */
+        private Map<String, Endpoint> endpoints = new HashMap<>();
+
+        @Data
+        public static class Endpoint {
+
+            /**
+             * Endpoint URL; unset uses storage.endpoint-url
+             */
+            private String endpointUrl;
+
+            /**
+             * Region; unset uses storage.region
+             */
+            private String region;
+
+            /**
+             * Access key ID; unset uses storage.access-key
+             */
+            private String accessKey;
+
+            /**
+             * Secret access key; unset uses storage.secret-key
+             */
+            private String secretKey;
+
+            /**
+             * Path-style access; unset uses storage.path-style-access
+             */
+            private Boolean pathStyleAccess;
+
+            /**
+             * Connection pool size; unset uses the registry default
+             */
+            private Integer maxConnections;
+        }
+    }
+
+    // ===== Bandwidth Configuration =====
+
+    /**
+     * Per-tenant transfer bandwidth and fair sharing of the gateway bandwidth among tenants
+     */
+    private Bandwidth bandwidth = new Bandwidth();
+
+    @Data
+    public static class Bandwidth {
+
+        /**
+         * Pace upload and download bodies against their tenant's bandwidth
+         */
+        private boolean enabled = false;
+
+        /**
+         * Bandwidth of the whole gateway in MB per second, split among tenants with transfers in progress;
+         * 0 leaves it unlimited, so only tenant limits apply
+         */
+        private double totalMbPerSecond = 0;
+
+        /**
+         * Bandwidth of a tenant without its own limit in MB per second; 0 leaves it to its share of the total
+         */
+        private double tenantMbPerSecond = 0;
+
+        /**
+         * Weight of a tenant without its own weight when splitting the total
+         */
+        private double defaultWeight = 1.0;
+
+        /**
+         * Seconds of unused bandwidth a tenant may spend at once after an idle period
+         */
+        private double burstSeconds = 1.0;
+
+        /**
+         * Most bytes paced at a time, in KB; smaller chunks interleave tenants more smoothly
+         */
+        private int chunkKb = 64;
+
+        /**
+         * Milliseconds after its last transfer before a tenant's limiter and meters are dropped; long enough for
+         * any debt it ran up to be repaid
+         */
+        private long idleExpiryMs = 600_000;
+
+        /**
+         * Most idle tenants tracked at once; the longest idle are dropped first
+         */
+        private int maxIdleTenants = 10_000;
+
+        /**
+         * Limit and weight of particular tenants, by client ID; "other" covers objects outside the bucket layout
+         */
+        private Map<String, Tenant> tenants = new HashMap<>();
+
+        @Data
+        public static class Tenant {
+
+            /**
+             * Bandwidth in MB per second; unset uses storage.bandwidth.tenant-mb-per-second
+             */
+            private Double mbPerSecond;
+
+            /**
+             * Weight when splitting the total; unset uses storage.bandwidth.default-weight
+             */
+            private Double weight;
+        }
+    }
+
+    // ===== Request Priority Configuration =====
+
+    /**
+     * Interactive and bulk request classes with their own streaming threads and backend connection quotas
+     */
+    private Priority priority = new Priority();
+
+    @Data
+    public static class Priority {
+
+        /**
+         * Classify requests and give each class its own threads and connection quota
+         */
+        private boolean enabled = false;
+
+        /**
+         * Request header naming the class ("interactive" or "bulk"); it overrides every other rule
+         */
+        private String header = "X-Request-Priority";
+
+        /**
+         * Class of requests no rule matches
+         */
+        private RequestPriority defaultPriority = RequestPriority.INTERACTIVE;
+
+        /**
+         * Endpoints whose requests are bulk, as Ant-style path patterns
+         */
+        private List<String> bulkPaths = new ArrayList<>(List.of(
+                "/api/v1/storage/*/batch/**",
+                "/api/v1/storage/*/archive",
+                "/api/v1/exports/**",
+                "/api/v1/catalog/*/reconcile",
+                "/api/v1/index/*/rebuild"
+        ));
+
+        /**
+         * Class of backend calls for particular tenants, by client ID; the header and bulk paths take precedence
+         */
+        private Map<String, RequestPriority> tenants = new HashMap<>();
+
+        /**
+         * Backend calls in progress at once across both classes; matches the SDK's default connection pool
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Retry-After sent when a class has no room left
+         */
+        private long retryAfterSeconds = 1;
+
+        /**
+         * Threads streaming interactive response bodies
+         */
+        private int interactiveThreads = 32;
+
+        /**
+         * Interactive response bodies waiting for a thread before new ones are rejected with 503
+         */
+        private int interactiveQueueCapacity = 200;
+
+        /**
+         * Most interactive backend calls in progress at once
+         */
+        private int interactiveMaxConnections = 50;
+
+        /**
+         * Longest an interactive backend call waits for a connection before failing with 503
+         */
+        private long interactiveMaxWaitMs = 1000;
+
+        /**
+         * Threads streaming bulk response bodies
+         */
+        private int bulkThreads = 8;
+
+        /**
+         * Bulk response bodies waiting for a thread before new ones are rejected with 503
+         */
+        private int bulkQueueCapacity = 50;
+
+        /**
+         * Most bulk backend calls in progress at once; the rest of the connections stay free for interactive calls
+         */
+        private int bulkMaxConnections = 20;
+
+        /**
+         * Longest a bulk backend call waits for a connection before failing with 503
+         */
+        private long bulkMaxWaitMs = 30_000;
+    }
+
+    // ===== Memory Budget Configuration =====
+
+    /**
+     * Global budget of transfer bytes held in memory, admitting requests only while there is headroom
+     */
+    private MemoryBudget memoryBudget = new MemoryBudget();
+
+    @Data
+    public static class MemoryBudget {
+
+        /**
+         * Reserve memory for request bodies and downloads before serving them, answering 503 when none is left
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the maximum heap transfers may hold at once
+         */
+        private double heapFraction = 0.5;
+
+        /**
+         * Upper bound of the budget in MB; 0 leaves it to the heap and direct memory headroom
+         */
+        private long maxMb = 0;
+
+        /**
+         * Lower bound of the budget in MB, kept even when headroom is scarce so requests are not all refused
+         */
+        private long minMb = 16;
+
+        /**
+         * Memory charged to a streamed download that is not split into ranges, in MB; larger objects are charged
+         * this, since a stream only holds its buffers
+         */
+        private long streamBufferMb = 1;
+
+        /**
+         * Longest a request queues for memory before it is rejected with 503
+         */
+        private long maxWaitMs = 2000;
+
+        /**
+         * Retry-After sent with rejections
+         */
+        private long retryAfterSeconds = 1;
+
+        /**
+         * Endpoints that read their body as a stream and reserve what they buffer themselves, as Ant-style path
+         * patterns; their Content-Length is not charged
+         */
+        private List<String> streamedPaths = new ArrayList<>(List.of(
+                "/api/v1/storage/*/batch/archive"
+        ));
+    }
+}
@@ -1,17 +1,38 @@
 package br.com.example.davidarchanjo.config;
 
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.util.PriorityRoutingExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.Map;
+
 /**
- * Web MVC configuration for CORS
+ * Web MVC configuration for CORS and the threads streaming response bodies
  * All endpoints are public - no authentication required
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final StorageProperties storageProperties;
+    private final ThreadPoolTaskExecutor interactiveStreamingExecutor;
+    private final ThreadPoolTaskExecutor bulkStreamingExecutor;
+
+    public WebMvcConfig(
+            StorageProperties storageProperties,
+            @Qualifier("interactiveStreamingExecutor") ThreadPoolTaskExecutor interactiveStreamingExecutor,
+            @Qualifier("bulkStreamingExecutor") ThreadPoolTaskExecutor bulkStreamingExecutor
+    ) {
+        this.storageProperties = storageProperties;
+        this.interactiveStreamingExecutor = interactiveStreamingExecutor;
+        this.bulkStreamingExecutor = bulkStreamingExecutor;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -21,4 +42,18 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .exposedHeaders("Content-Disposition")
                 .maxAge(3600);
     }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        StorageProperties.Priority priority = storageProperties.getPriority();
+        if (!priority.isEnabled()) {
+            return;
+        }
+        // Streaming downloads, archives and batch fetches run on the threads of their request's class
+        configurer.setTaskExecutor(new PriorityRoutingExecutor(
+                Map.of(RequestPriority.INTERACTIVE, interactiveStreamingExecutor,
+                        RequestPriority.BULK, bulkStreamingExecutor),
+                priority.getDefaultPriority(),
+                priority.getRetryAfterSeconds()));
+    }
 }
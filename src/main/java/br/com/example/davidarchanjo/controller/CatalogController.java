@@ -0,0 +1,130 @@
+package br.com.example.davidarchanjo.controller;
+
+import br.com.example.davidarchanjo.dto.CatalogReconcileResponse;
+import br.com.example.davidarchanjo.dto.CatalogSearchResponse;
+import br.com.example.davidarchanjo.enumeration.CatalogSortField;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.model.CatalogQuery;
+import br.com.example.davidarchanjo.service.CatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/catalog")
+@Tag(name = "Metadata Catalog", description = "Search object metadata without listing the storage backend")
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    @Operation(
+            summary = "Search catalogued objects (Public)",
+            description = "Filter, sort and page the metadata of objects written through the gateway. " +
+                    "Answered from the embedded catalog; no LIST or HEAD calls are made."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed",
+                    content = @Content(schema = @Schema(implementation = CatalogSearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or sort"),
+            @ApiResponse(responseCode = "500", description = "Catalog unavailable")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<CatalogSearchResponse> search(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @RequestParam(value = "bucketName", required = false) String bucketName,
+
+            @Parameter(description = "Client identifier", example = "client-001")
+            @RequestParam(value = "clientId", required = false) String clientId,
+
+            @Parameter(description = "Environment", example = "prod")
+            @RequestParam(value = "environment", required = false) String environment,
+
+            @Parameter(description = "Key prefix", example = "client-001/prod/reports/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+
+            @Parameter(description = "MIME type prefix", example = "application/pdf")
+            @RequestParam(value = "contentType", required = false) String contentType,
+
+            @Parameter(description = "Minimum size in bytes", example = "52428800")
+            @RequestParam(value = "minSize", required = false) Long minSize,
+
+            @Parameter(description = "Maximum size in bytes")
+            @RequestParam(value = "maxSize", required = false) Long maxSize,
+
+            @Parameter(description = "Modified at or after (ISO-8601)", example = "2025-01-01T00:00:00Z")
+            @RequestParam(value = "modifiedAfter", required = false) Instant modifiedAfter,
+
+            @Parameter(description = "Modified before (ISO-8601)", example = "2025-02-01T00:00:00Z")
+            @RequestParam(value = "modifiedBefore", required = false) Instant modifiedBefore,
+
+            @Parameter(description = "Sort field: key, size or lastModified", example = "lastModified")
+            @RequestParam(value = "sort", required = false, defaultValue = "lastModified") String sort,
+
+            @Parameter(description = "Sort direction: asc or desc", example = "desc")
+            @RequestParam(value = "direction", required = false, defaultValue = "desc") String direction,
+
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+
+            @Parameter(description = "Page size", example = "100")
+            @RequestParam(value = "size", required = false, defaultValue = "100") int size
+    ) {
+        CatalogQuery query = CatalogQuery.builder()
+                .bucketName(bucketName)
+                .clientId(clientId)
+                .environment(environment != null ? Environment.fromValue(environment) : null)
+                .keyPrefix(prefix)
+                .contentType(contentType)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .modifiedAfter(modifiedAfter)
+                .modifiedBefore(modifiedBefore)
+                .sort(CatalogSortField.fromValue(sort))
+                .descending(!"asc".equalsIgnoreCase(direction))
+                .page(page)
+                .size(size)
+                .build();
+
+        return ResponseEntity.ok(catalogService.search(query));
+    }
+
+    @Operation(
+            summary = "Reconcile bucket catalog (Public)",
+            description = "List the bucket once and repair catalog entries that drifted, " +
+                    "e.g. objects written or deleted outside the gateway."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reconciliation completed",
+                    content = @Content(schema = @Schema(implementation = CatalogReconcileResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Reconciliation failed")
+    })
+    @PostMapping("/{bucketName}/reconcile")
+    public ResponseEntity<CatalogReconcileResponse> reconcile(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @PathVariable("bucketName") @NotBlank String bucketName
+    ) {
+        log.info("Reconciling catalog of bucket '{}'", bucketName);
+        return ResponseEntity.ok(catalogService.reconcile(bucketName));
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.example.davidarchanjo.controller;
+
+import br.com.example.davidarchanjo.dto.ChangeFeedResponse;
+import br.com.example.davidarchanjo.service.ChangeJournalService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/changes")
+@Tag(name = "Change Feed", description = "Uploads and deletes made through the gateway, in order")
+public class ChangeFeedController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final ChangeJournalService changeJournalService;
+
+    @Operation(
+            summary = "Read changes since a cursor (Public)",
+            description = "Page through the change journal instead of re-listing buckets. " +
+                    "Pass nextCursor from the previous response to continue."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes returned",
+                    content = @Content(schema = @Schema(implementation = ChangeFeedResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Change journal disabled or unavailable")
+    })
+    @GetMapping
+    public ResponseEntity<ChangeFeedResponse> changesSince(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @RequestParam(value = "bucketName", required = false) String bucketName,
+
+            @Parameter(description = "Key prefix", example = "client-001/prod/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+
+            @Parameter(description = "Cursor of the last change already processed", example = "1042")
+            @RequestParam(value = "cursor", required = false, defaultValue = "0") long cursor,
+
+            @Parameter(description = "Maximum number of changes", example = "100")
+            @RequestParam(value = "limit", required = false, defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(changeJournalService.changesSince(bucketName, prefix, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Stream changes (Public)",
+            description = "Server-sent events named 'change', one per journaled change, with the cursor as event id. " +
+                    "Reconnecting clients resume from Last-Event-ID; without a cursor only new changes are sent."
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @RequestParam(value = "bucketName", required = false) String bucketName,
+
+            @Parameter(description = "Key prefix", example = "client-001/prod/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+
+            @Parameter(description = "Replay changes after this cursor first", example = "1042")
+            @RequestParam(value = "cursor", required = false) Long cursor,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId
+    ) {
+        Long start = lastEventId != null ? lastEventId : cursor;
+        log.info("Opening change stream for bucket '{}' prefix '{}' after cursor {}", bucketName, prefix, start);
+        return changeJournalService.subscribe(bucketName, prefix, start);
+    }
+}
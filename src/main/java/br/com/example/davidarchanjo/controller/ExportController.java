@@ -0,0 +1,111 @@
+package br.com.example.davidarchanjo.controller;
+
+import br.com.example.davidarchanjo.dto.ExportJobResponse;
+import br.com.example.davidarchanjo.enumeration.ExportDestination;
+import br.com.example.davidarchanjo.enumeration.ExportFormat;
+import br.com.example.davidarchanjo.model.ExportRequest;
+import br.com.example.davidarchanjo.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/exports")
+@Tag(name = "Listing Exports", description = "Asynchronous bucket inventories written as CSV or NDJSON")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Operation(
+            summary = "Start listing export (Public)",
+            description = "Queue an export of every object under a prefix and return the job at once. " +
+                    "Key, size, ETag and last-modified are streamed to the inventory as listing pages arrive."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Export queued",
+                    content = @Content(schema = @Schema(implementation = ExportJobResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown format or destination"),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "503", description = "Export queue full")
+    })
+    @PostMapping
+    public ResponseEntity<ExportJobResponse> startExport(
+            @Parameter(description = "Bucket name", example = "shared-storage", required = true)
+            @RequestParam("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix", example = "client-001/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+
+            @Parameter(description = "Inventory format (csv, ndjson)", example = "csv")
+            @RequestParam(value = "format", required = false, defaultValue = "csv") String format,
+
+            @Parameter(description = "Destination (bucket, local)", example = "bucket")
+            @RequestParam(value = "destination", required = false, defaultValue = "bucket") String destination,
+
+            @Parameter(description = "Object key or relative file path of the inventory", example = "inventory.csv")
+            @RequestParam(value = "target", required = false) String target,
+
+            @Parameter(description = "snapshotAt of a previous export; only objects modified since are written",
+                    example = "2025-01-15T10:30:00Z")
+            @RequestParam(value = "since", required = false) Instant since
+    ) {
+        ExportRequest request = ExportRequest.builder()
+                .bucketName(bucketName)
+                .prefix(prefix)
+                .format(ExportFormat.fromValue(format))
+                .destination(ExportDestination.fromValue(destination))
+                .target(target)
+                .since(since)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportService.startExport(request));
+    }
+
+    @Operation(
+            summary = "Get export status (Public)",
+            description = "Status and progress of a listing export."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export found",
+                    content = @Content(schema = @Schema(implementation = ExportJobResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Export job not found")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobResponse> getExport(
+            @Parameter(description = "Job identifier", example = "3f2b8c1e-9a4d-4f7b-8e2a-1c5d6e7f8a9b")
+            @PathVariable("jobId") @NotBlank String jobId
+    ) {
+        return ResponseEntity.ok(exportService.getExport(jobId));
+    }
+
+    @Operation(
+            summary = "List exports (Public)",
+            description = "Running and recently finished listing exports, newest first."
+    )
+    @GetMapping
+    public ResponseEntity<List<ExportJobResponse>> listExports() {
+        return ResponseEntity.ok(exportService.listExports());
+    }
+}
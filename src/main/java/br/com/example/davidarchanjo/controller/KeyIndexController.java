@@ -0,0 +1,106 @@
+package br.com.example.davidarchanjo.controller;
+
+import br.com.example.davidarchanjo.dto.KeyIndexListingResponse;
+import br.com.example.davidarchanjo.dto.KeyIndexStatusResponse;
+import br.com.example.davidarchanjo.dto.PrefixCountResponse;
+import br.com.example.davidarchanjo.service.KeyIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/index")
+@Tag(name = "Key Index", description = "Prefix listings and counts answered from memory")
+public class KeyIndexController {
+
+    private final KeyIndexService keyIndexService;
+
+    @Operation(
+            summary = "List keys under a prefix (Public)",
+            description = "List object keys and, with a delimiter, folders with their object counts. " +
+                    "Answered from the in-memory key index; the backend is only listed on the first request."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Listing completed",
+                    content = @Content(schema = @Schema(implementation = KeyIndexListingResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Key index disabled or unavailable")
+    })
+    @GetMapping("/{bucketName}")
+    public ResponseEntity<KeyIndexListingResponse> list(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix", example = "client-001/prod/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+
+            @Parameter(description = "Folder delimiter", example = "/")
+            @RequestParam(value = "delimiter", required = false) String delimiter,
+
+            @Parameter(description = "Key or folder to continue after", example = "client-001/prod/reports/")
+            @RequestParam(value = "startAfter", required = false) String startAfter,
+
+            @Parameter(description = "Maximum number of keys plus folders", example = "1000")
+            @RequestParam(value = "limit", required = false, defaultValue = "1000") int limit
+    ) {
+        return ResponseEntity.ok(keyIndexService.list(bucketName, prefix, delimiter, startAfter, limit));
+    }
+
+    @Operation(
+            summary = "Count keys under a prefix (Public)",
+            description = "Count objects whose key starts with the prefix without listing the backend."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Count completed",
+                    content = @Content(schema = @Schema(implementation = PrefixCountResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Key index disabled or unavailable")
+    })
+    @GetMapping("/{bucketName}/count")
+    public ResponseEntity<PrefixCountResponse> count(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix", example = "client-001/prod/")
+            @RequestParam(value = "prefix", required = false) String prefix
+    ) {
+        return ResponseEntity.ok(keyIndexService.count(bucketName, prefix));
+    }
+
+    @Operation(
+            summary = "Rebuild bucket key index (Public)",
+            description = "List the bucket once and replace its in-memory key index."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebuild completed",
+                    content = @Content(schema = @Schema(implementation = KeyIndexStatusResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Rebuild failed")
+    })
+    @PostMapping("/{bucketName}/rebuild")
+    public ResponseEntity<KeyIndexStatusResponse> rebuild(
+            @Parameter(description = "Bucket name", example = "shared-storage")
+            @PathVariable("bucketName") @NotBlank String bucketName
+    ) {
+        log.info("Rebuilding key index of bucket '{}'", bucketName);
+        return ResponseEntity.ok(keyIndexService.rebuild(bucketName));
+    }
+}
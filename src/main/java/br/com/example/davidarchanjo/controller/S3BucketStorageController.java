@@ -1,9 +1,31 @@
 package br.com.example.davidarchanjo.controller;
 
+import br.com.example.davidarchanjo.dto.BatchKeysRequest;
+import br.com.example.davidarchanjo.dto.BatchStatResponse;
+import br.com.example.davidarchanjo.dto.BatchUploadResponse;
 import br.com.example.davidarchanjo.dto.FileListResponse;
 import br.com.example.davidarchanjo.dto.FileUploadResponse;
+import br.com.example.davidarchanjo.dto.ObjectStatResponse;
+import br.com.example.davidarchanjo.dto.PrefixStatsResponse;
+import br.com.example.davidarchanjo.enumeration.ArchiveCompression;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
 import br.com.example.davidarchanjo.enumeration.FileMediaType;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.ContentNotFoundException;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectStat;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.service.ArchiveDownloadService;
+import br.com.example.davidarchanjo.service.BatchReadService;
+import br.com.example.davidarchanjo.service.BatchUploadService;
+import br.com.example.davidarchanjo.service.CompressionService;
+import br.com.example.davidarchanjo.service.DedupService;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.ParallelListingService;
 import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.IdGenerator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,6 +33,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,15 +46,20 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Validated
@@ -41,7 +69,17 @@ import java.util.List;
 @Tag(name = "Object Storage", description = "Object storage operations API (S3/MinIO compatible)")
 public class S3BucketStorageController {
 
+    private static final String CONTENT_SHA256_HEADER = "X-Content-SHA256";
+
     private final S3BucketStorageService service;
+    private final BatchUploadService batchUploadService;
+    private final ArchiveDownloadService archiveDownloadService;
+    private final DedupService dedupService;
+    private final ParallelListingService parallelListingService;
+    private final ObjectStatService objectStatService;
+    private final CompressionService compressionService;
+    private final BatchReadService batchReadService;
+    private final MemoryBudgetService memoryBudgetService;
 
     @Operation(
             summary = "List files in bucket (Public)",
@@ -57,10 +95,14 @@ public class S3BucketStorageController {
     @GetMapping("/{bucketName}")
     public ResponseEntity<FileListResponse> listFiles(
             @Parameter(description = "Bucket name", example = "my-bucket")
-            @PathVariable("bucketName") @NotBlank String bucketName
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix; a tenant prefix lists from that tenant's endpoint",
+                    example = "client-001/prod/")
+            @RequestParam(value = "prefix", required = false, defaultValue = "") String prefix
     ) {
-        log.info("Listing files in bucket: {}", bucketName);
-        List<String> files = service.listFiles(bucketName);
+        log.info("Listing files in bucket: {} under '{}'", bucketName, prefix);
+        List<String> files = service.listFiles(bucketName, prefix);
 
         FileListResponse response = FileListResponse.builder()
                 .bucketName(bucketName)
@@ -74,12 +116,15 @@ public class S3BucketStorageController {
     @Operation(
             summary = "Upload file (Public)",
             description = "Upload a file to the specified bucket. " +
+                    "When deduplication is enabled the body is hashed and stored once per tenant; " +
+                    "an X-Content-SHA256 that does not match the body is rejected with 400. " +
+                    "To skip sending known content, use /upload/by-digest. " +
                     "This endpoint is public and does not require authentication."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "File uploaded successfully",
                     content = @Content(schema = @Schema(implementation = FileUploadResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or body does not match its digest"),
             @ApiResponse(responseCode = "404", description = "Bucket not found"),
             @ApiResponse(responseCode = "413", description = "File size exceeds limit"),
             @ApiResponse(responseCode = "500", description = "Upload failed")
@@ -93,31 +138,158 @@ public class S3BucketStorageController {
             @RequestPart("file") MultipartFile file,
 
             @Parameter(description = "Custom file name", example = "document.pdf", required = true)
-            @RequestPart("fileName") @NotBlank String fileName
+            @RequestPart("fileName") @NotBlank String fileName,
+
+            @Parameter(description = "Hex SHA-256 of the file, checked against the body in deduplicated buckets")
+            @RequestHeader(value = CONTENT_SHA256_HEADER, required = false) String contentSha256
     ) throws IOException {
         log.info("Uploading file '{}' to bucket '{}'", fileName, bucketName);
 
-        service.uploadFile(
-                bucketName,
-                fileName,
-                file.getSize(),
-                file.getContentType(),
-                file.getInputStream()
-        );
+        ObjectWriteResult result;
+        if (dedupService.isEnabled(bucketName)) {
+            // The body is sent anyway, so it is hashed rather than trusting the declared digest
+            result = dedupService.store(bucketName, fileName, file.getSize(), file.getContentType(),
+                    file.getInputStream(), contentSha256);
+        } else {
+            result = service.uploadFile(
+                    bucketName,
+                    fileName,
+                    file.getSize(),
+                    file.getContentType(),
+                    file.getInputStream()
+            );
+        }
 
         FileUploadResponse response = FileUploadResponse.builder()
                 .message("File uploaded successfully")
                 .fileName(fileName)
                 .bucketName(bucketName)
                 .fileSize(file.getSize())
+                .deduplicated(result.isDeduplicated())
+                .build();
+
+        return withChecksum(ResponseEntity.status(HttpStatus.CREATED), result.getChecksumType(), result.getChecksum())
+                .body(response);
+    }
+
+    @Operation(
+            summary = "Upload file by digest (Public)",
+            description = "Create a file from content the same tenant already stored in the bucket, identified " +
+                    "by its SHA-256. No body is sent; a 404 means the content is unknown and must be uploaded normally."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reference created",
+                    content = @Content(schema = @Schema(implementation = FileUploadResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid digest"),
+            @ApiResponse(responseCode = "404", description = "Bucket or content not found"),
+            @ApiResponse(responseCode = "500", description = "Upload failed")
+    })
+    @PostMapping("/{bucketName}/upload/by-digest")
+    public ResponseEntity<FileUploadResponse> uploadByDigest(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "File name to create", example = "document.pdf", required = true)
+            @RequestParam("fileName") @NotBlank String fileName,
+
+            @Parameter(description = "Hex SHA-256 of the stored content", required = true)
+            @RequestHeader(CONTENT_SHA256_HEADER) @NotBlank String contentSha256,
+
+            @Parameter(description = "Content type to record, defaults to the stored content's type")
+            @RequestParam(value = "contentType", required = false) String contentType
+    ) {
+        log.info("Linking file '{}' in bucket '{}' to content {}", fileName, bucketName, contentSha256);
+
+        ObjectWriteResult result = dedupService.link(bucketName, fileName, contentSha256, contentType)
+                .orElseThrow(() -> new ContentNotFoundException(contentSha256, bucketName));
+
+        FileUploadResponse response = FileUploadResponse.builder()
+                .message("File uploaded successfully")
+                .fileName(fileName)
+                .bucketName(bucketName)
+                .fileSize(result.getSize())
+                .deduplicated(true)
                 .build();
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return withChecksum(ResponseEntity.status(HttpStatus.CREATED), result.getChecksumType(), result.getChecksum())
+                .body(response);
+    }
+
+    @Operation(
+            summary = "Batch upload files (Public)",
+            description = "Upload many files in a single multipart request. " +
+                    "Each part is stored as its own object using concurrent PUTs and a per-entry manifest is returned."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All files uploaded successfully",
+                    content = @Content(schema = @Schema(implementation = BatchUploadResponse.class))),
+            @ApiResponse(responseCode = "207", description = "Some files failed, see manifest",
+                    content = @Content(schema = @Schema(implementation = BatchUploadResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Upload failed")
+    })
+    @PostMapping(value = "/{bucketName}/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchUploadResponse> uploadBatch(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Files to upload, stored under their original file names", required = true)
+            @RequestPart("files") List<MultipartFile> files,
+
+            @Parameter(description = "Optional directory prefix for all files", example = "reports/2025")
+            @RequestParam(value = "directory", required = false) String directory
+    ) {
+        log.info("Batch uploading {} files to bucket '{}'", files.size(), bucketName);
+        BatchUploadResponse response = batchUploadService.uploadFiles(bucketName, directory, files);
+        return batchResponse(response);
+    }
+
+    @Operation(
+            summary = "Batch upload archive (Public)",
+            description = "Stream a ZIP or TAR archive and store every file entry as its own object. " +
+                    "The archive is read as it arrives and entries are uploaded concurrently."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All entries uploaded successfully",
+                    content = @Content(schema = @Schema(implementation = BatchUploadResponse.class))),
+            @ApiResponse(responseCode = "207", description = "Some entries failed, see manifest",
+                    content = @Content(schema = @Schema(implementation = BatchUploadResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unsupported archive type"),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Upload failed")
+    })
+    @PostMapping(value = "/{bucketName}/batch/archive",
+            consumes = {"application/zip", "application/x-tar", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BatchUploadResponse> uploadArchive(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Archive format (zip, tar); defaults to the request content type", example = "zip")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "Optional directory prefix for all entries", example = "imports")
+            @RequestParam(value = "directory", required = false) String directory,
+
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body
+    ) {
+        ArchiveFormat archiveFormat = format != null
+                ? ArchiveFormat.fromValue(format)
+                : ArchiveFormat.fromContentType(contentType);
+
+        log.info("Batch uploading {} archive to bucket '{}'", archiveFormat, bucketName);
+        BatchUploadResponse response = batchUploadService.uploadArchive(
+                bucketName, directory, archiveFormat, body, contentLength);
+        return batchResponse(response);
     }
 
     @Operation(
             summary = "Download file (Public)",
-            description = "Download a file from the specified bucket. " +
+            description = "Download a file from the specified bucket. The body is streamed; objects stored " +
+                    "compressed are sent with Content-Encoding when Accept-Encoding allows it, otherwise " +
+                    "decompressed on the fly. The stored checksum is validated while streaming and returned in " +
+                    "X-Checksum-CRC32C or X-Checksum-SHA256. " +
                     "This endpoint is public and does not require authentication."
     )
     @ApiResponses(value = {
@@ -127,21 +299,248 @@ public class S3BucketStorageController {
             @ApiResponse(responseCode = "500", description = "Download failed")
     })
     @GetMapping("/{bucketName}/download/{fileName}")
-    public ResponseEntity<byte[]> downloadFile(
+    public ResponseEntity<StreamingResponseBody> downloadFile(
             @Parameter(description = "Bucket name", example = "my-bucket")
             @PathVariable("bucketName") @NotBlank String bucketName,
 
             @Parameter(description = "File name to download", example = "document.pdf")
-            @PathVariable("fileName") @NotBlank String fileName
+            @PathVariable("fileName") @NotBlank String fileName,
+
+            @Parameter(description = "Encodings the client can decode; compressed objects are served as stored "
+                    + "when their codec is listed", example = "gzip, zstd")
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         log.info("Downloading file '{}' from bucket '{}'", fileName, bucketName);
-        ByteArrayOutputStream fileContent = service.downloadFile(bucketName, fileName);
+        ObjectContent content = service.openObject(bucketName, fileName, acceptEncoding);
+        MemoryBudgetService.Reservation reservation;
+        try {
+            reservation = memoryBudgetService.reserveDownload(content.getContentLength());
+        } catch (RuntimeException e) {
+            try {
+                content.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
         MediaType contentType = FileMediaType.fromFilename(fileName);
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType);
+        if (content.getContentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding());
+        }
+        if (content.getContentLength() != null) {
+            response.contentLength(content.getContentLength());
+        }
+        withChecksum(response, content.getChecksumType(), content.getChecksum());
+
+        StreamingResponseBody body = output -> {
+            try (reservation; ObjectContent object = content) {
+                object.getContent().transferTo(output);
+            }
+        };
+        return response.body(body);
+    }
+
+    @Operation(
+            summary = "Download file headers (Public)",
+            description = "Return the headers a download would send (size, type, ETag, last modified, checksum) " +
+                    "without the body. Answered from the metadata cache when possible; never reads object bytes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File exists"),
+            @ApiResponse(responseCode = "404", description = "File or bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Metadata lookup failed")
+    })
+    @RequestMapping(value = "/{bucketName}/download/{fileName}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headFile(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "File name", example = "document.pdf")
+            @PathVariable("fileName") @NotBlank String fileName,
+
+            @Parameter(description = "Encodings the client can decode", example = "gzip, zstd")
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ObjectStat stat = objectStatService.stat(bucketName, fileName);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .contentType(contentType)
-                .body(fileContent.toByteArray());
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(FileMediaType.fromFilename(fileName));
+        if (stat.getCodec() != null && compressionService.accepts(acceptEncoding, stat.getCodec())) {
+            // Mirror the download, which sends the stored bytes as-is in this case
+            response.header(HttpHeaders.CONTENT_ENCODING, stat.getCodec().getEncoding())
+                    .contentLength(stat.getStoredSize());
+        } else {
+            response.contentLength(stat.getSize());
+        }
+        if (stat.getETag() != null) {
+            response.eTag(stat.getETag());
+        }
+        if (stat.getLastModified() != null) {
+            response.lastModified(stat.getLastModified());
+        }
+        withChecksum(response, stat.getChecksumType(), stat.getChecksum());
+        return response.build();
+    }
+
+    @Operation(
+            summary = "Get file metadata (Public)",
+            description = "Return size, stored size, content type, ETag, last modified and checksum of a file " +
+                    "as JSON. Answered from the metadata cache when possible; never reads object bytes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metadata returned",
+                    content = @Content(schema = @Schema(implementation = ObjectStatResponse.class))),
+            @ApiResponse(responseCode = "404", description = "File or bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Metadata lookup failed")
+    })
+    @GetMapping("/{bucketName}/stat/{fileName}")
+    public ResponseEntity<ObjectStatResponse> statFile(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "File name", example = "document.pdf")
+            @PathVariable("fileName") @NotBlank String fileName
+    ) {
+        return ResponseEntity.ok(ObjectStatResponse.from(objectStatService.stat(bucketName, fileName)));
+    }
+
+    @Operation(
+            summary = "Get metadata of many files (Public)",
+            description = "Look up the metadata of up to storage.batch-read.max-stat-keys keys in one request. " +
+                    "Keys are resolved concurrently from the metadata cache or with HEAD requests; " +
+                    "missing keys are reported per entry."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookups completed",
+                    content = @Content(schema = @Schema(implementation = BatchStatResponse.class))),
+            @ApiResponse(responseCode = "400", description = "No keys or too many keys")
+    })
+    @PostMapping("/{bucketName}/batch/stat")
+    public ResponseEntity<BatchStatResponse> batchStat(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Valid @RequestBody BatchKeysRequest request
+    ) {
+        return ResponseEntity.ok(batchReadService.stat(bucketName, request.getKeys()));
+    }
+
+    @Operation(
+            summary = "Download many small files (Public)",
+            description = "Return up to storage.batch-read.max-fetch-keys objects in one multipart/mixed response. " +
+                    "Objects are fetched concurrently and each part is written as soon as its object arrives, so " +
+                    "parts come in completion order. Every part carries Content-Location (the key) and " +
+                    "X-Object-Status; missing or oversized objects get a text part with a 404 or 413 status."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Parts streamed",
+                    content = @Content(mediaType = "multipart/mixed")),
+            @ApiResponse(responseCode = "400", description = "No keys or too many keys")
+    })
+    @PostMapping("/{bucketName}/batch/fetch")
+    public ResponseEntity<StreamingResponseBody> batchFetch(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Valid @RequestBody BatchKeysRequest request
+    ) {
+        batchReadService.validateFetch(request.getKeys());
+
+        MemoryBudgetService.Reservation reservation = memoryBudgetService.reserveBatchFetch(request.getKeys().size());
+
+        String boundary = IdGenerator.uuidV7();
+        StreamingResponseBody body = output -> {
+            try (reservation) {
+                batchReadService.fetch(bucketName, request.getKeys(), boundary, output);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("multipart", "mixed", Map.of("boundary", boundary)))
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Download folder as archive (Public)",
+            description = "Stream a ZIP or TAR of every object under a prefix. " +
+                    "Objects are fetched ahead of the entry being written and nothing is spooled to disk; " +
+                    "a TAR entry of unknown length is read twice, once to size its header. " +
+                    "Compression 'store' skips deflate, 'auto' skips it for already-compressed media."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archive streamed successfully",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Unknown format or compression"),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Archive failed")
+    })
+    @GetMapping("/{bucketName}/archive")
+    public ResponseEntity<StreamingResponseBody> downloadArchive(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix to archive", example = "client-001/prod/reports/")
+            @RequestParam(value = "prefix", required = false, defaultValue = "") String prefix,
+
+            @Parameter(description = "Archive format (zip, tar)", example = "zip")
+            @RequestParam(value = "format", required = false, defaultValue = "zip") String format,
+
+            @Parameter(description = "Entry compression (deflate, store, auto)", example = "auto")
+            @RequestParam(value = "compression", required = false, defaultValue = "auto") String compression
+    ) {
+        ArchiveFormat archiveFormat = ArchiveFormat.fromValue(format);
+        ArchiveCompression archiveCompression = ArchiveCompression.fromValue(compression);
+
+        if (!service.bucketExists(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+
+        log.info("Streaming {} archive of prefix '{}' from bucket '{}'", archiveFormat, prefix, bucketName);
+        String archiveName = archiveName(bucketName, prefix) + archiveFormat.getExtension();
+        MemoryBudgetService.Reservation reservation = memoryBudgetService.reserveArchive();
+        StreamingResponseBody body = output -> {
+            try (reservation) {
+                archiveDownloadService.writeArchive(bucketName, prefix, archiveFormat, archiveCompression, output);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archiveName + "\"")
+                .contentType(MediaType.parseMediaType(archiveFormat.getContentType()))
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Prefix statistics (Public)",
+            description = "Aggregate object count and stored bytes per sub-prefix. " +
+                    "Folders near the prefix are listed concurrently, so large buckets are scanned in parallel."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics computed",
+                    content = @Content(schema = @Schema(implementation = PrefixStatsResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Bucket not found"),
+            @ApiResponse(responseCode = "500", description = "Listing failed")
+    })
+    @GetMapping("/{bucketName}/stats")
+    public ResponseEntity<PrefixStatsResponse> prefixStats(
+            @Parameter(description = "Bucket name", example = "my-bucket")
+            @PathVariable("bucketName") @NotBlank String bucketName,
+
+            @Parameter(description = "Key prefix to scan", example = "client-001/")
+            @RequestParam(value = "prefix", required = false, defaultValue = "") String prefix,
+
+            @Parameter(description = "Folder levels below the prefix to report separately", example = "1")
+            @RequestParam(value = "depth", required = false, defaultValue = "1") int depth
+    ) {
+        log.info("Computing stats of prefix '{}' in bucket '{}'", prefix, bucketName);
+        return ResponseEntity.ok(parallelListingService.prefixStats(bucketName, prefix, depth));
     }
 
     @Operation(
@@ -175,5 +574,26 @@ public class S3BucketStorageController {
         service.deleteFile(bucketName, fileName);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private ResponseEntity.BodyBuilder withChecksum(
+            ResponseEntity.BodyBuilder response,
+            ChecksumType checksumType,
+            String checksum
+    ) {
+        if (checksumType != null && checksum != null) {
+            response.header(checksumType.getHeader(), checksum);
+        }
+        return response;
+    }
+
+    private ResponseEntity<BatchUploadResponse> batchResponse(BatchUploadResponse response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private String archiveName(String bucketName, String prefix) {
+        String trimmed = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        String lastSegment = trimmed.substring(trimmed.lastIndexOf('/') + 1);
+        return lastSegment.isEmpty() ? bucketName : lastSegment;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keys to read in one request")
+public class BatchKeysRequest {
+
+    @NotEmpty(message = "At least one key is required")
+    @Schema(description = "Object keys", example = "[\"thumbs/001.jpg\", \"thumbs/002.jpg\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<String> keys;
+}
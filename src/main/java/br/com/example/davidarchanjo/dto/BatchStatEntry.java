@@ -0,0 +1,27 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Metadata lookup result of a single key")
+public class BatchStatEntry {
+
+    @Schema(description = "Object key", example = "thumbs/001.jpg")
+    private String key;
+
+    @Schema(description = "HTTP status a single stat request would have returned", example = "200")
+    private Integer status;
+
+    @Schema(description = "Object metadata when found")
+    private ObjectStatResponse metadata;
+
+    @Schema(description = "Error message when the lookup failed", example = "File 'thumbs/001.jpg' not found")
+    private String error;
+}
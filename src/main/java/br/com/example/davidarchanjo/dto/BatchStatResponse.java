@@ -0,0 +1,35 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch metadata lookup result")
+public class BatchStatResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Number of keys found", example = "498")
+    private Integer found;
+
+    @Schema(description = "Number of keys not found", example = "2")
+    private Integer missing;
+
+    @Schema(description = "Number of lookups that failed for another reason", example = "0")
+    private Integer failed;
+
+    @Schema(description = "Elapsed time in milliseconds", example = "35")
+    private Long durationMs;
+
+    @Schema(description = "Per-key results, in request order")
+    private List<BatchStatEntry> entries;
+}
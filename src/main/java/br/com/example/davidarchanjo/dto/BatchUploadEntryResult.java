@@ -0,0 +1,30 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a single batch upload entry")
+public class BatchUploadEntryResult {
+
+    @Schema(description = "Object key", example = "reports/2025/document.pdf")
+    private String fileName;
+
+    @Schema(description = "File size in bytes", example = "1024")
+    private Long fileSize;
+
+    @Schema(description = "Whether the entry was stored", example = "true")
+    private boolean success;
+
+    @Schema(description = "Object ETag", example = "\"9b2cf535f27731c974343645a3985328\"")
+    private String eTag;
+
+    @Schema(description = "Error message when the entry failed", example = "Access denied")
+    private String error;
+}
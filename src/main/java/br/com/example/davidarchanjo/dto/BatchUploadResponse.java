@@ -0,0 +1,38 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch upload manifest")
+public class BatchUploadResponse {
+
+    @Schema(description = "Bucket name", example = "my-bucket")
+    private String bucketName;
+
+    @Schema(description = "Total number of entries processed", example = "1000")
+    private Integer totalEntries;
+
+    @Schema(description = "Number of entries stored", example = "998")
+    private Integer succeeded;
+
+    @Schema(description = "Number of entries that failed", example = "2")
+    private Integer failed;
+
+    @Schema(description = "Whether the batch was cut short by the entry limit", example = "false")
+    private boolean truncated;
+
+    @Schema(description = "Elapsed time in milliseconds", example = "850")
+    private Long durationMs;
+
+    @Schema(description = "Per-entry results, in input order")
+    private List<BatchUploadEntryResult> entries;
+}
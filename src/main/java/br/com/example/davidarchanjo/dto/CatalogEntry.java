@@ -0,0 +1,41 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Catalogued object metadata")
+public class CatalogEntry {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Object key", example = "client-001/prod/reports/2025.pdf")
+    private String key;
+
+    @Schema(description = "Client the object belongs to", example = "client-001")
+    private String clientId;
+
+    @Schema(description = "Environment the object belongs to", example = "prod")
+    private String environment;
+
+    @Schema(description = "Size in bytes", example = "52428800")
+    private Long size;
+
+    @Schema(description = "MIME type", example = "application/pdf")
+    private String contentType;
+
+    @Schema(description = "Entity tag", example = "\"9b2cf535f27731c974343645a3985328\"")
+    private String eTag;
+
+    @Schema(description = "Last modification time")
+    private Instant lastModified;
+}
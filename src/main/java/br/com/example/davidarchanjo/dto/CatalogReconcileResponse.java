@@ -0,0 +1,27 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Catalog reconciliation result")
+public class CatalogReconcileResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Objects listed in storage and written to the catalog", example = "10000")
+    private Long scanned;
+
+    @Schema(description = "Catalog entries removed because the object no longer exists", example = "12")
+    private Long removed;
+
+    @Schema(description = "Reconciliation time in milliseconds", example = "5400")
+    private Long durationMs;
+}
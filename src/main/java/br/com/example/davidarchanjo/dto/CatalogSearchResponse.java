@@ -0,0 +1,32 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Catalog search response")
+public class CatalogSearchResponse {
+
+    @Schema(description = "Matching objects of the requested page")
+    private List<CatalogEntry> entries;
+
+    @Schema(description = "Page number (0-based)", example = "0")
+    private Integer page;
+
+    @Schema(description = "Page size", example = "100")
+    private Integer size;
+
+    @Schema(description = "Total number of matching objects", example = "1250")
+    private Long totalEntries;
+
+    @Schema(description = "Query time in milliseconds", example = "3")
+    private Long durationMs;
+}
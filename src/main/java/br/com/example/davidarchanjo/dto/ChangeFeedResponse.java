@@ -0,0 +1,26 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of the change feed")
+public class ChangeFeedResponse {
+
+    @Schema(description = "Changes after the requested cursor, oldest first")
+    private List<ChangeEntry> changes;
+
+    @Schema(description = "Cursor to pass on the next request", example = "1042")
+    private Long nextCursor;
+
+    @Schema(description = "Whether more changes are available right away", example = "false")
+    private Boolean hasMore;
+}
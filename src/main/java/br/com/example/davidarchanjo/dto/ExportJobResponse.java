@@ -0,0 +1,63 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "State and progress of a listing export job")
+public class ExportJobResponse {
+
+    @Schema(description = "Job identifier", example = "3f2b8c1e-9a4d-4f7b-8e2a-1c5d6e7f8a9b")
+    private String jobId;
+
+    @Schema(description = "Exported bucket", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Exported prefix", example = "client-001/")
+    private String prefix;
+
+    @Schema(description = "Inventory format", example = "csv")
+    private String format;
+
+    @Schema(description = "Destination type", example = "bucket")
+    private String destination;
+
+    @Schema(description = "Object key or local path of the inventory file", example = "exports/3f2b8c1e.csv")
+    private String location;
+
+    @Schema(description = "Job status", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "Objects listed so far", example = "1250000")
+    private Long objectsScanned;
+
+    @Schema(description = "Objects written to the inventory so far", example = "1250000")
+    private Long objectsExported;
+
+    @Schema(description = "Inventory bytes written so far", example = "104857600")
+    private Long bytesWritten;
+
+    @Schema(description = "Only objects modified at or after this time are exported", example = "2025-01-01T00:00:00Z")
+    private Instant since;
+
+    @Schema(description = "Pass as since to a later export to get only what changed after this one started",
+            example = "2025-01-15T10:30:00Z")
+    private Instant snapshotAt;
+
+    @Schema(description = "Job creation time", example = "2025-01-15T10:30:00Z")
+    private Instant createdAt;
+
+    @Schema(description = "Completion or failure time", example = "2025-01-15T10:32:10Z")
+    private Instant finishedAt;
+
+    @Schema(description = "Failure reason", example = "Failed to list objects: Access Denied")
+    private String error;
+}
@@ -24,4 +24,8 @@ public class FileUploadResponse {
 
     @Schema(description = "File size in bytes", example = "1024")
     private Long fileSize;
+
+    @Schema(description = "True when identical content was already stored and only a reference was written",
+            example = "false")
+    private Boolean deduplicated;
 }
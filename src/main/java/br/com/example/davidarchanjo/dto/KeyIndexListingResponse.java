@@ -0,0 +1,38 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Prefix listing answered from the in-memory key index")
+public class KeyIndexListingResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Listed prefix", example = "client-001/prod/")
+    private String prefix;
+
+    @Schema(description = "Delimiter used to group keys into folders", example = "/")
+    private String delimiter;
+
+    @Schema(description = "Object keys directly under the prefix")
+    private List<String> keys;
+
+    @Schema(description = "Folders under the prefix with their object counts")
+    private List<PrefixCountResponse> commonPrefixes;
+
+    @Schema(description = "Whether more results follow", example = "false")
+    private Boolean truncated;
+
+    @Schema(description = "Value to pass as startAfter for the next page", example = "client-001/prod/reports/")
+    private String nextStartAfter;
+}
@@ -0,0 +1,35 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "State of the in-memory key index of a bucket")
+public class KeyIndexStatusResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Number of indexed keys", example = "2500000")
+    private Long keys;
+
+    @Schema(description = "Approximate heap used by the encoded keys", example = "41943040")
+    private Long memoryBytes;
+
+    @Schema(description = "Gateway writes not yet merged into the encoded keys", example = "12")
+    private Long pendingChanges;
+
+    @Schema(description = "Last full rebuild from the backend", example = "2025-01-15T10:30:00Z")
+    private Instant builtAt;
+
+    @Schema(description = "Rebuild time in milliseconds", example = "5400")
+    private Long durationMs;
+}
@@ -0,0 +1,63 @@
+package br.com.example.davidarchanjo.dto;
+
+import br.com.example.davidarchanjo.model.ObjectStat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Object metadata")
+public class ObjectStatResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Object key", example = "client-001/prod/report.pdf")
+    private String key;
+
+    @Schema(description = "Content size in bytes as uploaded", example = "1048576")
+    private Long size;
+
+    @Schema(description = "Bytes held in storage after compression or deduplication", example = "524288")
+    private Long storedSize;
+
+    @Schema(description = "Content type", example = "application/pdf")
+    private String contentType;
+
+    @Schema(description = "Encoding the object is stored with, if compressed", example = "zstd")
+    private String storedEncoding;
+
+    @Schema(description = "Entity tag", example = "\"9b2cf535f27731c974343645a3985328\"")
+    private String eTag;
+
+    @Schema(description = "Last modification time", example = "2025-01-15T10:30:00Z")
+    private Instant lastModified;
+
+    @Schema(description = "Checksum algorithm of the content", example = "CRC32C")
+    private String checksumType;
+
+    @Schema(description = "Base64 checksum of the content", example = "yZRlqg==")
+    private String checksum;
+
+    public static ObjectStatResponse from(ObjectStat stat) {
+        return ObjectStatResponse.builder()
+                .bucketName(stat.getBucketName())
+                .key(stat.getKey())
+                .size(stat.getSize())
+                .storedSize(stat.getStoredSize())
+                .contentType(stat.getContentType())
+                .storedEncoding(stat.getCodec() != null ? stat.getCodec().getEncoding() : null)
+                .eTag(stat.getETag())
+                .lastModified(stat.getLastModified())
+                .checksumType(stat.getChecksumType() != null ? stat.getChecksumType().name() : null)
+                .checksum(stat.getChecksum())
+                .build();
+    }
+}
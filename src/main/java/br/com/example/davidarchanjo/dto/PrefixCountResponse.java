@@ -0,0 +1,21 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of objects under a prefix")
+public class PrefixCountResponse {
+
+    @Schema(description = "Key prefix", example = "client-001/prod/reports/")
+    private String prefix;
+
+    @Schema(description = "Number of objects whose key starts with the prefix", example = "1250")
+    private Long count;
+}
@@ -0,0 +1,24 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Object count and stored bytes under a prefix")
+public class PrefixStatsEntry {
+
+    @Schema(description = "Key prefix", example = "client-001/prod/")
+    private String prefix;
+
+    @Schema(description = "Number of objects", example = "1250")
+    private Long objects;
+
+    @Schema(description = "Total stored bytes", example = "73400320")
+    private Long bytes;
+}
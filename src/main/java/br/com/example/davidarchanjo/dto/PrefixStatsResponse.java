@@ -0,0 +1,41 @@
+package br.com.example.davidarchanjo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-prefix statistics of a bucket")
+public class PrefixStatsResponse {
+
+    @Schema(description = "Bucket name", example = "shared-storage")
+    private String bucketName;
+
+    @Schema(description = "Scanned prefix", example = "client-001/")
+    private String prefix;
+
+    @Schema(description = "Folder levels below the prefix that are reported separately", example = "1")
+    private Integer depth;
+
+    @Schema(description = "Number of objects under the prefix", example = "2500000")
+    private Long totalObjects;
+
+    @Schema(description = "Total stored bytes under the prefix", example = "1099511627776")
+    private Long totalBytes;
+
+    @Schema(description = "Statistics per sub-prefix, sorted by prefix")
+    private List<PrefixStatsEntry> prefixes;
+
+    @Schema(description = "Number of partitions listed concurrently", example = "42")
+    private Integer partitions;
+
+    @Schema(description = "Scan time in milliseconds", example = "5400")
+    private Long durationMs;
+}
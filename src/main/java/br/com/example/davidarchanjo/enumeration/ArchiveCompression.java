@@ -0,0 +1,44 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compression mode for ZIP archive entries
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ArchiveCompression {
+    /**
+     * Deflate every entry
+     */
+    DEFLATE("deflate"),
+
+    /**
+     * Store every entry without compression
+     */
+    STORE("store"),
+
+    /**
+     * Store already-compressed media (images, video, archives), deflate everything else
+     */
+    AUTO("auto");
+
+    private final String value;
+
+    /**
+     * Get compression mode from string value
+     *
+     * @param value mode value (deflate, store, auto)
+     * @return ArchiveCompression enum
+     */
+    public static ArchiveCompression fromValue(String value) {
+        for (ArchiveCompression compression : values()) {
+            if (compression.value.equalsIgnoreCase(value)) {
+                return compression;
+            }
+        }
+        throw new InvalidRequestException("Unknown archive compression: " + value);
+    }
+}
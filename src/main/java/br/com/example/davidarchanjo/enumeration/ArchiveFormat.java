@@ -0,0 +1,53 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Archive container formats accepted and produced by the gateway
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ArchiveFormat {
+    ZIP("zip", "application/zip", ".zip"),
+    TAR("tar", "application/x-tar", ".tar");
+
+    private final String value;
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * Get archive format from string value
+     *
+     * @param value format value (zip, tar)
+     * @return ArchiveFormat enum
+     */
+    public static ArchiveFormat fromValue(String value) {
+        for (ArchiveFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unknown archive format: " + value);
+    }
+
+    /**
+     * Get archive format from a request content type
+     *
+     * @param contentType MIME type
+     * @return ArchiveFormat enum
+     */
+    public static ArchiveFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String normalized = contentType.toLowerCase();
+            if (normalized.contains("tar")) {
+                return TAR;
+            }
+            if (normalized.contains("zip")) {
+                return ZIP;
+            }
+        }
+        throw new InvalidRequestException("Unsupported archive content type: " + contentType);
+    }
+}
@@ -13,23 +13,28 @@ public enum BucketStrategy {
      * Single shared bucket with client prefixes
      * Example: shared-bucket/client-1/dev/files/
      */
-    SHARED_WITH_PREFIX("shared-prefix", "Single bucket with client and environment prefixes"),
+    SHARED_WITH_PREFIX("shared-prefix", "Single bucket with client and environment prefixes", 2),
 
     /**
      * Separate bucket per client
      * Example: client-1-bucket/dev/files/
      */
-    PER_CLIENT("per-client", "Dedicated bucket per client"),
+    PER_CLIENT("per-client", "Dedicated bucket per client", 1),
 
     /**
      * Separate bucket per client and environment
      * Example: client-1-dev-bucket/files/
      */
-    PER_CLIENT_PER_ENVIRONMENT("per-client-env", "Dedicated bucket per client and environment");
+    PER_CLIENT_PER_ENVIRONMENT("per-client-env", "Dedicated bucket per client and environment", 0);
 
     private final String code;
     private final String description;
 
+    /**
+     * Number of leading key segments naming the tenant
+     */
+    private final int tenantPrefixDepth;
+
     public static BucketStrategy fromCode(String code) {
         for (BucketStrategy strategy : values()) {
             if (strategy.code.equalsIgnoreCase(code)) {
@@ -0,0 +1,38 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fields a catalog search can be sorted by
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CatalogSortField {
+    KEY("key", "object_key"),
+    SIZE("size", "size_bytes"),
+    LAST_MODIFIED("lastModified", "last_modified");
+
+    private final String value;
+
+    /**
+     * Indexed catalog column
+     */
+    private final String column;
+
+    /**
+     * Get sort field from string value
+     *
+     * @param value sort field value
+     * @return CatalogSortField enum
+     */
+    public static CatalogSortField fromValue(String value) {
+        for (CatalogSortField field : values()) {
+            if (field.value.equalsIgnoreCase(value) || field.name().equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown sort field: " + value);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+
+/**
+ * Integrity checksums computed while object bytes stream to and from storage
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ChecksumType {
+    /**
+     * CRC32C - hardware accelerated, cheapest per byte
+     */
+    CRC32C(ChecksumAlgorithm.CRC32_C, "X-Checksum-CRC32C"),
+
+    /**
+     * SHA-256 - cryptographic, for callers that need tamper evidence
+     */
+    SHA256(ChecksumAlgorithm.SHA256, "X-Checksum-SHA256");
+
+    /**
+     * S3 flexible checksum algorithm
+     */
+    private final ChecksumAlgorithm algorithm;
+
+    /**
+     * Response header carrying the base64 checksum
+     */
+    private final String header;
+}
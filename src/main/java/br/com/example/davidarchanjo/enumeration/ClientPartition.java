@@ -0,0 +1,16 @@
+package br.com.example.davidarchanjo.enumeration;
+
+/**
+ * How requests are divided among S3 clients of the client registry
+ */
+public enum ClientPartition {
+    /**
+     * One client per tenant (client ID)
+     */
+    TENANT,
+
+    /**
+     * One client per environment, shared by all tenants
+     */
+    ENVIRONMENT
+}
@@ -0,0 +1,41 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Codecs available for at-rest object compression
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CompressionCodec {
+    /**
+     * Zstandard - best ratio/speed trade-off
+     */
+    ZSTD("zstd"),
+
+    /**
+     * Gzip - universally supported by HTTP clients
+     */
+    GZIP("gzip");
+
+    /**
+     * HTTP Content-Encoding token
+     */
+    private final String encoding;
+
+    /**
+     * Get codec from a Content-Encoding token
+     *
+     * @param encoding encoding token
+     * @return CompressionCodec enum
+     */
+    public static CompressionCodec fromEncoding(String encoding) {
+        for (CompressionCodec codec : values()) {
+            if (codec.encoding.equalsIgnoreCase(encoding)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression codec: " + encoding);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.example.davidarchanjo.enumeration;
 
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -29,7 +30,7 @@ public enum Environment {
                 return env;
             }
         }
-        throw new IllegalArgumentException("Unknown environment: " + value);
+        throw new InvalidRequestException("Unknown environment: " + value);
     }
 
     @Override
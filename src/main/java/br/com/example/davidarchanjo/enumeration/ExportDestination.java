@@ -0,0 +1,39 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Where a listing export writes its inventory file
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportDestination {
+    /**
+     * Object in the exported bucket, uploaded in parts as the listing runs
+     */
+    BUCKET("bucket"),
+
+    /**
+     * File under the gateway's local export directory
+     */
+    LOCAL("local");
+
+    private final String value;
+
+    /**
+     * Get export destination from string value
+     *
+     * @param value destination value (bucket, local)
+     * @return ExportDestination enum
+     */
+    public static ExportDestination fromValue(String value) {
+        for (ExportDestination destination : values()) {
+            if (destination.value.equalsIgnoreCase(value)) {
+                return destination;
+            }
+        }
+        throw new InvalidRequestException("Unknown export destination: " + value);
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Inventory file formats written by listing exports
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("csv", "text/csv", ".csv"),
+    NDJSON("ndjson", "application/x-ndjson", ".ndjson");
+
+    private final String value;
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * Get export format from string value
+     *
+     * @param value format value (csv, ndjson)
+     * @return ExportFormat enum
+     */
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unknown export format: " + value);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.example.davidarchanjo.enumeration;
+
+/**
+ * Lifecycle of a listing export job
+ */
+public enum ExportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,45 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Format of generated unique IDs
+ */
+@Getter
+@RequiredArgsConstructor
+public enum IdFormat {
+    /**
+     * 8 random hex characters, the historical file name suffix
+     * Example: a1b2c3d4
+     */
+    SHORT("short", 8),
+
+    /**
+     * RFC 9562 UUID version 7: millisecond timestamp followed by random bits, sortable by creation time
+     * Example: 019a3f2e-7c41-7b3a-9f6e-2d4c8b1a0e57
+     */
+    UUID_V7("uuid7", 36),
+
+    /**
+     * ULID: millisecond timestamp and randomness in 26 Crockford base32 characters, sortable by creation time
+     * Example: 01K8ZJ4Y3M7QH2W9XK5T0B6D1F
+     */
+    ULID("ulid", 26);
+
+    private final String code;
+
+    /**
+     * Characters in an ID of this format
+     */
+    private final int length;
+
+    public static IdFormat fromCode(String code) {
+        for (IdFormat format : values()) {
+            if (format.code.equalsIgnoreCase(code)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid ID format: " + code);
+    }
+}
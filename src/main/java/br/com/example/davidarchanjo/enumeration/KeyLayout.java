@@ -0,0 +1,18 @@
+package br.com.example.davidarchanjo.enumeration;
+
+/**
+ * How logical object keys are laid out in the bucket
+ */
+public enum KeyLayout {
+    /**
+     * Keys are stored as given
+     * Example: client-1/dev/photos/cat.jpg
+     */
+    HIERARCHICAL,
+
+    /**
+     * A hash shard folder is inserted below the tenant folders, spreading a tenant's writes over many partitions
+     * Example: client-1/dev/_3a/photos/cat.jpg
+     */
+    HASH_SHARDED
+}
@@ -0,0 +1,16 @@
+package br.com.example.davidarchanjo.enumeration;
+
+/**
+ * Kinds of object changes made through the gateway
+ */
+public enum ObjectChangeType {
+    /**
+     * Object written (new or overwritten)
+     */
+    CREATED,
+
+    /**
+     * Object deleted
+     */
+    DELETED
+}
@@ -0,0 +1,44 @@
+package br.com.example.davidarchanjo.enumeration;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Priority classes of requests, each with its own streaming threads and share of backend connections
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RequestPriority {
+    /**
+     * User-facing requests whose latency matters; they go first when classes contend
+     */
+    INTERACTIVE("interactive"),
+
+    /**
+     * Backfills, migrations, exports and other large jobs; they yield to interactive requests
+     */
+    BULK("bulk");
+
+    private final String value;
+
+    /**
+     * Get priority from string value
+     *
+     * @param value priority value
+     * @return RequestPriority enum
+     */
+    public static RequestPriority fromValue(String value) {
+        for (RequestPriority priority : RequestPriority.values()) {
+            if (priority.value.equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new InvalidRequestException("Unknown request priority: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.example.davidarchanjo.enumeration;
+
+/**
+ * Classes of backend calls, each given its own concurrency limit
+ */
+public enum S3OperationType {
+    /**
+     * Object and bucket reads (GET, HEAD)
+     */
+    READ,
+
+    /**
+     * Writes, deletes and bucket administration
+     */
+    WRITE,
+
+    /**
+     * Bucket and object listings
+     */
+    LIST;
+
+    /**
+     * Classify a client operation by its method name
+     *
+     * @param operation S3Client method name (getObject, listObjectsV2, ...)
+     * @return Operation type
+     */
+    public static S3OperationType of(String operation) {
+        if (operation.startsWith("list")) {
+            return LIST;
+        }
+        if (operation.startsWith("get") || operation.startsWith("head")) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
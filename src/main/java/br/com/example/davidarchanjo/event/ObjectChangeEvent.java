@@ -0,0 +1,32 @@
+package br.com.example.davidarchanjo.event;
+
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published after an object is written or deleted through the gateway
+ */
+@Value
+@Builder
+public class ObjectChangeEvent {
+
+    ObjectChangeType type;
+
+    String bucketName;
+
+    String key;
+
+    /**
+     * Size of the original content in bytes (0 for deletions)
+     */
+    long size;
+
+    String contentType;
+
+    String eTag;
+
+    Instant occurredAt;
+}
@@ -0,0 +1,11 @@
+package br.com.example.davidarchanjo.exception;
+
+/**
+ * Thrown when the backend throttled a request (S3 SlowDown) or a prefix is over its adapted request rate
+ */
+public class BackendThrottledException extends ServiceOverloadedException {
+
+    public BackendThrottledException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.example.davidarchanjo.exception;
+
+public class ContentNotFoundException extends StorageException {
+
+    public ContentNotFoundException(String digest, String bucketName) {
+        super(String.format("No content with SHA-256 '%s' stored in bucket '%s'", digest, bucketName));
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.example.davidarchanjo.exception;
+
+public class ExportJobNotFoundException extends StorageException {
+
+    public ExportJobNotFoundException(String jobId) {
+        super(String.format("Export job '%s' not found", jobId));
+    }
+}
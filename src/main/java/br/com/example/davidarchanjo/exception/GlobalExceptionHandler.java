@@ -1,8 +1,10 @@
 package br.com.example.davidarchanjo.exception;
 
 import br.com.example.davidarchanjo.dto.ErrorResponse;
+import br.com.example.davidarchanjo.util.LogThrottle;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 
@@ -18,11 +21,55 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Misses are routine (scrapers, stale links), so they are logged at most once per interval with a count
+     */
+    private static final Duration NOT_FOUND_LOG_INTERVAL = Duration.ofSeconds(10);
+
+    private final LogThrottle fileNotFoundLog = new LogThrottle(NOT_FOUND_LOG_INTERVAL);
+    private final LogThrottle bucketNotFoundLog = new LogThrottle(NOT_FOUND_LOG_INTERVAL);
+    private final LogThrottle overloadLog = new LogThrottle(NOT_FOUND_LOG_INTERVAL);
+
     @ExceptionHandler(FileNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleFileNotFoundException(
             FileNotFoundException ex,
             HttpServletRequest request) {
-        log.error("File not found: {}", ex.getMessage());
+        long suppressed = fileNotFoundLog.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("File not found: {} ({} similar suppressed)", ex.getMessage(), suppressed);
+        }
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ContentNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleContentNotFoundException(
+            ContentNotFoundException ex,
+            HttpServletRequest request) {
+        log.debug("Content not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ExportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleExportJobNotFoundException(
+            ExportJobNotFoundException ex,
+            HttpServletRequest request) {
+        log.debug("Export job not found: {}", ex.getMessage());
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -38,7 +85,10 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleBucketNotFoundException(
             BucketNotFoundException ex,
             HttpServletRequest request) {
-        log.error("Bucket not found: {}", ex.getMessage());
+        long suppressed = bucketNotFoundLog.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("Bucket not found: {} ({} similar suppressed)", ex.getMessage(), suppressed);
+        }
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -66,6 +116,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex,
+            HttpServletRequest request) {
+        long suppressed = overloadLog.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("Request rejected: {} ({} similar suppressed)", ex.getMessage(), suppressed);
+        }
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(StorageException.class)
     public ResponseEntity<ErrorResponse> handleStorageException(
             StorageException ex,
@@ -120,6 +191,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(
+            InvalidRequestException ex,
+            HttpServletRequest request) {
+        log.error("Invalid request: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex,
@@ -0,0 +1,17 @@
+package br.com.example.davidarchanjo.exception;
+
+/**
+ * Thrown when a request parameter, header or body cannot be accepted; answered with 400 and its message.
+ * <p>
+ * Extends IllegalArgumentException so parsers called for both requests and configuration keep one contract.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
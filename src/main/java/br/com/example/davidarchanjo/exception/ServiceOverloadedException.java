@@ -0,0 +1,20 @@
+package br.com.example.davidarchanjo.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of calling the backend when its concurrency limit is reached
+ */
+@Getter
+public class ServiceOverloadedException extends StorageException {
+
+    /**
+     * Seconds the client should wait before retrying
+     */
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -9,4 +9,11 @@ public class StorageException extends RuntimeException {
     public StorageException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * For expected outcomes such as a missing object, which are thrown often and never need a stack trace
+     */
+    protected StorageException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,44 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.CatalogSortField;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Filters, sort and page of a catalog search; null filters are ignored
+ */
+@Value
+@Builder
+public class CatalogQuery {
+
+    String bucketName;
+
+    String clientId;
+
+    Environment environment;
+
+    String keyPrefix;
+
+    String contentType;
+
+    Long minSize;
+
+    Long maxSize;
+
+    Instant modifiedAfter;
+
+    Instant modifiedBefore;
+
+    @Builder.Default
+    CatalogSortField sort = CatalogSortField.LAST_MODIFIED;
+
+    @Builder.Default
+    boolean descending = true;
+
+    int page;
+
+    int size;
+}
@@ -0,0 +1,33 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.ExportDestination;
+import br.com.example.davidarchanjo.enumeration.ExportFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * What a listing export covers and where it writes; null target picks a generated name
+ */
+@Value
+@Builder
+public class ExportRequest {
+
+    String bucketName;
+
+    String prefix;
+
+    @Builder.Default
+    ExportFormat format = ExportFormat.CSV;
+
+    @Builder.Default
+    ExportDestination destination = ExportDestination.BUCKET;
+
+    String target;
+
+    /**
+     * Snapshot time of a previous export; only objects modified since then are written
+     */
+    Instant since;
+}
@@ -0,0 +1,26 @@
+package br.com.example.davidarchanjo.model;
+
+/**
+ * User metadata keys written by the gateway on stored objects (sent as x-amz-meta-*)
+ */
+public final class GatewayMetadata {
+
+    /**
+     * Codec the stored bytes are compressed with
+     */
+    public static final String ENCODING = "gateway-encoding";
+
+    /**
+     * Size of the object before compression
+     */
+    public static final String ORIGINAL_LENGTH = "gateway-original-length";
+
+    /**
+     * SHA-256 of the content-addressed blob a reference object points at
+     */
+    public static final String CONTENT_SHA256 = "gateway-content-sha256";
+
+    private GatewayMetadata() {
+        // Constants class
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.example.davidarchanjo.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Totals of a partitioned listing
+ */
+@Value
+@Builder
+public class ListingSummary {
+
+    long objects;
+
+    long pages;
+
+    int partitions;
+}
@@ -0,0 +1,56 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Open object body together with its metadata.
+ * The caller owns the stream and must close it.
+ */
+@Value
+@Builder
+public class ObjectContent implements Closeable {
+
+    String bucketName;
+
+    String key;
+
+    Long contentLength;
+
+    String contentType;
+
+    /**
+     * Content-Encoding of the body, or null when it is the original bytes
+     */
+    String contentEncoding;
+
+    String eTag;
+
+    /**
+     * Checksum type of the stored bytes, or null when none was recorded
+     */
+    ChecksumType checksumType;
+
+    /**
+     * Base64 checksum of the stored bytes
+     */
+    String checksum;
+
+    Instant lastModified;
+
+    Map<String, String> metadata;
+
+    InputStream content;
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Metadata of a stored object, as a download would describe it
+ */
+@Value
+@Builder
+public class ObjectStat {
+
+    String bucketName;
+
+    String key;
+
+    /**
+     * Size of the content as uploaded
+     */
+    long size;
+
+    /**
+     * Bytes held in the backend, by the blob for a deduplicated reference; smaller than size when compressed
+     */
+    long storedSize;
+
+    String contentType;
+
+    /**
+     * Codec the stored bytes are compressed with, or null
+     */
+    CompressionCodec codec;
+
+    String eTag;
+
+    Instant lastModified;
+
+    /**
+     * Checksum type of the content, or null when the stored bytes are not the content or none was recorded
+     */
+    ChecksumType checksumType;
+
+    /**
+     * Base64 checksum of the content
+     */
+    String checksum;
+}
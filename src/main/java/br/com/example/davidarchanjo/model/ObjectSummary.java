@@ -0,0 +1,22 @@
+package br.com.example.davidarchanjo.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Listing entry for a stored object
+ */
+@Value
+@Builder
+public class ObjectSummary {
+
+    String key;
+
+    long size;
+
+    String eTag;
+
+    Instant lastModified;
+}
@@ -0,0 +1,36 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of a single object write
+ */
+@Value
+@Builder
+public class ObjectWriteResult {
+
+    String bucketName;
+
+    String key;
+
+    long size;
+
+    String eTag;
+
+    /**
+     * Checksum type of the stored bytes, or null when none was recorded
+     */
+    ChecksumType checksumType;
+
+    /**
+     * Base64 checksum of the stored bytes
+     */
+    String checksum;
+
+    /**
+     * True when the content was already stored and only a reference was written
+     */
+    boolean deduplicated;
+}
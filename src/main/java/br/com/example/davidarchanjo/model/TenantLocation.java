@@ -0,0 +1,20 @@
+package br.com.example.davidarchanjo.model;
+
+import br.com.example.davidarchanjo.enumeration.Environment;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Client and environment an object belongs to, derived from its bucket and key
+ */
+@Value
+@Builder
+public class TenantLocation {
+
+    String clientId;
+
+    /**
+     * Environment, or null when the layout does not encode one
+     */
+    Environment environment;
+}
@@ -0,0 +1,32 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.ArchiveCompression;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service for streaming a whole prefix as a single archive
+ */
+public interface ArchiveDownloadService {
+
+    /**
+     * Write every object under a prefix to an archive.
+     * The bucket is not checked; callers verify it before the response is committed.
+     *
+     * @param bucketName  Bucket name
+     * @param prefix      Key prefix (empty for the whole bucket)
+     * @param format      Archive format
+     * @param compression Entry compression mode (ZIP only)
+     * @param output      Destination stream, left open
+     * @throws IOException if writing to the destination fails
+     */
+    void writeArchive(
+            String bucketName,
+            String prefix,
+            ArchiveFormat format,
+            ArchiveCompression compression,
+            OutputStream output
+    ) throws IOException;
+}
@@ -0,0 +1,31 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+
+import java.io.InputStream;
+
+/**
+ * Service shaping the bytes each tenant moves through the gateway, sharing the total bandwidth among busy tenants
+ */
+public interface BandwidthService {
+
+    /**
+     * Pace a body streamed to or from the backend against its tenant's bandwidth.
+     * The tenant counts as active until the returned stream is closed.
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key, which with the bucket selects the tenant
+     * @param type       READ for downloads, WRITE for uploads
+     * @param stream     Body to pace
+     * @return Paced stream, or the stream itself when shaping is disabled
+     */
+    InputStream throttle(String bucketName, String keyName, S3OperationType type, InputStream stream);
+
+    /**
+     * Current bandwidth of a tenant
+     *
+     * @param tenant Client ID
+     * @return Bytes per second, 0 if unlimited, or -1 if the tenant has not transferred anything yet
+     */
+    double rate(String tenant);
+}
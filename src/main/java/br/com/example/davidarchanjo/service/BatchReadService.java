@@ -0,0 +1,43 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.BatchStatResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Service for reading many small objects or their metadata in one request
+ */
+public interface BatchReadService {
+
+    /**
+     * Look up the metadata of many keys concurrently
+     *
+     * @param bucketName Bucket name
+     * @param keys       Object keys
+     * @return Per-key results in request order
+     * @throws br.com.example.davidarchanjo.exception.InvalidRequestException if more keys are requested than allowed
+     */
+    BatchStatResponse stat(String bucketName, List<String> keys);
+
+    /**
+     * Check a fetch request before the response is committed
+     *
+     * @param keys Object keys
+     * @throws br.com.example.davidarchanjo.exception.InvalidRequestException if more keys are requested than allowed
+     */
+    void validateFetch(List<String> keys);
+
+    /**
+     * Fetch many small objects concurrently and write them as a multipart/mixed body, one part per key in the
+     * order the fetches complete. Keys that cannot be returned get a part with an error status instead.
+     *
+     * @param bucketName Bucket name
+     * @param keys       Object keys; repeated keys are fetched once
+     * @param boundary   Multipart boundary announced in the Content-Type
+     * @param output     Destination stream, left open
+     * @throws IOException if writing to the destination fails
+     */
+    void fetch(String bucketName, List<String> keys, String boundary, OutputStream output) throws IOException;
+}
@@ -0,0 +1,38 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.BatchUploadResponse;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Service for ingesting many small objects in a single request
+ */
+public interface BatchUploadService {
+
+    /**
+     * Upload every part of a multipart request as its own object
+     *
+     * @param bucketName Bucket name
+     * @param directory  Optional key prefix for all entries
+     * @param files      Uploaded parts
+     * @return Per-entry result manifest
+     */
+    BatchUploadResponse uploadFiles(String bucketName, String directory, List<MultipartFile> files);
+
+    /**
+     * Upload every file entry of a streamed archive as its own object
+     *
+     * @param bucketName    Bucket name
+     * @param directory     Optional key prefix for all entries
+     * @param format        Archive format
+     * @param archive       Archive input stream
+     * @param contentLength Content-Length of the archive, or null if unknown
+     * @return Per-entry result manifest
+     * @throws br.com.example.davidarchanjo.exception.ServiceOverloadedException if no memory came up in time
+     */
+    BatchUploadResponse uploadArchive(
+            String bucketName, String directory, ArchiveFormat format, InputStream archive, Long contentLength);
+}
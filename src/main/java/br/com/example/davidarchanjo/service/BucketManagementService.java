@@ -1,6 +1,10 @@
 package br.com.example.davidarchanjo.service;
 
 import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.Optional;
 
 /**
  * Service for managing bucket names and paths based on strategy
@@ -34,6 +38,15 @@ public interface BucketManagementService {
      */
     void createBucketIfNotExists(String bucketName);
 
+    /**
+     * Create bucket if it doesn't exist on the backend of a tenant's client
+     *
+     * @param bucketName Bucket name
+     * @param partition  Client registry partition of the client, or null for the shared client
+     * @param client     Client to check and create the bucket through
+     */
+    void createBucketIfNotExists(String bucketName, String partition, S3Client client);
+
     /**
      * Check if bucket exists
      *
@@ -41,4 +54,22 @@ public interface BucketManagementService {
      * @return true if exists
      */
     boolean bucketExists(String bucketName);
+
+    /**
+     * Derive the client and environment of an object from the bucket strategy layout
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     * @return Tenant, or empty if the bucket and key do not follow the layout
+     */
+    Optional<TenantLocation> resolveTenant(String bucketName, String keyName);
+
+    /**
+     * Leading part of a key that names its tenant under the bucket strategy layout
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     * @return Tenant key prefix, such as {@code client-1/dev/}, or empty if the key has none
+     */
+    String tenantPrefix(String bucketName, String keyName);
 }
@@ -0,0 +1,18 @@
+package br.com.example.davidarchanjo.service;
+
+import java.util.Map;
+
+/**
+ * Service preparing the buckets of known tenants ahead of their first request
+ */
+public interface BucketProvisioningService {
+
+    /**
+     * Provision the buckets of the configured clients and environments in parallel.
+     * When bucket auto-creation is disabled, the buckets are only verified.
+     *
+     * @return Whether each bucket is ready, by bucket name; buckets still pending at the timeout count as not ready
+     * @throws IllegalArgumentException if a configured environment is unknown
+     */
+    Map<String, Boolean> provisionKnownTenants();
+}
@@ -0,0 +1,35 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.CatalogReconcileResponse;
+import br.com.example.davidarchanjo.dto.CatalogSearchResponse;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.model.CatalogQuery;
+
+/**
+ * Service for the embedded metadata catalog of stored objects
+ */
+public interface CatalogService {
+
+    /**
+     * Apply an object change to the catalog
+     *
+     * @param event Write or delete made through the gateway
+     */
+    void record(ObjectChangeEvent event);
+
+    /**
+     * Search the catalog without touching object storage
+     *
+     * @param query Filters, sort and page
+     * @return Matching page and total count
+     */
+    CatalogSearchResponse search(CatalogQuery query);
+
+    /**
+     * Rebuild the catalog entries of a bucket from a full listing
+     *
+     * @param bucketName Bucket name
+     * @return Reconciliation counts
+     */
+    CatalogReconcileResponse reconcile(String bucketName);
+}
@@ -0,0 +1,39 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.ChangeFeedResponse;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service for the durable journal of object changes and the feeds served from it
+ */
+public interface ChangeJournalService {
+
+    /**
+     * Append a change to the journal and push it to open streams
+     *
+     * @param event Write or delete made through the gateway
+     */
+    void append(ObjectChangeEvent event);
+
+    /**
+     * Read the changes after a cursor
+     *
+     * @param bucketName Bucket filter (null for every bucket)
+     * @param prefix     Key prefix filter (null for every key)
+     * @param cursor     Cursor of the last change already seen (0 for the start of the journal)
+     * @param limit      Maximum number of changes
+     * @return Changes and the cursor to continue from
+     */
+    ChangeFeedResponse changesSince(String bucketName, String prefix, long cursor, int limit);
+
+    /**
+     * Open a server-sent event stream of changes
+     *
+     * @param bucketName Bucket filter (null for every bucket)
+     * @param prefix     Key prefix filter (null for every key)
+     * @param cursor     Replay changes after this cursor first (null to start with new changes)
+     * @return Event stream
+     */
+    SseEmitter subscribe(String bucketName, String prefix, Long cursor);
+}
@@ -0,0 +1,63 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service for transparent at-rest compression of stored objects
+ */
+public interface CompressionService {
+
+    /**
+     * Decide whether an upload should be compressed
+     *
+     * @param bucketName    Bucket name
+     * @param contentType   MIME type
+     * @param contentLength File size in bytes
+     * @return Codec to use, or empty to store as-is
+     */
+    Optional<CompressionCodec> selectCodec(String bucketName, String contentType, Long contentLength);
+
+    /**
+     * Compress a stream in a single pass, writing the compressed bytes as they are produced
+     *
+     * @param value  Uncompressed input
+     * @param codec  Codec
+     * @param target Receives the compressed bytes; left open
+     * @return Compressed size in bytes
+     * @throws IOException if reading the input or writing the target fails
+     */
+    long compress(InputStream value, CompressionCodec codec, OutputStream target) throws IOException;
+
+    /**
+     * Wrap a stored stream so it yields the original bytes
+     *
+     * @param stored Compressed input
+     * @param codec  Codec the input was written with
+     * @return Decompressing stream
+     * @throws IOException if the stream header is invalid
+     */
+    InputStream decompress(InputStream stored, CompressionCodec codec) throws IOException;
+
+    /**
+     * Read the codec recorded on a stored object
+     *
+     * @param metadata Object user metadata
+     * @return Codec, or empty if the object is stored uncompressed
+     */
+    Optional<CompressionCodec> storedCodec(Map<String, String> metadata);
+
+    /**
+     * Check whether an Accept-Encoding header allows a codec
+     *
+     * @param acceptEncoding Accept-Encoding header value (may be null)
+     * @param codec          Codec
+     * @return true if the client can decode the codec itself
+     */
+    boolean accepts(String acceptEncoding, CompressionCodec codec);
+}
@@ -0,0 +1,29 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+
+/**
+ * Service bounding concurrent backend calls with limits that adapt to observed latency
+ */
+public interface ConcurrencyLimitService {
+
+    /**
+     * Run a backend call if its operation type is under its limit. A call returning a response stream stays
+     * admitted until the stream is closed or aborted.
+     *
+     * @param type Operation type whose limit applies
+     * @param call Backend call
+     * @return Result of the call
+     * @throws br.com.example.davidarchanjo.exception.ServiceOverloadedException if the limit is reached
+     */
+    Object call(S3OperationType type, InterceptingS3Client.Invocation call) throws Throwable;
+
+    /**
+     * Current limit of an operation type
+     *
+     * @param type Operation type
+     * @return Most calls admitted at once
+     */
+    int limit(S3OperationType type);
+}
@@ -0,0 +1,68 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Service for content-addressed deduplication of uploads
+ */
+public interface DedupService {
+
+    /**
+     * Check whether uploads to a bucket are deduplicated
+     *
+     * @param bucketName Bucket name
+     * @return true if deduplication is enabled for the bucket
+     */
+    boolean isEnabled(String bucketName);
+
+    /**
+     * Hash an upload, store its bytes once under the digest and point the key at them
+     *
+     * @param bucketName    Bucket name
+     * @param keyName       User-visible key
+     * @param contentLength File size in bytes
+     * @param contentType   MIME type
+     * @param value         File content
+     * @return Write result, flagged as deduplicated if the blob already existed
+     */
+    ObjectWriteResult store(String bucketName, String keyName, Long contentLength, String contentType,
+                            InputStream value);
+
+    /**
+     * Hash an upload, store its bytes once under the digest and point the key at them, rejecting a body whose
+     * digest is not the one the client declared
+     *
+     * @param bucketName     Bucket name
+     * @param keyName        User-visible key
+     * @param contentLength  File size in bytes
+     * @param contentType    MIME type
+     * @param value          File content
+     * @param expectedSha256 Hex SHA-256 the client declared for the body, or null to accept any
+     * @return Write result, flagged as deduplicated if the blob already existed
+     * @throws br.com.example.davidarchanjo.exception.InvalidRequestException if the body has another digest
+     */
+    ObjectWriteResult store(String bucketName, String keyName, Long contentLength, String contentType,
+                            InputStream value, String expectedSha256);
+
+    /**
+     * Point a key at already stored content without transferring the body
+     *
+     * @param bucketName  Bucket name
+     * @param keyName     User-visible key
+     * @param sha256      Hex SHA-256 of the content
+     * @param contentType MIME type recorded on the reference (may be null)
+     * @return Write result, or empty if no blob with this digest exists
+     */
+    Optional<ObjectWriteResult> link(String bucketName, String keyName, String sha256, String contentType);
+
+    /**
+     * Delete blobs no key points at any more, together with their stale index markers
+     *
+     * @param bucketName Bucket name
+     * @return Number of blobs deleted
+     */
+    int collectGarbage(String bucketName);
+}
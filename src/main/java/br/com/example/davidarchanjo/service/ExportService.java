@@ -0,0 +1,35 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.ExportJobResponse;
+import br.com.example.davidarchanjo.model.ExportRequest;
+
+import java.util.List;
+
+/**
+ * Service for asynchronous exports of bucket listings to inventory files
+ */
+public interface ExportService {
+
+    /**
+     * Queue an export and return at once
+     *
+     * @param request Bucket, prefix, format and destination
+     * @return Queued job
+     */
+    ExportJobResponse startExport(ExportRequest request);
+
+    /**
+     * Get the state and progress of an export
+     *
+     * @param jobId Job identifier
+     * @return Job state
+     */
+    ExportJobResponse getExport(String jobId);
+
+    /**
+     * List running and recently finished exports, newest first
+     *
+     * @return Job states
+     */
+    List<ExportJobResponse> listExports();
+}
@@ -0,0 +1,33 @@
+package br.com.example.davidarchanjo.service;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.util.function.Function;
+
+/**
+ * Service issuing a duplicate GET when the first one is slow to respond
+ */
+public interface HedgedReadService {
+
+    /**
+     * Run a GET, and run it again if the response has not started after the hedge delay. The first response to
+     * arrive is returned; the other is aborted when it completes.
+     *
+     * @param request GET request
+     * @param fetch   Issues the GET against the backend; called once or twice
+     * @return Response stream of the winning GET
+     */
+    ResponseInputStream<GetObjectResponse> getObject(
+            GetObjectRequest request,
+            Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> fetch
+    );
+
+    /**
+     * Current delay after which a GET is hedged
+     *
+     * @return Delay in milliseconds
+     */
+    long hedgeDelayMs();
+}
@@ -0,0 +1,48 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.KeyIndexListingResponse;
+import br.com.example.davidarchanjo.dto.KeyIndexStatusResponse;
+import br.com.example.davidarchanjo.dto.PrefixCountResponse;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+
+/**
+ * Service for the in-memory index of object keys
+ */
+public interface KeyIndexService {
+
+    /**
+     * Apply an object change to the index of its bucket, if the bucket is indexed
+     *
+     * @param event Write or delete made through the gateway
+     */
+    void record(ObjectChangeEvent event);
+
+    /**
+     * List keys under a prefix, optionally grouping them into folders by a delimiter
+     *
+     * @param bucketName Bucket name
+     * @param prefix     Key prefix (null for the whole bucket)
+     * @param delimiter  Folder delimiter (null for a flat listing)
+     * @param startAfter Key or folder to continue after (null for the first page)
+     * @param limit      Maximum number of keys plus folders
+     * @return Listing page
+     */
+    KeyIndexListingResponse list(String bucketName, String prefix, String delimiter, String startAfter, int limit);
+
+    /**
+     * Count the keys under a prefix
+     *
+     * @param bucketName Bucket name
+     * @param prefix     Key prefix (null for the whole bucket)
+     * @return Prefix and count
+     */
+    PrefixCountResponse count(String bucketName, String prefix);
+
+    /**
+     * Rebuild the index of a bucket from a full listing
+     *
+     * @param bucketName Bucket name
+     * @return Index state after the rebuild
+     */
+    KeyIndexStatusResponse rebuild(String bucketName);
+}
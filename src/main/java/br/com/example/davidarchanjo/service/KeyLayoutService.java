@@ -0,0 +1,53 @@
+package br.com.example.davidarchanjo.service;
+
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+import java.util.function.Function;
+
+/**
+ * Service translating between the logical keys the gateway works with and the physical keys stored in the bucket
+ */
+public interface KeyLayoutService {
+
+    /**
+     * Check whether physical keys differ from logical keys
+     *
+     * @return true when a hash-sharded layout is configured
+     */
+    boolean isSharded();
+
+    /**
+     * @param logicalKey Key as seen by clients
+     * @return Key stored in the bucket
+     */
+    String toPhysicalKey(String logicalKey);
+
+    /**
+     * @param physicalKey Key stored in the bucket
+     * @return Key as seen by clients
+     */
+    String toLogicalKey(String physicalKey);
+
+    /**
+     * Rewrite the object key of a request to its physical key
+     *
+     * @param request Request addressing a logical key
+     * @return Request addressing the physical key; the request itself if it addresses no object
+     */
+    S3Request toPhysical(S3Request request);
+
+    /**
+     * List a logical prefix. Prefixes that name every folder above the shard folder are listed in each shard and
+     * merged in logical key order; continuation tokens of such listings are issued by this service.
+     *
+     * @param request Listing of a logical prefix
+     * @param list    Lists the bucket
+     * @return Listing with logical keys and prefixes
+     */
+    ListObjectsV2Response listObjects(
+            ListObjectsV2Request request,
+            Function<ListObjectsV2Request, ListObjectsV2Response> list
+    );
+}
@@ -0,0 +1,60 @@
+package br.com.example.davidarchanjo.service;
+
+/**
+ * Service admitting transfers against a global budget of bytes held in memory, so a few large concurrent requests
+ * cannot exhaust the heap
+ */
+public interface MemoryBudgetService {
+
+    /**
+     * Reserve memory for bytes a request buffers, waiting briefly for room
+     *
+     * @param bytes Bytes the request may hold in memory at once
+     * @return Reservation to close once the bytes are released
+     * @throws br.com.example.davidarchanjo.exception.ServiceOverloadedException if no room came up in time
+     */
+    Reservation reserve(long bytes);
+
+    /**
+     * Reserve memory for streaming an object to a client: what its download buffers, not its whole size
+     *
+     * @param objectSize Size of the object, or null if unknown
+     * @return Reservation to close once the body is sent
+     * @throws br.com.example.davidarchanjo.exception.ServiceOverloadedException if no room came up in time
+     */
+    Reservation reserveDownload(Long objectSize);
+
+    /**
+     * Reserve memory for a batch fetch, which holds up to its fetch window of objects
+     *
+     * @param keys Keys requested
+     * @return Reservation to close once the response is written
+     */
+    Reservation reserveBatchFetch(int keys);
+
+    /**
+     * Reserve memory for an archive download, which holds up to its prefetch buffer
+     *
+     * @return Reservation to close once the archive is written
+     */
+    Reservation reserveArchive();
+
+    /**
+     * @return Bytes that may be reserved at once, following current memory headroom
+     */
+    long capacity();
+
+    /**
+     * @return Bytes currently reserved
+     */
+    long reserved();
+
+    /**
+     * Memory held for a request; closing it more than once is harmless
+     */
+    interface Reservation extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+
+/**
+ * Service answering definite misses without contacting the backend
+ */
+public interface MissFilterService {
+
+    /**
+     * Check whether a key is known to be absent, either because the bucket's Bloom filter has never seen it or
+     * because the backend recently reported it missing
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     * @return true if the key definitely does not exist; false if it may exist
+     */
+    boolean isMissing(String bucketName, String keyName);
+
+    /**
+     * Check whether the backend recently reported a bucket missing
+     *
+     * @param bucketName Bucket name
+     * @return true if the bucket is known not to exist
+     */
+    boolean isBucketMissing(String bucketName);
+
+    /**
+     * Remember a key the backend reported missing for the negative cache TTL
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     */
+    void recordMissing(String bucketName, String keyName);
+
+    /**
+     * Remember a bucket the backend reported missing for the negative cache TTL
+     *
+     * @param bucketName Bucket name
+     */
+    void recordMissingBucket(String bucketName);
+
+    /**
+     * Add a written key to its bucket's filter and forget any cached miss for it
+     *
+     * @param event Write or delete made through the gateway
+     */
+    void record(ObjectChangeEvent event);
+
+    /**
+     * Replace a bucket's Bloom filter with one built from a full listing
+     *
+     * @param bucketName Bucket name
+     */
+    void rebuild(String bucketName);
+}
@@ -0,0 +1,26 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.model.ObjectStat;
+
+/**
+ * Service for object metadata lookups that never transfer object bytes
+ */
+public interface ObjectStatService {
+
+    /**
+     * Get the metadata of an object, from the metadata cache when it holds a fresh entry
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     * @return Object metadata
+     */
+    ObjectStat stat(String bucketName, String keyName);
+
+    /**
+     * Drop the cached metadata of an object
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Object key
+     */
+    void invalidate(String bucketName, String keyName);
+}
@@ -0,0 +1,35 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.dto.PrefixStatsResponse;
+import br.com.example.davidarchanjo.model.ListingSummary;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service for listing large buckets as concurrently scanned keyspace partitions
+ */
+public interface ParallelListingService {
+
+    /**
+     * List every object under a prefix. Folders discovered near the prefix are listed concurrently,
+     * so pages arrive in no particular order and the consumer is called from several threads.
+     *
+     * @param bucketName   Bucket name
+     * @param prefix       Key prefix (null for the whole bucket)
+     * @param pageConsumer Thread-safe consumer of each page of objects
+     * @return Listing totals
+     */
+    ListingSummary scan(String bucketName, String prefix, Consumer<List<ObjectSummary>> pageConsumer);
+
+    /**
+     * Aggregate object count and stored bytes per sub-prefix
+     *
+     * @param bucketName Bucket name
+     * @param prefix     Key prefix (null for the whole bucket)
+     * @param depth      Folder levels below the prefix to report separately
+     * @return Per-prefix statistics
+     */
+    PrefixStatsResponse prefixStats(String bucketName, String prefix, int depth);
+}
@@ -0,0 +1,32 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+/**
+ * Service shaping the request rate sent to each key prefix so busy tenants back off before S3 throttles everyone
+ */
+public interface PrefixRateLimitService {
+
+    /**
+     * Run a backend call once its prefix has a permit, waiting briefly for one
+     *
+     * @param type    Operation type; reads and writes have separate rates
+     * @param request Request, whose bucket and key or prefix select the rate
+     * @param call    Backend call
+     * @return Result of the call
+     * @throws br.com.example.davidarchanjo.exception.BackendThrottledException if no permit came up in time or the
+     *                                                                         backend throttled the call
+     */
+    Object call(S3OperationType type, S3Request request, InterceptingS3Client.Invocation call) throws Throwable;
+
+    /**
+     * Current rate of a prefix
+     *
+     * @param type   Operation type
+     * @param prefix Rate-limited prefix, as "bucket/first/segments/"
+     * @return Requests per second, or -1 if the prefix has no rate yet
+     */
+    double rate(S3OperationType type, String prefix);
+}
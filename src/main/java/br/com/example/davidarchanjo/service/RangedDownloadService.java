@@ -0,0 +1,33 @@
+package br.com.example.davidarchanjo.service;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.util.function.Function;
+
+/**
+ * Service downloading large objects as byte ranges fetched over several connections
+ */
+public interface RangedDownloadService {
+
+    /**
+     * Run a GET and, when the object is large enough, serve everything past its leading bytes from ranges fetched
+     * concurrently. The returned stream yields the whole object in order and its response describes the whole object.
+     *
+     * @param request GET request without a range
+     * @param fetch   Issues a GET against the backend; called once, then once per range
+     * @return Response stream of the whole object
+     */
+    ResponseInputStream<GetObjectResponse> getObject(
+            GetObjectRequest request,
+            Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> fetch
+    );
+
+    /**
+     * Observed throughput of a single ranged GET, used to size parts
+     *
+     * @return Bytes per second, or 0 before the first range completed
+     */
+    long rangeThroughput();
+}
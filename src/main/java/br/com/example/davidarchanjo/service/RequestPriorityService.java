@@ -0,0 +1,39 @@
+package br.com.example.davidarchanjo.service;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+/**
+ * Service sorting requests into interactive and bulk classes and sharing backend connections between them
+ */
+public interface RequestPriorityService {
+
+    /**
+     * Class of an incoming request by its priority header or endpoint
+     *
+     * @param path        Request path, without the context path
+     * @param headerValue Value of the priority header, or null
+     * @return Class, or null if neither names one and the tenant policy or default applies
+     */
+    RequestPriority classify(String path, String headerValue);
+
+    /**
+     * Run a backend call once its class has a connection slot, holding the slot until a streamed response body is
+     * closed
+     *
+     * @param request Request, whose bucket and key select the tenant policy when the request has no class
+     * @param call    Backend call
+     * @return Result of the call
+     * @throws br.com.example.davidarchanjo.exception.ServiceOverloadedException if no slot came up in time
+     */
+    Object call(S3Request request, InterceptingS3Client.Invocation call) throws Throwable;
+
+    /**
+     * Connection slots a class currently holds
+     *
+     * @param priority Class
+     * @return Backend calls in progress
+     */
+    int inUse(RequestPriority priority);
+}
@@ -1,8 +1,13 @@
 package br.com.example.davidarchanjo.service;
 
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service for object storage operations (S3/MinIO)
@@ -17,8 +22,28 @@ public interface S3BucketStorageService {
      * @param contentLength File size in bytes
      * @param contentType   MIME type
      * @param value         File input stream
+     * @return Write result with the checksum of the stored bytes
      */
-    void uploadFile(
+    ObjectWriteResult uploadFile(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream value
+    );
+
+    /**
+     * Write an object without checking that the bucket exists.
+     * Callers are expected to have verified the bucket once for the whole operation.
+     *
+     * @param bucketName    Bucket name
+     * @param keyName       File key/name
+     * @param contentLength File size in bytes
+     * @param contentType   MIME type
+     * @param value         File input stream
+     * @return Write result
+     */
+    ObjectWriteResult putObject(
             String bucketName,
             String keyName,
             Long contentLength,
@@ -38,6 +63,43 @@ public interface S3BucketStorageService {
             String keyName
     );
 
+    /**
+     * Open an object for streaming without checking that the bucket exists.
+     * Stored compression is removed; the returned content must be closed by the caller.
+     *
+     * @param bucketName Bucket name
+     * @param keyName    File key/name
+     * @return Object body and metadata
+     */
+    ObjectContent openObject(
+            String bucketName,
+            String keyName
+    );
+
+    /**
+     * Open an object for streaming, keeping its stored compression when the client accepts it.
+     * When the returned content has a content encoding, the bytes are still compressed.
+     *
+     * @param bucketName     Bucket name
+     * @param keyName        File key/name
+     * @param acceptEncoding Client Accept-Encoding header (may be null)
+     * @return Object body and metadata
+     */
+    ObjectContent openObject(
+            String bucketName,
+            String keyName,
+            String acceptEncoding
+    );
+
+    /**
+     * Lazily list objects under a prefix, fetching pages as the stream is consumed
+     *
+     * @param bucketName Bucket name
+     * @param prefix     Key prefix (empty for the whole bucket)
+     * @return Stream of object summaries in key order
+     */
+    Stream<ObjectSummary> listObjects(String bucketName, String prefix);
+
     /**
      * List all files in a bucket
      *
@@ -46,6 +108,15 @@ public interface S3BucketStorageService {
      */
     List<String> listFiles(String bucketName);
 
+    /**
+     * List the files under a prefix, on the backend of the tenant the prefix belongs to
+     *
+     * @param bucketName Bucket name
+     * @param prefix     Key prefix (empty for the whole bucket)
+     * @return List of file keys
+     */
+    List<String> listFiles(String bucketName, String prefix);
+
     /**
      * Delete file from object storage
      *
@@ -64,5 +135,14 @@ public interface S3BucketStorageService {
      * @return true if bucket exists
      */
     boolean bucketExists(String bucketName);
+
+    /**
+     * Check if bucket exists on the backend serving a key; tenants with their own endpoint have their own buckets
+     *
+     * @param bucketName Bucket name
+     * @param keyName    Key or prefix identifying the tenant, or null for the shared backend
+     * @return true if bucket exists
+     */
+    boolean bucketExists(String bucketName, String keyName);
 }
 
@@ -0,0 +1,41 @@
+package br.com.example.davidarchanjo.service;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Service handing out the S3 client responsible for a tenant's objects
+ */
+public interface S3ClientRegistryService {
+
+    /**
+     * Client for an object, created on first use for its tenant or environment
+     *
+     * @param bucketName Bucket name
+     * @param key        Object key or listing prefix; may be null for bucket-level calls
+     * @return The tenant's client, or the shared client when the registry is disabled or the tenant is unknown
+     */
+    S3Client clientFor(String bucketName, String key);
+
+    /**
+     * Partition of the client responsible for an object, without creating the client
+     *
+     * @param bucketName Bucket name
+     * @param key        Object key or listing prefix; may be null for bucket-level calls
+     * @return Client ID or environment of the tenant's client, or null for the shared client
+     */
+    String partitionFor(String bucketName, String key);
+
+    /**
+     * Check whether an object is served by the shared client, without creating a tenant client
+     *
+     * @param bucketName Bucket name
+     * @param key        Object key or listing prefix; may be null for bucket-level calls
+     * @return true when the registry is disabled or the object belongs to no known tenant
+     */
+    boolean isShared(String bucketName, String key);
+
+    /**
+     * Number of tenant or environment clients currently open
+     */
+    long size();
+}
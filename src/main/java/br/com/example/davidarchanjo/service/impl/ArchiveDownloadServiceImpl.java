@@ -0,0 +1,443 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ArchiveCompression;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.ArchiveDownloadService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Slf4j
+@Service
+public class ArchiveDownloadServiceImpl implements ArchiveDownloadService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    // Media that gains nothing from deflate
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "mp4", "m4a", "mov", "avi", "mkv", "webm",
+            "zip", "gz", "tgz", "bz2", "xz", "zst", "7z", "rar",
+            "docx", "xlsx", "pptx", "pdf"
+    );
+
+    private final S3BucketStorageService storageService;
+    private final StorageProperties storageProperties;
+    private final Executor archivePrefetchExecutor;
+
+    public ArchiveDownloadServiceImpl(
+            S3BucketStorageService storageService,
+            StorageProperties storageProperties,
+            @Qualifier("archivePrefetchExecutor") Executor archivePrefetchExecutor
+    ) {
+        this.storageService = storageService;
+        this.storageProperties = storageProperties;
+        this.archivePrefetchExecutor = archivePrefetchExecutor;
+    }
+
+    @Override
+    public void writeArchive(
+            String bucketName,
+            String prefix,
+            ArchiveFormat format,
+            ArchiveCompression compression,
+            OutputStream output
+    ) throws IOException {
+        String normalizedPrefix = prefix != null ? prefix : "";
+        String entryRoot = normalizedPrefix.substring(0, normalizedPrefix.lastIndexOf('/') + 1);
+
+        BufferedOutputStream buffered = new BufferedOutputStream(output, OUTPUT_BUFFER_SIZE);
+        ArchiveWriter writer = format == ArchiveFormat.TAR
+                ? new TarWriter(buffered, key -> storageService.openObject(bucketName, key))
+                : new ZipWriter(buffered, compression);
+
+        PrefetchWindow window = new PrefetchWindow(
+                bucketName,
+                storageService.listObjects(bucketName, normalizedPrefix).iterator()
+        );
+
+        int entries = 0;
+        try {
+            PendingObject pending;
+            while ((pending = window.next()) != null) {
+                String entryName = pending.summary.getKey().substring(entryRoot.length());
+                try {
+                    if (pending.prefetched != null) {
+                        Prefetched fetched = awaitPrefetch(pending);
+                        if (fetched.remainder == null) {
+                            writer.put(entryName, pending.summary.getLastModified(), fetched.body);
+                        } else {
+                            try (ObjectContent content = fetched.remainder) {
+                                writer.put(entryName, content);
+                            }
+                        }
+                    } else {
+                        try (ObjectContent content = storageService.openObject(bucketName, pending.summary.getKey())) {
+                            writer.put(entryName, content);
+                        }
+                    }
+                    entries++;
+                } catch (FileNotFoundException e) {
+                    // Deleted between listing and fetch
+                    log.warn("Skipping '{}' in archive of bucket '{}': {}", pending.summary.getKey(), bucketName,
+                            e.getMessage());
+                } finally {
+                    window.release(pending);
+                }
+            }
+
+            writer.finish();
+            buffered.flush();
+            log.info("Streamed {} archive of {} entries from bucket '{}' prefix '{}'",
+                    format, entries, bucketName, normalizedPrefix);
+
+        } catch (SdkException e) {
+            log.error("Failed to build archive for bucket '{}' prefix '{}': {}",
+                    bucketName, normalizedPrefix, e.getMessage());
+            throw new StorageException("Failed to build archive: " + e.getMessage(), e);
+        } finally {
+            window.cancel();
+        }
+    }
+
+    /**
+     * Wait for a prefetched object, unwrapping the async failure
+     */
+    private Prefetched awaitPrefetch(PendingObject pending) throws IOException {
+        try {
+            return pending.prefetched.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to prefetch " + pending.summary.getKey(), cause);
+        }
+    }
+
+    private static boolean isCompressedMedia(String name) {
+        int dotIndex = name.lastIndexOf('.');
+        return dotIndex != -1 && COMPRESSED_EXTENSIONS.contains(name.substring(dotIndex + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static void closeQuietly(Prefetched fetched) {
+        if (fetched.remainder != null) {
+            try {
+                fetched.remainder.close();
+            } catch (IOException e) {
+                log.debug("Failed to close abandoned prefetch of '{}': {}", fetched.remainder.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Listed object waiting to be written, with its body if it was prefetched
+     */
+    private static final class PendingObject {
+
+        private final ObjectSummary summary;
+        private final CompletableFuture<Prefetched> prefetched;
+        private final long reservedBytes;
+
+        private PendingObject(ObjectSummary summary, CompletableFuture<Prefetched> prefetched, long reservedBytes) {
+            this.summary = summary;
+            this.prefetched = prefetched;
+            this.reservedBytes = reservedBytes;
+        }
+    }
+
+    /**
+     * Prefetched body: the whole of it, or the bytes read within its reservation followed by the rest still open
+     */
+    private static final class Prefetched {
+
+        private static final Prefetched NONE = new Prefetched(new byte[0], null);
+
+        private final byte[] body;
+        private final ObjectContent remainder;
+
+        private Prefetched(byte[] body, ObjectContent remainder) {
+            this.body = body;
+            this.remainder = remainder;
+        }
+    }
+
+    /**
+     * Sliding window over the listing. Small objects are fetched ahead while earlier entries are written;
+     * the window stops growing once the depth or byte budget is reached, which is the backpressure.
+     */
+    private final class PrefetchWindow {
+
+        private final String bucketName;
+        private final Iterator<ObjectSummary> objects;
+        private final Deque<PendingObject> window = new ArrayDeque<>();
+        private final int depth;
+        private final long bufferBytes;
+        private final long maxObjectBytes;
+        private long reservedBytes;
+        private ObjectSummary lookahead;
+        private volatile boolean cancelled;
+
+        private PrefetchWindow(String bucketName, Iterator<ObjectSummary> objects) {
+            StorageProperties.Archive archive = storageProperties.getArchive();
+            this.bucketName = bucketName;
+            this.objects = objects;
+            this.depth = Math.max(1, archive.getPrefetchDepth());
+            this.bufferBytes = archive.getPrefetchBufferMb() * 1024 * 1024;
+            this.maxObjectBytes = archive.getPrefetchMaxObjectMb() * 1024 * 1024;
+        }
+
+        PendingObject next() {
+            fill();
+            PendingObject pending = window.poll();
+            // Keep fetching ahead while the caller writes this entry
+            fill();
+            return pending;
+        }
+
+        void release(PendingObject pending) {
+            reservedBytes -= pending.reservedBytes;
+        }
+
+        void cancel() {
+            cancelled = true;
+            // Fetches already running finish on their own; whatever they left open is closed when they do
+            window.forEach(pending -> {
+                if (pending.prefetched != null) {
+                    pending.prefetched.thenAccept(ArchiveDownloadServiceImpl::closeQuietly);
+                }
+            });
+            window.clear();
+        }
+
+        /**
+         * Read an object's body within the bytes reserved for it. The listing size understates some bodies, such as
+         * deduplicated references (listed empty) and compressed objects (listed by stored size); the rest of those
+         * is left open and streamed when the entry is written, so the prefetch buffer is never exceeded.
+         */
+        private Prefetched fetch(String key, long reserved) {
+            if (cancelled) {
+                return Prefetched.NONE;
+            }
+            ObjectContent content = storageService.openObject(bucketName, key);
+            try {
+                InputStream body = content.getContent();
+                byte[] head = body.readNBytes((int) Math.min(reserved + 1, Integer.MAX_VALUE - 8));
+                if (head.length <= reserved) {
+                    content.close();
+                    return new Prefetched(head, null);
+                }
+                return new Prefetched(null, ObjectContent.builder()
+                        .bucketName(content.getBucketName())
+                        .key(content.getKey())
+                        .contentLength(content.getContentLength())
+                        .contentType(content.getContentType())
+                        .lastModified(content.getLastModified())
+                        .content(new SequenceInputStream(new ByteArrayInputStream(head), body))
+                        .build());
+            } catch (IOException e) {
+                closeQuietly(new Prefetched(null, content));
+                throw new StorageException("IO error prefetching file " + key, e);
+            }
+        }
+
+        private void fill() {
+            while (window.size() < depth) {
+                if (lookahead == null) {
+                    if (!objects.hasNext()) {
+                        return;
+                    }
+                    lookahead = objects.next();
+                }
+
+                long size = lookahead.getSize();
+                if (size <= maxObjectBytes) {
+                    if (reservedBytes + size > bufferBytes && !window.isEmpty()) {
+                        return;
+                    }
+                    String key = lookahead.getKey();
+                    reservedBytes += size;
+                    window.add(new PendingObject(
+                            lookahead,
+                            CompletableFuture.supplyAsync(() -> fetch(key, size), archivePrefetchExecutor),
+                            size
+                    ));
+                } else {
+                    // Large objects are streamed in place once everything before them is written
+                    if (!window.isEmpty()) {
+                        return;
+                    }
+                    window.add(new PendingObject(lookahead, null, 0));
+                }
+                lookahead = null;
+            }
+        }
+    }
+
+    private interface ArchiveWriter {
+
+        void put(String name, Instant lastModified, byte[] content) throws IOException;
+
+        void put(String name, ObjectContent content) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class ZipWriter implements ArchiveWriter {
+
+        private final ZipOutputStream zip;
+        private final ArchiveCompression compression;
+
+        private ZipWriter(OutputStream output, ArchiveCompression compression) {
+            this.zip = new ZipOutputStream(output);
+            this.compression = compression;
+        }
+
+        @Override
+        public void put(String name, Instant lastModified, byte[] content) throws IOException {
+            ZipEntry entry = newEntry(name, lastModified);
+            if (shouldStore(name)) {
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCompressedSize(content.length);
+                entry.setCrc(crc.getValue());
+            }
+            zip.putNextEntry(entry);
+            zip.write(content);
+            zip.closeEntry();
+        }
+
+        @Override
+        public void put(String name, ObjectContent content) throws IOException {
+            // STORED needs the CRC up front, so streamed entries use level-0 deflate instead
+            boolean store = shouldStore(name);
+            if (store) {
+                zip.setLevel(Deflater.NO_COMPRESSION);
+            }
+            zip.putNextEntry(newEntry(name, content.getLastModified()));
+            content.getContent().transferTo(zip);
+            zip.closeEntry();
+            if (store) {
+                zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            zip.finish();
+        }
+
+        private ZipEntry newEntry(String name, Instant lastModified) {
+            ZipEntry entry = new ZipEntry(name);
+            if (lastModified != null) {
+                entry.setLastModifiedTime(FileTime.from(lastModified));
+            }
+            return entry;
+        }
+
+        private boolean shouldStore(String name) {
+            return compression == ArchiveCompression.STORE
+                    || (compression == ArchiveCompression.AUTO && isCompressedMedia(name));
+        }
+    }
+
+    private static final class TarWriter implements ArchiveWriter {
+
+        private final TarArchiveOutputStream tar;
+        private final Function<String, ObjectContent> reopen;
+
+        private TarWriter(OutputStream output, Function<String, ObjectContent> reopen) {
+            this.tar = new TarArchiveOutputStream(output);
+            this.reopen = reopen;
+            this.tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            this.tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        }
+
+        @Override
+        public void put(String name, Instant lastModified, byte[] content) throws IOException {
+            tar.putArchiveEntry(newEntry(name, lastModified, content.length));
+            tar.write(content);
+            tar.closeArchiveEntry();
+        }
+
+        @Override
+        public void put(String name, ObjectContent content) throws IOException {
+            if (content.getContentLength() == null) {
+                putMeasured(name, content);
+                return;
+            }
+            try (InputStream body = content.getContent()) {
+                putEntry(name, content.getLastModified(), content.getContentLength(), body);
+            }
+        }
+
+        /**
+         * TAR headers carry the entry size, so a body of unknown length is read once to count it and opened again
+         * to write it; nothing is held in memory or spooled to disk. A body that changed in between fails the
+         * archive, as the header no longer matches.
+         */
+        private void putMeasured(String name, ObjectContent content) throws IOException {
+            long size;
+            try (InputStream body = content.getContent()) {
+                size = body.transferTo(OutputStream.nullOutputStream());
+            }
+            try (ObjectContent again = reopen.apply(content.getKey())) {
+                putEntry(name, content.getLastModified(), size, again.getContent());
+            }
+        }
+
+        private void putEntry(String name, Instant lastModified, long size, InputStream body) throws IOException {
+            tar.putArchiveEntry(newEntry(name, lastModified, size));
+            body.transferTo(tar);
+            tar.closeArchiveEntry();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            tar.finish();
+        }
+
+        private TarArchiveEntry newEntry(String name, Instant lastModified, long size) {
+            TarArchiveEntry entry = new TarArchiveEntry(name);
+            entry.setSize(size);
+            if (lastModified != null) {
+                entry.setModTime(Date.from(lastModified));
+            }
+            return entry;
+        }
+    }
+}
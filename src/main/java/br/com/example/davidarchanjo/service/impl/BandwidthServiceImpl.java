@@ -0,0 +1,281 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BandwidthService;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.util.ByteRateLimiter;
+import br.com.example.davidarchanjo.util.ThrottledInputStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class BandwidthServiceImpl implements BandwidthService {
+
+    /**
+     * Tenant charged for objects outside the bucket strategy layout
+     */
+    static final String OTHER_TENANT = "other";
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+    private static final double MIN_WEIGHT = 0.001;
+
+    private final StorageProperties storageProperties;
+    private final BucketManagementService bucketManagementService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Shares by client ID; a tenant's limiter is kept between transfers so a reconnect cannot reset its debt, and
+     * dropped with its meters once the tenant has been idle long enough. Entries are added and removed under the
+     * service lock.
+     */
+    private final Map<String, TenantShare> tenants = new ConcurrentHashMap<>();
+
+    public BandwidthServiceImpl(
+            StorageProperties storageProperties,
+            BucketManagementService bucketManagementService,
+            MeterRegistry meterRegistry
+    ) {
+        this.storageProperties = storageProperties;
+        this.bucketManagementService = bucketManagementService;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("storage.bandwidth.active.tenants", this, BandwidthServiceImpl::activeTenants)
+                .description("Tenants with a transfer in progress, sharing the gateway bandwidth")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InputStream throttle(String bucketName, String keyName, S3OperationType type, InputStream stream) {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        if (!settings.isEnabled()) {
+            return stream;
+        }
+
+        String tenant = bucketManagementService.resolveTenant(bucketName, keyName)
+                .map(TenantLocation::getClientId)
+                .orElse(OTHER_TENANT);
+        TenantShare share = open(tenant);
+        TransferMeters meters = share.meters(type);
+        Counter transferred = meters.transferred();
+        Timer waited = meters.waited();
+
+        long[] waitedNanos = new long[1];
+        return new ThrottledInputStream(stream, settings.getChunkKb() * 1024, bytes -> {
+            transferred.increment(bytes);
+            try {
+                waitedNanos[0] += share.limiter.acquire(bytes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for bandwidth");
+            }
+        }, () -> {
+            waited.record(waitedNanos[0], TimeUnit.NANOSECONDS);
+            close(share);
+        });
+    }
+
+    @Override
+    public double rate(String tenant) {
+        TenantShare share = tenants.get(tenant);
+        return share != null ? share.limiter.getRate() : -1;
+    }
+
+    private TenantShare newShare(String tenant) {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        ByteRateLimiter limiter = new ByteRateLimiter(limit(tenant), settings.getBurstSeconds());
+        Gauge rate = Gauge.builder("storage.bandwidth.rate", limiter, ByteRateLimiter::getRate)
+                .description("Bytes per second currently allowed to a tenant, 0 when unlimited")
+                .tags("tenant", tenant)
+                .register(meterRegistry);
+        return new TenantShare(tenant, limiter, rate);
+    }
+
+    /**
+     * Start a transfer of a tenant. A tenant starting its first transfer, or ending its last, changes everyone's
+     * share; the same moments are when idle tenants are dropped.
+     */
+    private synchronized TenantShare open(String tenant) {
+        TenantShare share = tenants.computeIfAbsent(tenant, this::newShare);
+        if (share.active++ == 0) {
+            evictIdle();
+            rebalance();
+        }
+        return share;
+    }
+
+    private synchronized void close(TenantShare share) {
+        if (--share.active == 0) {
+            share.idleSince = System.nanoTime();
+            evictIdle();
+            rebalance();
+        }
+    }
+
+    /**
+     * Drop tenants idle for at least the expiry, then the longest idle ones beyond the most kept, together with
+     * the meters tagged with them. A tenant coming back starts with a fresh limiter and fresh meters.
+     */
+    private void evictIdle() {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        long now = System.nanoTime();
+        long expiry = TimeUnit.MILLISECONDS.toNanos(settings.getIdleExpiryMs());
+
+        List<TenantShare> idle = new ArrayList<>();
+        for (TenantShare share : tenants.values()) {
+            if (share.active > 0) {
+                continue;
+            }
+            if (now - share.idleSince >= expiry) {
+                remove(share);
+            } else {
+                idle.add(share);
+            }
+        }
+        int excess = idle.size() - Math.max(0, settings.getMaxIdleTenants());
+        if (excess > 0) {
+            idle.sort(Comparator.comparingLong(share -> share.idleSince));
+            idle.subList(0, excess).forEach(this::remove);
+        }
+    }
+
+    private void remove(TenantShare share) {
+        tenants.remove(share.tenant, share);
+        meterRegistry.remove(share.rate);
+        share.meters.values().forEach(meters -> {
+            meterRegistry.remove(meters.transferred());
+            meterRegistry.remove(meters.waited());
+        });
+    }
+
+    /**
+     * Split the total bandwidth among active tenants in proportion to their weights. A tenant whose own limit is
+     * below its share keeps its limit, and what it leaves is split among the rest in the same way.
+     */
+    private void rebalance() {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        double total = settings.getTotalMbPerSecond() * BYTES_PER_MB;
+
+        List<TenantShare> active = new ArrayList<>();
+        double weights = 0;
+        for (TenantShare share : tenants.values()) {
+            if (share.active > 0) {
+                active.add(share);
+                weights += weight(share.tenant);
+            }
+        }
+        // Tenants capped furthest below their share first; unlimited ones take what remains
+        active.sort(Comparator.comparingDouble(share -> {
+            double limit = limit(share.tenant);
+            return limit > 0 ? limit / weight(share.tenant) : Double.MAX_VALUE;
+        }));
+
+        double remaining = total;
+        for (TenantShare share : active) {
+            double limit = limit(share.tenant);
+            double rate = limit;
+            if (total > 0) {
+                double weight = weight(share.tenant);
+                double fair = remaining * weight / weights;
+                rate = limit > 0 ? Math.min(limit, fair) : fair;
+                remaining -= rate;
+                weights -= weight;
+            }
+            share.limiter.setRate(rate);
+        }
+        log.debug("Bandwidth shared among {} active tenants", active.size());
+    }
+
+    /**
+     * Own limit of a tenant in bytes per second, 0 when it has none
+     */
+    private double limit(String tenant) {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        StorageProperties.Bandwidth.Tenant configured = settings.getTenants().get(tenant);
+        double mbPerSecond = configured != null && configured.getMbPerSecond() != null
+                ? configured.getMbPerSecond()
+                : settings.getTenantMbPerSecond();
+        return Math.max(0, mbPerSecond * BYTES_PER_MB);
+    }
+
+    private double weight(String tenant) {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        StorageProperties.Bandwidth.Tenant configured = settings.getTenants().get(tenant);
+        double weight = configured != null && configured.getWeight() != null
+                ? configured.getWeight()
+                : settings.getDefaultWeight();
+        return Math.max(MIN_WEIGHT, weight);
+    }
+
+    private synchronized int activeTenants() {
+        return (int) tenants.values().stream().filter(share -> share.active > 0).count();
+    }
+
+    /**
+     * Limiter of one tenant, its transfers in progress and the meters tagged with it
+     */
+    private final class TenantShare {
+
+        private final String tenant;
+        private final ByteRateLimiter limiter;
+        private final Gauge rate;
+
+        /**
+         * Meters by operation, registered on first use; guarded by the service
+         */
+        private final Map<S3OperationType, TransferMeters> meters = new EnumMap<>(S3OperationType.class);
+
+        /**
+         * Open streams; guarded by the service
+         */
+        private int active;
+
+        /**
+         * When the last transfer ended, from {@link System#nanoTime()}; guarded by the service
+         */
+        private long idleSince;
+
+        private TenantShare(String tenant, ByteRateLimiter limiter, Gauge rate) {
+            this.tenant = tenant;
+            this.limiter = limiter;
+            this.rate = rate;
+        }
+
+        private TransferMeters meters(S3OperationType type) {
+            synchronized (BandwidthServiceImpl.this) {
+                return meters.computeIfAbsent(type, operation -> {
+                    String name = operation.name().toLowerCase(Locale.ROOT);
+                    return new TransferMeters(
+                            Counter.builder("storage.bandwidth.bytes")
+                                    .description("Bytes paced for a tenant")
+                                    .tags("tenant", tenant, "operation", name)
+                                    .register(meterRegistry),
+                            Timer.builder("storage.bandwidth.throttle.wait")
+                                    .description("Time a transfer spent waiting for its tenant's bandwidth")
+                                    .tags("tenant", tenant, "operation", name)
+                                    .register(meterRegistry));
+                });
+            }
+        }
+    }
+
+    private record TransferMeters(Counter transferred, Timer waited) {
+    }
+}
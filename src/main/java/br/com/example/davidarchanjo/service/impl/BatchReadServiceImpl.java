@@ -0,0 +1,226 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.BatchStatEntry;
+import br.com.example.davidarchanjo.dto.BatchStatResponse;
+import br.com.example.davidarchanjo.dto.ObjectStatResponse;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.service.BatchReadService;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+@Slf4j
+@Service
+public class BatchReadServiceImpl implements BatchReadService {
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final S3BucketStorageService storageService;
+    private final ObjectStatService objectStatService;
+    private final StorageProperties storageProperties;
+    private final TaskExecutor batchReadExecutor;
+
+    public BatchReadServiceImpl(
+            S3BucketStorageService storageService,
+            ObjectStatService objectStatService,
+            StorageProperties storageProperties,
+            @Qualifier("batchReadExecutor") TaskExecutor batchReadExecutor
+    ) {
+        this.storageService = storageService;
+        this.objectStatService = objectStatService;
+        this.storageProperties = storageProperties;
+        this.batchReadExecutor = batchReadExecutor;
+    }
+
+    @Override
+    public BatchStatResponse stat(String bucketName, List<String> keys) {
+        int maxKeys = storageProperties.getBatchRead().getMaxStatKeys();
+        if (keys.size() > maxKeys) {
+            throw new InvalidRequestException("A batch stat accepts at most " + maxKeys + " keys");
+        }
+
+        long start = System.currentTimeMillis();
+        int window = Math.max(1, storageProperties.getBatchRead().getStatWindow());
+        List<BatchStatEntry> entries = new ArrayList<>(keys.size());
+        Deque<CompletableFuture<BatchStatEntry>> lookups = new ArrayDeque<>(window);
+
+        // Cached keys return at once; the rest wait on concurrent HEADs, at most `window` of them at a time
+        for (String key : keys) {
+            if (lookups.size() == window) {
+                entries.add(lookups.removeFirst().join());
+            }
+            lookups.addLast(CompletableFuture.supplyAsync(() -> statEntry(bucketName, key), batchReadExecutor));
+        }
+        while (!lookups.isEmpty()) {
+            entries.add(lookups.removeFirst().join());
+        }
+
+        int found = (int) entries.stream().filter(entry -> entry.getStatus() == HttpStatus.OK.value()).count();
+        int missing = (int) entries.stream()
+                .filter(entry -> entry.getStatus() == HttpStatus.NOT_FOUND.value())
+                .count();
+        long duration = System.currentTimeMillis() - start;
+        log.debug("Batch stat of {} keys in bucket '{}' took {} ms", keys.size(), bucketName, duration);
+
+        return BatchStatResponse.builder()
+                .bucketName(bucketName)
+                .found(found)
+                .missing(missing)
+                .failed(entries.size() - found - missing)
+                .durationMs(duration)
+                .entries(entries)
+                .build();
+    }
+
+    @Override
+    public void validateFetch(List<String> keys) {
+        int maxKeys = storageProperties.getBatchRead().getMaxFetchKeys();
+        if (keys.size() > maxKeys) {
+            throw new InvalidRequestException("A batch fetch accepts at most " + maxKeys + " keys");
+        }
+    }
+
+    @Override
+    public void fetch(String bucketName, List<String> keys, String boundary, OutputStream output) throws IOException {
+        validateFetch(keys);
+        StorageProperties.BatchRead settings = storageProperties.getBatchRead();
+        int window = Math.max(1, settings.getFetchWindow());
+        int maxBytes = settings.getMaxObjectSizeKb() * 1024;
+
+        Iterator<String> pending = new LinkedHashSet<>(keys).iterator();
+        BlockingQueue<Part> completed = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+
+        // At most `window` objects are held in memory: one is only started when an earlier one was written
+        while (pending.hasNext() || inFlight > 0) {
+            while (pending.hasNext() && inFlight < window) {
+                String key = pending.next();
+                batchReadExecutor.execute(() -> completed.add(load(bucketName, key, maxBytes)));
+                inFlight++;
+            }
+            Part part;
+            try {
+                part = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Batch fetch interrupted");
+            }
+            inFlight--;
+            writePart(output, boundary, part);
+        }
+
+        output.write(("--" + boundary + "--").getBytes(StandardCharsets.US_ASCII));
+        output.write(CRLF);
+        output.flush();
+    }
+
+    private BatchStatEntry statEntry(String bucketName, String key) {
+        BatchStatEntry.BatchStatEntryBuilder entry = BatchStatEntry.builder().key(key);
+        try {
+            return entry.status(HttpStatus.OK.value())
+                    .metadata(ObjectStatResponse.from(objectStatService.stat(bucketName, key)))
+                    .build();
+        } catch (FileNotFoundException | BucketNotFoundException e) {
+            return entry.status(HttpStatus.NOT_FOUND.value()).error(e.getMessage()).build();
+        } catch (RuntimeException e) {
+            log.warn("Batch stat of '{}' in bucket '{}' failed: {}", key, bucketName, e.getMessage());
+            return entry.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Read a whole object, releasing its connection before the part waits to be written
+     */
+    private Part load(String bucketName, String key, int maxBytes) {
+        try (ObjectContent content = storageService.openObject(bucketName, key)) {
+            if (content.getContentLength() != null && content.getContentLength() > maxBytes) {
+                return Part.error(key, HttpStatus.PAYLOAD_TOO_LARGE, "Object exceeds the batch fetch size limit");
+            }
+            InputStream body = content.getContent();
+            byte[] bytes = body.readNBytes(maxBytes + 1);
+            if (bytes.length > maxBytes) {
+                return Part.error(key, HttpStatus.PAYLOAD_TOO_LARGE, "Object exceeds the batch fetch size limit");
+            }
+            String contentType = content.getContentType() != null
+                    ? content.getContentType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            return new Part(key, HttpStatus.OK, contentType, content.getETag(), bytes);
+
+        } catch (FileNotFoundException | BucketNotFoundException e) {
+            return Part.error(key, HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Batch fetch of '{}' in bucket '{}' failed: {}", key, bucketName, e.getMessage());
+            return Part.error(key, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private void writePart(OutputStream output, String boundary, Part part) throws IOException {
+        StringBuilder headers = new StringBuilder()
+                .append("--").append(boundary).append("\r\n")
+                .append("Content-Type: ").append(part.contentType).append("\r\n")
+                .append("Content-Length: ").append(part.body.length).append("\r\n")
+                .append("Content-Location: ").append(UriUtils.encodePath(part.key, StandardCharsets.UTF_8))
+                .append("\r\n")
+                .append("X-Object-Status: ").append(part.status.value()).append("\r\n");
+        if (part.eTag != null) {
+            headers.append("ETag: ").append(part.eTag).append("\r\n");
+        }
+        headers.append("\r\n");
+
+        output.write(headers.toString().getBytes(StandardCharsets.US_ASCII));
+        output.write(part.body);
+        output.write(CRLF);
+        // Let the client render each object as soon as it arrives
+        output.flush();
+    }
+
+    /**
+     * One object, or the error returned in its place
+     */
+    private static final class Part {
+
+        private final String key;
+        private final HttpStatus status;
+        private final String contentType;
+        private final String eTag;
+        private final byte[] body;
+
+        private Part(String key, HttpStatus status, String contentType, String eTag, byte[] body) {
+            this.key = key;
+            this.status = status;
+            this.contentType = contentType;
+            this.eTag = eTag;
+            this.body = body;
+        }
+
+        static Part error(String key, HttpStatus status, String message) {
+            String text = message != null ? message : status.getReasonPhrase();
+            return new Part(key, status, "text/plain;charset=UTF-8", null, text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.BatchUploadEntryResult;
+import br.com.example.davidarchanjo.dto.BatchUploadResponse;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import br.com.example.davidarchanjo.enumeration.FileMediaType;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileUploadException;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.service.BatchUploadService;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.PathSanitizer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+public class BatchUploadServiceImpl implements BatchUploadService {
+
+    private final S3BucketStorageService storageService;
+    private final StorageProperties storageProperties;
+    private final Executor batchUploadExecutor;
+    private final MemoryBudgetService memoryBudgetService;
+
+    public BatchUploadServiceImpl(
+            S3BucketStorageService storageService,
+            StorageProperties storageProperties,
+            @Qualifier("batchUploadExecutor") Executor batchUploadExecutor,
+            MemoryBudgetService memoryBudgetService
+    ) {
+        this.storageService = storageService;
+        this.storageProperties = storageProperties;
+        this.batchUploadExecutor = batchUploadExecutor;
+        this.memoryBudgetService = memoryBudgetService;
+    }
+
+    @Override
+    public BatchUploadResponse uploadFiles(String bucketName, String directory, List<MultipartFile> files) {
+        requireBucket(bucketName);
+        BatchRun run = new BatchRun(bucketName, directory);
+
+        for (MultipartFile file : files) {
+            if (run.isFull()) {
+                run.truncated = true;
+                break;
+            }
+            run.submit(file.getOriginalFilename(), file.getSize(), file.getContentType(), file);
+        }
+
+        return run.complete();
+    }
+
+    @Override
+    public BatchUploadResponse uploadArchive(
+            String bucketName,
+            String directory,
+            ArchiveFormat format,
+            InputStream archive,
+            Long contentLength
+    ) {
+        requireBucket(bucketName);
+        long maxEntryBytes = storageProperties.getBatch().getMaxEntrySizeMb() * 1024 * 1024;
+
+        // The body is streamed, so only the entries buffered at once are charged, never the whole archive
+        long buffered = maxInFlight() * maxEntryBytes;
+        long charged = contentLength != null && contentLength > 0 ? Math.min(contentLength, buffered) : buffered;
+        MemoryBudgetService.Reservation reservation = memoryBudgetService.reserve(charged);
+        try (reservation) {
+            return uploadEntries(bucketName, directory, format, archive, maxEntryBytes);
+        }
+    }
+
+    private BatchUploadResponse uploadEntries(
+            String bucketName,
+            String directory,
+            ArchiveFormat format,
+            InputStream archive,
+            long maxEntryBytes
+    ) {
+        BatchRun run = new BatchRun(bucketName, directory);
+        try (ArchiveInputStream<? extends ArchiveEntry> entries = openArchive(format, archive)) {
+            ArchiveEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (run.isFull()) {
+                    run.truncated = true;
+                    break;
+                }
+
+                String name = entry.getName();
+                if (entry.getSize() > maxEntryBytes) {
+                    run.reject(name, entry.getSize(), "Entry exceeds maximum size of " + maxEntryBytes + " bytes");
+                    continue;
+                }
+
+                // Reserve a slot before buffering the entry so memory stays bounded by maxInFlight
+                run.acquireSlot();
+                byte[] content = readEntry(entries, maxEntryBytes);
+                if (content == null) {
+                    run.releaseSlot();
+                    run.reject(name, entry.getSize(), "Entry exceeds maximum size of " + maxEntryBytes + " bytes");
+                    continue;
+                }
+
+                String contentType = FileMediaType.fromFilename(name).toString();
+                run.submitAcquired(name, content.length, contentType, () -> new ByteArrayInputStream(content));
+            }
+        } catch (IOException e) {
+            log.error("Failed to read {} archive for bucket '{}': {}", format, bucketName, e.getMessage());
+            run.awaitAll();
+            throw new FileUploadException("Failed to read archive: " + e.getMessage(), e);
+        }
+
+        return run.complete();
+    }
+
+    /**
+     * Entries a batch may buffer at once, sized from the heap unless configured
+     */
+    int maxInFlight() {
+        StorageProperties.Batch settings = storageProperties.getBatch();
+        if (settings.getMaxInFlight() > 0) {
+            return settings.getMaxInFlight();
+        }
+        long entryBytes = Math.max(1, settings.getMaxEntrySizeMb()) * 1024 * 1024;
+        long fit = Runtime.getRuntime().maxMemory() / 4 / entryBytes;
+        return (int) Math.max(1, Math.min(fit, Math.max(1, settings.getConcurrency()) * 2L));
+    }
+
+    /**
+     * Verify the target bucket once for the whole batch
+     */
+    private void requireBucket(String bucketName) {
+        if (!storageService.bucketExists(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+    }
+
+    private ArchiveInputStream<? extends ArchiveEntry> openArchive(ArchiveFormat format, InputStream archive) {
+        return switch (format) {
+            case ZIP -> new ZipArchiveInputStream(archive);
+            case TAR -> new TarArchiveInputStream(archive);
+        };
+    }
+
+    /**
+     * Read the current archive entry fully, or return null if it is larger than the limit
+     */
+    private byte[] readEntry(InputStream entries, long maxEntryBytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        byte[] chunk = new byte[8192];
+        long total = 0;
+        int bytesRead;
+        while ((bytesRead = entries.read(chunk)) != -1) {
+            total += bytesRead;
+            if (total > maxEntryBytes) {
+                return null;
+            }
+            buffer.write(chunk, 0, bytesRead);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * State of a single batch: in-flight slots, ordered results and counters
+     */
+    private class BatchRun {
+
+        private final String bucketName;
+        private final String directory;
+        private final Semaphore slots;
+        private final List<CompletableFuture<BatchUploadEntryResult>> results = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private boolean truncated;
+
+        BatchRun(String bucketName, String directory) {
+            this.bucketName = bucketName;
+            this.directory = directory;
+            this.slots = new Semaphore(maxInFlight());
+        }
+
+        boolean isFull() {
+            return results.size() >= storageProperties.getBatch().getMaxEntries();
+        }
+
+        void acquireSlot() {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FileUploadException("Batch upload interrupted", e);
+            }
+        }
+
+        void releaseSlot() {
+            slots.release();
+        }
+
+        void submit(String name, long size, String contentType, InputStreamSource source) {
+            acquireSlot();
+            submitAcquired(name, size, contentType, source);
+        }
+
+        void submitAcquired(String name, long size, String contentType, InputStreamSource source) {
+            String key;
+            try {
+                key = buildKey(name);
+            } catch (RuntimeException e) {
+                releaseSlot();
+                reject(name, size, e.getMessage());
+                return;
+            }
+
+            CompletableFuture<BatchUploadEntryResult> future = CompletableFuture
+                    .supplyAsync(() -> store(key, size, contentType, source), batchUploadExecutor)
+                    .whenComplete((result, error) -> releaseSlot());
+            results.add(future);
+        }
+
+        void reject(String name, long size, String error) {
+            results.add(CompletableFuture.completedFuture(failure(name, size, error)));
+        }
+
+        void awaitAll() {
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        }
+
+        BatchUploadResponse complete() {
+            awaitAll();
+
+            List<BatchUploadEntryResult> entries = new ArrayList<>(results.size());
+            int succeeded = 0;
+            for (CompletableFuture<BatchUploadEntryResult> future : results) {
+                BatchUploadEntryResult entry = future.join();
+                if (entry.isSuccess()) {
+                    succeeded++;
+                }
+                entries.add(entry);
+            }
+
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("Batch upload to bucket '{}' finished: {} stored, {} failed in {} ms",
+                    bucketName, succeeded, entries.size() - succeeded, durationMs);
+
+            return BatchUploadResponse.builder()
+                    .bucketName(bucketName)
+                    .totalEntries(entries.size())
+                    .succeeded(succeeded)
+                    .failed(entries.size() - succeeded)
+                    .truncated(truncated)
+                    .durationMs(durationMs)
+                    .entries(entries)
+                    .build();
+        }
+
+        private String buildKey(String name) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("File name is required");
+            }
+            if (directory == null || directory.trim().isEmpty()) {
+                return PathSanitizer.sanitizePath(name);
+            }
+            return PathSanitizer.sanitizePath(directory.trim() + "/" + name);
+        }
+
+        private BatchUploadEntryResult store(String key, long size, String contentType, InputStreamSource source) {
+            try (InputStream content = source.getInputStream()) {
+                ObjectWriteResult result = storageService.putObject(bucketName, key, size, contentType, content);
+                return BatchUploadEntryResult.builder()
+                        .fileName(key)
+                        .fileSize(size)
+                        .success(true)
+                        .eTag(result.getETag())
+                        .build();
+            } catch (Exception e) {
+                log.warn("Batch entry '{}' failed for bucket '{}': {}", key, bucketName, e.getMessage());
+                return failure(key, size, e.getMessage());
+            }
+        }
+
+        private BatchUploadEntryResult failure(String name, long size, String error) {
+            return BatchUploadEntryResult.builder()
+                    .fileName(name)
+                    .fileSize(size)
+                    .success(false)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -4,62 +4,82 @@ import br.com.example.davidarchanjo.config.StorageProperties;
 import br.com.example.davidarchanjo.enumeration.BucketStrategy;
 import br.com.example.davidarchanjo.enumeration.Environment;
 import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.TenantLocation;
 import br.com.example.davidarchanjo.service.BucketManagementService;
 import br.com.example.davidarchanjo.util.PathSanitizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
 import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BucketManagementServiceImpl implements BucketManagementService {
 
+    /**
+     * Most clients remembered per environment; the set of tenants is small and stable, so misses are rare
+     */
+    private static final int MAX_RESOLVED_CLIENTS = 10_000;
+
+    private static final Pattern NON_BUCKET_CHARACTERS = Pattern.compile("[^a-z0-9-]");
+    private static final Pattern REPEATED_HYPHENS = Pattern.compile("-+");
+    private static final Pattern EDGE_HYPHENS = Pattern.compile("^-|-$");
+    private static final Pattern NON_PATH_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_-]");
+
     private final S3Client s3Client;
     private final StorageProperties storageProperties;
 
-    @Override
-    public String getBucketName(String clientId, Environment environment) {
-        BucketStrategy strategy = storageProperties.getBucketStrategy();
-
-        switch (strategy) {
-            case SHARED_WITH_PREFIX:
-                return storageProperties.getSharedBucket();
+    /**
+     * Tenant locations resolved under the current bucket settings; replaced as soon as those settings change
+     */
+    private volatile Resolutions resolutions;
 
-            case PER_CLIENT:
-                return String.format("%s-%s", sanitizeForBucketName(clientId), storageProperties.getBucketSuffix());
+    /**
+     * Bucket provisioning in progress, by client partition and bucket name
+     */
+    private final Map<ProvisioningKey, CompletableFuture<Provisioning>> provisioning = new ConcurrentHashMap<>();
 
-            case PER_CLIENT_PER_ENVIRONMENT:
-                return String.format("%s-%s-%s",
-                        sanitizeForBucketName(clientId),
-                        environment.getValue(),
-                        storageProperties.getBucketSuffix());
+    /**
+     * Outcome of recent provisioning by client partition and bucket name: buckets known to exist, and failures kept
+     * briefly. Each partition may reach its own backend, so one's outcome says nothing about another's.
+     */
+    private final Cache<ProvisioningKey, Provisioning> provisioned = Caffeine.newBuilder()
+            .maximumSize(MAX_RESOLVED_CLIENTS)
+            .expireAfter(Expiry.creating((ProvisioningKey key, Provisioning outcome) -> timeToLive(outcome)))
+            .build();
 
-            default:
-                throw new StorageException("Invalid bucket strategy: " + strategy);
+    @Override
+    public String getBucketName(String clientId, Environment environment) {
+        TenantPath path = resolve(clientId, environment);
+        if (path.bucketName == null) {
+            throw new StorageException("Invalid bucket strategy: " + storageProperties.getBucketStrategy());
         }
+        return path.bucketName;
     }
 
     @Override
     public String buildObjectKey(String clientId, Environment environment, String directory, String fileName) {
-        BucketStrategy strategy = storageProperties.getBucketStrategy();
-
-        StringBuilder keyBuilder = new StringBuilder();
-
-        // Add client prefix for SHARED_WITH_PREFIX strategy
-        if (strategy == BucketStrategy.SHARED_WITH_PREFIX) {
-            keyBuilder.append(sanitizeForPath(clientId)).append("/");
-        }
-
-        // Add environment prefix (except for PER_CLIENT_PER_ENVIRONMENT where it's in bucket name)
-        if (strategy != BucketStrategy.PER_CLIENT_PER_ENVIRONMENT) {
-            keyBuilder.append(environment.getValue()).append("/");
-        }
+        // Client and environment prefixes, as the bucket strategy requires
+        StringBuilder keyBuilder = new StringBuilder(resolve(clientId, environment).keyPrefix);
 
         // Add directory if provided
         if (directory != null && !directory.trim().isEmpty()) {
@@ -78,34 +98,94 @@ public class BucketManagementServiceImpl implements BucketManagementService {
 
     @Override
     public void createBucketIfNotExists(String bucketName) {
+        createBucketIfNotExists(bucketName, null, s3Client);
+    }
+
+    @Override
+    public void createBucketIfNotExists(String bucketName, String partition, S3Client client) {
+        ProvisioningKey key = new ProvisioningKey(partition, bucketName);
+        Provisioning outcome = provisioned.getIfPresent(key);
+        if (outcome == null) {
+            CompletableFuture<Provisioning> mine = new CompletableFuture<>();
+            CompletableFuture<Provisioning> running = provisioning.putIfAbsent(key, mine);
+            if (running == null) {
+                // This thread provisions the bucket; concurrent callers for the same bucket wait for its outcome
+                try {
+                    outcome = provision(client, bucketName);
+                    provisioned.put(key, outcome);
+                    mine.complete(outcome);
+                } catch (Throwable e) {
+                    // provision() turns exceptions into outcomes, so this is an Error; waiters must not get null
+                    mine.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    provisioning.remove(key, mine);
+                }
+            } else {
+                try {
+                    outcome = running.join();
+                } catch (CompletionException e) {
+                    throw new StorageException("Failed to create bucket: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        if (outcome.failure != null) {
+            throw new StorageException(outcome.failure.getMessage(), outcome.failure);
+        }
+    }
+
+    private Duration timeToLive(Provisioning outcome) {
+        StorageProperties.Provisioning settings = storageProperties.getProvisioning();
+        return Duration.ofMillis(outcome.failure == null ? settings.getReadyTtlMs() : settings.getFailureTtlMs());
+    }
+
+    /**
+     * Check for the bucket and create it if missing; failures are returned so they can be remembered
+     */
+    private Provisioning provision(S3Client client, String bucketName) {
         try {
-            if (!bucketExists(bucketName)) {
+            if (!bucketExists(client, bucketName)) {
                 log.info("Creating bucket: {}", bucketName);
 
                 CreateBucketRequest createBucketRequest = CreateBucketRequest.builder()
                         .bucket(bucketName)
                         .build();
 
-                s3Client.createBucket(createBucketRequest);
-                log.info("Bucket created successfully: {}", bucketName);
+                try {
+                    client.createBucket(createBucketRequest);
+                    log.info("Bucket created successfully: {}", bucketName);
+                } catch (BucketAlreadyOwnedByYouException e) {
+                    // Another gateway instance created it first
+                    log.debug("Bucket '{}' was created concurrently", bucketName);
+                }
 
                 // Wait for bucket to be available
-                waitForBucket(bucketName);
+                waitForBucket(client, bucketName);
             }
+            return Provisioning.READY;
+
         } catch (S3Exception e) {
             log.error("Failed to create bucket '{}': {}", bucketName, e.getMessage());
-            throw new StorageException("Failed to create bucket: " + e.awsErrorDetails().errorMessage(), e);
+            String reason = e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage();
+            return new Provisioning(new StorageException("Failed to create bucket: " + reason, e));
+        } catch (RuntimeException e) {
+            log.error("Failed to create bucket '{}': {}", bucketName, e.getMessage());
+            return new Provisioning(new StorageException("Failed to create bucket: " + e.getMessage(), e));
         }
     }
 
     @Override
     public boolean bucketExists(String bucketName) {
+        return bucketExists(s3Client, bucketName);
+    }
+
+    private boolean bucketExists(S3Client client, String bucketName) {
         try {
             HeadBucketRequest headBucketRequest = HeadBucketRequest.builder()
                     .bucket(bucketName)
                     .build();
 
-            s3Client.headBucket(headBucketRequest);
+            client.headBucket(headBucketRequest);
             return true;
 
         } catch (NoSuchBucketException e) {
@@ -116,13 +196,123 @@ public class BucketManagementServiceImpl implements BucketManagementService {
         }
     }
 
+    @Override
+    public Optional<TenantLocation> resolveTenant(String bucketName, String keyName) {
+        String bucketSuffix = "-" + storageProperties.getBucketSuffix();
+
+        switch (storageProperties.getBucketStrategy()) {
+            case SHARED_WITH_PREFIX: {
+                // {clientId}/{environment}/...
+                String[] segments = keyName.split("/", 3);
+                if (!bucketName.equals(storageProperties.getSharedBucket()) || segments.length < 3) {
+                    return Optional.empty();
+                }
+                return tenant(segments[0], segments[1]);
+            }
+
+            case PER_CLIENT: {
+                // Bucket {clientId}-{suffix}, key {environment}/...
+                String[] segments = keyName.split("/", 2);
+                if (!bucketName.endsWith(bucketSuffix) || segments.length < 2) {
+                    return Optional.empty();
+                }
+                return tenant(bucketName.substring(0, bucketName.length() - bucketSuffix.length()), segments[0]);
+            }
+
+            case PER_CLIENT_PER_ENVIRONMENT: {
+                // Bucket {clientId}-{environment}-{suffix}
+                if (!bucketName.endsWith(bucketSuffix)) {
+                    return Optional.empty();
+                }
+                String prefix = bucketName.substring(0, bucketName.length() - bucketSuffix.length());
+                int separator = prefix.lastIndexOf('-');
+                if (separator <= 0) {
+                    return Optional.empty();
+                }
+                return tenant(prefix.substring(0, separator), prefix.substring(separator + 1));
+            }
+
+            default:
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public String tenantPrefix(String bucketName, String keyName) {
+        if (resolveTenant(bucketName, keyName).isEmpty()) {
+            return "";
+        }
+        int end = 0;
+        int depth = storageProperties.getBucketStrategy().getTenantPrefixDepth();
+        for (int segment = 0; segment < depth; segment++) {
+            end = keyName.indexOf('/', end) + 1;
+        }
+        return keyName.substring(0, end);
+    }
+
+    /**
+     * Bucket name and key prefix of a tenant, computed once per client and environment
+     */
+    private TenantPath resolve(String clientId, Environment environment) {
+        Resolutions settings = currentResolutions();
+        Cache<String, TenantPath> paths = settings.paths.get(environment);
+        TenantPath path = paths.getIfPresent(clientId);
+        return path != null ? path : paths.get(clientId, id -> tenantPath(settings, id, environment));
+    }
+
+    /**
+     * Resolutions of the current bucket settings, starting afresh whenever one of them has changed
+     */
+    private Resolutions currentResolutions() {
+        BucketStrategy strategy = storageProperties.getBucketStrategy();
+        String sharedBucket = storageProperties.getSharedBucket();
+        String bucketSuffix = storageProperties.getBucketSuffix();
+
+        Resolutions current = resolutions;
+        if (current == null || !current.matches(strategy, sharedBucket, bucketSuffix)) {
+            current = new Resolutions(strategy, sharedBucket, bucketSuffix);
+            resolutions = current;
+        }
+        return current;
+    }
+
+    private TenantPath tenantPath(Resolutions settings, String clientId, Environment environment) {
+        String bucketName = null;
+        String keyPrefix;
+        if (settings.strategy == BucketStrategy.SHARED_WITH_PREFIX) {
+            bucketName = settings.sharedBucket;
+            keyPrefix = sanitizeForPath(clientId) + "/" + environment.getValue() + "/";
+        } else if (settings.strategy == BucketStrategy.PER_CLIENT) {
+            bucketName = sanitizeForBucketName(clientId) + "-" + settings.bucketSuffix;
+            keyPrefix = environment.getValue() + "/";
+        } else if (settings.strategy == BucketStrategy.PER_CLIENT_PER_ENVIRONMENT) {
+            // The environment is part of the bucket name
+            bucketName = sanitizeForBucketName(clientId) + "-" + environment.getValue() + "-" + settings.bucketSuffix;
+            keyPrefix = "";
+        } else {
+            keyPrefix = environment.getValue() + "/";
+        }
+        return new TenantPath(bucketName, keyPrefix);
+    }
+
+    private Optional<TenantLocation> tenant(String clientId, String environment) {
+        try {
+            return Optional.of(TenantLocation.builder()
+                    .clientId(clientId)
+                    .environment(Environment.fromValue(environment))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Wait for bucket to become available
      */
-    private void waitForBucket(String bucketName) {
+    private void waitForBucket(S3Client client, String bucketName) {
         try {
             log.debug("Waiting for bucket '{}' to be available", bucketName);
-            s3Client.waiter().waitUntilBucketExists(
+            client.waiter().waitUntilBucketExists(
                     HeadBucketRequest.builder().bucket(bucketName).build()
             );
             log.debug("Bucket '{}' is now available", bucketName);
@@ -136,16 +326,75 @@ public class BucketManagementServiceImpl implements BucketManagementService {
      * Bucket names must be lowercase, alphanumeric, and hyphens only
      */
     private String sanitizeForBucketName(String input) {
-        return input.toLowerCase()
-                .replaceAll("[^a-z0-9-]", "-")
-                .replaceAll("-+", "-")
-                .replaceAll("^-|-$", "");
+        String name = NON_BUCKET_CHARACTERS.matcher(input.toLowerCase()).replaceAll("-");
+        name = REPEATED_HYPHENS.matcher(name).replaceAll("-");
+        return EDGE_HYPHENS.matcher(name).replaceAll("");
     }
 
     /**
      * Sanitize string for use in object path
      */
     private String sanitizeForPath(String input) {
-        return input.replaceAll("[^a-zA-Z0-9_-]", "_");
+        return NON_PATH_CHARACTERS.matcher(input).replaceAll("_");
+    }
+
+    /**
+     * Resolved tenant paths together with the bucket settings they were computed from
+     */
+    private static final class Resolutions {
+
+        private final BucketStrategy strategy;
+        private final String sharedBucket;
+        private final String bucketSuffix;
+        private final Map<Environment, Cache<String, TenantPath>> paths = new EnumMap<>(Environment.class);
+
+        private Resolutions(BucketStrategy strategy, String sharedBucket, String bucketSuffix) {
+            this.strategy = strategy;
+            this.sharedBucket = sharedBucket;
+            this.bucketSuffix = bucketSuffix;
+            for (Environment environment : Environment.values()) {
+                paths.put(environment, Caffeine.newBuilder().maximumSize(MAX_RESOLVED_CLIENTS).build());
+            }
+        }
+
+        boolean matches(BucketStrategy strategy, String sharedBucket, String bucketSuffix) {
+            return this.strategy == strategy
+                    && Objects.equals(this.sharedBucket, sharedBucket)
+                    && Objects.equals(this.bucketSuffix, bucketSuffix);
+        }
+    }
+
+    /**
+     * Outcome of provisioning one bucket
+     */
+    private static final class Provisioning {
+
+        private static final Provisioning READY = new Provisioning(null);
+
+        private final StorageException failure;
+
+        private Provisioning(StorageException failure) {
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Bucket as seen through one client partition (null for the shared client)
+     */
+    private record ProvisioningKey(String partition, String bucketName) {
+    }
+
+    /**
+     * Bucket of a tenant (null under an unknown strategy) and the prefix of its object keys
+     */
+    private static final class TenantPath {
+
+        private final String bucketName;
+        private final String keyPrefix;
+
+        private TenantPath(String bucketName, String keyPrefix) {
+            this.bucketName = bucketName;
+            this.keyPrefix = keyPrefix;
+        }
     }
 }
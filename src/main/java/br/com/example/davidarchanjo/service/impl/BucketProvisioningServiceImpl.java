@@ -0,0 +1,110 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.BucketProvisioningService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class BucketProvisioningServiceImpl implements BucketProvisioningService, SmartInitializingSingleton {
+
+    private final BucketManagementService bucketManagementService;
+    private final StorageProperties storageProperties;
+    private final TaskExecutor provisioningExecutor;
+
+    public BucketProvisioningServiceImpl(
+            BucketManagementService bucketManagementService,
+            StorageProperties storageProperties,
+            @Qualifier("provisioningExecutor") TaskExecutor provisioningExecutor
+    ) {
+        this.bucketManagementService = bucketManagementService;
+        this.storageProperties = storageProperties;
+        this.provisioningExecutor = provisioningExecutor;
+    }
+
+    /**
+     * Runs once every bean exists and before the web server starts, so first requests find their buckets ready
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!storageProperties.getProvisioning().isOnStartup()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<String, Boolean> buckets = provisionKnownTenants();
+        long ready = buckets.values().stream().filter(Boolean::booleanValue).count();
+        log.info("{} of {} tenant buckets ready after {} ms",
+                ready, buckets.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public Map<String, Boolean> provisionKnownTenants() {
+        StorageProperties.Provisioning settings = storageProperties.getProvisioning();
+        List<Environment> environments = settings.getEnvironments().isEmpty()
+                ? Arrays.asList(Environment.values())
+                : settings.getEnvironments().stream().map(Environment::fromValue).toList();
+
+        // Shared buckets collapse into one entry
+        TreeSet<String> bucketNames = new TreeSet<>();
+        for (String clientId : settings.getClients()) {
+            for (Environment environment : environments) {
+                bucketNames.add(bucketManagementService.getBucketName(clientId, environment));
+            }
+        }
+
+        Map<String, CompletableFuture<Boolean>> checks = new TreeMap<>();
+        for (String bucketName : bucketNames) {
+            checks.put(bucketName, CompletableFuture.supplyAsync(() -> ready(bucketName), provisioningExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(checks.values().toArray(CompletableFuture[]::new))
+                    .get(settings.getStartupTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Bucket provisioning did not finish within {} ms; remaining buckets are provisioned on demand",
+                    settings.getStartupTimeoutMs());
+        } catch (ExecutionException e) {
+            log.warn("Bucket provisioning failed: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, Boolean> result = new TreeMap<>();
+        checks.forEach((bucketName, check) -> result.put(bucketName, check.exceptionally(e -> false).getNow(false)));
+        return result;
+    }
+
+    private boolean ready(String bucketName) {
+        if (!storageProperties.isAutoCreateBuckets()) {
+            boolean exists = bucketManagementService.bucketExists(bucketName);
+            if (!exists) {
+                log.warn("Bucket '{}' does not exist and auto-creation is disabled", bucketName);
+            }
+            return exists;
+        }
+        try {
+            bucketManagementService.createBucketIfNotExists(bucketName);
+            return true;
+        } catch (StorageException e) {
+            log.warn("Could not provision bucket '{}': {}", bucketName, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.CatalogEntry;
+import br.com.example.davidarchanjo.dto.CatalogReconcileResponse;
+import br.com.example.davidarchanjo.dto.CatalogSearchResponse;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.CatalogQuery;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.CatalogService;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Bucket;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO object_catalog t
+            USING (VALUES (:bucketName, :key)) s (bucket_name, object_key)
+            ON t.bucket_name = s.bucket_name AND t.object_key = s.object_key
+            WHEN MATCHED THEN UPDATE SET
+                client_id = :clientId, environment = :environment, size_bytes = :size,
+                content_type = COALESCE(:contentType, t.content_type), etag = :eTag,
+                last_modified = :lastModified, indexed_at = :indexedAt
+            WHEN NOT MATCHED THEN INSERT
+                (bucket_name, object_key, client_id, environment, size_bytes, content_type, etag,
+                 last_modified, indexed_at)
+            VALUES (:bucketName, :key, :clientId, :environment, :size, :contentType, :eTag,
+                    :lastModified, :indexedAt)
+            """;
+
+    private static final String DELETE_SQL =
+            "DELETE FROM object_catalog WHERE bucket_name = :bucketName AND object_key = :key";
+
+    private static final String KNOWN_SQL = """
+            SELECT object_key, etag, size_bytes FROM object_catalog
+            WHERE bucket_name = :bucketName AND object_key IN (:keys)
+            """;
+
+    private static final String DELETE_STALE_SQL =
+            "DELETE FROM object_catalog WHERE bucket_name = :bucketName AND indexed_at < :startedAt";
+
+    private static final RowMapper<CatalogEntry> ENTRY_MAPPER = (rs, rowNum) -> CatalogEntry.builder()
+            .bucketName(rs.getString("bucket_name"))
+            .key(rs.getString("object_key"))
+            .clientId(rs.getString("client_id"))
+            .environment(rs.getString("environment"))
+            .size(rs.getLong("size_bytes"))
+            .contentType(rs.getString("content_type"))
+            .eTag(rs.getString("etag"))
+            .lastModified(rs.getTimestamp("last_modified").toInstant())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final S3Client s3Client;
+    private final S3BucketStorageService storageService;
+    private final BucketManagementService bucketManagementService;
+    private final ObjectStatService objectStatService;
+    private final StorageProperties storageProperties;
+
+    /**
+     * Keep the catalog in step with writes and deletes made through the gateway.
+     * Failures are logged only: the object operation already succeeded and reconciliation repairs the drift.
+     */
+    @EventListener
+    public void onObjectChange(ObjectChangeEvent event) {
+        if (!storageProperties.getCatalog().isEnabled() || ContentAddress.isInternal(event.getKey())) {
+            return;
+        }
+        try {
+            record(event);
+        } catch (DataAccessException e) {
+            log.warn("Failed to catalog {} of '{}' in bucket '{}': {}",
+                    event.getType(), event.getKey(), event.getBucketName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void record(ObjectChangeEvent event) {
+        if (event.getType() == ObjectChangeType.DELETED) {
+            jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource()
+                    .addValue("bucketName", event.getBucketName())
+                    .addValue("key", event.getKey()));
+            return;
+        }
+
+        jdbcTemplate.update(UPSERT_SQL, entryParameters(
+                event.getBucketName(),
+                event.getKey(),
+                event.getSize(),
+                event.getContentType(),
+                event.getETag(),
+                event.getOccurredAt(),
+                event.getOccurredAt()
+        ));
+    }
+
+    @Override
+    public CatalogSearchResponse search(CatalogQuery query) {
+        ensureEnabled();
+        long start = System.currentTimeMillis();
+
+        int maxPageSize = storageProperties.getCatalog().getMaxPageSize();
+        int size = query.getSize() > 0 ? Math.min(query.getSize(), maxPageSize) : Math.min(100, maxPageSize);
+        int page = Math.max(0, query.getPage());
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String where = whereClause(query, parameters);
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM object_catalog" + where, parameters, Long.class);
+
+        // Column comes from the enum, never from user input
+        String sql = "SELECT * FROM object_catalog" + where
+                + " ORDER BY " + query.getSort().getColumn() + (query.isDescending() ? " DESC" : " ASC")
+                + ", bucket_name, object_key LIMIT :limit OFFSET :offset";
+        parameters.addValue("limit", size).addValue("offset", (long) page * size);
+        List<CatalogEntry> entries = jdbcTemplate.query(sql, parameters, ENTRY_MAPPER);
+
+        return CatalogSearchResponse.builder()
+                .entries(entries)
+                .page(page)
+                .size(size)
+                .totalEntries(total != null ? total : 0L)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    @Override
+    public CatalogReconcileResponse reconcile(String bucketName) {
+        ensureEnabled();
+        if (!storageService.bucketExists(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+
+        long start = System.currentTimeMillis();
+        // Truncated so the stored value compares equal after the column rounds it
+        Instant startedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        int batchSize = Math.max(1, storageProperties.getCatalog().getReconcileBatchSize());
+        List<ObjectSummary> batch = new ArrayList<>(batchSize);
+        long scanned = 0;
+
+        try (Stream<ObjectSummary> objects = storageService.listObjects(bucketName, null)) {
+            for (ObjectSummary object : (Iterable<ObjectSummary>) objects::iterator) {
+                batch.add(object);
+                scanned++;
+                if (batch.size() == batchSize) {
+                    flush(bucketName, batch, startedAt);
+                }
+            }
+            flush(bucketName, batch, startedAt);
+        } catch (SdkException e) {
+            log.error("Failed to list bucket '{}' for reconciliation: {}", bucketName, e.getMessage());
+            throw new StorageException("Failed to reconcile catalog: " + e.getMessage(), e);
+        }
+
+        // Rows not refreshed by the scan or by a concurrent write belong to objects that are gone
+        int removed = jdbcTemplate.update(DELETE_STALE_SQL, new MapSqlParameterSource()
+                .addValue("bucketName", bucketName)
+                .addValue("startedAt", Timestamp.from(startedAt)));
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Reconciled catalog of bucket '{}': {} objects scanned, {} stale entries removed in {} ms",
+                bucketName, scanned, removed, duration);
+
+        return CatalogReconcileResponse.builder()
+                .bucketName(bucketName)
+                .scanned(scanned)
+                .removed((long) removed)
+                .durationMs(duration)
+                .build();
+    }
+
+    /**
+     * Reconcile every bucket on the configured schedule
+     */
+    @Scheduled(cron = "${storage.catalog.reconcile-cron:-}")
+    public void reconcileAll() {
+        if (!storageProperties.getCatalog().isEnabled()) {
+            return;
+        }
+        for (Bucket bucket : s3Client.listBuckets().buckets()) {
+            try {
+                reconcile(bucket.name());
+            } catch (StorageException | SdkException | DataAccessException e) {
+                log.warn("Scheduled reconciliation failed for bucket '{}': {}", bucket.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Upsert a batch of listed objects with the size the write path records, which is the original size:
+     * unchanged entries keep theirs, and new or changed ones read it from the object metadata whenever the
+     * gateway may have stored the object compressed or as a reference, since the listing shows the stored size
+     */
+    private void flush(String bucketName, List<ObjectSummary> batch, Instant startedAt) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, CatalogEntry> known = new HashMap<>();
+        jdbcTemplate.query(KNOWN_SQL, new MapSqlParameterSource()
+                .addValue("bucketName", bucketName)
+                .addValue("keys", batch.stream().map(ObjectSummary::getKey).toList()), rs -> {
+                    known.put(rs.getString("object_key"), CatalogEntry.builder()
+                            .eTag(rs.getString("etag"))
+                            .size(rs.getLong("size_bytes"))
+                            .build());
+                });
+        boolean transformed = storageProperties.getCompression().isEnabled()
+                || storageProperties.getDedup().isEnabled();
+
+        List<MapSqlParameterSource> entries = new ArrayList<>(batch.size());
+        for (ObjectSummary object : batch) {
+            CatalogEntry entry = known.get(object.getKey());
+            Long size;
+            if (entry != null && Objects.equals(entry.getETag(), object.getETag())) {
+                size = entry.getSize();
+            } else {
+                size = transformed ? originalSize(bucketName, object) : object.getSize();
+            }
+            if (size == null) {
+                // Gone since it was listed; left for the stale sweep
+                continue;
+            }
+            entries.add(entryParameters(bucketName, object.getKey(), size, null, object.getETag(),
+                    object.getLastModified() != null ? object.getLastModified() : startedAt, startedAt));
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries.toArray(new MapSqlParameterSource[0]));
+        batch.clear();
+    }
+
+    /**
+     * Original size of a listed object, or null if it no longer exists
+     */
+    private Long originalSize(String bucketName, ObjectSummary object) {
+        try {
+            return objectStatService.stat(bucketName, object.getKey()).getSize();
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private MapSqlParameterSource entryParameters(
+            String bucketName,
+            String key,
+            long size,
+            String contentType,
+            String eTag,
+            Instant lastModified,
+            Instant indexedAt
+    ) {
+        Optional<TenantLocation> tenant = bucketManagementService.resolveTenant(bucketName, key);
+        return new MapSqlParameterSource()
+                .addValue("bucketName", bucketName)
+                .addValue("key", key)
+                .addValue("clientId", tenant.map(TenantLocation::getClientId).orElse(null))
+                .addValue("environment", tenant.map(location -> location.getEnvironment().getValue()).orElse(null))
+                .addValue("size", size)
+                .addValue("contentType", contentType)
+                .addValue("eTag", eTag)
+                .addValue("lastModified", Timestamp.from(lastModified))
+                .addValue("indexedAt", Timestamp.from(indexedAt));
+    }
+
+    private String whereClause(CatalogQuery query, MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+
+        if (query.getBucketName() != null) {
+            conditions.add("bucket_name = :bucketName");
+            parameters.addValue("bucketName", query.getBucketName());
+        }
+        if (query.getClientId() != null) {
+            conditions.add("client_id = :clientId");
+            parameters.addValue("clientId", query.getClientId());
+        }
+        if (query.getEnvironment() != null) {
+            conditions.add("environment = :environment");
+            parameters.addValue("environment", query.getEnvironment().getValue());
+        }
+        if (query.getKeyPrefix() != null && !query.getKeyPrefix().isEmpty()) {
+            conditions.add("object_key LIKE :keyPrefix ESCAPE '\\'");
+            parameters.addValue("keyPrefix", escapeLike(query.getKeyPrefix()) + "%");
+        }
+        if (query.getContentType() != null) {
+            conditions.add("content_type LIKE :contentType ESCAPE '\\'");
+            parameters.addValue("contentType", escapeLike(query.getContentType()) + "%");
+        }
+        if (query.getMinSize() != null) {
+            conditions.add("size_bytes >= :minSize");
+            parameters.addValue("minSize", query.getMinSize());
+        }
+        if (query.getMaxSize() != null) {
+            conditions.add("size_bytes <= :maxSize");
+            parameters.addValue("maxSize", query.getMaxSize());
+        }
+        if (query.getModifiedAfter() != null) {
+            conditions.add("last_modified >= :modifiedAfter");
+            parameters.addValue("modifiedAfter", Timestamp.from(query.getModifiedAfter()));
+        }
+        if (query.getModifiedBefore() != null) {
+            conditions.add("last_modified < :modifiedBefore");
+            parameters.addValue("modifiedBefore", Timestamp.from(query.getModifiedBefore()));
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private void ensureEnabled() {
+        if (!storageProperties.getCatalog().isEnabled()) {
+            throw new StorageException("Metadata catalog is disabled");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,420 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.ChangeEntry;
+import br.com.example.davidarchanjo.dto.ChangeFeedResponse;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.ChangeJournalService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+@Service
+public class ChangeJournalServiceImpl implements ChangeJournalService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO change_journal
+                (seq, bucket_name, object_key, change_type, size_bytes, content_type, etag, occurred_at)
+            VALUES (:seq, :bucketName, :key, :type, :size, :contentType, :eTag, :occurredAt)
+            """;
+
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(seq), 0) FROM change_journal";
+
+    private static final String NEXT_CURSOR_SQL = "SELECT NEXT VALUE FOR change_journal_cursor";
+
+    private static final String PRUNE_SQL = "DELETE FROM change_journal WHERE occurred_at < :cutoff";
+
+    private static final RowMapper<ChangeEntry> ENTRY_MAPPER = (rs, rowNum) -> ChangeEntry.builder()
+            .cursor(rs.getLong("seq"))
+            .type(rs.getString("change_type"))
+            .bucketName(rs.getString("bucket_name"))
+            .key(rs.getString("object_key"))
+            .size(rs.getLong("size_bytes"))
+            .contentType(rs.getString("content_type"))
+            .eTag(rs.getString("etag"))
+            .occurredAt(rs.getTimestamp("occurred_at").toInstant())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final StorageProperties storageProperties;
+    private final TaskExecutor changeDispatchExecutor;
+    private final TaskExecutor changeReplayExecutor;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Guards the cursor counters below; held only to draw a cursor from the sequence or read the head, never around
+     * the insert
+     */
+    private final Object cursorLock = new Object();
+
+    /**
+     * Last cursor handed out, or -1 until read from the journal
+     */
+    private long lastCursor = -1;
+
+    /**
+     * Cursors handed out whose insert has not finished yet
+     */
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    /**
+     * Journaled changes waiting for every earlier insert to finish before they are sent to streams
+     */
+    private final ConcurrentNavigableMap<Long, ChangeEntry> undispatched = new ConcurrentSkipListMap<>();
+
+    public ChangeJournalServiceImpl(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            StorageProperties storageProperties,
+            @Qualifier("changeDispatchExecutor") TaskExecutor changeDispatchExecutor,
+            @Qualifier("changeReplayExecutor") TaskExecutor changeReplayExecutor
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storageProperties = storageProperties;
+        this.changeDispatchExecutor = changeDispatchExecutor;
+        this.changeReplayExecutor = changeReplayExecutor;
+    }
+
+    /**
+     * Journal writes and deletes made through the gateway.
+     * Failures are logged only: the object operation already succeeded.
+     */
+    @EventListener
+    public void onObjectChange(ObjectChangeEvent event) {
+        if (!storageProperties.getJournal().isEnabled() || ContentAddress.isInternal(event.getKey())) {
+            return;
+        }
+        try {
+            append(event);
+        } catch (DataAccessException e) {
+            log.warn("Failed to journal {} of '{}' in bucket '{}': {}",
+                    event.getType(), event.getKey(), event.getBucketName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void append(ObjectChangeEvent event) {
+        // Inserts run concurrently; readers and streams stop at the head, below which every insert has finished,
+        // so a cursor that commits late is never skipped
+        long seq = nextCursor();
+        try {
+            jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                    .addValue("seq", seq)
+                    .addValue("bucketName", event.getBucketName())
+                    .addValue("key", event.getKey())
+                    .addValue("type", event.getType().name())
+                    .addValue("size", event.getSize())
+                    .addValue("contentType", event.getContentType())
+                    .addValue("eTag", event.getETag())
+                    .addValue("occurredAt", Timestamp.from(event.getOccurredAt())));
+            // Queued even with no stream open: one registered while this insert ran replays only up to the head
+            // below it, so live delivery is the only way the change can still reach it
+            undispatched.put(seq, ChangeEntry.builder()
+                    .cursor(seq)
+                    .type(event.getType().name())
+                    .bucketName(event.getBucketName())
+                    .key(event.getKey())
+                    .size(event.getSize())
+                    .contentType(event.getContentType())
+                    .eTag(event.getETag())
+                    .occurredAt(event.getOccurredAt())
+                    .build());
+        } finally {
+            finish(seq);
+            // Also after a failed insert, which may have been holding back later changes
+            if (!undispatched.isEmpty()) {
+                changeDispatchExecutor.execute(this::dispatch);
+            }
+        }
+    }
+
+    @Override
+    public ChangeFeedResponse changesSince(String bucketName, String prefix, long cursor, int limit) {
+        ensureEnabled();
+        int maxPageSize = storageProperties.getJournal().getMaxPageSize();
+        int size = limit > 0 ? Math.min(limit, maxPageSize) : maxPageSize;
+
+        // Bounded by the head read first, so the returned cursor never passes an unread change
+        long upper = head();
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("cursor", cursor)
+                .addValue("head", upper)
+                .addValue("limit", size + 1);
+        StringBuilder sql = new StringBuilder("SELECT * FROM change_journal WHERE seq > :cursor AND seq <= :head");
+        if (bucketName != null) {
+            sql.append(" AND bucket_name = :bucketName");
+            parameters.addValue("bucketName", bucketName);
+        }
+        if (prefix != null && !prefix.isEmpty()) {
+            sql.append(" AND object_key LIKE :prefix ESCAPE '\\'");
+            parameters.addValue("prefix", escapeLike(prefix) + "%");
+        }
+        sql.append(" ORDER BY seq LIMIT :limit");
+
+        List<ChangeEntry> changes = new ArrayList<>(jdbcTemplate.query(sql.toString(), parameters, ENTRY_MAPPER));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes.remove(size);
+        }
+
+        long nextCursor = hasMore ? changes.get(changes.size() - 1).getCursor() : Math.max(cursor, upper);
+        return ChangeFeedResponse.builder()
+                .changes(changes)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    public SseEmitter subscribe(String bucketName, String prefix, Long cursor) {
+        ensureEnabled();
+        long start = cursor != null ? cursor : head();
+
+        SseEmitter emitter = new SseEmitter(storageProperties.getJournal().getStreamTimeoutMs());
+        Subscriber subscriber = new Subscriber(emitter, bucketName, prefix, start);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+
+        // Even without a cursor, changes journaled while the stream was being registered are caught up
+        changeReplayExecutor.execute(() -> replay(subscriber));
+        log.debug("Opened change stream for bucket '{}' prefix '{}' after cursor {}", bucketName, prefix, start);
+        return emitter;
+    }
+
+    /**
+     * Keep idle streams open through proxies and drop the ones whose client went away
+     */
+    @Scheduled(fixedDelayString = "${storage.journal.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    /**
+     * Remove changes older than the retention period on the configured schedule
+     */
+    @Scheduled(cron = "${storage.journal.prune-cron:-}")
+    public void prune() {
+        if (!storageProperties.getJournal().isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(storageProperties.getJournal().getRetentionDays(), ChronoUnit.DAYS);
+        int removed = jdbcTemplate.update(PRUNE_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.from(cutoff)));
+        log.info("Pruned {} journal changes older than {}", removed, cutoff);
+    }
+
+    private void replay(Subscriber subscriber) {
+        int pageSize = storageProperties.getJournal().getMaxPageSize();
+        try {
+            while (true) {
+                ChangeFeedResponse page = changesSince(subscriber.bucketName, subscriber.prefix,
+                        subscriber.lastSent, pageSize);
+                synchronized (subscriber) {
+                    if (subscriber.closed || !subscriber.sendAll(page)) {
+                        return;
+                    }
+                    if (!page.getHasMore()) {
+                        // Live changes were skipped while replaying; anything journaled since the last page
+                        // is read here while live delivery waits on this lock
+                        ChangeFeedResponse rest = changesSince(subscriber.bucketName, subscriber.prefix,
+                                subscriber.lastSent, pageSize);
+                        if (!subscriber.sendAll(rest)) {
+                            return;
+                        }
+                        if (!rest.getHasMore()) {
+                            subscriber.replaying = false;
+                            return;
+                        }
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to replay changes to stream: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+            subscriber.close();
+        }
+    }
+
+    /**
+     * Send every change up to the head to the open streams, in cursor order. Runs on the single dispatch thread.
+     */
+    private void dispatch() {
+        long upper = head();
+        Map.Entry<Long, ChangeEntry> next;
+        while ((next = undispatched.firstEntry()) != null && next.getKey() <= upper) {
+            undispatched.remove(next.getKey());
+            ChangeEntry entry = next.getValue();
+            subscribers.forEach(subscriber -> subscriber.offer(entry));
+        }
+    }
+
+    /**
+     * Draw the next cursor from the journal sequence, which survives pruning and restarts, so a cursor a consumer
+     * holds is never handed out again even after the journal empties
+     */
+    private long nextCursor() {
+        synchronized (cursorLock) {
+            long seq = drawCursor();
+            if (seq <= lastCursor()) {
+                // Sequence behind the journal, as for a journal written before the sequence existed
+                jdbcTemplate.getJdbcTemplate().execute(
+                        "ALTER SEQUENCE change_journal_cursor RESTART WITH " + (lastCursor() + 1));
+                seq = drawCursor();
+            }
+            lastCursor = seq;
+            inFlight.add(seq);
+            return seq;
+        }
+    }
+
+    private long drawCursor() {
+        Long seq = jdbcTemplate.queryForObject(NEXT_CURSOR_SQL, new MapSqlParameterSource(), Long.class);
+        if (seq == null) {
+            throw new StorageException("Change journal sequence returned no cursor");
+        }
+        return seq;
+    }
+
+    private void finish(long seq) {
+        synchronized (cursorLock) {
+            inFlight.remove(seq);
+        }
+    }
+
+    /**
+     * Highest cursor with no unfinished insert at or below it
+     */
+    private long head() {
+        synchronized (cursorLock) {
+            return inFlight.isEmpty() ? lastCursor() : inFlight.first() - 1;
+        }
+    }
+
+    /**
+     * Last cursor handed out; until this instance hands one out, the newest journaled. Cursors drawn but never
+     * journaled before a restart are gaps nobody reads.
+     */
+    private long lastCursor() {
+        if (lastCursor < 0) {
+            Long journaled = jdbcTemplate.queryForObject(HEAD_SQL, new MapSqlParameterSource(), Long.class);
+            lastCursor = journaled != null ? journaled : 0L;
+        }
+        return lastCursor;
+    }
+
+    private void ensureEnabled() {
+        if (!storageProperties.getJournal().isEnabled()) {
+            throw new StorageException("Change journal is disabled");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * One open stream. Replay and live delivery synchronize on the subscriber, and a change is only
+     * sent when its cursor is past the last one sent, so every change is delivered once and in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String bucketName;
+        private final String prefix;
+        private long lastSent;
+        private boolean replaying = true;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String bucketName, String prefix, long lastSent) {
+            this.emitter = emitter;
+            this.bucketName = bucketName;
+            this.prefix = prefix;
+            this.lastSent = lastSent;
+        }
+
+        synchronized void offer(ChangeEntry entry) {
+            if (closed || replaying || entry.getCursor() <= lastSent || !matches(entry)) {
+                return;
+            }
+            send(entry);
+        }
+
+        /**
+         * Send a replayed page and move past the changes it filtered out
+         *
+         * @return false once the stream is closed
+         */
+        synchronized boolean sendAll(ChangeFeedResponse page) {
+            for (ChangeEntry entry : page.getChanges()) {
+                if (!send(entry)) {
+                    return false;
+                }
+            }
+            lastSent = Math.max(lastSent, page.getNextCursor());
+            return true;
+        }
+
+        synchronized void heartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private boolean matches(ChangeEntry entry) {
+            return (bucketName == null || bucketName.equals(entry.getBucketName()))
+                    && (prefix == null || entry.getKey().startsWith(prefix));
+        }
+
+        private boolean send(ChangeEntry entry) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(entry.getCursor()))
+                        .name("change")
+                        .data(entry));
+                lastSent = entry.getCursor();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing change stream: {}", e.getMessage());
+                close();
+                return false;
+            }
+        }
+    }
+}
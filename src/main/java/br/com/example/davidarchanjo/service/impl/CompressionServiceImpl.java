@@ -0,0 +1,167 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.service.CompressionService;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompressionServiceImpl implements CompressionService {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final StorageProperties storageProperties;
+
+    @Override
+    public Optional<CompressionCodec> selectCodec(String bucketName, String contentType, Long contentLength) {
+        StorageProperties.Compression compression = storageProperties.getCompression();
+
+        if (!compression.isEnabled() || contentType == null) {
+            return Optional.empty();
+        }
+        if (contentLength != null && contentLength < compression.getMinSizeBytes()) {
+            return Optional.empty();
+        }
+        if (!compression.getBuckets().isEmpty() && !compression.getBuckets().contains(bucketName)) {
+            return Optional.empty();
+        }
+
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        for (String prefix : compression.getContentTypes()) {
+            if (normalized.startsWith(prefix.toLowerCase(Locale.ROOT))) {
+                return Optional.of(compression.getCodec());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long compress(InputStream value, CompressionCodec codec, OutputStream target) throws IOException {
+        CountingOutputStream compressed = new CountingOutputStream(target);
+        try (OutputStream encoder = encoder(compressed, codec)) {
+            value.transferTo(encoder);
+        }
+        return compressed.count;
+    }
+
+    @Override
+    public InputStream decompress(InputStream stored, CompressionCodec codec) throws IOException {
+        return switch (codec) {
+            case ZSTD -> new ZstdInputStream(stored);
+            case GZIP -> new GZIPInputStream(stored, STREAM_BUFFER_SIZE);
+        };
+    }
+
+    @Override
+    public Optional<CompressionCodec> storedCodec(Map<String, String> metadata) {
+        if (metadata == null) {
+            return Optional.empty();
+        }
+        String encoding = metadata.get(GatewayMetadata.ENCODING);
+        if (encoding == null || encoding.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CompressionCodec.fromEncoding(encoding));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unknown stored encoding '{}'", encoding);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean accepts(String acceptEncoding, CompressionCodec codec) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            boolean acceptable = !hasZeroQuality(tokens);
+
+            if (name.equalsIgnoreCase(codec.getEncoding())) {
+                return acceptable;
+            }
+            if (name.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard;
+    }
+
+    private OutputStream encoder(OutputStream target, CompressionCodec codec) throws IOException {
+        int level = storageProperties.getCompression().getLevel();
+        return switch (codec) {
+            case ZSTD -> new ZstdOutputStream(target, level);
+            case GZIP -> new GZIPOutputStream(target, STREAM_BUFFER_SIZE) {
+                {
+                    def.setLevel(Math.max(Deflater.BEST_SPEED, Math.min(level, Deflater.BEST_COMPRESSION)));
+                }
+            };
+        };
+    }
+
+    /**
+     * Counts the bytes passed through and leaves the target open when closed, so the encoder can be closed to
+     * flush its trailer without closing the caller's stream
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream target) {
+            super(target);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private boolean hasZeroQuality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0.0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
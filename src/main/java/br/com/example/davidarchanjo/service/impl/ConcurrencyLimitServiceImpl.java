@@ -0,0 +1,165 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.service.ConcurrencyLimitService;
+import br.com.example.davidarchanjo.util.AdaptiveConcurrencyLimit;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.http.AbortableInputStream;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class ConcurrencyLimitServiceImpl implements ConcurrencyLimitService {
+
+    private final StorageProperties storageProperties;
+    private final Map<S3OperationType, AdaptiveConcurrencyLimit> limits = new EnumMap<>(S3OperationType.class);
+    private final Map<S3OperationType, Counter> rejections = new EnumMap<>(S3OperationType.class);
+
+    public ConcurrencyLimitServiceImpl(StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this.storageProperties = storageProperties;
+
+        StorageProperties.ConcurrencyLimit settings = storageProperties.getConcurrencyLimit();
+        for (S3OperationType type : S3OperationType.values()) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    settings.getInitialLimit(),
+                    settings.getMinLimit(),
+                    settings.getMaxLimit(),
+                    settings.getSmoothing(),
+                    settings.getRttTolerance(),
+                    settings.getLongWindow(),
+                    settings.getBackoffRatio());
+            limits.put(type, limit);
+
+            String operation = type.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("storage.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Concurrent backend calls currently allowed")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            Gauge.builder("storage.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Backend calls in progress")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            rejections.put(type, Counter.builder("storage.concurrency.rejected")
+                    .description("Calls rejected because the concurrency limit was reached")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Object call(S3OperationType type, InterceptingS3Client.Invocation call) throws Throwable {
+        StorageProperties.ConcurrencyLimit settings = storageProperties.getConcurrencyLimit();
+        if (!settings.isEnabled()) {
+            return call.proceed();
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(type);
+        if (!limit.tryAcquire()) {
+            rejections.get(type).increment();
+            throw new ServiceOverloadedException(
+                    "Storage backend is overloaded (" + type.name().toLowerCase(Locale.ROOT) + " limit "
+                            + limit.getLimit() + " reached)",
+                    settings.getRetryAfterSeconds());
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call.proceed();
+        } catch (SdkServiceException e) {
+            limit.release(System.nanoTime() - start, e.isThrottlingException() || e.statusCode() >= 500);
+            throw e;
+        } catch (SdkClientException e) {
+            // Timeouts and connection failures
+            limit.release(System.nanoTime() - start, true);
+            throw e;
+        } catch (Throwable e) {
+            limit.release(System.nanoTime() - start, false);
+            throw e;
+        }
+
+        long rtt = System.nanoTime() - start;
+        if (result instanceof ResponseInputStream<?> stream) {
+            // The connection stays busy until the body is read and closed; the sample is still the time to headers,
+            // so large bodies do not read as a slow backend
+            return holdUntilClosed(stream, limit, rtt);
+        }
+        limit.release(rtt, false);
+        return result;
+    }
+
+    @Override
+    public int limit(S3OperationType type) {
+        return limits.get(type).getLimit();
+    }
+
+    /**
+     * Keep a call admitted until its body is closed or aborted. A body that fails mid-read counts as dropped.
+     */
+    private static <T> ResponseInputStream<T> holdUntilClosed(
+            ResponseInputStream<T> stream,
+            AdaptiveConcurrencyLimit limit,
+            long rtt
+    ) {
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(rtt, failed.get());
+            }
+        };
+        FilterInputStream body = new FilterInputStream(stream) {
+            @Override
+            public int read() throws IOException {
+                try {
+                    return super.read();
+                } catch (IOException | SdkClientException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                try {
+                    return super.read(buffer, offset, length);
+                } catch (IOException | SdkClientException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+        return new ResponseInputStream<>(stream.response(), AbortableInputStream.create(body, () -> {
+            try {
+                stream.abort();
+            } finally {
+                release.run();
+            }
+        }));
+    }
+}
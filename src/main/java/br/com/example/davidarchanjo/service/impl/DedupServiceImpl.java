@@ -0,0 +1,455 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileUploadException;
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.DedupService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DedupServiceImpl implements DedupService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final S3Client s3Client;
+    private final S3ClientRegistryService clientRegistry;
+    private final BucketManagementService bucketManagementService;
+    private final S3BucketStorageService storageService;
+    private final StorageProperties storageProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Striped by blob key. Uploads hold the read side from looking a blob up until its index marker is written;
+     * collection holds the write side while it rechecks the markers and deletes, so it never removes a blob
+     * an upload has just decided to reuse.
+     */
+    private final ReadWriteLock[] blobLocks = newLocks();
+
+    @Override
+    public boolean isEnabled(String bucketName) {
+        StorageProperties.Dedup dedup = storageProperties.getDedup();
+        return dedup.isEnabled() && (dedup.getBuckets().isEmpty() || dedup.getBuckets().contains(bucketName));
+    }
+
+    @Override
+    public ObjectWriteResult store(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream value
+    ) {
+        return store(bucketName, keyName, contentLength, contentType, value, null);
+    }
+
+    @Override
+    public ObjectWriteResult store(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream value,
+            String expectedSha256
+    ) {
+        String expected = expectedSha256 != null ? ContentAddress.normalizeDigest(expectedSha256) : null;
+        String scope = bucketManagementService.tenantPrefix(bucketName, keyName);
+        Path spool = null;
+        try {
+            if (!storageService.bucketExists(bucketName, keyName)) {
+                throw new BucketNotFoundException(bucketName);
+            }
+
+            // The blob key depends on the digest, so the body is hashed to disk before anything is written
+            MessageDigest sha256 = newDigest();
+            spool = Files.createTempFile("dedup-upload-", ".tmp");
+            try (DigestInputStream digestStream = new DigestInputStream(value, sha256)) {
+                Files.copy(digestStream, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String digest = ContentAddress.toHex(sha256.digest());
+            if (expected != null && !expected.equals(digest)) {
+                throw new InvalidRequestException(
+                        "Content SHA-256 " + digest + " does not match the declared " + expected);
+            }
+            String blobKey = ContentAddress.blobKey(scope, digest);
+            long size = Files.size(spool);
+
+            ObjectWriteResult result;
+            boolean existing;
+            Lock lock = lockFor(blobKey).readLock();
+            lock.lock();
+            try {
+                existing = head(bucketName, blobKey).isPresent();
+                if (!existing) {
+                    try (InputStream content = Files.newInputStream(spool)) {
+                        storageService.putObject(bucketName, blobKey, size, contentType, content);
+                    }
+                }
+                result = writeReference(bucketName, scope, keyName, digest, size, contentType, existing);
+            } finally {
+                lock.unlock();
+            }
+            log.info("Stored '{}' in bucket '{}' as {} blob {}",
+                    keyName, bucketName, existing ? "existing" : "new", digest);
+            return result;
+
+        } catch (S3Exception e) {
+            log.error("Failed to store '{}' in bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new FileUploadException("Failed to upload file: " + e.awsErrorDetails().errorMessage(), e);
+        } catch (IOException e) {
+            log.error("IO error storing '{}' in bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new FileUploadException("IO error uploading file", e);
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    @Override
+    public Optional<ObjectWriteResult> link(String bucketName, String keyName, String sha256, String contentType) {
+        String digest = ContentAddress.normalizeDigest(sha256);
+        // Only blobs of the key's own tenant can be linked, so a digest alone never grants access to content
+        String scope = bucketManagementService.tenantPrefix(bucketName, keyName);
+        String blobKey = ContentAddress.blobKey(scope, digest);
+        try {
+            if (!storageService.bucketExists(bucketName, keyName)) {
+                throw new BucketNotFoundException(bucketName);
+            }
+
+            ObjectWriteResult result;
+            Lock lock = lockFor(blobKey).readLock();
+            lock.lock();
+            try {
+                Optional<HeadObjectResponse> blob = head(bucketName, blobKey);
+                if (blob.isEmpty()) {
+                    log.debug("No blob {} in bucket '{}' to link '{}'", digest, bucketName, keyName);
+                    return Optional.empty();
+                }
+
+                long size = storedSize(blob.get());
+                String type = contentType != null ? contentType : blob.get().contentType();
+                result = writeReference(bucketName, scope, keyName, digest, size, type, true);
+            } finally {
+                lock.unlock();
+            }
+            log.info("Linked '{}' in bucket '{}' to existing blob {}", keyName, bucketName, digest);
+            return Optional.of(result);
+
+        } catch (S3Exception e) {
+            log.error("Failed to link '{}' in bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new FileUploadException("Failed to upload file: " + e.awsErrorDetails().errorMessage(), e);
+        }
+    }
+
+    /**
+     * Periodically collect every deduplicated bucket
+     */
+    @Scheduled(
+            initialDelayString = "${storage.dedup.gc-interval-ms:3600000}",
+            fixedDelayString = "${storage.dedup.gc-interval-ms:3600000}"
+    )
+    public void collectGarbage() {
+        StorageProperties.Dedup dedup = storageProperties.getDedup();
+        if (!dedup.isEnabled() || !dedup.isGcEnabled()) {
+            return;
+        }
+
+        List<String> bucketNames = dedup.getBuckets().isEmpty()
+                ? s3Client.listBuckets().buckets().stream().map(Bucket::name).toList()
+                : dedup.getBuckets();
+        for (String bucketName : bucketNames) {
+            try {
+                collectGarbage(bucketName);
+            } catch (SdkException e) {
+                log.warn("Garbage collection failed for bucket '{}': {}", bucketName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mark and sweep over the blobs of a bucket. A blob is live while at least one index marker names a key
+     * that still points at it. Blobs and markers younger than the grace period always count as live, which
+     * covers uploads that have written the blob or marker but not yet the user key.
+     */
+    @Override
+    public int collectGarbage(String bucketName) {
+        Duration gracePeriod = Duration.ofMinutes(storageProperties.getDedup().getGcGracePeriodMinutes());
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        int deleted = 0;
+
+        for (String scope : scopes(bucketName)) {
+            for (S3Object blob : list(bucketName, scope + ContentAddress.BLOB_PREFIX)) {
+                if (isRecent(blob, cutoff)) {
+                    continue;
+                }
+                String digest = ContentAddress.digestOf(blob.key());
+                if (countReferences(bucketName, scope, digest, cutoff) == 0
+                        && collect(bucketName, scope, blob.key(), digest, cutoff)) {
+                    deleted++;
+                    log.debug("Collected unreferenced blob {} in bucket '{}'", blob.key(), bucketName);
+                }
+            }
+        }
+
+        log.info("Garbage collection of bucket '{}' deleted {} blobs", bucketName, deleted);
+        return deleted;
+    }
+
+    /**
+     * Delete a blob found unreferenced, unless an upload has linked it since the markers were counted
+     */
+    private boolean collect(String bucketName, String scope, String blobKey, String digest, Instant cutoff) {
+        Lock lock = lockFor(blobKey).writeLock();
+        lock.lock();
+        try {
+            if (countReferences(bucketName, scope, digest, cutoff) > 0) {
+                return false;
+            }
+            delete(bucketName, blobKey);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tenant prefixes of a bucket holding a content-addressed store, found by walking the folders down to the
+     * depth of the bucket strategy, plus the bucket root for keys outside any tenant
+     */
+    private List<String> scopes(String bucketName) {
+        List<String> level = List.of("");
+        int depth = storageProperties.getBucketStrategy().getTenantPrefixDepth();
+        for (int segment = 0; segment < depth; segment++) {
+            List<String> next = new ArrayList<>();
+            for (String prefix : level) {
+                next.addAll(folders(bucketName, prefix));
+            }
+            level = next;
+        }
+
+        List<String> scopes = new ArrayList<>(level);
+        if (!scopes.contains("")) {
+            scopes.add("");
+        }
+        return scopes;
+    }
+
+    private int countReferences(String bucketName, String scope, String digest, Instant cutoff) {
+        String prefix = ContentAddress.refPrefix(scope, digest);
+        int references = 0;
+
+        for (S3Object ref : list(bucketName, prefix)) {
+            String keyName = ref.key().substring(prefix.length());
+            if (isRecent(ref, cutoff) || pointsAt(bucketName, keyName, digest)) {
+                references++;
+            } else {
+                // Key was deleted or overwritten since it was linked
+                delete(bucketName, ref.key());
+            }
+        }
+        return references;
+    }
+
+    private boolean pointsAt(String bucketName, String keyName, String digest) {
+        return head(bucketName, keyName)
+                .map(response -> digest.equals(response.metadata().get(GatewayMetadata.CONTENT_SHA256)))
+                .orElse(false);
+    }
+
+    /**
+     * Write the index marker first, then the user key, so a concurrent collection never sees
+     * a key pointing at a blob without a marker
+     */
+    private ObjectWriteResult writeReference(
+            String bucketName,
+            String scope,
+            String keyName,
+            String digest,
+            long size,
+            String contentType,
+            boolean deduplicated
+    ) {
+        S3Client client = clientRegistry.clientFor(bucketName, keyName);
+        client.putObject(PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(ContentAddress.refKey(scope, digest, keyName))
+                .contentLength(0L)
+                .build(), RequestBody.empty());
+
+        PutObjectResponse response = client.putObject(PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(contentType)
+                .contentLength(0L)
+                .metadata(Map.of(
+                        GatewayMetadata.CONTENT_SHA256, digest,
+                        GatewayMetadata.ORIGINAL_LENGTH, String.valueOf(size)
+                ))
+                .build(), RequestBody.empty());
+
+        eventPublisher.publishEvent(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(bucketName)
+                .key(keyName)
+                .size(size)
+                .contentType(contentType)
+                .eTag(response != null ? response.eTag() : null)
+                .occurredAt(Instant.now())
+                .build());
+
+        return ObjectWriteResult.builder()
+                .bucketName(bucketName)
+                .key(keyName)
+                .size(size)
+                .eTag(response != null ? response.eTag() : null)
+                // The digest already is an end-to-end SHA-256 of the content
+                .checksumType(ChecksumType.SHA256)
+                .checksum(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(digest)))
+                .deduplicated(deduplicated)
+                .build();
+    }
+
+    private Optional<HeadObjectResponse> head(String bucketName, String keyName) {
+        try {
+            return Optional.of(clientRegistry.clientFor(bucketName, keyName).headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(keyName)
+                    .build()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    private Iterable<S3Object> list(String bucketName, String prefix) {
+        return clientRegistry.clientFor(bucketName, prefix).listObjectsV2Paginator(ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build()).contents();
+    }
+
+    private List<String> folders(String bucketName, String prefix) {
+        List<String> folders = new ArrayList<>();
+        clientRegistry.clientFor(bucketName, prefix).listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .delimiter("/")
+                        .build())
+                .commonPrefixes()
+                .forEach((CommonPrefix folder) -> {
+                    if (!ContentAddress.isInternal(folder.prefix())) {
+                        folders.add(folder.prefix());
+                    }
+                });
+        return folders;
+    }
+
+    private void delete(String bucketName, String keyName) {
+        clientRegistry.clientFor(bucketName, keyName).deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .build());
+    }
+
+    private ReadWriteLock lockFor(String blobKey) {
+        return blobLocks[Math.floorMod(blobKey.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReadWriteLock[] newLocks() {
+        ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        return locks;
+    }
+
+    private static void deleteSpool(Path spool) {
+        if (spool == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload spool {}: {}", spool, e.getMessage());
+        }
+    }
+
+    private static boolean isRecent(S3Object object, Instant cutoff) {
+        return object.lastModified() != null && object.lastModified().isAfter(cutoff);
+    }
+
+    /**
+     * Uncompressed size of a blob
+     */
+    private static long storedSize(HeadObjectResponse blob) {
+        String originalLength = blob.metadata().get(GatewayMetadata.ORIGINAL_LENGTH);
+        if (originalLength != null) {
+            try {
+                return Long.parseLong(originalLength);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid original length '{}'", originalLength);
+            }
+        }
+        return blob.contentLength() != null ? blob.contentLength() : 0L;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.ExportJobResponse;
+import br.com.example.davidarchanjo.enumeration.ExportDestination;
+import br.com.example.davidarchanjo.enumeration.ExportFormat;
+import br.com.example.davidarchanjo.enumeration.ExportStatus;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.ExportJobNotFoundException;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.model.ExportRequest;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.ExportService;
+import br.com.example.davidarchanjo.service.ParallelListingService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.IdGenerator;
+import br.com.example.davidarchanjo.util.MultipartUploadOutputStream;
+import br.com.example.davidarchanjo.util.PathSanitizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String CSV_HEADER = "key,size,etag,last_modified\n";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final S3BucketStorageService storageService;
+    private final ParallelListingService listingService;
+    private final StorageProperties storageProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor exportExecutor;
+
+    private final Map<String, ExportJob> jobs;
+
+    public ExportServiceImpl(
+            S3Client s3Client,
+            S3BucketStorageService storageService,
+            ParallelListingService listingService,
+            StorageProperties storageProperties,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Qualifier("exportExecutor") TaskExecutor exportExecutor
+    ) {
+        this.s3Client = s3Client;
+        this.storageService = storageService;
+        this.listingService = listingService;
+        this.storageProperties = storageProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.exportExecutor = exportExecutor;
+
+        int retained = Math.max(1, storageProperties.getExport().getRetainedJobs());
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExportJob> eldest) {
+                return size() > retained && eldest.getValue().isFinished();
+            }
+        });
+    }
+
+    @Override
+    public ExportJobResponse startExport(ExportRequest request) {
+        if (!storageService.bucketExists(request.getBucketName())) {
+            throw new BucketNotFoundException(request.getBucketName());
+        }
+
+        // The job ID is all a caller needs to fetch the export, so it must not be guessable
+        String jobId = IdGenerator.secureUuidV7();
+        ExportJob job = new ExportJob(jobId, request, location(jobId, request));
+        jobs.put(jobId, job);
+
+        try {
+            exportExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(jobId);
+            throw new ServiceOverloadedException("Too many export jobs are queued, retry later",
+                    storageProperties.getExport().getRejectedRetryAfterSeconds());
+        }
+
+        log.info("Queued {} export {} of bucket '{}' prefix '{}' to {}",
+                request.getFormat().getValue(), jobId, request.getBucketName(), request.getPrefix(), job.location);
+        return job.toResponse();
+    }
+
+    @Override
+    public ExportJobResponse getExport(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ExportJobNotFoundException(jobId);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public List<ExportJobResponse> listExports() {
+        List<ExportJobResponse> responses = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.values().forEach(job -> responses.add(job.toResponse()));
+        }
+        Collections.reverse(responses);
+        return responses;
+    }
+
+    private void run(ExportJob job) {
+        job.start();
+        try {
+            if (job.request.getDestination() == ExportDestination.BUCKET) {
+                exportToBucket(job);
+            } else {
+                exportToFile(job);
+            }
+            job.finish(ExportStatus.COMPLETED, null);
+            log.info("Export {} finished: {} of {} objects written, {} bytes",
+                    job.jobId, job.objectsExported.get(), job.objectsScanned.get(), job.bytesWritten.get());
+        } catch (IOException | RuntimeException e) {
+            String reason = e instanceof UncheckedIOException ? e.getCause().getMessage() : e.getMessage();
+            job.finish(ExportStatus.FAILED, reason);
+            log.error("Export {} of bucket '{}' failed: {}", job.jobId, job.request.getBucketName(), reason);
+        }
+    }
+
+    private void exportToBucket(ExportJob job) throws IOException {
+        StorageProperties.Checksum checksum = storageProperties.getChecksum();
+        MultipartUploadOutputStream upload = new MultipartUploadOutputStream(
+                s3Client,
+                job.request.getBucketName(),
+                job.location,
+                job.request.getFormat().getContentType(),
+                checksum.isEnabled() ? checksum.getAlgorithm() : null,
+                storageProperties.getExport().getPartSizeMb() * 1024 * 1024
+        );
+
+        try {
+            writeListing(job, upload);
+            upload.close();
+        } catch (IOException | RuntimeException e) {
+            try {
+                upload.abort();
+            } catch (SdkException abortFailure) {
+                log.warn("Failed to abort upload of export {}: {}", job.jobId, abortFailure.getMessage());
+            }
+            throw e;
+        }
+
+        eventPublisher.publishEvent(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(job.request.getBucketName())
+                .key(job.location)
+                .size(upload.getBytesWritten())
+                .contentType(job.request.getFormat().getContentType())
+                .eTag(upload.getETag())
+                .occurredAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Written under a temporary name and moved into place, so readers never see a partial file
+     */
+    private void exportToFile(ExportJob job) throws IOException {
+        Path target = Paths.get(job.location);
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+
+        try (OutputStream file = Files.newOutputStream(partial)) {
+            writeListing(job, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Pages arrive from several listing partitions at once; each is rendered on its own thread
+     * and appended under a lock, so the inventory is complete but not sorted.
+     */
+    private void writeListing(ExportJob job, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, WRITE_BUFFER_SIZE);
+        ExportFormat format = job.request.getFormat();
+        if (format == ExportFormat.CSV) {
+            write(job, out, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Compared with backend timestamps, so widened by the allowed skew; rows near since may repeat
+        Instant since = job.request.getSince() != null
+                ? job.request.getSince().minusMillis(storageProperties.getExport().getSinceSkewMs())
+                : null;
+        listingService.scan(job.request.getBucketName(), job.request.getPrefix(), page -> {
+            StringBuilder rows = new StringBuilder(page.size() * 128);
+            int exported = 0;
+            for (ObjectSummary object : page) {
+                if (isChanged(object, since)) {
+                    appendRow(rows, object, format);
+                    exported++;
+                }
+            }
+            job.objectsScanned.addAndGet(page.size());
+            job.objectsExported.addAndGet(exported);
+            if (exported > 0) {
+                write(job, out, rows.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        out.flush();
+    }
+
+    private void write(ExportJob job, OutputStream out, byte[] chunk) {
+        synchronized (out) {
+            try {
+                out.write(chunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        job.bytesWritten.addAndGet(chunk.length);
+    }
+
+    private void appendRow(StringBuilder rows, ObjectSummary object, ExportFormat format) {
+        String eTag = object.getETag() != null ? object.getETag().replace("\"", "") : "";
+        String lastModified = object.getLastModified() != null ? object.getLastModified().toString() : "";
+
+        if (format == ExportFormat.CSV) {
+            rows.append(csv(object.getKey())).append(',')
+                    .append(object.getSize()).append(',')
+                    .append(eTag).append(',')
+                    .append(lastModified).append('\n');
+            return;
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("key", object.getKey());
+        row.put("size", object.getSize());
+        row.put("eTag", eTag);
+        row.put("lastModified", lastModified);
+        try {
+            rows.append(objectMapper.writeValueAsString(row)).append('\n');
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String location(String jobId, ExportRequest request) {
+        StorageProperties.Export export = storageProperties.getExport();
+        boolean named = request.getTarget() != null && !request.getTarget().isBlank();
+        String name = named
+                ? PathSanitizer.sanitizePath(request.getTarget())
+                : request.getBucketName() + "/" + jobId + request.getFormat().getExtension();
+
+        if (request.getDestination() == ExportDestination.BUCKET) {
+            return named ? name : export.getKeyPrefix() + name;
+        }
+        return Paths.get(export.getLocalDirectory()).resolve(name).normalize().toString();
+    }
+
+    private static boolean isChanged(ObjectSummary object, Instant since) {
+        return since == null || object.getLastModified() == null || !object.getLastModified().isBefore(since);
+    }
+
+    private static String csv(String value) {
+        boolean plain = value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r');
+        if (plain) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Mutable state of one export; progress counters are updated from listing threads
+     */
+    private static final class ExportJob {
+
+        private final String jobId;
+        private final ExportRequest request;
+        private final String location;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong objectsScanned = new AtomicLong();
+        private final AtomicLong objectsExported = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private volatile ExportStatus status = ExportStatus.QUEUED;
+        private volatile Instant snapshotAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ExportJob(String jobId, ExportRequest request, String location) {
+            this.jobId = jobId;
+            this.request = request;
+            this.location = location;
+        }
+
+        void start() {
+            // Taken before the listing starts, so a later export since this time misses nothing
+            snapshotAt = Instant.now();
+            status = ExportStatus.RUNNING;
+        }
+
+        void finish(ExportStatus finalStatus, String reason) {
+            error = reason;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        boolean isFinished() {
+            return status == ExportStatus.COMPLETED || status == ExportStatus.FAILED;
+        }
+
+        ExportJobResponse toResponse() {
+            return ExportJobResponse.builder()
+                    .jobId(jobId)
+                    .bucketName(request.getBucketName())
+                    .prefix(request.getPrefix())
+                    .format(request.getFormat().getValue())
+                    .destination(request.getDestination().getValue())
+                    .location(location)
+                    .status(status.name())
+                    .objectsScanned(objectsScanned.get())
+                    .objectsExported(objectsExported.get())
+                    .bytesWritten(bytesWritten.get())
+                    .since(request.getSince())
+                    .snapshotAt(snapshotAt)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.HedgedReadService;
+import br.com.example.davidarchanjo.util.LatencyTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class HedgedReadServiceImpl implements HedgedReadService {
+
+    /**
+     * Budget is kept in thousandths of a hedge so fractional percentages accumulate exactly
+     */
+    private static final long HEDGE_COST = 1000;
+
+    private final StorageProperties storageProperties;
+    private final TaskExecutor hedgeExecutor;
+    private final LatencyTracker firstByteLatency;
+    private final AtomicLong budget = new AtomicLong();
+
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    public HedgedReadServiceImpl(
+            StorageProperties storageProperties,
+            MeterRegistry meterRegistry,
+            @Qualifier("hedgeExecutor") TaskExecutor hedgeExecutor
+    ) {
+        this.storageProperties = storageProperties;
+        this.hedgeExecutor = hedgeExecutor;
+
+        StorageProperties.Hedge hedge = storageProperties.getHedge();
+        this.firstByteLatency = new LatencyTracker(hedge.getWindowSize(), hedge.getPercentile(), 50);
+
+        this.requests = Counter.builder("storage.hedge.requests")
+                .description("GETs eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("storage.hedge.issued")
+                .description("Duplicate GETs issued after the hedge delay")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("storage.hedge.wins")
+                .description("Hedged GETs that responded before the original")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("storage.hedge.budget.exhausted")
+                .description("Slow GETs left unhedged because the hedge budget was spent")
+                .register(meterRegistry);
+        meterRegistry.gauge("storage.hedge.delay.ms", this, HedgedReadServiceImpl::hedgeDelayMs);
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(
+            GetObjectRequest request,
+            Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> fetch
+    ) {
+        StorageProperties.Hedge settings = storageProperties.getHedge();
+        if (!settings.isEnabled()) {
+            return fetch.apply(request);
+        }
+
+        requests.increment();
+        deposit(settings);
+        long delay = hedgeDelayMs();
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseInputStream<GetObjectResponse>> primary =
+                CompletableFuture.supplyAsync(() -> fetch.apply(request), hedgeExecutor);
+        // Only the original GET is sampled, so hedging does not hide the latency it reacts to
+        primary.whenComplete((response, error) -> {
+            if (error == null) {
+                firstByteLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+
+        try {
+            return primary.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Slow to respond: hedge below
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(ResponseInputStream::abort);
+            throw new StorageException("Interrupted waiting for object", e);
+        }
+
+        if (!withdraw()) {
+            budgetExhausted.increment();
+            return await(primary);
+        }
+
+        hedges.increment();
+        log.debug("Hedging GET of '{}' in bucket '{}' after {} ms", request.key(), request.bucket(), delay);
+        CompletableFuture<ResponseInputStream<GetObjectResponse>> hedge =
+                CompletableFuture.supplyAsync(() -> fetch.apply(request), hedgeExecutor);
+
+        Race race = new Race();
+        race.join(primary, false);
+        race.join(hedge, true);
+        return await(race.winner);
+    }
+
+    @Override
+    public long hedgeDelayMs() {
+        StorageProperties.Hedge settings = storageProperties.getHedge();
+        if (firstByteLatency.count() < settings.getMinSamples()) {
+            return settings.getInitialDelayMs();
+        }
+        long observed = firstByteLatency.percentile();
+        return Math.max(settings.getMinDelayMs(), Math.min(settings.getMaxDelayMs(), observed));
+    }
+
+    private void deposit(StorageProperties.Hedge settings) {
+        long perRequest = Math.round(settings.getBudgetPercent() * HEDGE_COST / 100);
+        long cap = settings.getBudgetBurst() * HEDGE_COST;
+        budget.accumulateAndGet(perRequest, (current, added) -> Math.min(cap, current + added));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    private static ResponseInputStream<GetObjectResponse> await(
+            CompletableFuture<ResponseInputStream<GetObjectResponse>> response
+    ) {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.thenAccept(ResponseInputStream::abort);
+            throw new StorageException("Interrupted waiting for object", e);
+        }
+    }
+
+    /**
+     * Surface the SDK exception itself so callers keep handling NoSuchKeyException and friends as before
+     */
+    private static RuntimeException rethrow(Throwable cause) {
+        Throwable error = cause instanceof CompletionException && cause.getCause() != null
+                ? cause.getCause()
+                : cause;
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new StorageException("GET failed: " + error.getMessage(), error);
+    }
+
+    /**
+     * First successful response of the original and hedged GET; responses arriving after it are aborted
+     */
+    private final class Race {
+
+        private final CompletableFuture<ResponseInputStream<GetObjectResponse>> winner = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        void join(CompletableFuture<ResponseInputStream<GetObjectResponse>> attempt, boolean hedged) {
+            attempt.whenComplete((response, error) -> {
+                if (error != null) {
+                    if (failures.incrementAndGet() == 2) {
+                        winner.completeExceptionally(error);
+                    }
+                } else if (decided.compareAndSet(false, true)) {
+                    if (hedged) {
+                        hedgeWins.increment();
+                    }
+                    winner.complete(response);
+                } else {
+                    response.abort();
+                }
+            });
+        }
+    }
+}
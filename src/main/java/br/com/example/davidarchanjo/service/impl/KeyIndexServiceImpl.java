@@ -0,0 +1,570 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.KeyIndexListingResponse;
+import br.com.example.davidarchanjo.dto.KeyIndexStatusResponse;
+import br.com.example.davidarchanjo.dto.PrefixCountResponse;
+import br.com.example.davidarchanjo.enumeration.KeyLayout;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.KeyIndexService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import br.com.example.davidarchanjo.util.FrontCodedKeySet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class KeyIndexServiceImpl implements KeyIndexService {
+
+    /**
+     * Keys sorted and encoded at a time when a listing has to be reordered
+     */
+    private static final int SORT_RUN_KEYS = 65_536;
+
+    /**
+     * Seconds a client is asked to wait while the first build of an index runs
+     */
+    private static final long BUILDING_RETRY_AFTER_SECONDS = 5;
+
+    private final S3BucketStorageService storageService;
+    private final StorageProperties storageProperties;
+    private final TaskExecutor keyIndexExecutor;
+
+    private final Map<String, BucketIndex> indexes = new ConcurrentHashMap<>();
+
+    public KeyIndexServiceImpl(
+            S3BucketStorageService storageService,
+            StorageProperties storageProperties,
+            @Qualifier("keyIndexExecutor") TaskExecutor keyIndexExecutor
+    ) {
+        this.storageService = storageService;
+        this.storageProperties = storageProperties;
+        this.keyIndexExecutor = keyIndexExecutor;
+    }
+
+    /**
+     * Keep indexed buckets in step with writes and deletes made through the gateway
+     */
+    @EventListener
+    public void onObjectChange(ObjectChangeEvent event) {
+        if (!storageProperties.getKeyIndex().isEnabled() || ContentAddress.isInternal(event.getKey())) {
+            return;
+        }
+        record(event);
+    }
+
+    @Override
+    public void record(ObjectChangeEvent event) {
+        BucketIndex index = indexes.get(event.getBucketName());
+        if (index == null) {
+            return;
+        }
+        index.apply(event.getKey(), event.getType() != ObjectChangeType.DELETED);
+
+        Snapshot snapshot = index.snapshot;
+        if (snapshot != null && snapshot.overlay.size() > storageProperties.getKeyIndex().getOverlayLimit()
+                && index.compacting.compareAndSet(false, true)) {
+            // Off the request thread that published the change
+            keyIndexExecutor.execute(() -> {
+                try {
+                    compact(index);
+                } finally {
+                    index.compacting.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public KeyIndexListingResponse list(String bucketName, String prefix, String delimiter, String startAfter,
+                                        int limit) {
+        Snapshot snapshot = snapshot(bucketName);
+        String listed = prefix != null ? prefix : "";
+        String folder = delimiter != null && !delimiter.isEmpty() ? delimiter : null;
+        int maxPageSize = storageProperties.getKeyIndex().getMaxPageSize();
+        int pageSize = limit > 0 ? Math.min(limit, maxPageSize) : maxPageSize;
+
+        MergedCursor cursor = new MergedCursor(snapshot);
+        if (startAfter != null && FrontCodedKeySet.compareKeys(startAfter, listed) >= 0) {
+            cursor.seek(startAfter, false);
+            if (folder != null && isCommonPrefix(startAfter, listed, folder)) {
+                cursor.skipPrefix(startAfter);
+            }
+        } else {
+            cursor.seek(listed, true);
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<PrefixCountResponse> commonPrefixes = new ArrayList<>();
+        String last = null;
+        boolean truncated = false;
+
+        String key;
+        while ((key = cursor.next()) != null && key.startsWith(listed)) {
+            if (keys.size() + commonPrefixes.size() == pageSize) {
+                truncated = true;
+                break;
+            }
+
+            int at = folder != null ? key.indexOf(folder, listed.length()) : -1;
+            if (at >= 0) {
+                String common = key.substring(0, at + folder.length());
+                commonPrefixes.add(PrefixCountResponse.builder()
+                        .prefix(common)
+                        .count(count(snapshot, common))
+                        .build());
+                cursor.skipPrefix(common);
+                last = common;
+            } else {
+                keys.add(key);
+                last = key;
+            }
+        }
+
+        return KeyIndexListingResponse.builder()
+                .bucketName(bucketName)
+                .prefix(listed)
+                .delimiter(folder)
+                .keys(keys)
+                .commonPrefixes(commonPrefixes)
+                .truncated(truncated)
+                .nextStartAfter(truncated ? last : null)
+                .build();
+    }
+
+    @Override
+    public PrefixCountResponse count(String bucketName, String prefix) {
+        String counted = prefix != null ? prefix : "";
+        return PrefixCountResponse.builder()
+                .prefix(counted)
+                .count(count(snapshot(bucketName), counted))
+                .build();
+    }
+
+    @Override
+    public KeyIndexStatusResponse rebuild(String bucketName) {
+        ensureEnabled();
+        if (!storageService.bucketExists(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+        return rebuild(indexes.computeIfAbsent(bucketName, BucketIndex::new));
+    }
+
+    /**
+     * Rebuild every configured or already indexed bucket on the configured interval
+     */
+    @Scheduled(fixedDelayString = "${storage.key-index.rebuild-interval-ms:900000}")
+    public void rebuildAll() {
+        if (!storageProperties.getKeyIndex().isEnabled()) {
+            return;
+        }
+        Set<String> bucketNames = new LinkedHashSet<>(storageProperties.getKeyIndex().getBuckets());
+        bucketNames.addAll(indexes.keySet());
+        for (String bucketName : bucketNames) {
+            try {
+                rebuild(bucketName);
+            } catch (StorageException | SdkException e) {
+                log.warn("Scheduled key index rebuild failed for bucket '{}': {}", bucketName, e.getMessage());
+            }
+        }
+    }
+
+    private KeyIndexStatusResponse rebuild(BucketIndex index) {
+        long start = System.currentTimeMillis();
+        index.rebuildLock.lock();
+        try {
+            // Changes made while the listing runs are replayed on top of it
+            index.startCapture();
+            FrontCodedKeySet keys;
+            try (Stream<ObjectSummary> objects = storageService.listObjects(index.bucketName, null)) {
+                Iterator<String> listed = objects.map(ObjectSummary::getKey).iterator();
+                int blockSize = storageProperties.getKeyIndex().getBlockSize();
+                // Whole-bucket listings of a sharded layout come back in physical, not logical, key order
+                keys = storageProperties.getKeyLayout() == KeyLayout.HASH_SHARDED
+                        ? sorted(listed, blockSize, SORT_RUN_KEYS)
+                        : FrontCodedKeySet.of(listed, blockSize);
+            } catch (SdkException | IllegalArgumentException e) {
+                log.error("Failed to rebuild key index of bucket '{}': {}", index.bucketName, e.getMessage());
+                throw new StorageException("Failed to rebuild key index: " + e.getMessage(), e);
+            }
+            index.install(keys);
+        } finally {
+            index.abortCapture();
+            index.rebuildLock.unlock();
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        Snapshot snapshot = index.snapshot;
+        log.info("Rebuilt key index of bucket '{}': {} keys in {} bytes in {} ms",
+                index.bucketName, snapshot.base.size(), snapshot.base.memoryBytes(), duration);
+
+        return KeyIndexStatusResponse.builder()
+                .bucketName(index.bucketName)
+                .keys((long) snapshot.base.size())
+                .memoryBytes(snapshot.base.memoryBytes())
+                .pendingChanges((long) snapshot.overlay.size())
+                .builtAt(index.builtAt)
+                .durationMs(duration)
+                .build();
+    }
+
+    /**
+     * Fold pending changes into the encoded keys without going back to the backend
+     */
+    private void compact(BucketIndex index) {
+        if (!index.rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            Snapshot snapshot = index.snapshot;
+            NavigableMap<String, Boolean> merged = new TreeMap<>(FrontCodedKeySet::compareKeys);
+            merged.putAll(snapshot.overlay);
+
+            MergedCursor cursor = new MergedCursor(new Snapshot(snapshot.base, merged));
+            cursor.seek("", true);
+            FrontCodedKeySet keys = FrontCodedKeySet.of(cursor.asIterator(),
+                    storageProperties.getKeyIndex().getBlockSize());
+
+            index.replace(keys, merged);
+            log.debug("Compacted {} pending changes into key index of bucket '{}'", merged.size(), index.bucketName);
+        } finally {
+            index.rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot snapshot(String bucketName) {
+        ensureEnabled();
+        List<String> buckets = storageProperties.getKeyIndex().getBuckets();
+        if (!buckets.isEmpty() && !buckets.contains(bucketName)) {
+            throw new StorageException("Bucket '" + bucketName + "' is not indexed");
+        }
+
+        BucketIndex index = indexes.get(bucketName);
+        if (index == null || index.snapshot == null) {
+            if (!storageService.bucketExists(bucketName)) {
+                throw new BucketNotFoundException(bucketName);
+            }
+            index = indexes.computeIfAbsent(bucketName, BucketIndex::new);
+            build(index);
+        }
+        Snapshot snapshot = index.snapshot;
+        if (snapshot == null) {
+            throw new ServiceOverloadedException("Key index of bucket '" + bucketName + "' is being built",
+                    BUILDING_RETRY_AFTER_SECONDS);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Start the first build of an index in the background, unless one is already running
+     */
+    private void build(BucketIndex index) {
+        if (!index.building.compareAndSet(false, true)) {
+            return;
+        }
+        keyIndexExecutor.execute(() -> {
+            try {
+                rebuild(index);
+            } catch (StorageException e) {
+                log.warn("Initial key index build failed for bucket '{}': {}", index.bucketName, e.getMessage());
+            } finally {
+                index.building.set(false);
+            }
+        });
+    }
+
+    /**
+     * Encode keys listed out of order: runs of keys are sorted and encoded one at a time, then merged,
+     * so the raw keys of a whole bucket are never held at once
+     */
+    static FrontCodedKeySet sorted(Iterator<String> keys, int blockSize, int runKeys) {
+        List<FrontCodedKeySet> runs = new ArrayList<>();
+        List<String> run = new ArrayList<>();
+        while (keys.hasNext()) {
+            run.add(keys.next());
+            if (run.size() == runKeys || !keys.hasNext()) {
+                run.sort(FrontCodedKeySet::compareKeys);
+                runs.add(FrontCodedKeySet.of(run.iterator(), blockSize));
+                run.clear();
+            }
+        }
+        if (runs.size() <= 1) {
+            return runs.isEmpty() ? FrontCodedKeySet.empty() : runs.get(0);
+        }
+
+        PriorityQueue<RunCursor> heads = new PriorityQueue<>(
+                (a, b) -> FrontCodedKeySet.compareKeys(a.key, b.key));
+        for (FrontCodedKeySet encoded : runs) {
+            RunCursor cursor = new RunCursor(encoded.iterator());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        Iterator<String> merged = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public String next() {
+                RunCursor cursor = heads.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                String key = cursor.key;
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+                return key;
+            }
+        };
+        return FrontCodedKeySet.of(merged, blockSize);
+    }
+
+    private long count(Snapshot snapshot, String prefix) {
+        long count = snapshot.base.count(prefix);
+        for (Map.Entry<String, Boolean> change : snapshot.overlay.tailMap(prefix, true).entrySet()) {
+            if (!change.getKey().startsWith(prefix)) {
+                break;
+            }
+            boolean indexed = snapshot.base.contains(change.getKey());
+            if (change.getValue() && !indexed) {
+                count++;
+            } else if (!change.getValue() && indexed) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    private void ensureEnabled() {
+        if (!storageProperties.getKeyIndex().isEnabled()) {
+            throw new StorageException("Key index is disabled");
+        }
+    }
+
+    private static boolean isCommonPrefix(String value, String prefix, String delimiter) {
+        return value.startsWith(prefix)
+                && value.endsWith(delimiter)
+                && value.indexOf(delimiter, prefix.length()) == value.length() - delimiter.length();
+    }
+
+    /**
+     * Encoded keys plus the gateway changes made since they were built.
+     * The overlay maps a key to true when it was written and false when it was deleted.
+     */
+    private static final class Snapshot {
+
+        private final FrontCodedKeySet base;
+        private final NavigableMap<String, Boolean> overlay;
+
+        private Snapshot(FrontCodedKeySet base, NavigableMap<String, Boolean> overlay) {
+            this.base = base;
+            this.overlay = overlay;
+        }
+    }
+
+    /**
+     * Next key of one sorted run during a merge
+     */
+    private static final class RunCursor {
+
+        private final Iterator<String> keys;
+        private String key;
+
+        private RunCursor(Iterator<String> keys) {
+            this.keys = keys;
+        }
+
+        boolean advance() {
+            key = keys.hasNext() ? keys.next() : null;
+            return key != null;
+        }
+    }
+
+    private static final class BucketIndex {
+
+        private final String bucketName;
+        private final ReentrantLock rebuildLock = new ReentrantLock();
+        private final AtomicBoolean building = new AtomicBoolean();
+        private final AtomicBoolean compacting = new AtomicBoolean();
+        private volatile Snapshot snapshot;
+        private volatile Instant builtAt;
+        private ConcurrentNavigableMap<String, Boolean> capture;
+
+        private BucketIndex(String bucketName) {
+            this.bucketName = bucketName;
+        }
+
+        synchronized void apply(String key, boolean present) {
+            if (snapshot != null) {
+                snapshot.overlay.put(key, present);
+            }
+            if (capture != null) {
+                capture.put(key, present);
+            }
+        }
+
+        synchronized void startCapture() {
+            capture = newOverlay();
+        }
+
+        /**
+         * Stop capturing changes; a no-op once the rebuilt keys are installed
+         */
+        synchronized void abortCapture() {
+            capture = null;
+        }
+
+        synchronized void install(FrontCodedKeySet keys) {
+            snapshot = new Snapshot(keys, capture);
+            capture = null;
+            builtAt = Instant.now();
+        }
+
+        /**
+         * Swap in compacted keys, keeping the changes that arrived after the overlay was copied
+         */
+        synchronized void replace(FrontCodedKeySet keys, Map<String, Boolean> folded) {
+            ConcurrentNavigableMap<String, Boolean> remaining = newOverlay();
+            for (Map.Entry<String, Boolean> change : snapshot.overlay.entrySet()) {
+                if (!Objects.equals(folded.get(change.getKey()), change.getValue())) {
+                    remaining.put(change.getKey(), change.getValue());
+                }
+            }
+            snapshot = new Snapshot(keys, remaining);
+        }
+
+        private static ConcurrentNavigableMap<String, Boolean> newOverlay() {
+            return new ConcurrentSkipListMap<>(FrontCodedKeySet::compareKeys);
+        }
+    }
+
+    /**
+     * Walks the encoded keys and the overlay together in key order, yielding the keys that currently exist
+     */
+    private static final class MergedCursor {
+
+        private final Snapshot snapshot;
+        private FrontCodedKeySet.Cursor baseCursor;
+        private String baseKey;
+        private Iterator<Map.Entry<String, Boolean>> changes;
+        private Map.Entry<String, Boolean> change;
+
+        private MergedCursor(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        void seek(String key, boolean inclusive) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            baseCursor = snapshot.base.seek(bytes);
+            if (!inclusive && baseCursor.isValid() && baseCursor.compareTo(bytes) == 0) {
+                baseCursor.advance();
+            }
+            baseKey = baseCursor.isValid() ? baseCursor.key() : null;
+
+            changes = snapshot.overlay.tailMap(key, inclusive).entrySet().iterator();
+            change = changes.hasNext() ? changes.next() : null;
+        }
+
+        /**
+         * Jump past every key starting with a prefix
+         */
+        void skipPrefix(String prefix) {
+            byte[] upper = FrontCodedKeySet.successor(prefix.getBytes(StandardCharsets.UTF_8));
+            if (upper == null) {
+                baseKey = null;
+            } else {
+                baseCursor = snapshot.base.seek(upper);
+                baseKey = baseCursor.isValid() ? baseCursor.key() : null;
+            }
+            while (change != null && change.getKey().startsWith(prefix)) {
+                nextChange();
+            }
+        }
+
+        String next() {
+            while (baseKey != null || change != null) {
+                int order = baseKey == null ? 1
+                        : change == null ? -1
+                        : FrontCodedKeySet.compareKeys(baseKey, change.getKey());
+                if (order < 0) {
+                    String key = baseKey;
+                    nextBase();
+                    return key;
+                }
+
+                Map.Entry<String, Boolean> current = change;
+                nextChange();
+                if (order == 0) {
+                    nextBase();
+                }
+                if (current.getValue()) {
+                    return current.getKey();
+                }
+            }
+            return null;
+        }
+
+        Iterator<String> asIterator() {
+            return new Iterator<>() {
+                private String pending = MergedCursor.this.next();
+
+                @Override
+                public boolean hasNext() {
+                    return pending != null;
+                }
+
+                @Override
+                public String next() {
+                    if (pending == null) {
+                        throw new NoSuchElementException();
+                    }
+                    String key = pending;
+                    pending = MergedCursor.this.next();
+                    return key;
+                }
+            };
+        }
+
+        private void nextBase() {
+            baseKey = baseCursor.advance() ? baseCursor.key() : null;
+        }
+
+        private void nextChange() {
+            change = changes.hasNext() ? changes.next() : null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.KeyLayout;
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import br.com.example.davidarchanjo.service.KeyLayoutService;
+import br.com.example.davidarchanjo.util.FrontCodedKeySet;
+import br.com.example.davidarchanjo.util.ShardedKeyLayout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class KeyLayoutServiceImpl implements KeyLayoutService {
+
+    private static final String KEY_FIELD = "Key";
+    private static final String TOKEN_PREFIX = "sharded:";
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    private final ForkJoinPool listingPool;
+
+    /**
+     * Layout in use, or null when keys are stored as given. Fixed at startup: changing it orphans existing keys.
+     */
+    private final ShardedKeyLayout layout;
+
+    public KeyLayoutServiceImpl(
+            StorageProperties storageProperties,
+            @Qualifier("listingPool") ForkJoinPool listingPool
+    ) {
+        this.listingPool = listingPool;
+
+        StorageProperties.Sharding sharding = storageProperties.getSharding();
+        this.layout = storageProperties.getKeyLayout() == KeyLayout.HASH_SHARDED
+                ? new ShardedKeyLayout(sharding.getShardCount(), sharding.getDepth())
+                : null;
+        if (layout != null) {
+            log.info("Using hash-sharded key layout: {} shards below {} folders",
+                    sharding.getShardCount(), sharding.getDepth());
+        }
+    }
+
+    @Override
+    public boolean isSharded() {
+        return layout != null;
+    }
+
+    @Override
+    public String toPhysicalKey(String logicalKey) {
+        return layout != null ? layout.toPhysical(logicalKey) : logicalKey;
+    }
+
+    @Override
+    public String toLogicalKey(String physicalKey) {
+        return layout != null ? layout.toLogical(physicalKey) : physicalKey;
+    }
+
+    @Override
+    public S3Request toPhysical(S3Request request) {
+        if (layout == null) {
+            return request;
+        }
+        for (SdkField<?> field : request.sdkFields()) {
+            if (KEY_FIELD.equals(field.memberName())) {
+                Object key = field.getValueOrDefault(request);
+                if (key instanceof String logical) {
+                    S3Request.Builder builder = request.toBuilder();
+                    field.set(builder, layout.toPhysical(logical));
+                    return builder.build();
+                }
+            }
+        }
+        return request;
+    }
+
+    @Override
+    public ListObjectsV2Response listObjects(
+            ListObjectsV2Request request,
+            Function<ListObjectsV2Request, ListObjectsV2Response> list
+    ) {
+        String prefix = request.prefix() != null ? request.prefix() : "";
+        if (layout == null) {
+            return list.apply(request);
+        }
+        if (!layout.spansShards(prefix)) {
+            return listAcrossFolders(request, list);
+        }
+        return listShards(request, prefix, list);
+    }
+
+    /**
+     * List a prefix above the shard folders as one listing. Keys come back in physical order.
+     */
+    private ListObjectsV2Response listAcrossFolders(
+            ListObjectsV2Request request,
+            Function<ListObjectsV2Request, ListObjectsV2Response> list
+    ) {
+        ListObjectsV2Request physical = request.startAfter() != null
+                ? request.toBuilder().startAfter(layout.toPhysical(request.startAfter())).build()
+                : request;
+        ListObjectsV2Response response = list.apply(physical);
+        return response.toBuilder()
+                .startAfter(request.startAfter())
+                .contents(response.contents().stream()
+                        .map(object -> object.toBuilder().key(layout.toLogical(object.key())).build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * List a prefix in every shard and merge the pages in logical order. Only entries up to the last one of the
+     * shortest truncated shard page are returned, so no shard can still hold a key that sorts before them.
+     */
+    private ListObjectsV2Response listShards(
+            ListObjectsV2Request request,
+            String prefix,
+            Function<ListObjectsV2Request, ListObjectsV2Response> list
+    ) {
+        int maxKeys = request.maxKeys() != null ? request.maxKeys() : DEFAULT_MAX_KEYS;
+        String cursor = request.continuationToken() != null
+                ? decodeToken(request.continuationToken())
+                : request.startAfter();
+
+        List<CompletableFuture<ListObjectsV2Response>> pages = new ArrayList<>(layout.getShardCount());
+        for (int shard = 0; shard < layout.getShardCount(); shard++) {
+            ListObjectsV2Request shardRequest = request.toBuilder()
+                    .prefix(layout.inShard(prefix, shard))
+                    .continuationToken(null)
+                    .startAfter(cursor != null ? startAfter(cursor, shard, request.delimiter()) : null)
+                    .maxKeys(maxKeys)
+                    .build();
+            pages.add(CompletableFuture.supplyAsync(() -> list.apply(shardRequest), listingPool));
+        }
+
+        // S3 orders keys by their UTF-8 bytes
+        TreeMap<String, Object> merged = new TreeMap<>(FrontCodedKeySet::compareKeys);
+        String limit = null;
+        for (CompletableFuture<ListObjectsV2Response> future : pages) {
+            ListObjectsV2Response page = join(future);
+            String last = null;
+            for (S3Object object : page.contents()) {
+                last = max(last, put(merged, layout.toLogical(object.key()), object));
+            }
+            for (CommonPrefix folder : page.commonPrefixes()) {
+                last = max(last, put(merged, layout.toLogicalPrefix(folder.prefix()), folder));
+            }
+            boolean truncated = Boolean.TRUE.equals(page.isTruncated()) && last != null;
+            if (truncated && (limit == null || FrontCodedKeySet.compareKeys(last, limit) < 0)) {
+                limit = last;
+            }
+        }
+
+        List<S3Object> contents = new ArrayList<>();
+        List<CommonPrefix> folders = new ArrayList<>();
+        String returned = null;
+        for (Map.Entry<String, Object> entry : merged.entrySet()) {
+            boolean pastLimit = limit != null && FrontCodedKeySet.compareKeys(entry.getKey(), limit) > 0;
+            if (contents.size() + folders.size() == maxKeys || pastLimit) {
+                break;
+            }
+            if (entry.getValue() instanceof S3Object object) {
+                contents.add(object.toBuilder().key(entry.getKey()).build());
+            } else {
+                folders.add(CommonPrefix.builder().prefix(entry.getKey()).build());
+            }
+            returned = entry.getKey();
+        }
+        boolean truncated = limit != null || contents.size() + folders.size() < merged.size();
+
+        return ListObjectsV2Response.builder()
+                .name(request.bucket())
+                .prefix(request.prefix())
+                .delimiter(request.delimiter())
+                .maxKeys(maxKeys)
+                .startAfter(request.startAfter())
+                .continuationToken(request.continuationToken())
+                .contents(contents)
+                .commonPrefixes(folders)
+                .keyCount(contents.size() + folders.size())
+                .isTruncated(truncated)
+                .nextContinuationToken(truncated && returned != null ? encodeToken(returned) : null)
+                .build();
+    }
+
+    private static String put(TreeMap<String, Object> merged, String logical, Object entry) {
+        merged.putIfAbsent(logical, entry);
+        return logical;
+    }
+
+    private static String max(String current, String candidate) {
+        return current == null || FrontCodedKeySet.compareKeys(candidate, current) > 0 ? candidate : current;
+    }
+
+    /**
+     * Resume a shard after a key, or after everything under a folder already returned as a common prefix
+     */
+    private String startAfter(String cursor, int shard, String delimiter) {
+        // A cursor above the shard folders sorts before or after the whole listed prefix and applies as given
+        String physical = layout.spansShards(cursor) ? layout.inShard(cursor, shard) : cursor;
+        if (delimiter != null && delimiter.length() == 1 && physical.endsWith(delimiter)) {
+            char next = (char) (delimiter.charAt(0) + 1);
+            return physical.substring(0, physical.length() - 1) + next;
+        }
+        return physical;
+    }
+
+    private static ListObjectsV2Response join(CompletableFuture<ListObjectsV2Response> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static String encodeToken(String cursor) {
+        return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeToken(String token) {
+        if (!token.startsWith(TOKEN_PREFIX)) {
+            throw new InvalidRequestException("Continuation token was not issued for a sharded listing");
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(token.substring(TOKEN_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Malformed continuation token", e);
+        }
+    }
+}
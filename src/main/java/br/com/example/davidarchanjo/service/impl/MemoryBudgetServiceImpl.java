@@ -0,0 +1,162 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import br.com.example.davidarchanjo.util.ByteBudget;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Service
+public class MemoryBudgetServiceImpl implements MemoryBudgetService {
+
+    private static final long MB = 1024 * 1024;
+    private static final Reservation NONE = () -> {
+    };
+
+    private final StorageProperties storageProperties;
+    private final ByteBudget budget;
+    private final Counter rejections;
+
+    @Autowired
+    public MemoryBudgetServiceImpl(StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this(storageProperties, meterRegistry, directMemoryHeadroom());
+    }
+
+    MemoryBudgetServiceImpl(
+            StorageProperties storageProperties,
+            MeterRegistry meterRegistry,
+            LongSupplier directHeadroom
+    ) {
+        this.storageProperties = storageProperties;
+        this.budget = new ByteBudget(() -> limit(directHeadroom.getAsLong()));
+
+        Gauge.builder("storage.memory.budget.capacity", budget, ByteBudget::capacity)
+                .description("Transfer bytes that may be held in memory at once")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("storage.memory.budget.reserved", budget, ByteBudget::reserved)
+                .description("Transfer bytes currently reserved")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("storage.memory.budget.queued", budget, ByteBudget::queued)
+                .description("Requests waiting for memory")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("storage.memory.budget.rejected")
+                .description("Requests rejected because no memory came up in time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Reservation reserve(long bytes) {
+        StorageProperties.MemoryBudget settings = storageProperties.getMemoryBudget();
+        if (!settings.isEnabled() || bytes <= 0) {
+            return NONE;
+        }
+
+        long charged;
+        try {
+            charged = budget.reserve(bytes, TimeUnit.MILLISECONDS.toNanos(settings.getMaxWaitMs()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted waiting for memory", e);
+        }
+        if (charged < 0) {
+            rejections.increment();
+            throw new ServiceOverloadedException(
+                    "Not enough memory for another transfer of " + bytes + " bytes", settings.getRetryAfterSeconds());
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                budget.release(charged);
+            }
+        };
+    }
+
+    @Override
+    public Reservation reserveDownload(Long objectSize) {
+        StorageProperties.RangedDownload ranged = storageProperties.getRangedDownload();
+        long streamBuffer = storageProperties.getMemoryBudget().getStreamBufferMb() * MB;
+        long size = objectSize != null ? objectSize : streamBuffer;
+        // Large objects split into ranges hold a window of whole ranges besides the stream's own buffers
+        long buffered = ranged.isEnabled() && size > ranged.getThresholdMb() * MB
+                ? ranged.getMaxBufferMb() * MB + streamBuffer
+                : streamBuffer;
+        return reserve(Math.min(size, buffered));
+    }
+
+    @Override
+    public Reservation reserveBatchFetch(int keys) {
+        StorageProperties.BatchRead settings = storageProperties.getBatchRead();
+        long window = Math.min(keys, Math.max(1, settings.getFetchWindow()));
+        return reserve(window * settings.getMaxObjectSizeKb() * 1024L);
+    }
+
+    @Override
+    public Reservation reserveArchive() {
+        return reserve(storageProperties.getArchive().getPrefetchBufferMb() * MB);
+    }
+
+    @Override
+    public long capacity() {
+        return budget.capacity();
+    }
+
+    @Override
+    public long reserved() {
+        return budget.reserved();
+    }
+
+    /**
+     * Share of the heap, capped by the configured maximum and by direct memory headroom, since the socket buffers
+     * carrying the bytes come out of direct memory
+     */
+    private long limit(long directHeadroom) {
+        StorageProperties.MemoryBudget settings = storageProperties.getMemoryBudget();
+        long limit = (long) (Runtime.getRuntime().maxMemory() * settings.getHeapFraction());
+        if (settings.getMaxMb() > 0) {
+            limit = Math.min(limit, settings.getMaxMb() * MB);
+        }
+        limit = Math.min(limit, directHeadroom);
+        return Math.max(settings.getMinMb() * MB, limit);
+    }
+
+    /**
+     * Direct memory still free: -XX:MaxDirectMemorySize, or the heap size it defaults to, less the direct buffers in
+     * use
+     */
+    private static LongSupplier directMemoryHeadroom() {
+        long maxDirect = Runtime.getRuntime().maxMemory();
+        try {
+            HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long configured = Long.parseLong(diagnostics.getVMOption("MaxDirectMemorySize").getValue());
+            if (configured > 0) {
+                maxDirect = configured;
+            }
+        } catch (RuntimeException e) {
+            log.debug("MaxDirectMemorySize unavailable, assuming the heap size: {}", e.getMessage());
+        }
+
+        BufferPoolMXBean direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .findFirst()
+                .orElse(null);
+        long max = maxDirect;
+        return direct == null ? () -> max : () -> max - direct.getMemoryUsed();
+    }
+}
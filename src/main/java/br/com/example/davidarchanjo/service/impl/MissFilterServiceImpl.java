@@ -0,0 +1,214 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.MissFilterService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.BloomFilter;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class MissFilterServiceImpl implements MissFilterService {
+
+    private final S3Client s3Client;
+    private final S3ClientRegistryService clientRegistry;
+    private final StorageProperties storageProperties;
+
+    private final Map<String, BucketFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * Keys ("bucket/key") and buckets ("bucket") the backend recently reported missing
+     */
+    private final Cache<String, Boolean> negativeCache;
+
+    public MissFilterServiceImpl(
+            S3Client s3Client,
+            S3ClientRegistryService clientRegistry,
+            StorageProperties storageProperties
+    ) {
+        this.s3Client = s3Client;
+        this.clientRegistry = clientRegistry;
+        this.storageProperties = storageProperties;
+
+        StorageProperties.MissFilter missFilter = storageProperties.getMissFilter();
+        this.negativeCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(missFilter.getNegativeTtlMs()))
+                .maximumSize(missFilter.getNegativeMaxEntries())
+                .build();
+    }
+
+    /**
+     * Keep filters and cached misses in step with writes and deletes made through the gateway
+     */
+    @EventListener
+    public void onObjectChange(ObjectChangeEvent event) {
+        if (!storageProperties.getMissFilter().isEnabled() || ContentAddress.isInternal(event.getKey())) {
+            return;
+        }
+        record(event);
+    }
+
+    @Override
+    public boolean isMissing(String bucketName, String keyName) {
+        if (!storageProperties.getMissFilter().isEnabled() || ContentAddress.isInternal(keyName)) {
+            return false;
+        }
+        if (negativeCache.getIfPresent(entry(bucketName, keyName)) != null) {
+            return true;
+        }
+        BucketFilter filter = filters.get(bucketName);
+        BloomFilter known = filter != null ? filter.current : null;
+        // The filter is listed through the shared client, so it knows nothing of keys on a tenant's own client
+        return known != null && clientRegistry.isShared(bucketName, keyName) && !known.mightContain(keyName);
+    }
+
+    @Override
+    public boolean isBucketMissing(String bucketName) {
+        return storageProperties.getMissFilter().isEnabled() && negativeCache.getIfPresent(bucketName) != null;
+    }
+
+    @Override
+    public void recordMissing(String bucketName, String keyName) {
+        if (storageProperties.getMissFilter().isEnabled()) {
+            negativeCache.put(entry(bucketName, keyName), Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void recordMissingBucket(String bucketName) {
+        if (storageProperties.getMissFilter().isEnabled()) {
+            negativeCache.put(bucketName, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void record(ObjectChangeEvent event) {
+        String bucketName = event.getBucketName();
+        if (event.getType() == ObjectChangeType.DELETED) {
+            negativeCache.put(entry(bucketName, event.getKey()), Boolean.TRUE);
+            return;
+        }
+
+        negativeCache.invalidate(bucketName);
+        negativeCache.invalidate(entry(bucketName, event.getKey()));
+        BucketFilter filter = filters.get(bucketName);
+        if (filter != null) {
+            filter.add(event.getKey());
+        }
+    }
+
+    @Override
+    public void rebuild(String bucketName) {
+        StorageProperties.MissFilter settings = storageProperties.getMissFilter();
+        if (!settings.isEnabled()) {
+            throw new StorageException("Missing object filter is disabled");
+        }
+
+        BucketFilter filter = filters.computeIfAbsent(bucketName, name -> new BucketFilter());
+        long start = System.currentTimeMillis();
+        filter.rebuildLock.lock();
+        try {
+            long capacity = Math.max(settings.getExpectedKeys(), filter.listedKeys * 2);
+            BloomFilter next = BloomFilter.create(capacity, settings.getFalsePositiveRate());
+            // Writes made while the listing runs land in both filters
+            filter.building = next;
+
+            long keys = 0;
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .build();
+            for (S3Object object : s3Client.listObjectsV2Paginator(request).contents()) {
+                next.put(object.key());
+                keys++;
+            }
+
+            filter.current = next;
+            filter.listedKeys = keys;
+            if (keys > capacity) {
+                log.warn("Bucket '{}' holds {} keys, more than its filter was sized for ({}); "
+                        + "false positives will exceed the target until the next rebuild", bucketName, keys, capacity);
+            }
+            log.info("Rebuilt missing object filter of bucket '{}': {} keys in {} bytes in {} ms",
+                    bucketName, keys, next.memoryBytes(), System.currentTimeMillis() - start);
+
+        } catch (NoSuchBucketException e) {
+            filters.remove(bucketName);
+            // With tenant clients the bucket may still exist on a tenant's own endpoint
+            if (!storageProperties.getClientRegistry().isEnabled()) {
+                recordMissingBucket(bucketName);
+            }
+            log.warn("Dropped missing object filter of bucket '{}': bucket not found", bucketName);
+        } catch (SdkException e) {
+            // The previous filter still holds every key written since it was built
+            log.error("Failed to rebuild missing object filter of bucket '{}': {}", bucketName, e.getMessage());
+            throw new StorageException("Failed to rebuild missing object filter: " + e.getMessage(), e);
+        } finally {
+            filter.building = null;
+            filter.rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the filter of every configured bucket on the configured interval
+     */
+    @Scheduled(fixedDelayString = "${storage.miss-filter.rebuild-interval-ms:900000}")
+    public void rebuildAll() {
+        if (!storageProperties.getMissFilter().isEnabled()) {
+            return;
+        }
+        for (String bucketName : storageProperties.getMissFilter().getBuckets()) {
+            try {
+                rebuild(bucketName);
+            } catch (StorageException e) {
+                log.warn("Scheduled missing object filter rebuild failed for bucket '{}': {}",
+                        bucketName, e.getMessage());
+            }
+        }
+    }
+
+    private static String entry(String bucketName, String keyName) {
+        return bucketName + "/" + keyName;
+    }
+
+    /**
+     * Bloom filter of one bucket. Misses are only answered once a full listing has been loaded.
+     */
+    private static final class BucketFilter {
+
+        private final ReentrantLock rebuildLock = new ReentrantLock();
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+        private volatile long listedKeys;
+
+        void add(String key) {
+            // Read the filter being built first: once it is cleared, current already points at it
+            BloomFilter next = building;
+            BloomFilter known = current;
+            if (next != null) {
+                next.put(key);
+            }
+            if (known != null && known != next) {
+                known.put(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectStat;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.CompressionService;
+import br.com.example.davidarchanjo.service.MissFilterService;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class ObjectStatServiceImpl implements ObjectStatService {
+
+    private final S3ClientRegistryService clientRegistry;
+    private final BucketManagementService bucketManagementService;
+    private final CompressionService compressionService;
+    private final MissFilterService missFilterService;
+    private final StorageProperties storageProperties;
+
+    /**
+     * Metadata by "bucket/key"; entries expire after the TTL and are dropped on writes through the gateway
+     */
+    private final Cache<String, ObjectStat> cache;
+
+    public ObjectStatServiceImpl(
+            S3ClientRegistryService clientRegistry,
+            BucketManagementService bucketManagementService,
+            CompressionService compressionService,
+            MissFilterService missFilterService,
+            StorageProperties storageProperties
+    ) {
+        this.clientRegistry = clientRegistry;
+        this.bucketManagementService = bucketManagementService;
+        this.compressionService = compressionService;
+        this.missFilterService = missFilterService;
+        this.storageProperties = storageProperties;
+
+        StorageProperties.MetadataCache metadataCache = storageProperties.getMetadataCache();
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(metadataCache.getTtlMs()))
+                .maximumSize(metadataCache.getMaxEntries())
+                .build();
+    }
+
+    /**
+     * Drop cached metadata of objects written or deleted through the gateway
+     */
+    @EventListener
+    public void onObjectChange(ObjectChangeEvent event) {
+        invalidate(event.getBucketName(), event.getKey());
+    }
+
+    @Override
+    public ObjectStat stat(String bucketName, String keyName) {
+        if (missFilterService.isBucketMissing(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+        if (missFilterService.isMissing(bucketName, keyName)) {
+            throw new FileNotFoundException(keyName, bucketName);
+        }
+        if (!storageProperties.getMetadataCache().isEnabled()) {
+            return head(bucketName, keyName);
+        }
+        // Concurrent lookups of the same key share one HEAD
+        return cache.get(entry(bucketName, keyName), key -> head(bucketName, keyName));
+    }
+
+    @Override
+    public void invalidate(String bucketName, String keyName) {
+        cache.invalidate(entry(bucketName, keyName));
+    }
+
+    private ObjectStat head(String bucketName, String keyName) {
+        try {
+            HeadObjectResponse response = headObject(bucketName, keyName);
+            String contentType = response.contentType();
+
+            String digest = response.metadata().get(GatewayMetadata.CONTENT_SHA256);
+            if (digest != null) {
+                // Describe the blob a deduplicated reference points at, as GET serves it
+                String blobKey = ContentAddress.blobKey(bucketManagementService.tenantPrefix(bucketName, keyName),
+                        digest);
+                try {
+                    response = headObject(bucketName, blobKey);
+                } catch (S3Exception e) {
+                    if (e.statusCode() != 404) {
+                        throw e;
+                    }
+                    // The key itself exists, so its miss is not recorded
+                    throw new FileNotFoundException(keyName, bucketName);
+                }
+            }
+
+            Map<String, String> metadata = response.metadata();
+            long storedSize = response.contentLength() != null ? response.contentLength() : 0L;
+            Optional<CompressionCodec> codec = compressionService.storedCodec(metadata);
+
+            ObjectStat.ObjectStatBuilder stat = ObjectStat.builder()
+                    .bucketName(bucketName)
+                    .key(keyName)
+                    .size(originalLength(metadata, storedSize))
+                    .storedSize(storedSize)
+                    .contentType(contentType)
+                    .codec(codec.orElse(null))
+                    .eTag(response.eTag())
+                    .lastModified(response.lastModified());
+            if (codec.isEmpty()) {
+                // Otherwise the checksum describes compressed bytes, not the content
+                ChecksumType checksumType = checksumType(response.checksumCRC32C(), response.checksumSHA256());
+                stat.checksumType(checksumType)
+                        .checksum(checksumType == ChecksumType.SHA256
+                                ? response.checksumSHA256()
+                                : response.checksumCRC32C());
+            }
+            return stat.build();
+
+        } catch (NoSuchKeyException e) {
+            missFilterService.recordMissing(bucketName, keyName);
+            throw new FileNotFoundException(keyName, bucketName);
+        } catch (NoSuchBucketException e) {
+            missFilterService.recordMissingBucket(bucketName);
+            throw new BucketNotFoundException(bucketName);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                // HEAD responses carry no error code, so a missing bucket can surface as a bare 404
+                missFilterService.recordMissing(bucketName, keyName);
+                throw new FileNotFoundException(keyName, bucketName);
+            }
+            log.error("S3 error reading metadata of '{}' in bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new StorageException("Failed to read object metadata: " + e.getMessage(), e);
+        }
+    }
+
+    private HeadObjectResponse headObject(String bucketName, String keyName) {
+        HeadObjectRequest.Builder request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName);
+        if (storageProperties.getChecksum().isEnabled()) {
+            request.checksumMode(ChecksumMode.ENABLED);
+        }
+        return clientRegistry.clientFor(bucketName, keyName).headObject(request.build());
+    }
+
+    /**
+     * Type of the checksum S3 returned for an object, if any
+     */
+    private static ChecksumType checksumType(String crc32c, String sha256) {
+        if (crc32c != null) {
+            return ChecksumType.CRC32C;
+        }
+        return sha256 != null ? ChecksumType.SHA256 : null;
+    }
+
+    private static long originalLength(Map<String, String> metadata, long storedSize) {
+        String value = metadata.get(GatewayMetadata.ORIGINAL_LENGTH);
+        try {
+            return value != null ? Long.parseLong(value) : storedSize;
+        } catch (NumberFormatException e) {
+            return storedSize;
+        }
+    }
+
+    private static String entry(String bucketName, String keyName) {
+        return bucketName + "/" + keyName;
+    }
+}
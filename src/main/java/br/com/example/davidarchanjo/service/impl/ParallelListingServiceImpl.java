@@ -0,0 +1,252 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.PrefixStatsEntry;
+import br.com.example.davidarchanjo.dto.PrefixStatsResponse;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ListingSummary;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.ParallelListingService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class ParallelListingServiceImpl implements ParallelListingService {
+
+    private static final String DELIMITER = "/";
+
+    private final S3Client s3Client;
+    private final S3BucketStorageService storageService;
+    private final StorageProperties storageProperties;
+    private final ForkJoinPool listingPool;
+
+    public ParallelListingServiceImpl(
+            S3Client s3Client,
+            S3BucketStorageService storageService,
+            StorageProperties storageProperties,
+            @Qualifier("listingPool") ForkJoinPool listingPool
+    ) {
+        this.s3Client = s3Client;
+        this.storageService = storageService;
+        this.storageProperties = storageProperties;
+        this.listingPool = listingPool;
+    }
+
+    @Override
+    public ListingSummary scan(String bucketName, String prefix, Consumer<List<ObjectSummary>> pageConsumer) {
+        ScanRun run = new ScanRun(bucketName, pageConsumer);
+        try {
+            listingPool.invoke(new PartitionTask(run, prefix != null ? prefix : "", 0));
+        } catch (SdkException e) {
+            log.error("Failed to list bucket '{}' under '{}': {}", bucketName, prefix, e.getMessage());
+            throw new StorageException("Failed to list objects: " + e.getMessage(), e);
+        }
+
+        return ListingSummary.builder()
+                .objects(run.objects.sum())
+                .pages(run.pages.sum())
+                .partitions(run.partitions.intValue())
+                .build();
+    }
+
+    @Override
+    public PrefixStatsResponse prefixStats(String bucketName, String prefix, int depth) {
+        if (!storageService.bucketExists(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+
+        long start = System.currentTimeMillis();
+        String scanned = prefix != null ? prefix : "";
+        int levels = Math.max(0, depth);
+        Map<String, PrefixTotals> totals = new ConcurrentHashMap<>();
+
+        ListingSummary summary = scan(bucketName, scanned, page -> {
+            for (ObjectSummary object : page) {
+                PrefixTotals group = totals.computeIfAbsent(group(object.getKey(), scanned, levels),
+                        key -> new PrefixTotals());
+                group.objects.increment();
+                group.bytes.add(object.getSize());
+            }
+        });
+
+        List<PrefixStatsEntry> entries = new ArrayList<>(totals.size());
+        long totalBytes = 0;
+        for (Map.Entry<String, PrefixTotals> entry : new TreeMap<>(totals).entrySet()) {
+            long bytes = entry.getValue().bytes.sum();
+            totalBytes += bytes;
+            entries.add(PrefixStatsEntry.builder()
+                    .prefix(entry.getKey())
+                    .objects(entry.getValue().objects.sum())
+                    .bytes(bytes)
+                    .build());
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Computed stats of bucket '{}' under '{}': {} objects in {} partitions in {} ms",
+                bucketName, scanned, summary.getObjects(), summary.getPartitions(), duration);
+
+        return PrefixStatsResponse.builder()
+                .bucketName(bucketName)
+                .prefix(scanned)
+                .depth(levels)
+                .totalObjects(summary.getObjects())
+                .totalBytes(totalBytes)
+                .prefixes(entries)
+                .partitions(summary.getPartitions())
+                .durationMs(duration)
+                .build();
+    }
+
+    /**
+     * Prefix of a key cut after the given number of folder levels below the scanned prefix.
+     * Objects closer to the prefix are grouped under the prefix itself.
+     */
+    private static String group(String key, String prefix, int levels) {
+        int end = prefix.length();
+        for (int level = 0; level < levels; level++) {
+            int next = key.indexOf(DELIMITER, end);
+            if (next < 0) {
+                break;
+            }
+            end = next + DELIMITER.length();
+        }
+        return key.substring(0, end);
+    }
+
+    /**
+     * State shared by the partitions of one scan
+     */
+    private static final class ScanRun {
+
+        private final String bucketName;
+        private final Consumer<List<ObjectSummary>> pageConsumer;
+        private final LongAdder objects = new LongAdder();
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder partitions = new LongAdder();
+
+        private ScanRun(String bucketName, Consumer<List<ObjectSummary>> pageConsumer) {
+            this.bucketName = bucketName;
+            this.pageConsumer = pageConsumer;
+        }
+    }
+
+    private static final class PrefixTotals {
+
+        private final LongAdder objects = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+
+    /**
+     * Lists one prefix. Above the split depth the listing is grouped by folder and every folder
+     * found is forked as its own partition; below it the prefix is listed flat.
+     */
+    private final class PartitionTask extends RecursiveAction {
+
+        private final ScanRun run;
+        private final String prefix;
+        private final int depth;
+
+        private PartitionTask(ScanRun run, String prefix, int depth) {
+            this.run = run;
+            this.prefix = prefix;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            run.partitions.increment();
+            boolean split = depth < storageProperties.getListing().getSplitDepth();
+            List<PartitionTask> children = new ArrayList<>();
+
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(run.bucketName)
+                    .prefix(prefix.isEmpty() ? null : prefix)
+                    .delimiter(split ? DELIMITER : null)
+                    .maxKeys(storageProperties.getListing().getPageSize())
+                    .build();
+
+            forEachPage(request, page -> {
+                deliver(page.contents());
+                for (CommonPrefix folder : page.commonPrefixes()) {
+                    if (!ContentAddress.isInternal(folder.prefix())) {
+                        PartitionTask child = new PartitionTask(run, folder.prefix(), depth + 1);
+                        child.fork();
+                        children.add(child);
+                    }
+                }
+            });
+
+            for (PartitionTask child : children) {
+                child.join();
+            }
+        }
+
+        private void deliver(List<S3Object> contents) {
+            List<ObjectSummary> page = new ArrayList<>(contents.size());
+            for (S3Object item : contents) {
+                if (!item.key().endsWith(DELIMITER) && !ContentAddress.isInternal(item.key())) {
+                    page.add(ObjectSummary.builder()
+                            .key(item.key())
+                            .size(item.size() != null ? item.size() : 0L)
+                            .eTag(item.eTag())
+                            .lastModified(item.lastModified())
+                            .build());
+                }
+            }
+            run.pages.increment();
+            run.objects.add(page.size());
+            if (!page.isEmpty()) {
+                run.pageConsumer.accept(page);
+            }
+        }
+
+        /**
+         * Walk the pages of a listing, requesting the next page before handing the current one over
+         */
+        private void forEachPage(ListObjectsV2Request request, Consumer<ListObjectsV2Response> handler) {
+            ListObjectsV2Response page = s3Client.listObjectsV2(request);
+            while (true) {
+                CompletableFuture<ListObjectsV2Response> next = null;
+                if (Boolean.TRUE.equals(page.isTruncated()) && page.nextContinuationToken() != null) {
+                    ListObjectsV2Request nextRequest = request.toBuilder()
+                            .continuationToken(page.nextContinuationToken())
+                            .build();
+                    next = CompletableFuture.supplyAsync(() -> s3Client.listObjectsV2(nextRequest), listingPool);
+                }
+
+                handler.accept(page);
+                if (next == null) {
+                    return;
+                }
+                try {
+                    page = next.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.exception.BackendThrottledException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.PrefixRateLimitService;
+import br.com.example.davidarchanjo.util.AimdRateLimiter;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class PrefixRateLimitServiceImpl implements PrefixRateLimitService {
+
+    private static final String SLOW_DOWN = "SlowDown";
+
+    private final StorageProperties storageProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Limiters by "operation:bucket/prefix/"; idle prefixes are dropped, with their meters, and start over at the
+     * full rate
+     */
+    private final Cache<String, PrefixLimiter> limiters;
+
+    public PrefixRateLimitServiceImpl(StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this.storageProperties = storageProperties;
+        this.meterRegistry = meterRegistry;
+
+        StorageProperties.RequestShaping settings = storageProperties.getRequestShaping();
+        this.limiters = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(settings.getIdleExpiryMs()))
+                .maximumSize(settings.getMaxPrefixes())
+                // Runs atomically with the eviction, so a prefix coming back cannot re-register meters in between
+                .evictionListener((String entry, PrefixLimiter limiter, RemovalCause cause) -> {
+                    if (limiter != null) {
+                        limiter.removeMeters(meterRegistry);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Object call(S3OperationType type, S3Request request, InterceptingS3Client.Invocation call)
+            throws Throwable {
+        StorageProperties.RequestShaping settings = storageProperties.getRequestShaping();
+        if (!settings.isEnabled()) {
+            return call.proceed();
+        }
+
+        String bucket = request.getValueForField("Bucket", String.class).orElse("");
+        String key = request.getValueForField("Key", String.class)
+                .or(() -> request.getValueForField("Prefix", String.class))
+                .orElse("");
+        String prefix = bucket + "/" + prefixOf(key, settings.getPrefixDepth());
+        // Listings count against the read rate, as they do at S3
+        S3OperationType rateType = type == S3OperationType.WRITE ? S3OperationType.WRITE : S3OperationType.READ;
+        PrefixLimiter prefixLimiter = limiters.get(entry(rateType, prefix), name -> newLimiter(rateType, prefix));
+        AimdRateLimiter limiter = prefixLimiter.limiter();
+
+        try {
+            if (!limiter.acquire(TimeUnit.MILLISECONDS.toNanos(settings.getMaxWaitMs()))) {
+                prefixLimiter.rejected().increment();
+                throw new BackendThrottledException("Request rate for prefix '" + prefix + "' exceeded",
+                        settings.getRetryAfterSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted waiting for request rate", e);
+        }
+
+        try {
+            Object result = call.proceed();
+            limiter.onSuccess();
+            return result;
+        } catch (S3Exception e) {
+            if (!isSlowDown(e)) {
+                throw e;
+            }
+            prefixLimiter.throttled().increment();
+            if (limiter.onThrottle()) {
+                log.warn("S3 throttled {} requests to '{}'; rate cut to {} requests/s",
+                        rateType.name().toLowerCase(Locale.ROOT), prefix, Math.round(limiter.getRate()));
+            }
+            throw new BackendThrottledException("Storage backend throttled requests to prefix '" + prefix + "'",
+                    settings.getRetryAfterSeconds());
+        }
+    }
+
+    @Override
+    public double rate(S3OperationType type, String prefix) {
+        PrefixLimiter limiter = limiters.getIfPresent(entry(type, prefix));
+        return limiter != null ? limiter.limiter().getRate() : -1;
+    }
+
+    private PrefixLimiter newLimiter(S3OperationType type, String prefix) {
+        StorageProperties.RequestShaping settings = storageProperties.getRequestShaping();
+        double maxRate = type == S3OperationType.WRITE ? settings.getWriteRate() : settings.getReadRate();
+        AimdRateLimiter limiter = new AimdRateLimiter(maxRate, settings.getMinRate(), maxRate,
+                settings.getDecreaseFactor(), settings.getIncreasePerSecond(), settings.getBurstSeconds());
+        return new PrefixLimiter(
+                limiter,
+                Gauge.builder("storage.prefix.rate", limiter, AimdRateLimiter::getRate)
+                        .description("Requests per second currently allowed to a prefix")
+                        .tags(tags(type, prefix))
+                        .register(meterRegistry),
+                Counter.builder("storage.prefix.rejected")
+                        .description("Requests to a prefix rejected after waiting for its rate")
+                        .tags(tags(type, prefix))
+                        .register(meterRegistry),
+                Counter.builder("storage.prefix.throttled")
+                        .description("Requests to a prefix S3 answered with SlowDown")
+                        .tags(tags(type, prefix))
+                        .register(meterRegistry));
+    }
+
+    /**
+     * S3 answers an exceeded request rate with 503 SlowDown
+     */
+    private static boolean isSlowDown(S3Exception e) {
+        String code = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
+        return SLOW_DOWN.equals(code) || e.statusCode() == 503;
+    }
+
+    /**
+     * First {@code depth} folders of a key ("client-1/dev/" for depth 2), or fewer if the key is shallower
+     */
+    static String prefixOf(String key, int depth) {
+        int end = -1;
+        for (int i = 0; i < depth; i++) {
+            int next = key.indexOf('/', end + 1);
+            if (next < 0) {
+                break;
+            }
+            end = next;
+        }
+        return key.substring(0, end + 1);
+    }
+
+    private static String[] tags(S3OperationType type, String prefix) {
+        return new String[]{"operation", type.name().toLowerCase(Locale.ROOT), "prefix", prefix};
+    }
+
+    private static String entry(S3OperationType type, String prefix) {
+        return type.name() + ":" + prefix;
+    }
+
+    /**
+     * Limiter of one prefix and the meters tagged with it, which live only as long as the limiter is tracked
+     */
+    private record PrefixLimiter(AimdRateLimiter limiter, Gauge rate, Counter rejected, Counter throttled) {
+
+        void removeMeters(MeterRegistry meterRegistry) {
+            meterRegistry.remove(rate);
+            meterRegistry.remove(rejected);
+            meterRegistry.remove(throttled);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.service.RangedDownloadService;
+import br.com.example.davidarchanjo.util.RangedObjectInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.ChecksumType;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class RangedDownloadServiceImpl implements RangedDownloadService {
+
+    private static final long MB = 1024L * 1024;
+
+    private final StorageProperties storageProperties;
+    private final TaskExecutor rangedDownloadExecutor;
+
+    /**
+     * Moving average of the bytes per second a single ranged GET achieves
+     */
+    private final AtomicLong rangeThroughput = new AtomicLong();
+
+    public RangedDownloadServiceImpl(
+            StorageProperties storageProperties,
+            @Qualifier("rangedDownloadExecutor") TaskExecutor rangedDownloadExecutor
+    ) {
+        this.storageProperties = storageProperties;
+        this.rangedDownloadExecutor = rangedDownloadExecutor;
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(
+            GetObjectRequest request,
+            Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> fetch
+    ) {
+        ResponseInputStream<GetObjectResponse> first = fetch.apply(request);
+        StorageProperties.RangedDownload settings = storageProperties.getRangedDownload();
+        GetObjectResponse response = first.response();
+        Long total = response.contentLength();
+        long headLength = settings.getThresholdMb() * MB;
+        if (!settings.isEnabled() || total == null || total <= headLength || request.range() != null) {
+            return first;
+        }
+
+        long partSize = partSize(total - headLength, settings);
+        long parts = (total - headLength + partSize - 1) / partSize;
+        int window = (int) Math.max(1, Math.min(Math.min(settings.getMaxParallelism(), parts),
+                settings.getMaxBufferMb() * MB / partSize));
+        log.debug("Fetching '{}' ({} bytes) as {} ranges of {} bytes, {} at a time",
+                request.key(), total, parts, partSize, window);
+
+        // Pin every range to the version the first GET saw, so a concurrent overwrite fails the download
+        GetObjectRequest.Builder ranged = request.toBuilder().ifMatch(response.eTag());
+        RangedObjectInputStream body = new RangedObjectInputStream(first, headLength, total, partSize, window,
+                (start, end) -> fetch.apply(ranged.copy().range("bytes=" + start + "-" + end).build()),
+                this::recordThroughput,
+                verifier(response),
+                rangedDownloadExecutor);
+        return new ResponseInputStream<>(response, body);
+    }
+
+    /**
+     * Verifier for the full-object checksum the first GET returned. Ranges come back without one and the first
+     * response is aborted before the SDK checks it, so the reassembled bytes are checked instead. Composite checksums
+     * of multipart uploads cover the parts, not the object, and are never validated on GET.
+     */
+    private static RangedObjectInputStream.Verifier verifier(GetObjectResponse response) {
+        if (response.checksumType() == ChecksumType.COMPOSITE) {
+            return null;
+        }
+        if (isFullObject(response.checksumCRC32C())) {
+            return RangedObjectInputStream.Verifier.crc32c(response.checksumCRC32C());
+        }
+        if (isFullObject(response.checksumSHA256())) {
+            return RangedObjectInputStream.Verifier.sha256(response.checksumSHA256());
+        }
+        return null;
+    }
+
+    /**
+     * Composite checksums carry the part count after a dash
+     */
+    private static boolean isFullObject(String checksum) {
+        return checksum != null && !checksum.contains("-");
+    }
+
+    @Override
+    public long rangeThroughput() {
+        return rangeThroughput.get();
+    }
+
+    /**
+     * Size parts so each takes about the target time at the observed throughput, but leave enough parts to keep
+     * every connection busy
+     */
+    private long partSize(long remaining, StorageProperties.RangedDownload settings) {
+        long minPart = settings.getMinPartSizeMb() * MB;
+        long maxPart = Math.max(minPart, settings.getMaxPartSizeMb() * MB);
+        long throughput = rangeThroughput.get();
+        long target = throughput > 0 ? throughput * settings.getTargetPartMs() / 1000 : minPart;
+        long spread = (remaining + settings.getMaxParallelism() - 1) / Math.max(1, settings.getMaxParallelism());
+        return Math.max(minPart, Math.min(maxPart, Math.min(target, spread)));
+    }
+
+    private void recordThroughput(long bytes, long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        long sample = bytes * 1_000_000_000L / nanos;
+        rangeThroughput.accumulateAndGet(sample, (average, added) -> average == 0 ? added : (average * 7 + added) / 8);
+    }
+}
@@ -0,0 +1,186 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.RequestPriorityService;
+import br.com.example.davidarchanjo.util.InterceptingS3Client;
+import br.com.example.davidarchanjo.util.PriorityGate;
+import br.com.example.davidarchanjo.util.RequestPriorityContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class RequestPriorityServiceImpl implements RequestPriorityService {
+
+    private final StorageProperties storageProperties;
+    private final BucketManagementService bucketManagementService;
+    private final PriorityGate gate;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<RequestPriority, Timer> waits = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> rejections = new EnumMap<>(RequestPriority.class);
+
+    /**
+     * Bucket management reaches S3 through the clients this service intercepts, so it is resolved on first use
+     */
+    public RequestPriorityServiceImpl(
+            StorageProperties storageProperties,
+            @Lazy BucketManagementService bucketManagementService,
+            MeterRegistry meterRegistry
+    ) {
+        this.storageProperties = storageProperties;
+        this.bucketManagementService = bucketManagementService;
+
+        StorageProperties.Priority settings = storageProperties.getPriority();
+        Map<RequestPriority, Integer> quotas = new EnumMap<>(RequestPriority.class);
+        quotas.put(RequestPriority.INTERACTIVE, settings.getInteractiveMaxConnections());
+        quotas.put(RequestPriority.BULK, settings.getBulkMaxConnections());
+        this.gate = new PriorityGate(settings.getMaxConnections(), quotas);
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder("storage.priority.connections.in.use", gate, g -> g.inUse(priority))
+                    .description("Backend calls of a priority class in progress")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry);
+            Gauge.builder("storage.priority.connections.waiting", gate, g -> g.waiting(priority))
+                    .description("Backend calls of a priority class waiting for a connection slot")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry);
+            waits.put(priority, Timer.builder("storage.priority.connection.wait")
+                    .description("Time backend calls waited for a connection slot")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry));
+            rejections.put(priority, Counter.builder("storage.priority.rejected")
+                    .description("Backend calls rejected because no connection slot came up in time")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public RequestPriority classify(String path, String headerValue) {
+        StorageProperties.Priority settings = storageProperties.getPriority();
+        if (headerValue != null && !headerValue.isBlank()) {
+            try {
+                return RequestPriority.fromValue(headerValue.trim());
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring unknown request priority '{}'", headerValue);
+            }
+        }
+        for (String pattern : settings.getBulkPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return RequestPriority.BULK;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object call(S3Request request, InterceptingS3Client.Invocation call) throws Throwable {
+        StorageProperties.Priority settings = storageProperties.getPriority();
+        if (!settings.isEnabled()) {
+            return call.proceed();
+        }
+
+        RequestPriority priority = priorityOf(request, settings);
+        long maxWaitMs = priority == RequestPriority.BULK
+                ? settings.getBulkMaxWaitMs()
+                : settings.getInteractiveMaxWaitMs();
+        long start = System.nanoTime();
+        try {
+            if (!gate.acquire(priority, TimeUnit.MILLISECONDS.toNanos(maxWaitMs))) {
+                rejections.get(priority).increment();
+                throw new ServiceOverloadedException(
+                        "No backend connection free for " + priority.getValue() + " requests",
+                        settings.getRetryAfterSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted waiting for a backend connection", e);
+        } finally {
+            waits.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                gate.release(priority);
+            }
+        };
+        try {
+            Object result = call.proceed();
+            if (result instanceof ResponseInputStream<?> stream) {
+                // The connection stays busy until the body is read and closed
+                return holdUntilClosed(stream, release);
+            }
+            release.run();
+            return result;
+        } catch (Throwable e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    @Override
+    public int inUse(RequestPriority priority) {
+        return gate.inUse(priority);
+    }
+
+    /**
+     * Class of the request being served, else the policy of the tenant the call is for, else the default
+     */
+    private RequestPriority priorityOf(S3Request request, StorageProperties.Priority settings) {
+        RequestPriority current = RequestPriorityContext.get();
+        if (current != null) {
+            return current;
+        }
+        if (!settings.getTenants().isEmpty()) {
+            String bucket = request.getValueForField("Bucket", String.class).orElse(null);
+            String key = request.getValueForField("Key", String.class)
+                    .or(() -> request.getValueForField("Prefix", String.class))
+                    .orElse("");
+            RequestPriority tenantPriority = bucket == null ? null : bucketManagementService.resolveTenant(bucket, key)
+                    .map(TenantLocation::getClientId)
+                    .map(settings.getTenants()::get)
+                    .orElse(null);
+            if (tenantPriority != null) {
+                return tenantPriority;
+            }
+        }
+        return settings.getDefaultPriority();
+    }
+
+    private static <T> ResponseInputStream<T> holdUntilClosed(ResponseInputStream<T> stream, Runnable release) {
+        FilterInputStream body = new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+        return new ResponseInputStream<>(stream.response(), AbortableInputStream.create(body, stream::abort));
+    }
+}
@@ -1,40 +1,75 @@
 package br.com.example.davidarchanjo.service.impl;
 
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
 import br.com.example.davidarchanjo.exception.BucketNotFoundException;
 import br.com.example.davidarchanjo.exception.FileNotFoundException;
 import br.com.example.davidarchanjo.exception.FileUploadException;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
 import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.service.BandwidthService;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.CompressionService;
+import br.com.example.davidarchanjo.service.MissFilterService;
 import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class S3BucketStorageServiceImpl implements S3BucketStorageService {
 
-    private final S3Client s3Client;
+    private final S3ClientRegistryService clientRegistry;
+    private final BucketManagementService bucketManagementService;
+    private final CompressionService compressionService;
+    private final StorageProperties storageProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MissFilterService missFilterService;
+    private final BandwidthService bandwidthService;
 
     @Override
-    public void uploadFile(
+    public ObjectWriteResult uploadFile(
             String bucketName,
             String keyName,
             Long contentLength,
@@ -42,20 +77,16 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
             InputStream value
     ) {
         try {
-            if (!bucketExists(bucketName)) {
+            if (!bucketReady(bucketName, keyName)) {
                 throw new BucketNotFoundException(bucketName);
             }
 
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(keyName)
-                    .contentType(contentType)
-                    .contentLength(contentLength)
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(value, contentLength));
+            ObjectWriteResult result = writeObject(bucketName, keyName, contentLength, contentType, value);
             log.info("File uploaded successfully to bucket '{}': {}", bucketName, keyName);
+            return result;
 
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (S3Exception e) {
             log.error("Failed to upload file '{}' to bucket '{}': {}", keyName, bucketName, e.getMessage());
             throw new FileUploadException("Failed to upload file: " + e.awsErrorDetails().errorMessage(), e);
@@ -65,22 +96,43 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
         }
     }
 
+    @Override
+    public ObjectWriteResult putObject(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream value
+    ) {
+        try {
+            ObjectWriteResult result = writeObject(bucketName, keyName, contentLength, contentType, value);
+            log.debug("Object written to bucket '{}': {}", bucketName, keyName);
+            return result;
+
+        } catch (S3Exception e) {
+            log.error("Failed to write object '{}' to bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new FileUploadException("Failed to upload file: " + e.awsErrorDetails().errorMessage(), e);
+        } catch (IOException e) {
+            log.error("IO error writing object '{}' to bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new FileUploadException("IO error uploading file", e);
+        }
+    }
+
     @Override
     public ByteArrayOutputStream downloadFile(
             String bucketName,
             String keyName
     ) {
+        rejectKnownMiss(bucketName, keyName);
         try {
-            if (!bucketExists(bucketName)) {
+            if (!bucketExists(bucketName, keyName)) {
+                missFilterService.recordMissingBucket(bucketName);
                 throw new BucketNotFoundException(bucketName);
             }
 
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(keyName)
-                    .build();
-
-            try (InputStream inputStream = s3Client.getObject(getObjectRequest)) {
+            ResponseInputStream<GetObjectResponse> stored = getObject(bucketName, keyName);
+            try (InputStream inputStream = bandwidthService.throttle(bucketName, keyName, S3OperationType.READ,
+                    decode(stored, stored.response().metadata()))) {
                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
                 byte[] buffer = new byte[4096];
@@ -94,7 +146,8 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
             }
 
         } catch (NoSuchKeyException e) {
-            log.error("File '{}' not found in bucket '{}'", keyName, bucketName);
+            log.debug("File '{}' not found in bucket '{}'", keyName, bucketName);
+            missFilterService.recordMissing(bucketName, keyName);
             throw new FileNotFoundException(keyName, bucketName);
         } catch (S3Exception e) {
             log.error("S3 error downloading file '{}' from bucket '{}': {}", keyName, bucketName, e.getMessage());
@@ -105,23 +158,115 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
         }
     }
 
+    @Override
+    public ObjectContent openObject(
+            String bucketName,
+            String keyName
+    ) {
+        return openObject(bucketName, keyName, null);
+    }
+
+    @Override
+    public ObjectContent openObject(
+            String bucketName,
+            String keyName,
+            String acceptEncoding
+    ) {
+        rejectKnownMiss(bucketName, keyName);
+        try {
+            ResponseInputStream<GetObjectResponse> stream = getObject(bucketName, keyName);
+            GetObjectResponse response = stream.response();
+
+            ObjectContent.ObjectContentBuilder content = ObjectContent.builder()
+                    .bucketName(bucketName)
+                    .key(keyName)
+                    .contentLength(response.contentLength())
+                    .contentType(response.contentType())
+                    .eTag(response.eTag())
+                    .lastModified(response.lastModified())
+                    .metadata(response.metadata());
+            InputStream body = stream;
+
+            Optional<CompressionCodec> codec = compressionService.storedCodec(response.metadata());
+            if (codec.isEmpty() || compressionService.accepts(acceptEncoding, codec.get())) {
+                // The checksum only describes the body when it is served as stored
+                ChecksumType checksumType = checksumType(response.checksumCRC32C(), response.checksumSHA256());
+                content.checksumType(checksumType)
+                        .checksum(checksumType == ChecksumType.SHA256
+                                ? response.checksumSHA256()
+                                : response.checksumCRC32C());
+            }
+            if (codec.isPresent()) {
+                if (compressionService.accepts(acceptEncoding, codec.get())) {
+                    // Client decodes itself: serve the stored bytes as-is
+                    content.contentEncoding(codec.get().getEncoding());
+                } else {
+                    content.contentLength(originalLength(response.metadata()));
+                    body = decompress(stream, codec.get());
+                }
+            }
+            // Pace the bytes as they reach the client, after any decompression
+            return content.content(bandwidthService.throttle(bucketName, keyName, S3OperationType.READ, body))
+                    .build();
+
+        } catch (NoSuchKeyException e) {
+            log.debug("File '{}' not found in bucket '{}'", keyName, bucketName);
+            missFilterService.recordMissing(bucketName, keyName);
+            throw new FileNotFoundException(keyName, bucketName);
+        } catch (NoSuchBucketException e) {
+            missFilterService.recordMissingBucket(bucketName);
+            throw new BucketNotFoundException(bucketName);
+        } catch (S3Exception e) {
+            log.error("S3 error opening file '{}' from bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new StorageException("Failed to download file: " + e.awsErrorDetails().errorMessage(), e);
+        } catch (IOException e) {
+            log.error("IO error opening file '{}' from bucket '{}': {}", keyName, bucketName, e.getMessage());
+            throw new StorageException("IO error downloading file", e);
+        }
+    }
+
+    @Override
+    public Stream<ObjectSummary> listObjects(String bucketName, String prefix) {
+        ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        return clientRegistry.clientFor(bucketName, prefix).listObjectsV2Paginator(listObjectsRequest)
+                .contents()
+                .stream()
+                .filter(item -> !item.key().endsWith("/") && !ContentAddress.isInternal(item.key()))
+                .map(item -> ObjectSummary.builder()
+                        .key(item.key())
+                        .size(item.size() != null ? item.size() : 0L)
+                        .eTag(item.eTag())
+                        .lastModified(item.lastModified())
+                        .build());
+    }
+
     @Override
     public List<String> listFiles(String bucketName) {
+        return listFiles(bucketName, "");
+    }
+
+    @Override
+    public List<String> listFiles(String bucketName, String prefix) {
         try {
-            if (!bucketExists(bucketName)) {
+            if (!bucketExists(bucketName, prefix)) {
                 throw new BucketNotFoundException(bucketName);
             }
 
             List<String> keys = new ArrayList<>();
             ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
                     .bucket(bucketName)
+                    .prefix(prefix)
                     .build();
 
-            s3Client.listObjectsV2Paginator(listObjectsRequest)
+            clientRegistry.clientFor(bucketName, prefix).listObjectsV2Paginator(listObjectsRequest)
                     .contents()
                     .stream()
-                    .filter(item -> !item.key().endsWith("/"))
                     .map(S3Object::key)
+                    .filter(key -> !key.endsWith("/") && !ContentAddress.isInternal(key))
                     .forEach(keys::add);
 
             log.info("Listed {} files in bucket '{}'", keys.size(), bucketName);
@@ -139,7 +284,7 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
             String keyName
     ) {
         try {
-            if (!bucketExists(bucketName)) {
+            if (!bucketExists(bucketName, keyName)) {
                 throw new BucketNotFoundException(bucketName);
             }
 
@@ -148,7 +293,8 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
                     .key(keyName)
                     .build();
 
-            s3Client.deleteObject(deleteObjectRequest);
+            clientRegistry.clientFor(bucketName, keyName).deleteObject(deleteObjectRequest);
+            publishChange(ObjectChangeType.DELETED, bucketName, keyName, 0, null, null);
             log.info("File deleted successfully from bucket '{}': {}", bucketName, keyName);
 
         } catch (S3Exception e) {
@@ -159,12 +305,17 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
 
     @Override
     public boolean bucketExists(String bucketName) {
+        return bucketExists(bucketName, null);
+    }
+
+    @Override
+    public boolean bucketExists(String bucketName, String keyName) {
         try {
             HeadBucketRequest headBucketRequest = HeadBucketRequest.builder()
                     .bucket(bucketName)
                     .build();
 
-            s3Client.headBucket(headBucketRequest);
+            clientRegistry.clientFor(bucketName, keyName).headBucket(headBucketRequest);
             return true;
 
         } catch (NoSuchBucketException e) {
@@ -174,5 +325,238 @@ public class S3BucketStorageServiceImpl implements S3BucketStorageService {
             return false;
         }
     }
-}
 
+    /**
+     * Whether an upload can go ahead. The bucket of a tenant key is created on first use when auto-creation is on;
+     * provisioning is single-flight and its outcome cached, so this costs no request once the bucket is ready.
+     * Any other bucket must already exist.
+     */
+    private boolean bucketReady(String bucketName, String keyName) {
+        if (storageProperties.isAutoCreateBuckets()
+                && bucketManagementService.resolveTenant(bucketName, keyName).isPresent()) {
+            // Checked and created on the tenant's own backend, where the PUT goes
+            bucketManagementService.createBucketIfNotExists(bucketName,
+                    clientRegistry.partitionFor(bucketName, keyName), clientRegistry.clientFor(bucketName, keyName));
+            return true;
+        }
+        return bucketExists(bucketName, keyName);
+    }
+
+    /**
+     * Answer keys and buckets known to be absent without a request to the backend
+     */
+    private void rejectKnownMiss(String bucketName, String keyName) {
+        if (missFilterService.isBucketMissing(bucketName)) {
+            throw new BucketNotFoundException(bucketName);
+        }
+        if (missFilterService.isMissing(bucketName, keyName)) {
+            throw new FileNotFoundException(keyName, bucketName);
+        }
+    }
+
+    /**
+     * Issue the PUT for an object, pacing its body against the tenant's bandwidth
+     */
+    private ObjectWriteResult writeObject(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream body
+    ) throws IOException {
+        // Closing the paced body ends the tenant's transfer, so it is closed once the PUT is done
+        try (InputStream value = bandwidthService.throttle(bucketName, keyName, S3OperationType.WRITE, body)) {
+            return sendObject(bucketName, keyName, contentLength, contentType, value);
+        }
+    }
+
+    /**
+     * Compress the body if its codec calls for it and send the PUT
+     */
+    private ObjectWriteResult sendObject(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            InputStream value
+    ) throws IOException {
+        PutObjectRequest.Builder putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(contentType)
+                .contentLength(contentLength);
+        RequestBody requestBody;
+
+        Optional<CompressionCodec> codec = compressionService.selectCodec(bucketName, contentType, contentLength);
+        Path spool = null;
+        try {
+            if (codec.isPresent()) {
+                // The compressed size must be known before the PUT, so the body is compressed to disk, not the heap
+                spool = Files.createTempFile("compressed-upload-", ".tmp");
+                long compressedLength;
+                try (OutputStream file = Files.newOutputStream(spool)) {
+                    compressedLength = compressionService.compress(value, codec.get(), file);
+                }
+
+                Map<String, String> metadata = new HashMap<>();
+                metadata.put(GatewayMetadata.ENCODING, codec.get().getEncoding());
+                metadata.put(GatewayMetadata.ORIGINAL_LENGTH, String.valueOf(contentLength));
+
+                putObjectRequest
+                        .contentLength(compressedLength)
+                        .contentEncoding(codec.get().getEncoding())
+                        .metadata(metadata);
+                requestBody = RequestBody.fromFile(spool);
+                log.debug("Compressed '{}' with {}: {} -> {} bytes",
+                        keyName, codec.get().getEncoding(), contentLength, compressedLength);
+            } else {
+                requestBody = RequestBody.fromInputStream(value, contentLength);
+            }
+            return executePut(bucketName, keyName, contentLength, contentType, putObjectRequest, requestBody);
+        } finally {
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+
+    /**
+     * Send a prepared PUT and publish the change
+     */
+    private ObjectWriteResult executePut(
+            String bucketName,
+            String keyName,
+            Long contentLength,
+            String contentType,
+            PutObjectRequest.Builder putObjectRequest,
+            RequestBody requestBody
+    ) {
+        StorageProperties.Checksum checksum = storageProperties.getChecksum();
+        if (checksum.isEnabled()) {
+            // Computed by the SDK while the body streams and sent as a trailer
+            putObjectRequest.checksumAlgorithm(checksum.getAlgorithm().getAlgorithm());
+        }
+
+        PutObjectResponse response = clientRegistry.clientFor(bucketName, keyName)
+                .putObject(putObjectRequest.build(), requestBody);
+
+        ObjectWriteResult.ObjectWriteResultBuilder result = ObjectWriteResult.builder()
+                .bucketName(bucketName)
+                .key(keyName)
+                .size(contentLength);
+        if (response != null) {
+            ChecksumType checksumType = checksumType(response.checksumCRC32C(), response.checksumSHA256());
+            result.eTag(response.eTag())
+                    .checksumType(checksumType)
+                    .checksum(checksumType == ChecksumType.SHA256
+                            ? response.checksumSHA256()
+                            : response.checksumCRC32C());
+        }
+
+        ObjectWriteResult written = result.build();
+        publishChange(ObjectChangeType.CREATED, bucketName, keyName, written.getSize(), contentType,
+                written.getETag());
+        return written;
+    }
+
+    /**
+     * GET an object, following a deduplicated reference to the blob holding its bytes
+     */
+    private ResponseInputStream<GetObjectResponse> getObject(String bucketName, String keyName) throws IOException {
+        ResponseInputStream<GetObjectResponse> stream = clientRegistry.clientFor(bucketName, keyName)
+                .getObject(getObjectRequest(bucketName, keyName));
+
+        String digest = stream.response().metadata().get(GatewayMetadata.CONTENT_SHA256);
+        if (digest == null) {
+            return stream;
+        }
+
+        stream.close();
+        // Blobs are scoped to the tenant of the key, so the same client serves both
+        String blobKey = ContentAddress.blobKey(bucketManagementService.tenantPrefix(bucketName, keyName), digest);
+        ResponseInputStream<GetObjectResponse> blob = clientRegistry.clientFor(bucketName, blobKey)
+                .getObject(getObjectRequest(bucketName, blobKey));
+        // Keep the content type the key was uploaded with
+        return new ResponseInputStream<>(
+                blob.response().toBuilder().contentType(stream.response().contentType()).build(),
+                blob
+        );
+    }
+
+    private void publishChange(
+            ObjectChangeType type,
+            String bucketName,
+            String keyName,
+            long size,
+            String contentType,
+            String eTag
+    ) {
+        eventPublisher.publishEvent(ObjectChangeEvent.builder()
+                .type(type)
+                .bucketName(bucketName)
+                .key(keyName)
+                .size(size)
+                .contentType(contentType)
+                .eTag(eTag)
+                .occurredAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Build a GET that has the SDK validate the stored checksum while the body is read
+     */
+    private GetObjectRequest getObjectRequest(String bucketName, String keyName) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName);
+        if (storageProperties.getChecksum().isEnabled()) {
+            request.checksumMode(ChecksumMode.ENABLED);
+        }
+        return request.build();
+    }
+
+    /**
+     * Type of the checksum S3 returned for an object, if any
+     */
+    private static ChecksumType checksumType(String crc32c, String sha256) {
+        if (crc32c != null) {
+            return ChecksumType.CRC32C;
+        }
+        return sha256 != null ? ChecksumType.SHA256 : null;
+    }
+
+    /**
+     * Wrap a stored stream so it yields the original bytes
+     */
+    private InputStream decode(ResponseInputStream<GetObjectResponse> stored, Map<String, String> metadata)
+            throws IOException {
+        Optional<CompressionCodec> codec = compressionService.storedCodec(metadata);
+        return codec.isPresent() ? decompress(stored, codec.get()) : stored;
+    }
+
+    /**
+     * Start decompressing a stored body, aborting it if that fails so its connection and the slots held for it
+     * are released
+     */
+    private InputStream decompress(ResponseInputStream<GetObjectResponse> stored, CompressionCodec codec)
+            throws IOException {
+        try {
+            return compressionService.decompress(stored, codec);
+        } catch (IOException | RuntimeException e) {
+            stored.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the pre-compression size recorded on upload
+     */
+    private Long originalLength(Map<String, String> metadata) {
+        String value = metadata.get(GatewayMetadata.ORIGINAL_LENGTH);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.S3ClientFactory;
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ClientPartition;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.LeasedS3Client;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class S3ClientRegistryServiceImpl implements S3ClientRegistryService, DisposableBean {
+
+    private final S3Client s3Client;
+    private final S3ClientFactory s3ClientFactory;
+    private final BucketManagementService bucketManagementService;
+    private final StorageProperties storageProperties;
+
+    /**
+     * Clients by client ID or environment; evicted ones are closed once no call or body uses them
+     */
+    private final Cache<String, LeasedS3Client> clients;
+
+    public S3ClientRegistryServiceImpl(
+            S3Client s3Client,
+            S3ClientFactory s3ClientFactory,
+            BucketManagementService bucketManagementService,
+            StorageProperties storageProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.s3Client = s3Client;
+        this.s3ClientFactory = s3ClientFactory;
+        this.bucketManagementService = bucketManagementService;
+        this.storageProperties = storageProperties;
+
+        StorageProperties.ClientRegistry settings = storageProperties.getClientRegistry();
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxClients())
+                .expireAfterAccess(Duration.ofMillis(settings.getIdleExpiryMs()))
+                .removalListener((String partition, LeasedS3Client client, RemovalCause cause) ->
+                        retire(partition, client, cause))
+                .build();
+
+        meterRegistry.gauge("storage.client.registry.size", this, S3ClientRegistryServiceImpl::size);
+    }
+
+    @Override
+    public S3Client clientFor(String bucketName, String key) {
+        String partition = partitionFor(bucketName, key);
+        return partition != null ? clients.get(partition, this::create).client() : s3Client;
+    }
+
+    @Override
+    public String partitionFor(String bucketName, String key) {
+        StorageProperties.ClientRegistry settings = storageProperties.getClientRegistry();
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        Optional<TenantLocation> tenant = bucketManagementService.resolveTenant(bucketName, key != null ? key : "");
+        if (tenant.isEmpty()) {
+            return null;
+        }
+        return settings.getPartition() == ClientPartition.TENANT
+                ? tenant.get().getClientId()
+                : tenant.get().getEnvironment().getValue();
+    }
+
+    @Override
+    public boolean isShared(String bucketName, String key) {
+        return partitionFor(bucketName, key) == null;
+    }
+
+    @Override
+    public long size() {
+        return clients.estimatedSize();
+    }
+
+    /**
+     * Close every client on shutdown; the shared client is closed by the container
+     */
+    @Override
+    public void destroy() {
+        clients.asMap().values().forEach(LeasedS3Client::close);
+        clients.invalidateAll();
+    }
+
+    private LeasedS3Client create(String partition) {
+        StorageProperties.ClientRegistry settings = storageProperties.getClientRegistry();
+        StorageProperties.ClientRegistry.Endpoint endpoint = settings.getEndpoints()
+                .getOrDefault(partition, new StorageProperties.ClientRegistry.Endpoint());
+        int maxConnections = endpoint.getMaxConnections() != null
+                ? endpoint.getMaxConnections()
+                : settings.getMaxConnections();
+        return LeasedS3Client.wrap(s3ClientFactory.create(partition, endpoint, maxConnections));
+    }
+
+    /**
+     * Close an evicted client once the calls and streams still using it have finished. Size eviction may pick a
+     * client in active use, so its streams are never cut off by a fixed delay.
+     */
+    private void retire(String partition, LeasedS3Client client, RemovalCause cause) {
+        if (client == null || cause == RemovalCause.EXPLICIT) {
+            // Explicit removals happen only on shutdown, which closes the clients itself
+            return;
+        }
+        long delay = storageProperties.getClientRegistry().getCloseDelayMs();
+        log.debug("Retiring S3 client '{}' with {} calls or streams open", partition, client.leases());
+        client.retire(Duration.ofMillis(delay));
+    }
+}
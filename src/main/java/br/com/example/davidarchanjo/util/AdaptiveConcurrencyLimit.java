@@ -0,0 +1,115 @@
+package br.com.example.davidarchanjo.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the calls it admits.
+ * <p>
+ * Gradient-style: a slow moving average of round-trip times stands in for the latency of an unloaded backend. While
+ * recent calls are as fast as that baseline the limit grows by about its square root per sample; as they slow down
+ * the limit shrinks in proportion, and calls reported as dropped (throttled, timed out) cut it by a fixed ratio.
+ * Updates are smoothed, and the limit only grows while callers actually use at least half of it.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+
+    /**
+     * @param initialLimit Limit before any sample
+     * @param minLimit     Lowest limit
+     * @param maxLimit     Highest limit
+     * @param smoothing    Weight of each new estimate, between 0 and 1
+     * @param rttTolerance Slowdown tolerated before the limit shrinks (1.5 = 50% above the baseline)
+     * @param longWindow   Samples averaged into the baseline round-trip time
+     * @param backoffRatio Factor applied to the limit when a call is dropped
+     */
+    public AdaptiveConcurrencyLimit(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double smoothing,
+            double rttTolerance,
+            int longWindow,
+            double backoffRatio
+    ) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = Math.max(1, longWindow);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admit a call if fewer than the limit are in flight
+     *
+     * @return true if admitted; the caller must then call {@link #release}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Finish an admitted call and feed its round-trip time into the limit
+     *
+     * @param rttNanos Duration of the call
+     * @param dropped  Whether the backend shed or timed out the call
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int used = inFlight.getAndDecrement();
+        update(rttNanos, used, dropped);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int used, boolean dropped) {
+        double estimate;
+        if (dropped) {
+            estimate = limit * backoffRatio;
+        } else {
+            if (rttNanos <= 0) {
+                return;
+            }
+            double rtt = rttNanos;
+            longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / longWindow;
+            if (longRtt / rtt > 2) {
+                // Latency recovered from a long slowdown: let the baseline catch up instead of overshooting
+                longRtt *= 0.95;
+            }
+            if (used < limit / 2) {
+                // Demand, not the backend, is what holds concurrency down
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rtt));
+            estimate = limit * gradient + Math.sqrt(limit);
+        }
+        double smoothed = limit * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
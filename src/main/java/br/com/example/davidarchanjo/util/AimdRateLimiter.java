@@ -0,0 +1,134 @@
+package br.com.example.davidarchanjo.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket whose rate adapts to backend throttling: it is cut by a fixed factor every time the backend pushes
+ * back and grows again by a fixed amount per second of traffic that goes through unthrottled (AIMD).
+ * <p>
+ * Permits are handed out on a schedule: each caller reserves the next free slot and sleeps until it comes up, so
+ * callers queue in arrival order without busy waiting. A caller whose slot is further away than it is willing to wait
+ * gets no permit and reserves nothing.
+ */
+public final class AimdRateLimiter {
+
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double minRate;
+    private final double maxRate;
+    private final double decreaseFactor;
+    private final double increasePerSecond;
+    private final double burst;
+    private final LongSupplier clock;
+
+    private double rate;
+    private long nextFreeNanos;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param initialRate       Requests per second allowed at first
+     * @param minRate           Lowest rate backoff may reach
+     * @param maxRate           Highest rate recovery may reach
+     * @param decreaseFactor    Factor applied to the rate on throttling, between 0 and 1
+     * @param increasePerSecond Requests per second regained for each second of unthrottled traffic
+     * @param burstSeconds      Seconds of unused rate that may be spent at once after an idle period
+     */
+    public AimdRateLimiter(
+            double initialRate,
+            double minRate,
+            double maxRate,
+            double decreaseFactor,
+            double increasePerSecond,
+            double burstSeconds
+    ) {
+        this(initialRate, minRate, maxRate, decreaseFactor, increasePerSecond, burstSeconds, System::nanoTime);
+    }
+
+    AimdRateLimiter(
+            double initialRate,
+            double minRate,
+            double maxRate,
+            double decreaseFactor,
+            double increasePerSecond,
+            double burstSeconds,
+            LongSupplier clock
+    ) {
+        if (minRate <= 0 || maxRate < minRate) {
+            throw new IllegalArgumentException("Rates must satisfy 0 < min <= max");
+        }
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.decreaseFactor = decreaseFactor;
+        this.increasePerSecond = increasePerSecond;
+        this.burst = Math.max(0, burstSeconds);
+        this.clock = clock;
+        this.rate = Math.max(minRate, Math.min(maxRate, initialRate));
+        this.nextFreeNanos = clock.getAsLong();
+        this.lastDecreaseNanos = nextFreeNanos - DECREASE_INTERVAL_NANOS;
+    }
+
+    /**
+     * Take a permit, waiting up to the given time for one
+     *
+     * @param maxWaitNanos Longest acceptable wait
+     * @return true if a permit was taken
+     */
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        long wait = reserve(maxWaitNanos);
+        if (wait < 0) {
+            return false;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return true;
+    }
+
+    /**
+     * Report a request that went through without throttling
+     */
+    public synchronized void onSuccess() {
+        // One successful request is 1/rate seconds of traffic at the current rate
+        rate = Math.min(maxRate, rate + increasePerSecond / rate);
+    }
+
+    /**
+     * Report a request the backend throttled
+     *
+     * @return true if the rate was cut; it is cut at most once per second, so the throttles of requests already in
+     * flight count only once
+     */
+    public synchronized boolean onThrottle() {
+        long now = clock.getAsLong();
+        if (now - lastDecreaseNanos < DECREASE_INTERVAL_NANOS) {
+            return false;
+        }
+        lastDecreaseNanos = now;
+        rate = Math.max(minRate, rate * decreaseFactor);
+        return true;
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * Reserve the next free slot
+     *
+     * @return Nanoseconds to wait for it, or -1 if that is longer than allowed
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = clock.getAsLong();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        // Idle time accrues at most a burst worth of permits
+        long earliest = now - (long) (burst * TimeUnit.SECONDS.toNanos(1));
+        long slot = Math.max(nextFreeNanos, earliest);
+        long wait = Math.max(0, slot - now);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        nextFreeNanos = slot + interval;
+        return wait;
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.example.davidarchanjo.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bytes shared by concurrent transfers, handed out in arrival order.
+ * <p>
+ * The capacity is read again whenever a caller waits for room, so a budget following memory headroom grows and
+ * shrinks while callers queue. A caller asking for more than the whole capacity is charged the capacity: it runs
+ * alone instead of never. Callers queue first come, first served, so a large reservation is not starved by a stream
+ * of small ones.
+ */
+public final class ByteBudget {
+
+    private final LongSupplier capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<Object> queue = new ArrayDeque<>();
+    private long reserved;
+
+    /**
+     * @param capacity Bytes that may be reserved at once
+     */
+    public ByteBudget(LongSupplier capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reserve bytes, waiting up to the given time for room
+     *
+     * @return Bytes reserved, to be given back with {@link #release(long)}, or -1 if no room came up in time
+     */
+    public long reserve(long bytes, long timeoutNanos) throws InterruptedException {
+        Object ticket = new Object();
+        lock.lock();
+        try {
+            queue.addLast(ticket);
+            try {
+                long remaining = timeoutNanos;
+                while (true) {
+                    long limit = Math.max(1, capacity.getAsLong());
+                    long charged = Math.max(0, Math.min(bytes, limit));
+                    if (queue.peekFirst() == ticket && reserved + charged <= limit) {
+                        reserved += charged;
+                        return charged;
+                    }
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } finally {
+                queue.remove(ticket);
+                // The next caller in line may fit now
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long bytes) {
+        lock.lock();
+        try {
+            reserved -= bytes;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long reserved() {
+        lock.lock();
+        try {
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Callers waiting for room
+     */
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long capacity() {
+        return Math.max(1, capacity.getAsLong());
+    }
+}
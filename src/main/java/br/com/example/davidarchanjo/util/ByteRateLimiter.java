@@ -0,0 +1,84 @@
+package br.com.example.davidarchanjo.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket on bytes whose rate may be changed while streams are flowing.
+ * <p>
+ * Like {@link AimdRateLimiter}, transfers are paced on a schedule rather than by polling: each chunk reserves the
+ * next free slot, pushes the schedule out by the time its bytes take at the current rate, and sleeps until its slot
+ * comes up. Chunks are accounted after they were read, so a single chunk is never refused however large it is; the
+ * debt is paid by the chunks that follow.
+ */
+public final class ByteRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double burst;
+    private final LongSupplier clock;
+
+    private double rate;
+    private long nextFreeNanos;
+
+    /**
+     * @param bytesPerSecond Bytes per second allowed; zero or less means unlimited
+     * @param burstSeconds   Seconds of unused rate that may be spent at once after an idle period
+     */
+    public ByteRateLimiter(double bytesPerSecond, double burstSeconds) {
+        this(bytesPerSecond, burstSeconds, System::nanoTime);
+    }
+
+    ByteRateLimiter(double bytesPerSecond, double burstSeconds, LongSupplier clock) {
+        this.burst = Math.max(0, burstSeconds);
+        this.clock = clock;
+        this.rate = Math.max(0, bytesPerSecond);
+        this.nextFreeNanos = clock.getAsLong();
+    }
+
+    /**
+     * Account for bytes transferred, waiting until the rate allows them
+     *
+     * @return Nanoseconds waited
+     */
+    public long acquire(long bytes) throws InterruptedException {
+        long wait = reserve(bytes);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Change the rate; bytes already reserved keep their slots
+     *
+     * @param bytesPerSecond Bytes per second allowed; zero or less means unlimited
+     */
+    public synchronized void setRate(double bytesPerSecond) {
+        rate = Math.max(0, bytesPerSecond);
+    }
+
+    /**
+     * @return Bytes per second allowed, or 0 when unlimited
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * Reserve the next free slot for the given bytes
+     *
+     * @return Nanoseconds to wait for it
+     */
+    synchronized long reserve(long bytes) {
+        if (rate <= 0) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        // Idle time accrues at most a burst worth of bytes
+        long earliest = now - (long) (burst * NANOS_PER_SECOND);
+        long slot = Math.max(nextFreeNanos, earliest);
+        nextFreeNanos = slot + (long) (bytes * NANOS_PER_SECOND / rate);
+        return Math.max(0, slot - now);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for the content-addressed layout used by deduplicated uploads.
+ * Blobs live under {@code <scope>.cas/blobs/<2 hex>/<sha256>} and every key pointing at a blob
+ * has an index marker under {@code <scope>.cas/refs/<sha256>/<key>}. The scope is the tenant prefix
+ * of the keys, so a digest only ever resolves to content its own tenant uploaded.
+ */
+public final class ContentAddress {
+
+    /**
+     * Root of every object managed by the content-addressed store
+     */
+    public static final String ROOT = ".cas/";
+
+    public static final String BLOB_PREFIX = ROOT + "blobs/";
+
+    public static final String REF_PREFIX = ROOT + "refs/";
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[a-f0-9]{64}");
+
+    private ContentAddress() {
+        // Utility class
+    }
+
+    /**
+     * Normalize a hex SHA-256 digest
+     *
+     * @param digest Hex digest, any case
+     * @return Lower-case digest
+     * @throws InvalidRequestException if the value is not a SHA-256 hex digest
+     */
+    public static String normalizeDigest(String digest) {
+        String normalized = digest != null ? digest.trim().toLowerCase(Locale.ROOT) : "";
+        if (!SHA256_HEX.matcher(normalized).matches()) {
+            throw new InvalidRequestException("Invalid SHA-256 digest: " + digest);
+        }
+        return normalized;
+    }
+
+    /**
+     * Encode a raw digest as lower-case hex
+     */
+    public static String toHex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    /**
+     * Key of the blob holding the content with this digest
+     *
+     * @param scope  Tenant key prefix, empty for keys outside any tenant
+     * @param digest Hex digest
+     */
+    public static String blobKey(String scope, String digest) {
+        return scope + BLOB_PREFIX + digest.substring(0, 2) + "/" + digest;
+    }
+
+    /**
+     * Prefix listing every index marker of a blob
+     */
+    public static String refPrefix(String scope, String digest) {
+        return scope + REF_PREFIX + digest + "/";
+    }
+
+    /**
+     * Key of the index marker recording that a user key points at a blob
+     */
+    public static String refKey(String scope, String digest, String keyName) {
+        return refPrefix(scope, digest) + keyName;
+    }
+
+    /**
+     * Digest encoded in a blob key
+     */
+    public static String digestOf(String blobKey) {
+        return blobKey.substring(blobKey.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Check whether a key belongs to the content-addressed store and should be hidden from listings
+     */
+    public static boolean isInternal(String keyName) {
+        return keyName.startsWith(ROOT) || keyName.contains("/" + ROOT);
+    }
+}
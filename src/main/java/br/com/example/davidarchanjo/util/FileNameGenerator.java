@@ -1,11 +1,13 @@
 package br.com.example.davidarchanjo.util;
 
 import br.com.example.davidarchanjo.enumeration.DuplicateFileStrategy;
+import br.com.example.davidarchanjo.enumeration.IdFormat;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 /**
  * Utility class for generating unique file names
@@ -15,12 +17,17 @@ public final class FileNameGenerator {
 
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
+    /**
+     * Last formatted second; names generated within the same second reuse it instead of formatting again
+     */
+    private static volatile Timestamp lastTimestamp = new Timestamp(Long.MIN_VALUE, "");
+
     private FileNameGenerator() {
         // Utility class
     }
 
     /**
-     * Generate a unique file name based on strategy
+     * Generate a unique file name based on strategy, with a ULID suffix for the UUID_SUFFIX strategy
      *
      * @param originalFileName Original file name
      * @param strategy         Duplicate file strategy
@@ -28,12 +35,30 @@ public final class FileNameGenerator {
      * @return Generated file name
      */
     public static String generateFileName(String originalFileName, DuplicateFileStrategy strategy, Integer version) {
+        return generateFileName(originalFileName, strategy, version, IdFormat.ULID);
+    }
+
+    /**
+     * Generate a unique file name based on strategy
+     *
+     * @param originalFileName Original file name
+     * @param strategy         Duplicate file strategy
+     * @param version          Version number (for VERSION strategy)
+     * @param idFormat         Format of the ID appended by the UUID_SUFFIX strategy
+     * @return Generated file name
+     */
+    public static String generateFileName(
+            String originalFileName,
+            DuplicateFileStrategy strategy,
+            Integer version,
+            IdFormat idFormat
+    ) {
         String baseName = getBaseName(originalFileName);
         String extension = getExtension(originalFileName);
 
         switch (strategy) {
             case UUID_SUFFIX:
-                return generateWithUUID(baseName, extension);
+                return generateWithId(baseName, extension, idFormat);
 
             case TIMESTAMP_SUFFIX:
                 return generateWithTimestamp(baseName, extension);
@@ -49,19 +74,40 @@ public final class FileNameGenerator {
     }
 
     /**
-     * Generate file name with UUID suffix
+     * Generate file name with unique ID suffix
      */
-    private static String generateWithUUID(String baseName, String extension) {
-        String uuid = UUID.randomUUID().toString().substring(0, 8);
-        return String.format("%s_%s%s", baseName, uuid, extension);
+    private static String generateWithId(String baseName, String extension, IdFormat idFormat) {
+        StringBuilder name = new StringBuilder(baseName.length() + 1 + idFormat.getLength() + extension.length())
+                .append(baseName)
+                .append('_');
+        return IdGenerator.appendTo(name, idFormat)
+                .append(extension)
+                .toString();
     }
 
     /**
      * Generate file name with timestamp suffix
      */
     private static String generateWithTimestamp(String baseName, String extension) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        return String.format("%s_%s%s", baseName, timestamp, extension);
+        String timestamp = currentTimestamp();
+        return new StringBuilder(baseName.length() + 1 + timestamp.length() + extension.length())
+                .append(baseName)
+                .append('_')
+                .append(timestamp)
+                .append(extension)
+                .toString();
+    }
+
+    private static String currentTimestamp() {
+        long second = Math.floorDiv(System.currentTimeMillis(), 1000L);
+        Timestamp last = lastTimestamp;
+        if (last.second != second) {
+            String formatted = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault())
+                    .format(TIMESTAMP_FORMAT);
+            last = new Timestamp(second, formatted);
+            lastTimestamp = last;
+        }
+        return last.formatted;
     }
 
     /**
@@ -71,7 +117,7 @@ public final class FileNameGenerator {
         if (version == null || version <= 1) {
             return baseName + extension;
         }
-        return String.format("%s_v%d%s", baseName, version, extension);
+        return baseName + "_v" + version + extension;
     }
 
     /**
@@ -91,16 +137,30 @@ public final class FileNameGenerator {
     }
 
     /**
-     * Generate a unique ID
+     * Generate a unique ID (time-ordered UUID)
      */
     public static String generateUniqueId() {
-        return UUID.randomUUID().toString();
+        return IdGenerator.uuidV7();
     }
 
     /**
      * Generate a short unique ID (8 characters)
      */
     public static String generateShortUniqueId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+        return IdGenerator.next(IdFormat.SHORT);
+    }
+
+    /**
+     * Epoch second and its formatted form
+     */
+    private static final class Timestamp {
+
+        private final long second;
+        private final String formatted;
+
+        private Timestamp(long second, String formatted) {
+            this.second = second;
+            this.formatted = formatted;
+        }
     }
 }
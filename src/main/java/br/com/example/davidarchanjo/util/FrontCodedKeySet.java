@@ -0,0 +1,343 @@
+package br.com.example.davidarchanjo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable sorted set of object keys stored front-coded in a single byte array.
+ * <p>
+ * Keys are kept in UTF-8 byte order (the order S3 lists them in) and grouped in blocks. The first key of a block
+ * is stored whole; every other key stores only the length of the prefix it shares with the previous key plus the
+ * remaining bytes. Keys like {@code client/env/dir/file} share most of their bytes, so the set needs a fraction of
+ * the memory of a {@code List<String>}. Lookups binary search the block heads and decode at most one block.
+ */
+public final class FrontCodedKeySet implements Iterable<String> {
+
+    private static final FrontCodedKeySet EMPTY = new FrontCodedKeySet(new byte[0], new int[0], 0, 1);
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int size;
+    private final int blockSize;
+
+    private FrontCodedKeySet(byte[] data, int[] blockOffsets, int size, int blockSize) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+        this.blockSize = blockSize;
+    }
+
+    public static FrontCodedKeySet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a set from keys sorted in UTF-8 byte order. Consecutive duplicates are dropped.
+     *
+     * @param sortedKeys Keys in ascending UTF-8 byte order
+     * @param blockSize  Keys per block; larger blocks save memory and cost more per lookup
+     * @return Key set
+     * @throws IllegalArgumentException if the keys are not sorted
+     */
+    public static FrontCodedKeySet of(Iterator<String> sortedKeys, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+
+        ByteSink sink = new ByteSink();
+        int[] offsets = new int[16];
+        byte[] previous = null;
+        int count = 0;
+
+        while (sortedKeys.hasNext()) {
+            byte[] key = sortedKeys.next().getBytes(StandardCharsets.UTF_8);
+            if (previous != null) {
+                int order = Arrays.compareUnsigned(previous, key);
+                if (order == 0) {
+                    continue;
+                }
+                if (order > 0) {
+                    throw new IllegalArgumentException(
+                            "Keys are not sorted: " + new String(key, StandardCharsets.UTF_8));
+                }
+            }
+
+            if (count % blockSize == 0) {
+                int block = count / blockSize;
+                if (block == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[block] = sink.size();
+                sink.writeVarInt(key.length);
+                sink.write(key, 0, key.length);
+            } else {
+                int shared = Arrays.mismatch(previous, key);
+                shared = shared < 0 ? key.length : shared;
+                sink.writeVarInt(shared);
+                sink.writeVarInt(key.length - shared);
+                sink.write(key, shared, key.length - shared);
+            }
+            previous = key;
+            count++;
+        }
+
+        if (count == 0) {
+            return EMPTY;
+        }
+        int blocks = (count + blockSize - 1) / blockSize;
+        return new FrontCodedKeySet(sink.toByteArray(), Arrays.copyOf(offsets, blocks), count, blockSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap used by the encoded keys
+     */
+    public long memoryBytes() {
+        return data.length + (long) blockOffsets.length * Integer.BYTES;
+    }
+
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = seek(bytes);
+        return cursor.isValid() && cursor.compareTo(bytes) == 0;
+    }
+
+    /**
+     * Number of keys that start with a prefix
+     */
+    public int count(String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] upper = successor(bytes);
+        int end = upper != null ? rank(upper) : size;
+        return end - rank(bytes);
+    }
+
+    /**
+     * Number of keys strictly smaller than a key
+     */
+    public int rank(byte[] key) {
+        Cursor cursor = seek(key);
+        return cursor.isValid() ? cursor.rank() : size;
+    }
+
+    /**
+     * Position a cursor on the first key greater than or equal to a key
+     */
+    public Cursor seek(byte[] key) {
+        if (size == 0) {
+            return new Cursor(0);
+        }
+
+        // Last block whose head is <= key
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compareHead(middle, key) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        Cursor cursor = new Cursor(low * blockSize);
+        while (cursor.advance() && cursor.compareTo(key) < 0) {
+            // Scan within the block
+        }
+        return cursor;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Cursor cursor = new Cursor(0);
+        cursor.advance();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.isValid();
+            }
+
+            @Override
+            public String next() {
+                if (!cursor.isValid()) {
+                    throw new NoSuchElementException();
+                }
+                String key = cursor.key();
+                cursor.advance();
+                return key;
+            }
+        };
+    }
+
+    /**
+     * Smallest byte string greater than every string starting with the prefix, or null if there is none
+     */
+    public static byte[] successor(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] upper = Arrays.copyOf(prefix, i + 1);
+                upper[i]++;
+                return upper;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compare two keys in UTF-8 byte order, which is Unicode code point order
+     */
+    public static int compareKeys(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y) {
+                // Surrogates encode code points above every other UTF-16 unit
+                return codePointOrder(x) - codePointOrder(y);
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static int codePointOrder(char c) {
+        if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+            return c + 0x2000;
+        }
+        return c >= 0xE000 ? c - 0x800 : c;
+    }
+
+    private int compareHead(int block, byte[] key) {
+        int[] position = {blockOffsets[block]};
+        int length = readVarInt(position);
+        return Arrays.compareUnsigned(data, position[0], position[0] + length, key, 0, key.length);
+    }
+
+    private int readVarInt(int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Forward cursor decoding one key at a time into a reused buffer
+     */
+    public final class Cursor {
+
+        private final int[] position = new int[1];
+        private int nextRank;
+        private byte[] buffer = new byte[64];
+        private int length;
+        private boolean valid;
+
+        private Cursor(int rank) {
+            this.nextRank = rank;
+            if (rank < size) {
+                this.position[0] = blockOffsets[rank / blockSize];
+            }
+        }
+
+        /**
+         * Move to the next key
+         *
+         * @return false once the set is exhausted
+         */
+        public boolean advance() {
+            if (nextRank >= size) {
+                valid = false;
+                return false;
+            }
+
+            int shared;
+            int suffix;
+            if (nextRank % blockSize == 0) {
+                position[0] = blockOffsets[nextRank / blockSize];
+                shared = 0;
+                suffix = readVarInt(position);
+            } else {
+                shared = readVarInt(position);
+                suffix = readVarInt(position);
+            }
+            if (buffer.length < shared + suffix) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, shared + suffix));
+            }
+            System.arraycopy(data, position[0], buffer, shared, suffix);
+            position[0] += suffix;
+            length = shared + suffix;
+            nextRank++;
+            valid = true;
+            return true;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * Position of the current key in the set
+         */
+        public int rank() {
+            return nextRank - 1;
+        }
+
+        public String key() {
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+
+        public int compareTo(byte[] key) {
+            return Arrays.compareUnsigned(buffer, 0, length, key, 0, key.length);
+        }
+    }
+
+    /**
+     * Growable byte buffer without the synchronization of ByteArrayOutputStream
+     */
+    private static final class ByteSink {
+
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void put(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
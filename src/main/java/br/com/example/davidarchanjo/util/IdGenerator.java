@@ -0,0 +1,164 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.IdFormat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered unique IDs built without shared state.
+ * <p>
+ * Randomness comes from {@link ThreadLocalRandom} rather than the {@code SecureRandom} behind
+ * {@code UUID.randomUUID()}, and the timestamp from the wall clock, so concurrent callers never wait on each other.
+ * IDs from one thread are strictly increasing, even when the wall clock is stepped back: within a millisecond a
+ * per-thread counter follows the timestamp, and when it runs out the timestamp moves a millisecond ahead. IDs from
+ * different threads in the same millisecond are told apart by at least 62 random bits. They are unique, not
+ * unguessable: use them for names, and {@link #secureUuidV7()} for IDs that grant access to what they name.
+ */
+public final class IdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final long UUID_COUNTER_MASK = 0xFFFL;
+    private static final long ULID_COUNTER_MASK = 0xFFFFL;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Sequence> SEQUENCE = ThreadLocal.withInitial(Sequence::new);
+
+    private IdGenerator() {
+        // Utility class
+    }
+
+    /**
+     * Generate an ID of the given format
+     */
+    public static String next(IdFormat format) {
+        return new String(generate(format), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Append an ID of the given format, sparing the intermediate string when building names
+     */
+    public static StringBuilder appendTo(StringBuilder target, IdFormat format) {
+        for (byte digit : generate(format)) {
+            target.append((char) digit);
+        }
+        return target;
+    }
+
+    /**
+     * RFC 9562 version 7 UUID in its canonical 36-character form
+     */
+    public static String uuidV7() {
+        return next(IdFormat.UUID_V7);
+    }
+
+    /**
+     * Version 7 UUID whose random bits come from {@link SecureRandom}, for IDs that act as handles, such as job IDs
+     * a caller fetches results with. Slower than {@link #uuidV7()} under contention.
+     */
+    public static String secureUuidV7() {
+        byte[] id = new byte[IdFormat.UUID_V7.getLength()];
+        writeUuidV7(id, SECURE_RANDOM.nextLong());
+        return new String(id, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 26-character ULID
+     */
+    public static String ulid() {
+        return next(IdFormat.ULID);
+    }
+
+    private static byte[] generate(IdFormat format) {
+        byte[] id = new byte[format.getLength()];
+        switch (format) {
+            case UUID_V7 -> writeUuidV7(id, ThreadLocalRandom.current().nextLong());
+            case ULID -> writeUlid(id);
+            default -> writeHex(id, 0, ThreadLocalRandom.current().nextLong(), 8);
+        }
+        return id;
+    }
+
+    /**
+     * 48-bit timestamp, version, 12-bit counter (RFC 9562 method 1), variant and 62 random bits
+     */
+    private static void writeUuidV7(byte[] id, long random) {
+        Sequence sequence = SEQUENCE.get();
+        long millis = sequence.advance(UUID_COUNTER_MASK);
+        long high = millis << 16 | 0x7000L | sequence.counter;
+        long low = random & 0x3FFF_FFFF_FFFF_FFFFL | Long.MIN_VALUE;
+
+        writeHex(id, 0, high >>> 32, 8);
+        id[8] = '-';
+        writeHex(id, 9, high >>> 16, 4);
+        id[13] = '-';
+        writeHex(id, 14, high, 4);
+        id[18] = '-';
+        writeHex(id, 19, low >>> 48, 4);
+        id[23] = '-';
+        writeHex(id, 24, low, 12);
+    }
+
+    /**
+     * 48-bit timestamp, 16-bit counter and 64 random bits, as 26 base32 digits of 5 bits each
+     */
+    private static void writeUlid(byte[] id) {
+        Sequence sequence = SEQUENCE.get();
+        long millis = sequence.advance(ULID_COUNTER_MASK);
+        long high = millis << 16 | sequence.counter;
+        long low = ThreadLocalRandom.current().nextLong();
+
+        for (int i = 0; i < 26; i++) {
+            int shift = 5 * (25 - i);
+            long digit;
+            if (shift >= 64) {
+                digit = high >>> (shift - 64);
+            } else if (shift > 59) {
+                digit = low >>> shift | high << (64 - shift);
+            } else {
+                digit = low >>> shift;
+            }
+            id[i] = (byte) CROCKFORD[(int) (digit & 31)];
+        }
+    }
+
+    /**
+     * Write the lowest {@code digits} hex digits of {@code value}, most significant first
+     */
+    private static void writeHex(byte[] target, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            target[offset + i] = (byte) HEX[(int) (value & 15)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Timestamp and counter of the last ID generated by one thread
+     */
+    private static final class Sequence {
+
+        private long millis = Long.MIN_VALUE;
+        private long counter;
+
+        /**
+         * Move to the next ID and return its timestamp; a new millisecond starts the counter at a random value in
+         * its lower half, leaving room to count up. A wall clock stepped back keeps counting from the last timestamp
+         * until it catches up.
+         */
+        long advance(long counterMask) {
+            long now = System.currentTimeMillis();
+            if (now > millis) {
+                millis = now;
+                counter = ThreadLocalRandom.current().nextLong() & counterMask >>> 1;
+            } else if (++counter > counterMask) {
+                millis++;
+                counter = 0;
+            }
+            return millis;
+        }
+    }
+}
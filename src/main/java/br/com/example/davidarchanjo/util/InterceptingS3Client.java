@@ -0,0 +1,98 @@
+package br.com.example.davidarchanjo.util;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Consumer;
+
+/**
+ * S3Client that routes every call through an interceptor before reaching the real client.
+ * <p>
+ * A dynamic proxy is used instead of a hand-written delegate because S3Client declares hundreds of operations whose
+ * defaults throw; the proxy forwards all of them, so interceptors only handle the operations they care about.
+ */
+public final class InterceptingS3Client implements InvocationHandler {
+
+    /**
+     * Hook around a single client call
+     */
+    @FunctionalInterface
+    public interface Interceptor {
+
+        /**
+         * @param method  Operation being called
+         * @param args    Call arguments (null for none)
+         * @param proceed Forwards the call, unchanged, to the wrapped client; may be called more than once
+         * @return Result returned to the caller
+         */
+        Object intercept(Method method, Object[] args, Invocation proceed) throws Throwable;
+    }
+
+    /**
+     * The wrapped call
+     */
+    @FunctionalInterface
+    public interface Invocation {
+
+        Object proceed() throws Throwable;
+    }
+
+    private final S3Client delegate;
+    private final Interceptor interceptor;
+
+    private InterceptingS3Client(S3Client delegate, Interceptor interceptor) {
+        this.delegate = delegate;
+        this.interceptor = interceptor;
+    }
+
+    public static S3Client wrap(S3Client delegate, Interceptor interceptor) {
+        return (S3Client) Proxy.newProxyInstance(
+                S3Client.class.getClassLoader(),
+                new Class<?>[]{S3Client.class},
+                new InterceptingS3Client(delegate, interceptor));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Intercepting(" + delegate + ")";
+            };
+        }
+        if (method.isDefault() && routesThroughClient(method, args)) {
+            // Paginators and request-builder overloads call back into the client, so run them on the proxy
+            // to have the calls they make intercepted too
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+        return interceptor.intercept(method, args, () -> forward(method, args));
+    }
+
+    private static boolean routesThroughClient(Method method, Object[] args) {
+        return method.getName().endsWith("Paginator") || args != null && args.length > 0 && args[0] instanceof Consumer;
+    }
+
+    /**
+     * Call a client operation with arguments of the interceptor's choosing
+     *
+     * @param target Client to call
+     * @param method Operation
+     * @param args   Arguments
+     * @return Result of the operation, with exceptions it throws rethrown as is
+     */
+    public static Object invoke(S3Client target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object forward(Method method, Object[] args) throws Throwable {
+        return invoke(delegate, method, args);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.example.davidarchanjo.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding window of recent latencies with a cheap percentile query.
+ * <p>
+ * Samples go into a fixed ring buffer without locking. The percentile is recomputed from a copy of the buffer at most
+ * once per {@code recomputeEvery} samples, so reading it on every request costs a volatile read.
+ */
+public final class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int recomputeEvery;
+    private final AtomicLong recorded = new AtomicLong();
+
+    private volatile long cachedValue = -1;
+    private volatile long cachedAt;
+
+    /**
+     * @param windowSize     Number of most recent samples kept
+     * @param percentile     Percentile reported, between 0 and 100
+     * @param recomputeEvery Samples between recomputations of the percentile
+     */
+    public LatencyTracker(int windowSize, double percentile, int recomputeEvery) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, recomputeEvery);
+    }
+
+    public void record(long value) {
+        long index = recorded.getAndIncrement();
+        samples[(int) (index % samples.length)] = value;
+    }
+
+    /**
+     * Number of samples recorded since creation
+     */
+    public long count() {
+        return recorded.get();
+    }
+
+    /**
+     * Configured percentile of the samples in the window, or -1 before the first sample
+     */
+    public long percentile() {
+        long count = recorded.get();
+        if (count == 0) {
+            return -1;
+        }
+        if (count - cachedAt >= recomputeEvery || cachedValue < 0) {
+            int size = (int) Math.min(count, samples.length);
+            long[] window = Arrays.copyOf(samples, size);
+            Arrays.sort(window);
+            int rank = (int) Math.ceil(percentile / 100 * size) - 1;
+            cachedValue = window[Math.max(0, Math.min(rank, size - 1))];
+            cachedAt = count;
+        }
+        return cachedValue;
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.example.davidarchanjo.util;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * S3Client that counts the calls and response bodies using it, so a client taken out of service is closed only once
+ * nothing reads from it any more.
+ * <p>
+ * A call holds a lease until it returns; a call returning a streamed body holds it until the body is closed or
+ * aborted. After {@link #retire(Duration)} the client is closed once no lease is held and the grace period has
+ * passed, which also covers callers that obtained the client just before it was retired.
+ */
+public final class LeasedS3Client {
+
+    private final S3Client backend;
+    private final S3Client client;
+    private final AtomicInteger leases = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Grace period before closing, or null while the client is in service
+     */
+    private volatile Duration grace;
+
+    private LeasedS3Client(S3Client backend) {
+        this.backend = backend;
+        this.client = InterceptingS3Client.wrap(backend, (method, args, proceed) -> lease(proceed));
+    }
+
+    public static LeasedS3Client wrap(S3Client backend) {
+        return new LeasedS3Client(backend);
+    }
+
+    /**
+     * @return Client whose calls and bodies hold leases
+     */
+    public S3Client client() {
+        return client;
+    }
+
+    /**
+     * @return Calls in progress and bodies still open
+     */
+    public int leases() {
+        return leases.get();
+    }
+
+    /**
+     * Take the client out of service; it is closed once idle for the grace period
+     *
+     * @param grace Time to wait after the last lease is released
+     */
+    public void retire(Duration grace) {
+        this.grace = grace;
+        scheduleClose();
+    }
+
+    /**
+     * Close the client now, whatever still uses it
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            backend.close();
+        }
+    }
+
+    private Object lease(InterceptingS3Client.Invocation proceed) throws Throwable {
+        leases.incrementAndGet();
+        Object result;
+        try {
+            result = proceed.proceed();
+        } catch (Throwable e) {
+            release();
+            throw e;
+        }
+        if (result instanceof ResponseInputStream<?> stream) {
+            return releaseOnClose(stream);
+        }
+        release();
+        return result;
+    }
+
+    private void release() {
+        if (leases.decrementAndGet() == 0 && grace != null) {
+            scheduleClose();
+        }
+    }
+
+    private void scheduleClose() {
+        CompletableFuture.runAsync(() -> {
+            // A lease taken since the close was scheduled schedules another on release
+            if (leases.get() == 0) {
+                close();
+            }
+        }, CompletableFuture.delayedExecutor(grace.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Keep the lease of a call until its body is closed or aborted
+     */
+    private <T> ResponseInputStream<T> releaseOnClose(ResponseInputStream<T> stream) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        };
+        FilterInputStream body = new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+        return new ResponseInputStream<>(stream.response(), AbortableInputStream.create(body, () -> {
+            try {
+                stream.abort();
+            } finally {
+                release.run();
+            }
+        }));
+    }
+}
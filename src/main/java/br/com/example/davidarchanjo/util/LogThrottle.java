@@ -0,0 +1,42 @@
+package br.com.example.davidarchanjo.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets one log line through per interval and counts the ones held back, so a storm of identical errors costs
+ * a counter increment instead of a formatted line each.
+ */
+public final class LogThrottle {
+
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextAllowed;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogThrottle(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    LogThrottle(Duration interval, LongSupplier clock) {
+        this.intervalNanos = interval.toNanos();
+        this.clock = clock;
+        this.nextAllowed = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Claim the next log line
+     *
+     * @return Lines suppressed since the last one allowed, or -1 if this one should be suppressed too
+     */
+    public long tryAcquire() {
+        long now = clock.getAsLong();
+        long allowed = nextAllowed.get();
+        if (now - allowed >= 0 && nextAllowed.compareAndSet(allowed, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,204 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Output stream that uploads an object of unknown length in parts as it is written.
+ * <p>
+ * Bytes are buffered until a part is full; the multipart upload is only created once the first part is ready,
+ * so output smaller than one part is sent as a single PUT. {@link #close()} completes the upload and
+ * {@link #abort()} discards it. Not thread-safe.
+ */
+public class MultipartUploadOutputStream extends OutputStream {
+
+    /**
+     * Smallest part S3 accepts for every part but the last
+     */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String key;
+    private final String contentType;
+    private final ChecksumType checksumType;
+    private final byte[] buffer;
+    private final List<CompletedPart> parts = new ArrayList<>();
+
+    private int count;
+    private long bytesWritten;
+    private String uploadId;
+    private String eTag;
+    private boolean closed;
+
+    /**
+     * @param checksumType Checksum computed for every part, or null for none
+     */
+    public MultipartUploadOutputStream(
+            S3Client s3Client,
+            String bucketName,
+            String key,
+            String contentType,
+            ChecksumType checksumType,
+            int partSize
+    ) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.contentType = contentType;
+        this.checksumType = checksumType;
+        this.buffer = new byte[Math.max(MIN_PART_SIZE, partSize)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[count++] = (byte) b;
+        bytesWritten++;
+        if (count == buffer.length) {
+            uploadPart();
+        }
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            int chunk = Math.min(length, buffer.length - count);
+            System.arraycopy(source, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+            length -= chunk;
+            bytesWritten += chunk;
+            if (count == buffer.length) {
+                uploadPart();
+            }
+        }
+    }
+
+    /**
+     * Upload what is left and complete the object
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (uploadId == null) {
+                PutObjectRequest.Builder request = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength((long) count);
+                if (checksumType != null) {
+                    request.checksumAlgorithm(checksumType.getAlgorithm());
+                }
+                PutObjectResponse response = s3Client.putObject(request.build(),
+                        RequestBody.fromBytes(Arrays.copyOf(buffer, count)));
+                eTag = response != null ? response.eTag() : null;
+            } else {
+                if (count > 0) {
+                    uploadPart();
+                }
+                CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(
+                        CompleteMultipartUploadRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                                .build());
+                eTag = response != null ? response.eTag() : null;
+            }
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+        closed = true;
+    }
+
+    /**
+     * Discard the parts uploaded so far; the object is never created
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (uploadId != null) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        }
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * ETag of the completed object; null until closed
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    private void uploadPart() {
+        if (uploadId == null) {
+            CreateMultipartUploadRequest.Builder request = CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType);
+            if (checksumType != null) {
+                request.checksumAlgorithm(checksumType.getAlgorithm());
+            }
+            uploadId = s3Client.createMultipartUpload(request.build()).uploadId();
+        }
+
+        int partNumber = parts.size() + 1;
+        UploadPartRequest.Builder request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) count);
+        if (checksumType != null) {
+            request.checksumAlgorithm(checksumType.getAlgorithm());
+        }
+        UploadPartResponse response = s3Client.uploadPart(request.build(),
+                RequestBody.fromBytes(Arrays.copyOf(buffer, count)));
+
+        parts.add(CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .checksumCRC32C(response.checksumCRC32C())
+                .checksumSHA256(response.checksumSHA256())
+                .build());
+        count = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Upload of '" + key + "' is already closed");
+        }
+    }
+}
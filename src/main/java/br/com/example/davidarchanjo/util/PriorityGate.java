@@ -0,0 +1,128 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared pool of slots in which each priority class has its own quota and lower classes yield to higher ones.
+ * <p>
+ * A class gets a slot while the pool has room and the class is under its quota. A lower class also waits while a
+ * higher class is waiting for room in the pool, so under contention freed slots go to the higher class first and the
+ * lower class only runs on what the higher one leaves. Classes are ranked in declaration order.
+ */
+public final class PriorityGate {
+
+    private static final RequestPriority[] CLASSES = RequestPriority.values();
+
+    private final int capacity;
+    private final int[] quotas = new int[CLASSES.length];
+    private final int[] inUse = new int[CLASSES.length];
+    private final int[] waiting = new int[CLASSES.length];
+    private final Condition[] turns = new Condition[CLASSES.length];
+    private final ReentrantLock lock = new ReentrantLock();
+    private int total;
+
+    /**
+     * @param capacity Slots shared by all classes
+     * @param quotas   Most slots each class may hold; a class without a quota may use the whole pool
+     */
+    public PriorityGate(int capacity, Map<RequestPriority, Integer> quotas) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        for (RequestPriority priority : CLASSES) {
+            int quota = quotas.getOrDefault(priority, capacity);
+            this.quotas[priority.ordinal()] = Math.max(1, Math.min(capacity, quota));
+            this.turns[priority.ordinal()] = lock.newCondition();
+        }
+    }
+
+    /**
+     * Take a slot, waiting up to the given time for one
+     *
+     * @return true if a slot was taken; it must be given back with {@link #release(RequestPriority)}
+     */
+    public boolean acquire(RequestPriority priority, long timeoutNanos) throws InterruptedException {
+        int rank = priority.ordinal();
+        lock.lock();
+        try {
+            waiting[rank]++;
+            try {
+                long remaining = timeoutNanos;
+                while (!admissible(rank)) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = turns[rank].awaitNanos(remaining);
+                }
+                inUse[rank]++;
+                total++;
+                return true;
+            } finally {
+                waiting[rank]--;
+                // A waiter leaving, with or without a slot, may unblock another waiter
+                signalNext();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            inUse[priority.ordinal()]--;
+            total--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inUse(RequestPriority priority) {
+        lock.lock();
+        try {
+            return inUse[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int waiting(RequestPriority priority) {
+        lock.lock();
+        try {
+            return waiting[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admissible(int rank) {
+        if (total >= capacity || inUse[rank] >= quotas[rank]) {
+            return false;
+        }
+        for (int higher = 0; higher < rank; higher++) {
+            // Only a higher class held back by the shared pool, not by its own quota, takes precedence
+            if (waiting[higher] > 0 && inUse[higher] < quotas[higher]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wake a waiter of the highest class that could take a slot now
+     */
+    private void signalNext() {
+        for (int rank = 0; rank < CLASSES.length; rank++) {
+            if (waiting[rank] > 0 && admissible(rank)) {
+                turns[rank].signal();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Executor handing each task to the executor of the submitting request's priority class, so bulk work queues on its
+ * own threads instead of ahead of interactive work
+ */
+public class PriorityRoutingExecutor implements AsyncTaskExecutor {
+
+    private final Map<RequestPriority, AsyncTaskExecutor> executors;
+    private final RequestPriority fallback;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param executors         Executor of each class
+     * @param fallback          Class of tasks submitted outside a classified request
+     * @param retryAfterSeconds Retry-After sent when a class has no room for another task
+     */
+    public PriorityRoutingExecutor(
+            Map<RequestPriority, ? extends AsyncTaskExecutor> executors,
+            RequestPriority fallback,
+            long retryAfterSeconds
+    ) {
+        this.executors = new EnumMap<>(executors);
+        this.fallback = fallback;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        RequestPriority current = RequestPriorityContext.get();
+        RequestPriority priority = current != null ? current : fallback;
+        try {
+            executors.get(priority).execute(RequestPriorityContext.wrap(task));
+        } catch (TaskRejectedException e) {
+            throw new ServiceOverloadedException(
+                    "Too many " + priority.getValue() + " transfers in progress", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package br.com.example.davidarchanjo.util;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32C;
+
+/**
+ * Object body reassembled from byte ranges fetched concurrently.
+ * <p>
+ * The leading bytes are read straight from an already open response, which is aborted once they were consumed.
+ * The rest of the object is split into parts fetched in the background; at most {@code window} parts are fetched
+ * or held ahead of the reader, which bounds memory to {@code window * partSize}. Parts are emitted strictly in order,
+ * however they complete.
+ * <p>
+ * Aborting the leading response skips the checksum the SDK validates at its end, so a full-object checksum is
+ * recomputed over the reassembled bytes instead and a mismatch fails the last read.
+ */
+public final class RangedObjectInputStream extends InputStream {
+
+    /**
+     * Fetches one byte range of the object
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+
+        /**
+         * @param start Offset of the first byte
+         * @param end   Offset of the last byte, inclusive
+         * @return Open response streaming the range
+         */
+        ResponseInputStream<?> open(long start, long end) throws IOException;
+    }
+
+    /**
+     * Notified of every range read in full
+     */
+    @FunctionalInterface
+    public interface RangeListener {
+
+        /**
+         * @param bytes Size of the range
+         * @param nanos Time from opening the range to reading its last byte
+         */
+        void fetched(long bytes, long nanos);
+    }
+
+    /**
+     * Full-object checksum recomputed over the bytes emitted
+     */
+    public interface Verifier {
+
+        void update(byte[] bytes, int offset, int length);
+
+        /**
+         * @throws IOException When the object read does not match the stored checksum
+         */
+        void verify() throws IOException;
+
+        /**
+         * @param expected Base64 CRC32C stored with the object
+         */
+        static Verifier crc32c(String expected) {
+            CRC32C crc = new CRC32C();
+            return new Verifier() {
+                @Override
+                public void update(byte[] bytes, int offset, int length) {
+                    crc.update(bytes, offset, length);
+                }
+
+                @Override
+                public void verify() throws IOException {
+                    long value = crc.getValue();
+                    byte[] actual = {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+                    check("CRC32C", expected, actual);
+                }
+            };
+        }
+
+        /**
+         * @param expected Base64 SHA-256 stored with the object
+         */
+        static Verifier sha256(String expected) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+            return new Verifier() {
+                @Override
+                public void update(byte[] bytes, int offset, int length) {
+                    digest.update(bytes, offset, length);
+                }
+
+                @Override
+                public void verify() throws IOException {
+                    check("SHA-256", expected, digest.digest());
+                }
+            };
+        }
+
+        private static void check(String algorithm, String expected, byte[] actual) throws IOException {
+            String computed = Base64.getEncoder().encodeToString(actual);
+            if (!computed.equals(expected)) {
+                throw new IOException(algorithm + " mismatch: object stored with " + expected + ", read " + computed);
+            }
+        }
+    }
+
+    private final ResponseInputStream<?> head;
+    private final long total;
+    private final long partSize;
+    private final int window;
+    private final RangeReader reader;
+    private final RangeListener listener;
+    private final Verifier verifier;
+    private final Executor executor;
+
+    private final Deque<CompletableFuture<byte[]>> ahead = new ArrayDeque<>();
+    private final Set<ResponseInputStream<?>> open = ConcurrentHashMap.newKeySet();
+    private long headRemaining;
+    private long nextOffset;
+    private byte[] current;
+    private int position;
+    private boolean verified;
+    private volatile boolean closed;
+
+    /**
+     * @param head       Open response whose first {@code headLength} bytes start the object
+     * @param headLength Bytes read from {@code head} before switching to ranges
+     * @param total      Object size in bytes
+     * @param partSize   Size of each ranged part
+     * @param window     Parts fetched or buffered ahead of the reader
+     * @param reader     Opens a range
+     * @param listener   Notified of every range read in full
+     * @param verifier   Checks the whole object once read, or null when no full-object checksum is stored
+     * @param executor   Runs range fetches
+     */
+    public RangedObjectInputStream(
+            ResponseInputStream<?> head,
+            long headLength,
+            long total,
+            long partSize,
+            int window,
+            RangeReader reader,
+            RangeListener listener,
+            Verifier verifier,
+            Executor executor
+    ) {
+        if (partSize < 1 || window < 1) {
+            throw new IllegalArgumentException("Part size and window must be positive");
+        }
+        this.head = head;
+        this.headRemaining = headLength;
+        this.total = total;
+        this.partSize = partSize;
+        this.window = window;
+        this.reader = reader;
+        this.listener = listener;
+        this.verifier = verifier;
+        this.executor = executor;
+        this.nextOffset = headLength;
+        // Ranges start downloading while the leading bytes are still streaming
+        fill();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (headRemaining > 0) {
+            int read = head.read(buffer, offset, (int) Math.min(length, headRemaining));
+            if (read == -1) {
+                throw new IOException("Object ended " + headRemaining + " bytes early");
+            }
+            headRemaining -= read;
+            update(buffer, offset, read);
+            if (headRemaining == 0) {
+                // The rest of this response is served by ranges; drop the connection instead of draining it
+                head.abort();
+            }
+            return read;
+        }
+        while (current == null || position == current.length) {
+            if (!nextPart()) {
+                verify();
+                return -1;
+            }
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        update(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (headRemaining > 0) {
+            head.abort();
+        }
+        // Drop the connections of ranges still streaming; parts not yet started see the flag and skip their GET
+        open.forEach(ResponseInputStream::abort);
+        ahead.clear();
+        current = null;
+    }
+
+    private void update(byte[] buffer, int offset, int length) {
+        if (verifier != null) {
+            verifier.update(buffer, offset, length);
+        }
+    }
+
+    private void verify() throws IOException {
+        if (verifier != null && !verified) {
+            verified = true;
+            verifier.verify();
+        }
+    }
+
+    private boolean nextPart() throws IOException {
+        CompletableFuture<byte[]> next = ahead.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = next.get();
+            position = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for object range");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("Range fetch failed", cause);
+        }
+        fill();
+        return true;
+    }
+
+    private void fill() {
+        while (ahead.size() < window && nextOffset < total) {
+            long start = nextOffset;
+            long end = Math.min(total, start + partSize) - 1;
+            nextOffset = end + 1;
+            ahead.add(CompletableFuture.supplyAsync(() -> fetch(start, end), executor));
+        }
+    }
+
+    private byte[] fetch(long start, long end) {
+        if (closed) {
+            return new byte[0];
+        }
+        long began = System.nanoTime();
+        try (ResponseInputStream<?> range = reader.open(start, end)) {
+            open.add(range);
+            try {
+                if (closed) {
+                    // Closed while the range was opening, after close() aborted the others
+                    range.abort();
+                    return new byte[0];
+                }
+                byte[] bytes = range.readAllBytes();
+                if (bytes.length != end - start + 1) {
+                    throw new IOException("Range " + start + "-" + end + " returned " + bytes.length + " bytes");
+                }
+                listener.fetched(bytes.length, System.nanoTime() - began);
+                return bytes;
+            } finally {
+                open.remove(range);
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+
+/**
+ * Priority class of the request the current thread works for.
+ * <p>
+ * Set by the request filter on the servlet thread and carried to executor threads by {@link #wrap(Runnable)}, so
+ * the backend calls a request fans out are charged to its class.
+ */
+public final class RequestPriorityContext {
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    private RequestPriorityContext() {
+        // Utility class
+    }
+
+    /**
+     * @return Priority of the current request, or null when none was chosen for it
+     */
+    public static RequestPriority get() {
+        return CURRENT.get();
+    }
+
+    public static void set(RequestPriority priority) {
+        CURRENT.set(priority);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Bind a task to the priority of the thread submitting it
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestPriority priority = CURRENT.get();
+        if (priority == null) {
+            return task;
+        }
+        return () -> {
+            RequestPriority previous = CURRENT.get();
+            CURRENT.set(priority);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
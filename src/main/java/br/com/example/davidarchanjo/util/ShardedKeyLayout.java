@@ -0,0 +1,143 @@
+package br.com.example.davidarchanjo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Maps logical keys to physical keys carrying a hash shard folder, and back.
+ * <p>
+ * The shard folder ({@code _} followed by a fixed number of hex digits) is inserted after the first {@code depth}
+ * folders of a key, so {@code client-1/dev/photos/cat.jpg} becomes {@code client-1/dev/_3a/photos/cat.jpg} at depth
+ * 2. The shard is a hash of the whole logical key. Keys with fewer than {@code depth} folders, and keys of the
+ * content-addressed store, are stored as given.
+ */
+public final class ShardedKeyLayout {
+
+    private static final char MARKER = '_';
+
+    private final int shardCount;
+    private final int depth;
+    private final int width;
+
+    /**
+     * @param shardCount Number of shards, between 1 and 4096
+     * @param depth      Folders kept above the shard folder
+     */
+    public ShardedKeyLayout(int shardCount, int depth) {
+        if (shardCount < 1 || shardCount > 4096) {
+            throw new IllegalArgumentException("Shard count must be between 1 and 4096: " + shardCount);
+        }
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + depth);
+        }
+        this.shardCount = shardCount;
+        this.depth = depth;
+        this.width = Math.max(1, Integer.toHexString(shardCount - 1).length());
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard a logical key is stored in
+     */
+    public int shardOf(String logicalKey) {
+        CRC32 crc = new CRC32();
+        crc.update(logicalKey.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    public String toPhysical(String logicalKey) {
+        int split = splitIndex(logicalKey);
+        if (split < 0 || ContentAddress.isInternal(logicalKey)) {
+            return logicalKey;
+        }
+        return insert(logicalKey, split, shardOf(logicalKey));
+    }
+
+    /**
+     * Strip the shard folder of a physical object key. Keys whose shard folder does not match their hash were not
+     * written through this layout and are returned as given.
+     */
+    public String toLogical(String physicalKey) {
+        String logical = stripShard(physicalKey);
+        return logical != null && toPhysical(logical).equals(physicalKey) ? logical : physicalKey;
+    }
+
+    /**
+     * Strip the shard folder of a physical folder prefix returned by a sharded listing
+     */
+    public String toLogicalPrefix(String physicalPrefix) {
+        String logical = stripShard(physicalPrefix);
+        return logical != null ? logical : physicalPrefix;
+    }
+
+    /**
+     * Whether a listing of a logical prefix has to visit every shard: true once the prefix names all the folders
+     * above the shard folder
+     */
+    public boolean spansShards(String logicalPrefix) {
+        return splitIndex(logicalPrefix) >= 0 && !ContentAddress.isInternal(logicalPrefix);
+    }
+
+    /**
+     * Physical form of a logical prefix, or of a key, within one shard
+     */
+    public String inShard(String logical, int shard) {
+        return insert(logical, splitIndex(logical), shard);
+    }
+
+    /**
+     * Physical prefixes to list, one per shard, for a logical prefix that spans shards
+     */
+    public List<String> shardPrefixes(String logicalPrefix) {
+        List<String> prefixes = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            prefixes.add(inShard(logicalPrefix, shard));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Index just past the folders above the shard folder, or -1 if the key has fewer folders
+     */
+    private int splitIndex(String key) {
+        int end = 0;
+        for (int i = 0; i < depth; i++) {
+            int slash = key.indexOf('/', end);
+            if (slash < 0) {
+                return -1;
+            }
+            end = slash + 1;
+        }
+        return end;
+    }
+
+    private String insert(String key, int split, int shard) {
+        String hex = Integer.toHexString(shard);
+        StringBuilder physical = new StringBuilder(key.length() + width + 2)
+                .append(key, 0, split)
+                .append(MARKER);
+        for (int i = hex.length(); i < width; i++) {
+            physical.append('0');
+        }
+        return physical.append(hex).append('/').append(key, split, key.length()).toString();
+    }
+
+    private String stripShard(String physical) {
+        int split = splitIndex(physical);
+        int end = split + width + 1;
+        if (split < 0 || physical.length() <= end || physical.charAt(split) != MARKER || physical.charAt(end) != '/') {
+            return null;
+        }
+        for (int i = split + 1; i < end; i++) {
+            if (Character.digit(physical.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return physical.substring(0, split) + physical.substring(end + 1);
+    }
+}
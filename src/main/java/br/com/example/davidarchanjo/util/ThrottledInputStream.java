@@ -0,0 +1,82 @@
+package br.com.example.davidarchanjo.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream that paces the bytes read through it.
+ * <p>
+ * Reads are capped at a chunk size, so a caller asking for a large buffer still waits in small steps and streams
+ * sharing a rate take turns instead of one holding it for a whole buffer. Skipped bytes count as read, as they
+ * are transferred all the same.
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final int chunkSize;
+    private final Pacer pacer;
+    private final Runnable onClose;
+    private boolean closed;
+
+    /**
+     * @param in        Stream to pace
+     * @param chunkSize Most bytes handed out per read
+     * @param pacer     Called with the size of every chunk read, blocking until the rate allows it
+     * @param onClose   Run once when the stream is closed
+     */
+    public ThrottledInputStream(InputStream in, int chunkSize, Pacer pacer, Runnable onClose) {
+        super(in);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pacer = pacer;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            pacer.pace(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, Math.min(len, chunkSize));
+        if (n > 0) {
+            pacer.pace(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, chunkSize));
+        if (skipped > 0) {
+            pacer.pace(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            onClose.run();
+        }
+    }
+
+    /**
+     * Blocks a reader until the bytes it read are allowed
+     */
+    @FunctionalInterface
+    public interface Pacer {
+
+        void pace(long bytes) throws IOException;
+    }
+}
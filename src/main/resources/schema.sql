@@ -0,0 +1,35 @@
+-- Metadata catalog of objects written through the gateway
+CREATE TABLE IF NOT EXISTS object_catalog (
+    bucket_name   VARCHAR(63)   NOT NULL,
+    object_key    VARCHAR(1024) NOT NULL,
+    client_id     VARCHAR(255),
+    environment   VARCHAR(16),
+    size_bytes    BIGINT        NOT NULL,
+    content_type  VARCHAR(255),
+    etag          VARCHAR(128),
+    last_modified TIMESTAMP     NOT NULL,
+    indexed_at    TIMESTAMP     NOT NULL,
+    PRIMARY KEY (bucket_name, object_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_tenant_modified ON object_catalog (client_id, environment, last_modified);
+CREATE INDEX IF NOT EXISTS idx_catalog_bucket_modified ON object_catalog (bucket_name, last_modified);
+CREATE INDEX IF NOT EXISTS idx_catalog_bucket_size ON object_catalog (bucket_name, size_bytes);
+
+-- Ordered journal of changes made through the gateway; seq is the feed cursor
+CREATE TABLE IF NOT EXISTS change_journal (
+    seq           BIGINT        AUTO_INCREMENT PRIMARY KEY,
+    bucket_name   VARCHAR(63)   NOT NULL,
+    object_key    VARCHAR(1024) NOT NULL,
+    change_type   VARCHAR(16)   NOT NULL,
+    size_bytes    BIGINT        NOT NULL,
+    content_type  VARCHAR(255),
+    etag          VARCHAR(128),
+    occurred_at   TIMESTAMP     NOT NULL
+);
+
+-- Hands out journal cursors; it outlives pruning, so a cursor is never reused once the journal empties
+CREATE SEQUENCE IF NOT EXISTS change_journal_cursor;
+
+CREATE INDEX IF NOT EXISTS idx_journal_bucket_seq ON change_journal (bucket_name, seq);
+CREATE INDEX IF NOT EXISTS idx_journal_occurred ON change_journal (occurred_at);
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -44,6 +45,20 @@ class GlobalExceptionHandlerTest {
         when(request.getRequestURI()).thenReturn(TEST_URI);
     }
 
+    @Test
+    void testHandleServiceOverloadedException() {
+        ServiceOverloadedException exception = new ServiceOverloadedException("Storage backend is overloaded", 2);
+
+        ResponseEntity<ErrorResponse> response =
+                exceptionHandler.handleServiceOverloadedException(exception, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, response.getBody().getStatus());
+        assertEquals(TEST_URI, response.getBody().getPath());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
     @Test
     void testHandleFileNotFoundException() {
         String fileName = "test.pdf";
@@ -60,6 +75,31 @@ class GlobalExceptionHandlerTest {
         assertTrue(response.getBody().getMessage().contains(bucketName));
         assertEquals(TEST_URI, response.getBody().getPath());
         assertNotNull(response.getBody().getTimestamp());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void testHandleContentNotFoundException() {
+        String digest = "ab".repeat(32);
+        ContentNotFoundException exception = new ContentNotFoundException(digest, "test-bucket");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleContentNotFoundException(exception, request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().getMessage().contains(digest));
+        assertEquals(TEST_URI, response.getBody().getPath());
+    }
+
+    @Test
+    void testHandleExportJobNotFoundException() {
+        ExportJobNotFoundException exception = new ExportJobNotFoundException("job-1");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleExportJobNotFoundException(exception, request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().getMessage().contains("job-1"));
     }
 
     @Test
@@ -190,6 +230,18 @@ class GlobalExceptionHandlerTest {
         assertEquals("An unexpected error occurred", response.getBody().getMessage());
     }
 
+    @Test
+    void testHandleInvalidRequestException() {
+        InvalidRequestException exception = new InvalidRequestException("Unknown archive format: rar");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidRequestException(exception, request);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(400, response.getBody().getStatus());
+        assertEquals("Unknown archive format: rar", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleGenericException_IllegalArgumentException() {
         Exception exception = new IllegalArgumentException("Invalid argument");
@@ -0,0 +1,220 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ArchiveCompression;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ArchiveDownloadServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class ArchiveDownloadServiceImplTest {
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    private StorageProperties storageProperties;
+    private ExecutorService executor;
+    private ArchiveDownloadServiceImpl archiveService;
+
+    private static final String TEST_BUCKET = "test-bucket";
+    private static final String PREFIX = "client-001/prod/reports/";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        executor = Executors.newFixedThreadPool(4);
+        archiveService = new ArchiveDownloadServiceImpl(storageService, storageProperties, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void givenObjects(Map<String, byte[]> objects) {
+        when(storageService.listObjects(TEST_BUCKET, PREFIX)).thenAnswer(invocation -> objects.entrySet().stream()
+                .map(entry -> ObjectSummary.builder()
+                        .key(entry.getKey())
+                        .size(entry.getValue().length)
+                        .lastModified(Instant.parse("2025-01-01T00:00:00Z"))
+                        .build()));
+        lenient().when(storageService.openObject(eq(TEST_BUCKET), anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(1);
+            byte[] content = objects.get(key);
+            return ObjectContent.builder()
+                    .bucketName(TEST_BUCKET)
+                    .key(key)
+                    .contentLength((long) content.length)
+                    .content(new ByteArrayInputStream(content))
+                    .build();
+        });
+    }
+
+    @Test
+    void testWriteArchive_Zip_ContainsAllObjectsInOrder() throws IOException {
+        Map<String, byte[]> objects = new LinkedHashMap<>();
+        objects.put(PREFIX + "a.csv", "a,b,c".getBytes(StandardCharsets.UTF_8));
+        objects.put(PREFIX + "2025/b.json", "{\"x\":1}".getBytes(StandardCharsets.UTF_8));
+        objects.put(PREFIX + "photo.jpg", new byte[]{1, 2, 3, 4});
+        givenObjects(objects);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.ZIP, ArchiveCompression.AUTO, output);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ZipEntry entry = zip.getNextEntry();
+            assertEquals("a.csv", entry.getName());
+            assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+            assertArrayEquals("a,b,c".getBytes(StandardCharsets.UTF_8), zip.readAllBytes());
+
+            entry = zip.getNextEntry();
+            assertEquals("2025/b.json", entry.getName());
+
+            entry = zip.getNextEntry();
+            assertEquals("photo.jpg", entry.getName());
+            assertEquals(ZipEntry.STORED, entry.getMethod());
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, zip.readAllBytes());
+
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void testWriteArchive_LargeObjectsStreamedDirectly() throws IOException {
+        storageProperties.getArchive().setPrefetchMaxObjectMb(0);
+        Map<String, byte[]> objects = new LinkedHashMap<>();
+        objects.put(PREFIX + "big-1.bin", new byte[]{9, 9});
+        objects.put(PREFIX + "big-2.bin", new byte[]{8});
+        givenObjects(objects);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.ZIP, ArchiveCompression.STORE, output);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("big-1.bin", zip.getNextEntry().getName());
+            assertArrayEquals(new byte[]{9, 9}, zip.readAllBytes());
+            assertEquals("big-2.bin", zip.getNextEntry().getName());
+            assertArrayEquals(new byte[]{8}, zip.readAllBytes());
+        }
+        verify(storageService, times(2)).openObject(eq(TEST_BUCKET), anyString());
+    }
+
+    @Test
+    void testWriteArchive_Tar_ContainsAllObjects() throws IOException {
+        Map<String, byte[]> objects = new LinkedHashMap<>();
+        objects.put(PREFIX + "one.txt", "one".getBytes(StandardCharsets.UTF_8));
+        objects.put(PREFIX + "two.txt", "two!".getBytes(StandardCharsets.UTF_8));
+        givenObjects(objects);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.TAR, ArchiveCompression.AUTO, output);
+
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            TarArchiveEntry entry = tar.getNextEntry();
+            assertEquals("one.txt", entry.getName());
+            assertEquals(3, entry.getSize());
+            assertArrayEquals("one".getBytes(StandardCharsets.UTF_8), tar.readAllBytes());
+
+            entry = tar.getNextEntry();
+            assertEquals("two.txt", entry.getName());
+            assertArrayEquals("two!".getBytes(StandardCharsets.UTF_8), tar.readAllBytes());
+
+            assertNull(tar.getNextEntry());
+        }
+    }
+
+    @Test
+    void testWriteArchive_ObjectDeletedAfterListing_IsSkipped() throws IOException {
+        Map<String, byte[]> objects = new LinkedHashMap<>();
+        objects.put(PREFIX + "gone.txt", "x".getBytes(StandardCharsets.UTF_8));
+        objects.put(PREFIX + "kept.txt", "y".getBytes(StandardCharsets.UTF_8));
+        givenObjects(objects);
+        when(storageService.openObject(TEST_BUCKET, PREFIX + "gone.txt"))
+                .thenThrow(new FileNotFoundException(PREFIX + "gone.txt", TEST_BUCKET));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.ZIP, ArchiveCompression.DEFLATE, output);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("kept.txt", zip.getNextEntry().getName());
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void testWriteArchive_BodyLargerThanListedIsStreamedPastItsReservation() throws IOException {
+        byte[] blob = "deduplicated body".getBytes(StandardCharsets.UTF_8);
+        when(storageService.listObjects(TEST_BUCKET, PREFIX)).thenAnswer(invocation -> Stream.of(
+                ObjectSummary.builder().key(PREFIX + "ref.txt").size(0).build()));
+        when(storageService.openObject(TEST_BUCKET, PREFIX + "ref.txt")).thenReturn(ObjectContent.builder()
+                .bucketName(TEST_BUCKET)
+                .key(PREFIX + "ref.txt")
+                .contentLength((long) blob.length)
+                .content(new ByteArrayInputStream(blob))
+                .build());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.ZIP, ArchiveCompression.DEFLATE, output);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("ref.txt", zip.getNextEntry().getName());
+            assertArrayEquals(blob, zip.readAllBytes());
+        }
+        verify(storageService, times(1)).openObject(TEST_BUCKET, PREFIX + "ref.txt");
+    }
+
+    @Test
+    void testWriteArchive_Tar_UnknownLengthIsCountedThenReopened() throws IOException {
+        storageProperties.getArchive().setPrefetchMaxObjectMb(0);
+        byte[] body = "decompressed on the fly".getBytes(StandardCharsets.UTF_8);
+        when(storageService.listObjects(TEST_BUCKET, PREFIX)).thenAnswer(invocation -> Stream.of(
+                ObjectSummary.builder().key(PREFIX + "log.txt").size(5).build()));
+        when(storageService.openObject(TEST_BUCKET, PREFIX + "log.txt")).thenAnswer(invocation -> ObjectContent.builder()
+                .bucketName(TEST_BUCKET)
+                .key(PREFIX + "log.txt")
+                .content(new ByteArrayInputStream(body))
+                .build());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        archiveService.writeArchive(TEST_BUCKET, PREFIX, ArchiveFormat.TAR, ArchiveCompression.AUTO, output);
+
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            TarArchiveEntry entry = tar.getNextEntry();
+            assertEquals("log.txt", entry.getName());
+            assertEquals(body.length, entry.getSize());
+            assertArrayEquals(body, tar.readAllBytes());
+        }
+        verify(storageService, times(2)).openObject(TEST_BUCKET, PREFIX + "log.txt");
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Unit tests for BandwidthServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class BandwidthServiceImplTest {
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final double MB = 1024 * 1024;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private BandwidthServiceImpl bandwidthService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        settings.setEnabled(true);
+        settings.setTotalMbPerSecond(100);
+        meterRegistry = new SimpleMeterRegistry();
+        bandwidthService = new BandwidthServiceImpl(storageProperties, bucketManagementService, meterRegistry);
+
+        lenient().when(bucketManagementService.resolveTenant(eq(TEST_BUCKET), anyString())).thenAnswer(invocation -> {
+            String[] segments = invocation.<String>getArgument(1).split("/", 2);
+            return segments.length < 2
+                    ? Optional.empty()
+                    : Optional.of(TenantLocation.builder().clientId(segments[0]).build());
+        });
+    }
+
+    @Test
+    void testThrottle_DisabledReturnsStreamItself() {
+        storageProperties.getBandwidth().setEnabled(false);
+        InputStream stream = body(10);
+
+        assertSame(stream, bandwidthService.throttle(TEST_BUCKET, "client-1/a.txt", S3OperationType.READ, stream));
+        assertEquals(-1, bandwidthService.rate("client-1"));
+    }
+
+    @Test
+    void testThrottle_SplitsTotalAmongActiveTenantsByWeight() {
+        tenant("client-1", null, 3.0);
+
+        open("client-1/a.txt");
+        assertEquals(100 * MB, bandwidthService.rate("client-1"), 1);
+
+        open("client-2/b.txt");
+        assertEquals(75 * MB, bandwidthService.rate("client-1"), 1);
+        assertEquals(25 * MB, bandwidthService.rate("client-2"), 1);
+
+        // A second stream of the same tenant does not enlarge its share
+        open("client-2/c.txt");
+        assertEquals(25 * MB, bandwidthService.rate("client-2"), 1);
+        assertEquals(2.0, meterRegistry.get("storage.bandwidth.active.tenants").gauge().value());
+    }
+
+    @Test
+    void testThrottle_CappedTenantLeavesItsRemainderToOthers() throws IOException {
+        tenant("client-1", 10.0, null);
+
+        open("client-1/a.txt");
+        InputStream second = open("client-2/b.txt");
+        open("client-3/c.txt");
+
+        assertEquals(10 * MB, bandwidthService.rate("client-1"), 1);
+        assertEquals(45 * MB, bandwidthService.rate("client-2"), 1);
+        assertEquals(45 * MB, bandwidthService.rate("client-3"), 1);
+
+        second.close();
+        second.close();
+        assertEquals(10 * MB, bandwidthService.rate("client-1"), 1);
+        assertEquals(90 * MB, bandwidthService.rate("client-3"), 1);
+    }
+
+    @Test
+    void testThrottle_WithoutTotalAppliesTenantLimitsOnly() {
+        StorageProperties.Bandwidth settings = storageProperties.getBandwidth();
+        settings.setTotalMbPerSecond(0);
+        settings.setTenantMbPerSecond(50);
+        tenant("client-2", 0.0, null);
+
+        open("client-1/a.txt");
+        open("client-2/b.txt");
+
+        assertEquals(50 * MB, bandwidthService.rate("client-1"), 1);
+        assertEquals(0, bandwidthService.rate("client-2"));
+    }
+
+    @Test
+    void testThrottle_RecordsBytesAndWaitPerTenant() throws IOException {
+        try (InputStream stream = bandwidthService.throttle(TEST_BUCKET, "loose-file.txt",
+                S3OperationType.WRITE, body(4096))) {
+            assertEquals(4096, stream.readAllBytes().length);
+        }
+
+        assertEquals(4096, meterRegistry.get("storage.bandwidth.bytes")
+                .tags("tenant", BandwidthServiceImpl.OTHER_TENANT, "operation", "write")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("storage.bandwidth.throttle.wait")
+                .tags("tenant", BandwidthServiceImpl.OTHER_TENANT, "operation", "write")
+                .timer().count());
+        assertEquals(0.0, meterRegistry.get("storage.bandwidth.active.tenants").gauge().value());
+    }
+
+    @Test
+    void testThrottle_IdleTenants_DroppedWithTheirMeters() throws IOException {
+        storageProperties.getBandwidth().setMaxIdleTenants(1);
+
+        open("client-1/a.txt").close();
+        open("client-2/b.txt").close();
+        InputStream active = open("client-3/c.txt");
+
+        // client-1 was idle longest and went beyond the one idle tenant kept; client-3 is busy
+        assertEquals(-1, bandwidthService.rate("client-1"));
+        assertTrue(bandwidthService.rate("client-2") >= 0);
+        assertTrue(bandwidthService.rate("client-3") > 0);
+        assertTrue(meterRegistry.find("storage.bandwidth.rate").tag("tenant", "client-1").meters().isEmpty());
+        assertTrue(meterRegistry.find("storage.bandwidth.bytes").tag("tenant", "client-1").meters().isEmpty());
+
+        storageProperties.getBandwidth().setIdleExpiryMs(0);
+        active.close();
+
+        assertEquals(-1, bandwidthService.rate("client-2"));
+        assertEquals(-1, bandwidthService.rate("client-3"));
+        assertTrue(meterRegistry.find("storage.bandwidth.rate").meters().isEmpty());
+    }
+
+    private InputStream open(String key) {
+        return bandwidthService.throttle(TEST_BUCKET, key, S3OperationType.READ, body(10));
+    }
+
+    private void tenant(String clientId, Double mbPerSecond, Double weight) {
+        StorageProperties.Bandwidth.Tenant tenant = new StorageProperties.Bandwidth.Tenant();
+        tenant.setMbPerSecond(mbPerSecond);
+        tenant.setWeight(weight);
+        storageProperties.getBandwidth().getTenants().put(clientId, tenant);
+    }
+
+    private static InputStream body(int size) {
+        return new ByteArrayInputStream(new byte[size]);
+    }
+}
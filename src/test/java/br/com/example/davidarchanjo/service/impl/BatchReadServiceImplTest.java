@@ -0,0 +1,152 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.BatchStatEntry;
+import br.com.example.davidarchanjo.dto.BatchStatResponse;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectStat;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BatchReadServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchReadServiceImplTest {
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    @Mock
+    private ObjectStatService objectStatService;
+
+    private StorageProperties storageProperties;
+    private BatchReadServiceImpl batchReadService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final String BOUNDARY = "test-boundary";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        batchReadService = new BatchReadServiceImpl(storageService, objectStatService, storageProperties,
+                new SyncTaskExecutor());
+    }
+
+    @Test
+    void testStat_ReportsEachKeyInRequestOrder() {
+        when(objectStatService.stat(TEST_BUCKET, "a.jpg")).thenReturn(stat("a.jpg", 10));
+        when(objectStatService.stat(TEST_BUCKET, "b.jpg")).thenThrow(new FileNotFoundException("b.jpg", TEST_BUCKET));
+        when(objectStatService.stat(TEST_BUCKET, "c.jpg")).thenThrow(new StorageException("Access denied"));
+
+        BatchStatResponse response = batchReadService.stat(TEST_BUCKET, List.of("a.jpg", "b.jpg", "c.jpg"));
+
+        assertEquals(1, response.getFound());
+        assertEquals(1, response.getMissing());
+        assertEquals(1, response.getFailed());
+        assertEquals(List.of(200, 404, 500), response.getEntries().stream().map(BatchStatEntry::getStatus).toList());
+        assertEquals(10L, response.getEntries().get(0).getMetadata().getSize());
+    }
+
+    @Test
+    void testStat_KeepsAtMostWindowLookupsInFlight() {
+        storageProperties.getBatchRead().setStatWindow(2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        batchReadService = new BatchReadServiceImpl(storageService, objectStatService, storageProperties,
+                task -> new Thread(task).start());
+        List<String> keys = IntStream.range(0, 10).mapToObj(i -> "key-" + i).toList();
+        keys.forEach(key -> when(objectStatService.stat(TEST_BUCKET, key)).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return stat(key, 1);
+        }));
+
+        BatchStatResponse response = batchReadService.stat(TEST_BUCKET, keys);
+
+        assertEquals(keys, response.getEntries().stream().map(BatchStatEntry::getKey).toList());
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    void testStat_TooManyKeys_ThrowsException() {
+        storageProperties.getBatchRead().setMaxStatKeys(2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> batchReadService.stat(TEST_BUCKET, Collections.nCopies(3, "a.jpg")));
+    }
+
+    @Test
+    void testFetch_WritesOnePartPerDistinctKey() throws Exception {
+        when(storageService.openObject(TEST_BUCKET, "a.jpg")).thenReturn(content("a.jpg", "image-a"));
+        when(storageService.openObject(TEST_BUCKET, "missing.jpg"))
+                .thenThrow(new FileNotFoundException("missing.jpg", TEST_BUCKET));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batchReadService.fetch(TEST_BUCKET, List.of("a.jpg", "missing.jpg", "a.jpg"), BOUNDARY, output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        assertEquals(3, body.split("--" + BOUNDARY, -1).length - 1);
+        assertTrue(body.contains("Content-Location: a.jpg\r\nX-Object-Status: 200\r\n"));
+        assertTrue(body.contains("Content-Length: 7\r\n"));
+        assertTrue(body.contains("\r\n\r\nimage-a\r\n"));
+        assertTrue(body.contains("Content-Location: missing.jpg\r\nX-Object-Status: 404\r\n"));
+        assertTrue(body.endsWith("--" + BOUNDARY + "--\r\n"));
+        verify(storageService, times(1)).openObject(TEST_BUCKET, "a.jpg");
+    }
+
+    @Test
+    void testFetch_OversizedObject_ReturnsErrorPart() throws Exception {
+        storageProperties.getBatchRead().setMaxObjectSizeKb(1);
+        when(storageService.openObject(TEST_BUCKET, "big.jpg")).thenReturn(content("big.jpg", "x".repeat(2048)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batchReadService.fetch(TEST_BUCKET, List.of("big.jpg"), BOUNDARY, output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        assertTrue(body.contains("X-Object-Status: 413"));
+        assertFalse(body.contains("xxxx"));
+    }
+
+    private ObjectStat stat(String key, long size) {
+        return ObjectStat.builder()
+                .bucketName(TEST_BUCKET)
+                .key(key)
+                .size(size)
+                .storedSize(size)
+                .build();
+    }
+
+    private ObjectContent content(String key, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return ObjectContent.builder()
+                .bucketName(TEST_BUCKET)
+                .key(key)
+                .contentLength((long) bytes.length)
+                .contentType("image/jpeg")
+                .content(new ByteArrayInputStream(bytes))
+                .build();
+    }
+}
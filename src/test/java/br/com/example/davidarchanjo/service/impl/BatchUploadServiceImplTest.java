@@ -0,0 +1,246 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.BatchUploadEntryResult;
+import br.com.example.davidarchanjo.dto.BatchUploadResponse;
+import br.com.example.davidarchanjo.enumeration.ArchiveFormat;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.FileUploadException;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchUploadServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchUploadServiceImplTest {
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    @Mock
+    private MemoryBudgetService memoryBudgetService;
+
+    private StorageProperties storageProperties;
+    private ExecutorService executor;
+    private BatchUploadServiceImpl batchUploadService;
+
+    private static final String TEST_BUCKET = "test-bucket";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        executor = Executors.newFixedThreadPool(4);
+        batchUploadService = new BatchUploadServiceImpl(storageService, storageProperties, executor, memoryBudgetService);
+
+        lenient().when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        lenient().when(storageService.putObject(eq(TEST_BUCKET), anyString(), anyLong(), any(), any(InputStream.class)))
+                .thenAnswer(invocation -> ObjectWriteResult.builder()
+                        .bucketName(TEST_BUCKET)
+                        .key(invocation.getArgument(1))
+                        .size(invocation.getArgument(2))
+                        .eTag("\"etag\"")
+                        .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testUploadFiles_AllSucceed_ReturnsManifestInOrder() {
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.txt", "text/plain", "alpha".getBytes()),
+                new MockMultipartFile("files", "b.txt", "text/plain", "beta".getBytes()),
+                new MockMultipartFile("files", "c.txt", "text/plain", "gamma".getBytes())
+        );
+
+        BatchUploadResponse response = batchUploadService.uploadFiles(TEST_BUCKET, "imports", files);
+
+        assertEquals(3, response.getTotalEntries());
+        assertEquals(3, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertEquals(List.of("imports/a.txt", "imports/b.txt", "imports/c.txt"),
+                response.getEntries().stream().map(BatchUploadEntryResult::getFileName).toList());
+        verify(storageService, times(1)).bucketExists(TEST_BUCKET);
+        verify(storageService, times(3)).putObject(eq(TEST_BUCKET), anyString(), anyLong(), any(), any(InputStream.class));
+    }
+
+    @Test
+    void testUploadFiles_BucketNotFound_ThrowsException() {
+        when(storageService.bucketExists(TEST_BUCKET)).thenReturn(false);
+
+        assertThrows(BucketNotFoundException.class, () ->
+                batchUploadService.uploadFiles(TEST_BUCKET, null, List.of()));
+
+        verify(storageService, never()).putObject(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testUploadFiles_PartialFailure_RecordsErrorPerEntry() {
+        when(storageService.putObject(eq(TEST_BUCKET), eq("bad.txt"), anyLong(), any(), any(InputStream.class)))
+                .thenThrow(new FileUploadException("Access denied"));
+
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "good.txt", "text/plain", "ok".getBytes()),
+                new MockMultipartFile("files", "bad.txt", "text/plain", "nope".getBytes())
+        );
+
+        BatchUploadResponse response = batchUploadService.uploadFiles(TEST_BUCKET, null, files);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertTrue(response.getEntries().get(0).isSuccess());
+        assertFalse(response.getEntries().get(1).isSuccess());
+        assertEquals("Access denied", response.getEntries().get(1).getError());
+    }
+
+    @Test
+    void testUploadFiles_PathTraversal_RejectedWithoutUpload() {
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "../../etc/passwd", "text/plain", "x".getBytes())
+        );
+
+        BatchUploadResponse response = batchUploadService.uploadFiles(TEST_BUCKET, "imports", files);
+
+        assertEquals(1, response.getFailed());
+        verify(storageService, never()).putObject(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testUploadFiles_ExceedsMaxEntries_Truncates() {
+        storageProperties.getBatch().setMaxEntries(2);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "1.txt", "text/plain", "1".getBytes()),
+                new MockMultipartFile("files", "2.txt", "text/plain", "2".getBytes()),
+                new MockMultipartFile("files", "3.txt", "text/plain", "3".getBytes())
+        );
+
+        BatchUploadResponse response = batchUploadService.uploadFiles(TEST_BUCKET, null, files);
+
+        assertTrue(response.isTruncated());
+        assertEquals(2, response.getTotalEntries());
+    }
+
+    @Test
+    void testUploadArchive_Zip_UploadsFileEntriesOnly() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("docs/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("docs/readme.txt"));
+            zip.write("hello".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("image.png"));
+            zip.write(new byte[]{1, 2, 3});
+            zip.closeEntry();
+        }
+
+        BatchUploadResponse response = batchUploadService.uploadArchive(
+                TEST_BUCKET, null, ArchiveFormat.ZIP, new ByteArrayInputStream(archive.toByteArray()), null);
+
+        assertEquals(2, response.getTotalEntries());
+        assertEquals(2, response.getSucceeded());
+        verify(storageService).putObject(eq(TEST_BUCKET), eq("docs/readme.txt"), eq(5L), eq("text/plain"), any(InputStream.class));
+        verify(storageService).putObject(eq(TEST_BUCKET), eq("image.png"), eq(3L), eq("image/png"), any(InputStream.class));
+    }
+
+    @Test
+    void testUploadArchive_Tar_OversizedEntryRejected() throws IOException {
+        storageProperties.getBatch().setMaxEntrySizeMb(1);
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        byte[] large = new byte[1024 * 1024 + 1];
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(archive)) {
+            TarArchiveEntry smallEntry = new TarArchiveEntry("small.txt");
+            smallEntry.setSize(small.length);
+            tar.putArchiveEntry(smallEntry);
+            tar.write(small);
+            tar.closeArchiveEntry();
+
+            TarArchiveEntry largeEntry = new TarArchiveEntry("large.bin");
+            largeEntry.setSize(large.length);
+            tar.putArchiveEntry(largeEntry);
+            tar.write(large);
+            tar.closeArchiveEntry();
+        }
+
+        BatchUploadResponse response = batchUploadService.uploadArchive(
+                TEST_BUCKET, "imports", ArchiveFormat.TAR, new ByteArrayInputStream(archive.toByteArray()), null);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals("imports/small.txt", response.getEntries().get(0).getFileName());
+        verify(storageService, times(1)).putObject(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testUploadArchive_ChargesBufferedEntriesNotContentLength() throws IOException {
+        storageProperties.getBatch().setMaxInFlight(2);
+        storageProperties.getBatch().setMaxEntrySizeMb(1);
+        MemoryBudgetService.Reservation reservation = mock(MemoryBudgetService.Reservation.class);
+        when(memoryBudgetService.reserve(anyLong())).thenReturn(reservation);
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("a.txt"));
+            zip.write("a".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        byte[] bytes = archive.toByteArray();
+
+        batchUploadService.uploadArchive(
+                TEST_BUCKET, null, ArchiveFormat.ZIP, new ByteArrayInputStream(bytes), 10L * 1024 * 1024 * 1024);
+        batchUploadService.uploadArchive(
+                TEST_BUCKET, null, ArchiveFormat.ZIP, new ByteArrayInputStream(bytes), (long) bytes.length);
+        batchUploadService.uploadArchive(TEST_BUCKET, null, ArchiveFormat.ZIP, new ByteArrayInputStream(bytes), null);
+
+        verify(memoryBudgetService, times(2)).reserve(2L * 1024 * 1024);
+        verify(memoryBudgetService).reserve(bytes.length);
+        verify(reservation, times(3)).close();
+    }
+
+    @Test
+    void testMaxInFlight_DefaultFitsInQuarterOfHeap() {
+        StorageProperties.Batch settings = storageProperties.getBatch();
+        long entryBytes = settings.getMaxEntrySizeMb() * 1024 * 1024;
+
+        int inFlight = batchUploadService.maxInFlight();
+        assertTrue(inFlight >= 1);
+        assertTrue(inFlight == 1 || inFlight * entryBytes <= Runtime.getRuntime().maxMemory() / 4);
+
+        settings.setMaxInFlight(3);
+        assertEquals(3, batchUploadService.maxInFlight());
+    }
+}
@@ -3,15 +3,38 @@ package br.com.example.davidarchanjo.service.impl;
 import br.com.example.davidarchanjo.config.StorageProperties;
 import br.com.example.davidarchanjo.enumeration.BucketStrategy;
 import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.TenantLocation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.CreateBucketResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -23,6 +46,9 @@ class BucketManagementServiceImplTest {
     @Mock
     private StorageProperties storageProperties;
 
+    @Mock
+    private S3Client s3Client;
+
     @InjectMocks
     private BucketManagementServiceImpl bucketManagementService;
 
@@ -79,6 +105,30 @@ class BucketManagementServiceImplTest {
         assertEquals("client-001-storage", bucketName);
     }
 
+    @Test
+    void testGetBucketName_RepeatedLookup_ReusesResolvedName() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.PER_CLIENT);
+
+        String first = bucketManagementService.getBucketName("Client_001", Environment.DEVELOPMENT);
+        String second = bucketManagementService.getBucketName("Client_001", Environment.DEVELOPMENT);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testGetBucketName_SettingsChange_ResolvesAgain() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.PER_CLIENT);
+        assertEquals("client-001-storage", bucketManagementService.getBucketName("client-001", Environment.DEVELOPMENT));
+
+        when(storageProperties.getBucketSuffix()).thenReturn("archive");
+        assertEquals("client-001-archive", bucketManagementService.getBucketName("client-001", Environment.DEVELOPMENT));
+
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.SHARED_WITH_PREFIX);
+        assertEquals("shared-storage", bucketManagementService.getBucketName("client-001", Environment.DEVELOPMENT));
+        assertEquals("client-001/dev/file.pdf",
+                bucketManagementService.buildObjectKey("client-001", Environment.DEVELOPMENT, null, "file.pdf"));
+    }
+
     @Test
     void testBuildObjectKey_SharedWithPrefix_IncludesClientAndEnvPrefix() {
         when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.SHARED_WITH_PREFIX);
@@ -215,4 +265,151 @@ class BucketManagementServiceImplTest {
         assertEquals("client-001-dev-storage", devBucket);
         assertEquals("client-001-prod-storage", prodBucket);
     }
+
+    @Test
+    void testResolveTenant_SharedWithPrefix_ParsesKeyPrefix() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.SHARED_WITH_PREFIX);
+
+        Optional<TenantLocation> tenant = bucketManagementService.resolveTenant(
+                "shared-storage", "client-001/prod/reports/q1.pdf");
+
+        assertTrue(tenant.isPresent());
+        assertEquals("client-001", tenant.get().getClientId());
+        assertEquals(Environment.PRODUCTION, tenant.get().getEnvironment());
+    }
+
+    @Test
+    void testResolveTenant_PerClient_ParsesBucketAndKey() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.PER_CLIENT);
+
+        Optional<TenantLocation> tenant = bucketManagementService.resolveTenant(
+                "client-001-storage", "staging/file.txt");
+
+        assertTrue(tenant.isPresent());
+        assertEquals("client-001", tenant.get().getClientId());
+        assertEquals(Environment.STAGING, tenant.get().getEnvironment());
+    }
+
+    @Test
+    void testTenantPrefix_FollowsStrategyLayout() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.SHARED_WITH_PREFIX);
+        assertEquals("client-001/prod/",
+                bucketManagementService.tenantPrefix("shared-storage", "client-001/prod/reports/q1.pdf"));
+        assertEquals("", bucketManagementService.tenantPrefix("shared-storage", "q1.pdf"));
+
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.PER_CLIENT);
+        assertEquals("staging/", bucketManagementService.tenantPrefix("client-001-storage", "staging/file.txt"));
+    }
+
+    @Test
+    void testResolveTenant_PerClientPerEnvironment_ParsesBucket() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.PER_CLIENT_PER_ENVIRONMENT);
+
+        Optional<TenantLocation> tenant = bucketManagementService.resolveTenant("client-001-dev-storage", "file.txt");
+
+        assertTrue(tenant.isPresent());
+        assertEquals("client-001", tenant.get().getClientId());
+        assertEquals(Environment.DEVELOPMENT, tenant.get().getEnvironment());
+    }
+
+    @Test
+    void testResolveTenant_KeyOutsideLayout_ReturnsEmpty() {
+        when(storageProperties.getBucketStrategy()).thenReturn(BucketStrategy.SHARED_WITH_PREFIX);
+
+        assertTrue(bucketManagementService.resolveTenant("shared-storage", "loose-file.txt").isEmpty());
+        assertTrue(bucketManagementService.resolveTenant("shared-storage", "client-001/nope/file.txt").isEmpty());
+        assertTrue(bucketManagementService.resolveTenant("other-bucket", "client-001/prod/file.txt").isEmpty());
+    }
+
+    @Test
+    void testCreateBucketIfNotExists_ConcurrentCallers_CreateOnce() throws Exception {
+        when(storageProperties.getProvisioning()).thenReturn(new StorageProperties.Provisioning());
+        when(s3Client.headBucket(any(HeadBucketRequest.class))).thenThrow(NoSuchBucketException.builder().build());
+        CountDownLatch creating = new CountDownLatch(1);
+        when(s3Client.createBucket(any(CreateBucketRequest.class))).thenAnswer(invocation -> {
+            creating.countDown();
+            Thread.sleep(200);
+            return CreateBucketResponse.builder().build();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            callers.add(executor.submit(() -> bucketManagementService.createBucketIfNotExists("client-001-storage")));
+            creating.await();
+            for (int i = 0; i < 7; i++) {
+                callers.add(executor.submit(() -> bucketManagementService.createBucketIfNotExists("client-001-storage")));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(s3Client, times(1)).headBucket(any(HeadBucketRequest.class));
+        verify(s3Client, times(1)).createBucket(any(CreateBucketRequest.class));
+    }
+
+    @Test
+    void testCreateBucketIfNotExists_ErrorWhileProvisioning_FailsWaiters() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        when(s3Client.headBucket(any(HeadBucketRequest.class))).thenThrow(NoSuchBucketException.builder().build());
+        when(s3Client.createBucket(any(CreateBucketRequest.class))).thenAnswer(invocation -> {
+            creating.countDown();
+            waiting.await();
+            // Let the second caller reach the provisioning in progress before it fails
+            Thread.sleep(200);
+            throw new StackOverflowError("provisioning blew up");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> provisioner = executor.submit(
+                    () -> bucketManagementService.createBucketIfNotExists("client-001-storage"));
+            creating.await();
+            Future<?> waiter = executor.submit(() -> {
+                waiting.countDown();
+                bucketManagementService.createBucketIfNotExists("client-001-storage");
+            });
+
+            ExecutionException provisionerFailure = assertThrows(ExecutionException.class, provisioner::get);
+            assertInstanceOf(StackOverflowError.class, provisionerFailure.getCause());
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class, waiter::get);
+            assertInstanceOf(StorageException.class, waiterFailure.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCreateBucketIfNotExists_TenantClient_ProvisionsPerPartition() {
+        when(storageProperties.getProvisioning()).thenReturn(new StorageProperties.Provisioning());
+        S3Client tenantClient = mock(S3Client.class);
+        when(tenantClient.headBucket(any(HeadBucketRequest.class))).thenThrow(NoSuchBucketException.builder().build());
+        when(tenantClient.createBucket(any(CreateBucketRequest.class))).thenReturn(CreateBucketResponse.builder().build());
+        when(s3Client.headBucket(any(HeadBucketRequest.class))).thenReturn(HeadBucketResponse.builder().build());
+
+        bucketManagementService.createBucketIfNotExists("client-001-storage");
+        bucketManagementService.createBucketIfNotExists("client-001-storage", "client-001", tenantClient);
+        bucketManagementService.createBucketIfNotExists("client-001-storage", "client-001", tenantClient);
+
+        verify(s3Client, never()).createBucket(any(CreateBucketRequest.class));
+        verify(tenantClient, times(1)).headBucket(any(HeadBucketRequest.class));
+        verify(tenantClient, times(1)).createBucket(any(CreateBucketRequest.class));
+    }
+
+    @Test
+    void testCreateBucketIfNotExists_Failure_ReportedWithoutRetrying() {
+        when(storageProperties.getProvisioning()).thenReturn(new StorageProperties.Provisioning());
+        when(s3Client.headBucket(any(HeadBucketRequest.class))).thenThrow(NoSuchBucketException.builder().build());
+        when(s3Client.createBucket(any(CreateBucketRequest.class)))
+                .thenThrow(S3Exception.builder().message("Access Denied").statusCode(403).build());
+
+        assertThrows(StorageException.class, () -> bucketManagementService.createBucketIfNotExists("client-001-storage"));
+        assertThrows(StorageException.class, () -> bucketManagementService.createBucketIfNotExists("client-001-storage"));
+
+        verify(s3Client, times(1)).createBucket(any(CreateBucketRequest.class));
+    }
 }
@@ -0,0 +1,89 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BucketProvisioningServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class BucketProvisioningServiceImplTest {
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    private StorageProperties storageProperties;
+    private BucketProvisioningServiceImpl provisioningService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getProvisioning().setClients(List.of("client-001", "client-002"));
+        storageProperties.getProvisioning().setEnvironments(List.of("dev", "prod"));
+        provisioningService = new BucketProvisioningServiceImpl(
+                bucketManagementService, storageProperties, new SyncTaskExecutor());
+    }
+
+    @Test
+    void testProvisionKnownTenants_CreatesEachDistinctBucket() {
+        when(bucketManagementService.getBucketName(anyString(), any(Environment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) + "-storage");
+        lenient().doThrow(new StorageException("Failed to create bucket: Access Denied"))
+                .when(bucketManagementService).createBucketIfNotExists("client-002-storage");
+
+        Map<String, Boolean> buckets = provisioningService.provisionKnownTenants();
+
+        assertEquals(Map.of("client-001-storage", true, "client-002-storage", false), buckets);
+        verify(bucketManagementService).createBucketIfNotExists("client-001-storage");
+    }
+
+    @Test
+    void testProvisionKnownTenants_AutoCreateDisabled_OnlyVerifies() {
+        storageProperties.setAutoCreateBuckets(false);
+        when(bucketManagementService.getBucketName(anyString(), any(Environment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) + "-"
+                        + invocation.<Environment>getArgument(1).getValue() + "-storage");
+        when(bucketManagementService.bucketExists(anyString()))
+                .thenAnswer(invocation -> !invocation.<String>getArgument(0).endsWith("prod-storage"));
+
+        Map<String, Boolean> buckets = provisioningService.provisionKnownTenants();
+
+        assertEquals(4, buckets.size());
+        assertTrue(buckets.get("client-001-dev-storage"));
+        assertFalse(buckets.get("client-002-prod-storage"));
+        verify(bucketManagementService, never()).createBucketIfNotExists(anyString());
+    }
+
+    @Test
+    void testAfterSingletonsInstantiated_DisabledByDefault() {
+        provisioningService.afterSingletonsInstantiated();
+
+        verify(bucketManagementService, never()).getBucketName(anyString(), any(Environment.class));
+    }
+
+    @Test
+    void testProvisionKnownTenants_UnknownEnvironment_Rejected() {
+        storageProperties.getProvisioning().setEnvironments(List.of("qa"));
+
+        assertThrows(IllegalArgumentException.class, () -> provisioningService.provisionKnownTenants());
+    }
+}
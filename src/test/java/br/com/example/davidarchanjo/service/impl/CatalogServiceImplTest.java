@@ -0,0 +1,226 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.CatalogEntry;
+import br.com.example.davidarchanjo.dto.CatalogReconcileResponse;
+import br.com.example.davidarchanjo.dto.CatalogSearchResponse;
+import br.com.example.davidarchanjo.enumeration.CatalogSortField;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.model.CatalogQuery;
+import br.com.example.davidarchanjo.model.ObjectStat;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.ObjectStatService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CatalogServiceImpl against an in-memory H2 catalog
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    @Mock
+    private ObjectStatService objectStatService;
+
+    private EmbeddedDatabase database;
+    private StorageProperties storageProperties;
+    private CatalogServiceImpl catalogService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final Instant JAN_1 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        storageProperties = new StorageProperties();
+        catalogService = new CatalogServiceImpl(new NamedParameterJdbcTemplate(database), s3Client, storageService,
+                bucketManagementService, objectStatService, storageProperties);
+
+        lenient().when(bucketManagementService.resolveTenant(anyString(), anyString())).thenAnswer(invocation -> {
+            String[] segments = invocation.<String>getArgument(1).split("/", 3);
+            return segments.length < 3 ? Optional.empty() : Optional.of(TenantLocation.builder()
+                    .clientId(segments[0])
+                    .environment(Environment.fromValue(segments[1]))
+                    .build());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private void write(String key, long size, String contentType, Instant at) {
+        catalogService.onObjectChange(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(TEST_BUCKET)
+                .key(key)
+                .size(size)
+                .contentType(contentType)
+                .eTag("\"" + key.hashCode() + "\"")
+                .occurredAt(at)
+                .build());
+    }
+
+    @Test
+    void testSearch_FiltersByTenantSizeAndDate() {
+        write("client-001/prod/big.bin", 60_000_000, "application/octet-stream", JAN_1.plusSeconds(86_400 * 3));
+        write("client-001/prod/small.txt", 10, "text/plain", JAN_1.plusSeconds(86_400 * 3));
+        write("client-001/dev/big.bin", 70_000_000, "application/octet-stream", JAN_1.plusSeconds(86_400 * 3));
+        write("client-002/prod/big.bin", 80_000_000, "application/octet-stream", JAN_1.plusSeconds(86_400 * 3));
+        write("client-001/prod/old.bin", 90_000_000, "application/octet-stream", JAN_1.minusSeconds(86_400));
+
+        CatalogSearchResponse response = catalogService.search(CatalogQuery.builder()
+                .clientId("client-001")
+                .environment(Environment.PRODUCTION)
+                .minSize(50_000_000L)
+                .modifiedAfter(JAN_1)
+                .size(10)
+                .build());
+
+        assertEquals(1, response.getTotalEntries());
+        CatalogEntry entry = response.getEntries().get(0);
+        assertEquals("client-001/prod/big.bin", entry.getKey());
+        assertEquals("client-001", entry.getClientId());
+        assertEquals("prod", entry.getEnvironment());
+        assertEquals(60_000_000L, entry.getSize());
+        verifyNoInteractions(s3Client, storageService);
+    }
+
+    @Test
+    void testSearch_SortsAndPaginates() {
+        write("client-001/prod/a.txt", 3, "text/plain", JAN_1);
+        write("client-001/prod/b.txt", 1, "text/plain", JAN_1);
+        write("client-001/prod/c.txt", 2, "text/plain", JAN_1);
+
+        CatalogSearchResponse first = catalogService.search(CatalogQuery.builder()
+                .keyPrefix("client-001/prod/")
+                .sort(CatalogSortField.SIZE)
+                .descending(false)
+                .size(2)
+                .build());
+        CatalogSearchResponse second = catalogService.search(CatalogQuery.builder()
+                .keyPrefix("client-001/prod/")
+                .sort(CatalogSortField.SIZE)
+                .descending(false)
+                .page(1)
+                .size(2)
+                .build());
+
+        assertEquals(3, first.getTotalEntries());
+        assertEquals(List.of("client-001/prod/b.txt", "client-001/prod/c.txt"),
+                first.getEntries().stream().map(CatalogEntry::getKey).toList());
+        assertEquals(List.of("client-001/prod/a.txt"),
+                second.getEntries().stream().map(CatalogEntry::getKey).toList());
+    }
+
+    @Test
+    void testOnObjectChange_OverwriteAndDelete() {
+        write("client-001/prod/report.pdf", 100, "application/pdf", JAN_1);
+        write("client-001/prod/report.pdf", 200, "application/pdf", JAN_1.plusSeconds(60));
+        write(".cas/blobs/ab/abcd", 200, "application/pdf", JAN_1);
+
+        CatalogSearchResponse afterOverwrite = catalogService.search(CatalogQuery.builder().build());
+        assertEquals(1, afterOverwrite.getTotalEntries());
+        assertEquals(200L, afterOverwrite.getEntries().get(0).getSize());
+
+        catalogService.onObjectChange(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.DELETED)
+                .bucketName(TEST_BUCKET)
+                .key("client-001/prod/report.pdf")
+                .occurredAt(Instant.now())
+                .build());
+
+        assertEquals(0, catalogService.search(CatalogQuery.builder().build()).getTotalEntries());
+    }
+
+    @Test
+    void testReconcile_AddsMissingAndRemovesStaleEntries() {
+        write("client-001/prod/kept.txt", 5, "text/plain", JAN_1);
+        write("client-001/prod/deleted-outside.txt", 5, "text/plain", JAN_1);
+
+        when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        when(storageService.listObjects(TEST_BUCKET, null)).thenReturn(Stream.of(
+                ObjectSummary.builder().key("client-001/prod/kept.txt").size(7).lastModified(JAN_1).build(),
+                ObjectSummary.builder().key("client-001/prod/added-outside.txt").size(9).lastModified(JAN_1).build()
+        ));
+
+        CatalogReconcileResponse response = catalogService.reconcile(TEST_BUCKET);
+
+        assertEquals(2, response.getScanned());
+        assertEquals(1, response.getRemoved());
+
+        List<CatalogEntry> entries = catalogService.search(CatalogQuery.builder()
+                .sort(CatalogSortField.KEY)
+                .descending(false)
+                .build()).getEntries();
+        assertEquals(List.of("client-001/prod/added-outside.txt", "client-001/prod/kept.txt"),
+                entries.stream().map(CatalogEntry::getKey).toList());
+        // Content type survives a reconcile that does not know it
+        assertEquals("text/plain", entries.get(1).getContentType());
+        assertEquals(7L, entries.get(1).getSize());
+    }
+
+    @Test
+    void testReconcile_CompressedObjects_KeepOriginalSize() {
+        storageProperties.getCompression().setEnabled(true);
+        write("client-001/prod/kept.txt", 100, "text/plain", JAN_1);
+
+        when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        when(storageService.listObjects(TEST_BUCKET, null)).thenReturn(Stream.of(
+                ObjectSummary.builder().key("client-001/prod/kept.txt").size(40).lastModified(JAN_1)
+                        .eTag("\"" + "client-001/prod/kept.txt".hashCode() + "\"").build(),
+                ObjectSummary.builder().key("client-001/prod/added-outside.txt").size(60).lastModified(JAN_1)
+                        .eTag("\"added\"").build()
+        ));
+        when(objectStatService.stat(TEST_BUCKET, "client-001/prod/added-outside.txt")).thenReturn(
+                ObjectStat.builder().key("client-001/prod/added-outside.txt").size(250).storedSize(60).build());
+
+        catalogService.reconcile(TEST_BUCKET);
+
+        List<CatalogEntry> entries = catalogService.search(CatalogQuery.builder()
+                .sort(CatalogSortField.KEY)
+                .descending(false)
+                .build()).getEntries();
+        assertEquals(250L, entries.get(0).getSize());
+        // Unchanged since it was written, so no HEAD is needed
+        assertEquals(100L, entries.get(1).getSize());
+        verify(objectStatService, never()).stat(TEST_BUCKET, "client-001/prod/kept.txt");
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.ChangeEntry;
+import br.com.example.davidarchanjo.dto.ChangeFeedResponse;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.StorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChangeJournalServiceImpl against an in-memory H2 journal
+ */
+class ChangeJournalServiceImplTest {
+
+    private EmbeddedDatabase database;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private StorageProperties storageProperties;
+    private ChangeJournalServiceImpl journalService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(database);
+        storageProperties = new StorageProperties();
+        journalService = new ChangeJournalServiceImpl(jdbcTemplate, storageProperties,
+                new SyncTaskExecutor(), new SyncTaskExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testChangesSince_PagesInJournalOrder() {
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/a.txt"));
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/b.txt"));
+        journalService.onObjectChange(event(ObjectChangeType.DELETED, TEST_BUCKET, "client-001/a.txt"));
+
+        ChangeFeedResponse first = journalService.changesSince(null, null, 0, 2);
+        assertEquals(List.of("client-001/a.txt", "client-001/b.txt"), keys(first));
+        assertTrue(first.getHasMore());
+
+        ChangeFeedResponse second = journalService.changesSince(null, null, first.getNextCursor(), 2);
+        assertEquals(1, second.getChanges().size());
+        assertEquals(ObjectChangeType.DELETED.name(), second.getChanges().get(0).getType());
+        assertFalse(second.getHasMore());
+
+        ChangeFeedResponse empty = journalService.changesSince(null, null, second.getNextCursor(), 2);
+        assertTrue(empty.getChanges().isEmpty());
+        assertEquals(second.getNextCursor(), empty.getNextCursor());
+    }
+
+    @Test
+    void testChangesSince_FiltersByBucketAndPrefix_AndAdvancesCursorPastSkippedChanges() {
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/a.txt"));
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-002/b.txt"));
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, "other-bucket", "client-001/c.txt"));
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, ".cas/blobs/ab/abcdef"));
+
+        ChangeFeedResponse response = journalService.changesSince(TEST_BUCKET, "client-001/", 0, 100);
+
+        assertEquals(List.of("client-001/a.txt"), keys(response));
+        assertEquals(3L, response.getNextCursor());
+    }
+
+    @Test
+    void testChangesSince_StopsBeforeUnfinishedInsert() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NamedParameterJdbcTemplate slowFirstInsert = new NamedParameterJdbcTemplate(database) {
+            private final AtomicBoolean first = new AtomicBoolean(true);
+
+            @Override
+            public int update(String sql, SqlParameterSource parameters) {
+                if (sql.contains("INSERT") && first.compareAndSet(true, false)) {
+                    inserting.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.update(sql, parameters);
+            }
+        };
+        journalService = new ChangeJournalServiceImpl(slowFirstInsert, storageProperties,
+                new SyncTaskExecutor(), new SyncTaskExecutor());
+
+        Thread slow = new Thread(() ->
+                journalService.append(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/a.txt")));
+        slow.start();
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        // Not blocked behind the slow insert, but not visible before it either
+        journalService.append(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/b.txt"));
+
+        ChangeFeedResponse early = journalService.changesSince(null, null, 0, 100);
+        assertTrue(early.getChanges().isEmpty());
+        assertEquals(0L, early.getNextCursor());
+
+        release.countDown();
+        slow.join(5_000);
+        assertEquals(List.of("client-001/a.txt", "client-001/b.txt"),
+                keys(journalService.changesSince(null, null, 0, 100)));
+    }
+
+    @Test
+    void testSubscribe_ReplaysAndReceivesLiveChanges() {
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/a.txt"));
+
+        SseEmitter emitter = journalService.subscribe(TEST_BUCKET, null, 0L);
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/b.txt"));
+
+        assertNotNull(emitter);
+        assertEquals(2, journalService.changesSince(TEST_BUCKET, null, 0, 100).getChanges().size());
+    }
+
+    @Test
+    void testPrune_RemovesExpiredChanges() {
+        journalService.append(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(TEST_BUCKET)
+                .key("old.txt")
+                .occurredAt(Instant.now().minus(30, ChronoUnit.DAYS))
+                .build());
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "new.txt"));
+
+        journalService.prune();
+
+        assertEquals(List.of("new.txt"), keys(journalService.changesSince(null, null, 0, 100)));
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_journal",
+                new MapSqlParameterSource(), Long.class);
+        assertEquals(1L, rows);
+    }
+
+    @Test
+    void testAppend_AfterPruneEmptiedJournalAndRestart_DoesNotReuseCursors() {
+        journalService.append(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(TEST_BUCKET)
+                .key("old.txt")
+                .occurredAt(Instant.now().minus(30, ChronoUnit.DAYS))
+                .build());
+        long heldCursor = journalService.changesSince(null, null, 0, 100).getNextCursor();
+        journalService.prune();
+
+        ChangeJournalServiceImpl restarted = new ChangeJournalServiceImpl(jdbcTemplate, storageProperties,
+                new SyncTaskExecutor(), new SyncTaskExecutor());
+        restarted.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "new.txt"));
+
+        assertEquals(List.of("new.txt"), keys(restarted.changesSince(null, null, heldCursor, 100)));
+    }
+
+    @Test
+    void testAppend_SequenceBehindJournal_ContinuesAfterNewestChange() {
+        jdbcTemplate.update("INSERT INTO change_journal (seq, bucket_name, object_key, change_type, size_bytes, "
+                + "occurred_at) VALUES (41, 'b', 'legacy.txt', 'CREATED', 0, CURRENT_TIMESTAMP)",
+                new MapSqlParameterSource());
+
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "new.txt"));
+
+        ChangeFeedResponse response = journalService.changesSince(null, null, 41, 100);
+        assertEquals(List.of("new.txt"), keys(response));
+        assertEquals(42L, response.getNextCursor());
+    }
+
+    @Test
+    void testChangesSince_Disabled_ThrowsException() {
+        storageProperties.getJournal().setEnabled(false);
+
+        journalService.onObjectChange(event(ObjectChangeType.CREATED, TEST_BUCKET, "client-001/a.txt"));
+
+        assertThrows(StorageException.class, () -> journalService.changesSince(null, null, 0, 10));
+        assertThrows(StorageException.class, () -> journalService.subscribe(null, null, null));
+    }
+
+    private ObjectChangeEvent event(ObjectChangeType type, String bucketName, String key) {
+        return ObjectChangeEvent.builder()
+                .type(type)
+                .bucketName(bucketName)
+                .key(key)
+                .size(10L)
+                .occurredAt(Instant.now())
+                .build();
+    }
+
+    private List<String> keys(ChangeFeedResponse response) {
+        return response.getChanges().stream().map(ChangeEntry::getKey).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompressionServiceImpl
+ */
+class CompressionServiceImplTest {
+
+    private StorageProperties storageProperties;
+    private CompressionServiceImpl compressionService;
+
+    private static final String TEST_BUCKET = "test-bucket";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getCompression().setEnabled(true);
+        compressionService = new CompressionServiceImpl(storageProperties);
+    }
+
+    @Test
+    void testCompress_Zstd_RoundTrips() throws IOException {
+        assertRoundTrip(CompressionCodec.ZSTD);
+    }
+
+    @Test
+    void testCompress_Gzip_RoundTrips() throws IOException {
+        assertRoundTrip(CompressionCodec.GZIP);
+    }
+
+    @Test
+    void testSelectCodec_MatchingContentType_ReturnsConfiguredCodec() {
+        assertEquals(Optional.of(CompressionCodec.ZSTD),
+                compressionService.selectCodec(TEST_BUCKET, "application/json; charset=utf-8", 4096L));
+        assertEquals(Optional.of(CompressionCodec.ZSTD),
+                compressionService.selectCodec(TEST_BUCKET, "text/csv", null));
+    }
+
+    @Test
+    void testSelectCodec_SkipsDisabledSmallOrUnmatched() {
+        assertTrue(compressionService.selectCodec(TEST_BUCKET, "image/png", 4096L).isEmpty());
+        assertTrue(compressionService.selectCodec(TEST_BUCKET, "text/plain", 10L).isEmpty());
+
+        storageProperties.getCompression().setBuckets(List.of("logs"));
+        assertTrue(compressionService.selectCodec(TEST_BUCKET, "text/plain", 4096L).isEmpty());
+
+        storageProperties.getCompression().setBuckets(List.of());
+        storageProperties.getCompression().setEnabled(false);
+        assertTrue(compressionService.selectCodec(TEST_BUCKET, "text/plain", 4096L).isEmpty());
+    }
+
+    @Test
+    void testStoredCodec_ReadsGatewayMetadata() {
+        assertEquals(Optional.of(CompressionCodec.GZIP),
+                compressionService.storedCodec(Map.of(GatewayMetadata.ENCODING, "gzip")));
+        assertTrue(compressionService.storedCodec(Map.of()).isEmpty());
+        assertTrue(compressionService.storedCodec(Map.of(GatewayMetadata.ENCODING, "brotli")).isEmpty());
+    }
+
+    @Test
+    void testAccepts_HonoursQualityAndWildcard() {
+        assertTrue(compressionService.accepts("gzip, deflate, br, zstd", CompressionCodec.ZSTD));
+        assertTrue(compressionService.accepts("GZIP;q=0.8", CompressionCodec.GZIP));
+        assertTrue(compressionService.accepts("*", CompressionCodec.ZSTD));
+        assertFalse(compressionService.accepts("gzip;q=0, *", CompressionCodec.GZIP));
+        assertFalse(compressionService.accepts("gzip, deflate", CompressionCodec.ZSTD));
+        assertFalse(compressionService.accepts(null, CompressionCodec.GZIP));
+    }
+
+    private void assertRoundTrip(CompressionCodec codec) throws IOException {
+        byte[] original = "{\"id\":1,\"name\":\"value\"}\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        long length = compressionService.compress(new ByteArrayInputStream(original), codec, target);
+        byte[] compressed = target.toByteArray();
+        assertEquals(compressed.length, length);
+        assertTrue(compressed.length < original.length);
+
+        try (InputStream decoded = compressionService.decompress(new ByteArrayInputStream(compressed), codec)) {
+            assertArrayEquals(original, decoded.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConcurrencyLimitServiceImpl
+ */
+class ConcurrencyLimitServiceImplTest {
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitServiceImpl concurrencyLimitService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getConcurrencyLimit().setEnabled(true);
+        storageProperties.getConcurrencyLimit().setInitialLimit(1);
+        storageProperties.getConcurrencyLimit().setMinLimit(1);
+        storageProperties.getConcurrencyLimit().setRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimitService = new ConcurrencyLimitServiceImpl(storageProperties, meterRegistry);
+    }
+
+    @Test
+    void testCall_LimitReached_RejectsOnlyThatOperationType() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> blocked = executor.submit(() -> {
+                try {
+                    return concurrencyLimitService.call(S3OperationType.READ, () -> {
+                        started.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return "read";
+                    });
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                    () -> concurrencyLimitService.call(S3OperationType.READ, () -> "second"));
+            assertEquals(3, rejected.getRetryAfterSeconds());
+            assertEquals("list", concurrencyLimitService.call(S3OperationType.LIST, () -> "list"));
+            assertEquals(1.0, meterRegistry.counter("storage.concurrency.rejected", "operation", "read").count());
+
+            release.countDown();
+            assertEquals("read", blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCall_StreamingBody_HoldsSlotUntilClosed() throws Throwable {
+        ResponseInputStream<?> body = (ResponseInputStream<?>) concurrencyLimitService.call(S3OperationType.READ,
+                () -> stream(new byte[]{1, 2, 3}));
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> concurrencyLimitService.call(S3OperationType.READ, () -> "second"));
+        assertEquals(3, body.readAllBytes().length);
+        body.close();
+
+        assertEquals("second", concurrencyLimitService.call(S3OperationType.READ, () -> "second"));
+    }
+
+    @Test
+    void testCall_StreamingBodyAborted_ReleasesSlot() throws Throwable {
+        ResponseInputStream<?> body = (ResponseInputStream<?>) concurrencyLimitService.call(S3OperationType.READ,
+                () -> stream(new byte[]{1, 2, 3}));
+
+        body.abort();
+
+        assertEquals("second", concurrencyLimitService.call(S3OperationType.READ, () -> "second"));
+    }
+
+    @Test
+    void testCall_ThrottledByBackend_ShrinksLimit() {
+        storageProperties.getConcurrencyLimit().setInitialLimit(40);
+        concurrencyLimitService = new ConcurrencyLimitServiceImpl(storageProperties, new SimpleMeterRegistry());
+        S3Exception slowDown = (S3Exception) S3Exception.builder().statusCode(503).message("Slow Down").build();
+
+        assertThrows(S3Exception.class, () -> concurrencyLimitService.call(S3OperationType.WRITE, () -> {
+            throw slowDown;
+        }));
+
+        assertTrue(concurrencyLimitService.limit(S3OperationType.WRITE) < 40);
+        assertEquals(40, concurrencyLimitService.limit(S3OperationType.READ));
+    }
+
+    @Test
+    void testCall_MissingKey_IsNotADrop() {
+        storageProperties.getConcurrencyLimit().setInitialLimit(40);
+        concurrencyLimitService = new ConcurrencyLimitServiceImpl(storageProperties, new SimpleMeterRegistry());
+
+        assertThrows(NoSuchKeyException.class, () -> concurrencyLimitService.call(S3OperationType.READ, () -> {
+            throw NoSuchKeyException.builder().statusCode(404).message("missing").build();
+        }));
+
+        assertEquals(40, concurrencyLimitService.limit(S3OperationType.READ));
+    }
+
+    @Test
+    void testCall_Disabled_NeverRejects() throws Throwable {
+        storageProperties.getConcurrencyLimit().setEnabled(false);
+
+        assertEquals("ok", concurrencyLimitService.call(S3OperationType.READ, () -> "ok"));
+        assertEquals(0.0, meterRegistry.counter("storage.concurrency.rejected", "operation", "read").count());
+    }
+
+    @Test
+    void testOf_ClassifiesOperations() {
+        assertEquals(S3OperationType.READ, S3OperationType.of("getObject"));
+        assertEquals(S3OperationType.READ, S3OperationType.of("headBucket"));
+        assertEquals(S3OperationType.LIST, S3OperationType.of("listObjectsV2"));
+        assertEquals(S3OperationType.WRITE, S3OperationType.of("putObject"));
+        assertEquals(S3OperationType.WRITE, S3OperationType.of("deleteObject"));
+    }
+
+    private static ResponseInputStream<GetObjectResponse> stream(byte[] bytes) {
+        return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,351 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.BucketStrategy;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.InvalidRequestException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DedupServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class DedupServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3ClientRegistryService clientRegistry;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StorageProperties storageProperties;
+    private DedupServiceImpl dedupService;
+
+    private static final String TEST_BUCKET = "test-bucket";
+    private static final String TEST_KEY = "client-001/prod/report.json";
+    private static final byte[] CONTENT = "{\"report\":true}".getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getDedup().setEnabled(true);
+        dedupService = new DedupServiceImpl(s3Client, clientRegistry, bucketManagementService, storageService,
+                storageProperties, eventPublisher);
+
+        lenient().when(clientRegistry.clientFor(any(), any())).thenReturn(s3Client);
+        lenient().when(bucketManagementService.tenantPrefix(any(), any())).thenReturn("");
+        lenient().when(storageService.bucketExists(eq(TEST_BUCKET), anyString())).thenReturn(true);
+        lenient().when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().eTag("\"ref\"").build());
+    }
+
+    @Test
+    void testIsEnabled_RespectsBucketList() {
+        assertTrue(dedupService.isEnabled(TEST_BUCKET));
+
+        storageProperties.getDedup().setBuckets(List.of("artifacts"));
+        assertFalse(dedupService.isEnabled(TEST_BUCKET));
+        assertTrue(dedupService.isEnabled("artifacts"));
+
+        storageProperties.getDedup().setEnabled(false);
+        assertFalse(dedupService.isEnabled("artifacts"));
+    }
+
+    @Test
+    void testStore_NewContent_WritesBlobAndReference() throws Exception {
+        String digest = sha256(CONTENT);
+        givenNoObject(ContentAddress.blobKey("", digest));
+
+        ObjectWriteResult result = dedupService.store(TEST_BUCKET, TEST_KEY, (long) CONTENT.length,
+                "application/json", new ByteArrayInputStream(CONTENT));
+
+        assertFalse(result.isDeduplicated());
+        assertEquals(CONTENT.length, result.getSize());
+        assertEquals(ChecksumType.SHA256, result.getChecksumType());
+        assertEquals(Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(CONTENT)),
+                result.getChecksum());
+        verify(storageService).putObject(eq(TEST_BUCKET), eq(ContentAddress.blobKey("", digest)),
+                eq((long) CONTENT.length), eq("application/json"), any(InputStream.class));
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                ContentAddress.refKey("", digest, TEST_KEY).equals(request.key())), any(RequestBody.class));
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                TEST_KEY.equals(request.key()) &&
+                        digest.equals(request.metadata().get(GatewayMetadata.CONTENT_SHA256))
+        ), any(RequestBody.class));
+    }
+
+    @Test
+    void testStore_KnownContent_SkipsBlobUpload() throws Exception {
+        String digest = sha256(CONTENT);
+        givenObject(ContentAddress.blobKey("", digest), Map.of());
+
+        ObjectWriteResult result = dedupService.store(TEST_BUCKET, TEST_KEY, (long) CONTENT.length,
+                "application/json", new ByteArrayInputStream(CONTENT));
+
+        assertTrue(result.isDeduplicated());
+        verify(storageService, never()).putObject(any(), any(), anyLong(), any(), any());
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testStore_TenantKey_ScopesBlobToTenant() throws Exception {
+        String digest = sha256(CONTENT);
+        String scope = "client-001/prod/";
+        when(bucketManagementService.tenantPrefix(TEST_BUCKET, TEST_KEY)).thenReturn(scope);
+        givenNoObject(ContentAddress.blobKey(scope, digest));
+
+        dedupService.store(TEST_BUCKET, TEST_KEY, (long) CONTENT.length, "application/json",
+                new ByteArrayInputStream(CONTENT));
+
+        verify(storageService).putObject(eq(TEST_BUCKET), eq(ContentAddress.blobKey(scope, digest)),
+                eq((long) CONTENT.length), eq("application/json"), any(InputStream.class));
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                ContentAddress.refKey(scope, digest, TEST_KEY).equals(request.key())), any(RequestBody.class));
+    }
+
+    @Test
+    void testStore_DeclaredDigestMismatch_RejectsWithoutWriting() throws Exception {
+        String declared = sha256("other content".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidRequestException.class, () -> dedupService.store(TEST_BUCKET, TEST_KEY,
+                (long) CONTENT.length, "application/json", new ByteArrayInputStream(CONTENT), declared));
+
+        verify(storageService, never()).putObject(any(), any(), anyLong(), any(), any());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testStore_DeclaredDigestMatches_Stores() throws Exception {
+        String digest = sha256(CONTENT);
+        givenNoObject(ContentAddress.blobKey("", digest));
+
+        ObjectWriteResult result = dedupService.store(TEST_BUCKET, TEST_KEY, (long) CONTENT.length,
+                "application/json", new ByteArrayInputStream(CONTENT), digest.toUpperCase());
+
+        assertFalse(result.isDeduplicated());
+        verify(storageService).putObject(eq(TEST_BUCKET), eq(ContentAddress.blobKey("", digest)),
+                eq((long) CONTENT.length), eq("application/json"), any(InputStream.class));
+    }
+
+    @Test
+    void testStore_BucketNotFound_ThrowsException() {
+        when(storageService.bucketExists(eq(TEST_BUCKET), anyString())).thenReturn(false);
+
+        assertThrows(BucketNotFoundException.class, () -> dedupService.store(TEST_BUCKET, TEST_KEY,
+                (long) CONTENT.length, "application/json", new ByteArrayInputStream(CONTENT)));
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testLink_KnownDigest_WritesReferenceWithoutBody() throws Exception {
+        String digest = sha256(CONTENT);
+        givenObject(ContentAddress.blobKey("", digest), Map.of(GatewayMetadata.ORIGINAL_LENGTH, "15"));
+
+        Optional<ObjectWriteResult> result = dedupService.link(TEST_BUCKET, TEST_KEY, digest.toUpperCase(), null);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isDeduplicated());
+        assertEquals(15L, result.get().getSize());
+        verify(storageService, never()).putObject(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testLink_UnknownDigest_ReturnsEmpty() throws Exception {
+        String digest = sha256(CONTENT);
+        givenNoObject(ContentAddress.blobKey("", digest));
+
+        assertTrue(dedupService.link(TEST_BUCKET, TEST_KEY, digest, null).isEmpty());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testLink_DigestOfAnotherTenant_ReturnsEmpty() throws Exception {
+        String digest = sha256(CONTENT);
+        // The blob exists, but was stored by another tenant
+        lenient().when(s3Client.headObject(argThat((HeadObjectRequest request) ->
+                request != null && ContentAddress.blobKey("client-002/prod/", digest).equals(request.key()))))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) CONTENT.length).build());
+        when(bucketManagementService.tenantPrefix(TEST_BUCKET, TEST_KEY)).thenReturn("client-001/prod/");
+        givenNoObject(ContentAddress.blobKey("client-001/prod/", digest));
+
+        assertTrue(dedupService.link(TEST_BUCKET, TEST_KEY, digest, null).isEmpty());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testLink_InvalidDigest_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> dedupService.link(TEST_BUCKET, TEST_KEY, "abc", null));
+    }
+
+    @Test
+    void testCollectGarbage_DeletesOnlyUnreferencedBlobs() throws Exception {
+        storageProperties.setBucketStrategy(BucketStrategy.PER_CLIENT_PER_ENVIRONMENT);
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        String live = sha256("live".getBytes(StandardCharsets.UTF_8));
+        String orphan = sha256("orphan".getBytes(StandardCharsets.UTF_8));
+        String fresh = sha256("fresh".getBytes(StandardCharsets.UTF_8));
+
+        givenListing(ContentAddress.BLOB_PREFIX, List.of(
+                S3Object.builder().key(ContentAddress.blobKey("", live)).lastModified(old).build(),
+                S3Object.builder().key(ContentAddress.blobKey("", orphan)).lastModified(old).build(),
+                S3Object.builder().key(ContentAddress.blobKey("", fresh)).lastModified(Instant.now()).build()
+        ));
+        givenListing(ContentAddress.refPrefix("", live), List.of(
+                S3Object.builder().key(ContentAddress.refKey("", live, "a.json")).lastModified(old).build()
+        ));
+        givenListing(ContentAddress.refPrefix("", orphan), List.of(
+                S3Object.builder().key(ContentAddress.refKey("", orphan, "b.json")).lastModified(old).build()
+        ));
+        givenObject("a.json", Map.of(GatewayMetadata.CONTENT_SHA256, live));
+        // Overwritten since it was linked
+        givenObject("b.json", Map.of());
+
+        int deleted = dedupService.collectGarbage(TEST_BUCKET);
+
+        assertEquals(1, deleted);
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) ->
+                ContentAddress.blobKey("", orphan).equals(request.key())));
+        // Counted once and rechecked under the lock against the same listing
+        verify(s3Client, times(2)).deleteObject(argThat((DeleteObjectRequest request) ->
+                ContentAddress.refKey("", orphan, "b.json").equals(request.key())));
+        verify(s3Client, never()).deleteObject(argThat((DeleteObjectRequest request) ->
+                ContentAddress.blobKey("", live).equals(request.key())));
+        verify(s3Client, never()).deleteObject(argThat((DeleteObjectRequest request) ->
+                ContentAddress.blobKey("", fresh).equals(request.key())));
+    }
+
+    @Test
+    void testCollectGarbage_WalksTenantScopes() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        String scope = "client-001/prod/";
+        String orphan = sha256("orphan".getBytes(StandardCharsets.UTF_8));
+
+        givenFolders("", List.of("client-001/", ContentAddress.ROOT));
+        givenFolders("client-001/", List.of(scope));
+        givenListing(ContentAddress.BLOB_PREFIX, List.of());
+        givenListing(scope + ContentAddress.BLOB_PREFIX, List.of(
+                S3Object.builder().key(ContentAddress.blobKey(scope, orphan)).lastModified(old).build()
+        ));
+        givenListing(ContentAddress.refPrefix(scope, orphan), List.of());
+
+        assertEquals(1, dedupService.collectGarbage(TEST_BUCKET));
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) ->
+                ContentAddress.blobKey(scope, orphan).equals(request.key())));
+    }
+
+    @Test
+    void testCollectGarbage_BlobLinkedAfterCounting_IsKept() throws Exception {
+        storageProperties.setBucketStrategy(BucketStrategy.PER_CLIENT_PER_ENVIRONMENT);
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        String digest = sha256(CONTENT);
+
+        givenListing(ContentAddress.BLOB_PREFIX, List.of(
+                S3Object.builder().key(ContentAddress.blobKey("", digest)).lastModified(old).build()
+        ));
+        // An upload links the blob between the first count and the recheck
+        SdkIterable<S3Object> none = List.<S3Object>of()::iterator;
+        SdkIterable<S3Object> linked = List.of(
+                S3Object.builder().key(ContentAddress.refKey("", digest, "c.json")).lastModified(old).build()
+        )::iterator;
+        ListObjectsV2Iterable refs = mock(ListObjectsV2Iterable.class);
+        when(refs.contents()).thenReturn(none, linked);
+        when(s3Client.listObjectsV2Paginator(argThat((ListObjectsV2Request request) ->
+                request != null && ContentAddress.refPrefix("", digest).equals(request.prefix()))))
+                .thenReturn(refs);
+        givenObject("c.json", Map.of(GatewayMetadata.CONTENT_SHA256, digest));
+
+        assertEquals(0, dedupService.collectGarbage(TEST_BUCKET));
+        verify(s3Client, never()).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    private void givenObject(String key, Map<String, String> metadata) {
+        when(s3Client.headObject(argThat((HeadObjectRequest request) -> request != null && key.equals(request.key()))))
+                .thenReturn(HeadObjectResponse.builder()
+                        .contentLength((long) CONTENT.length)
+                        .contentType("application/json")
+                        .metadata(metadata)
+                        .build());
+    }
+
+    private void givenNoObject(String key) {
+        when(s3Client.headObject(argThat((HeadObjectRequest request) -> request != null && key.equals(request.key()))))
+                .thenThrow(NoSuchKeyException.builder().build());
+    }
+
+    private void givenListing(String prefix, List<S3Object> objects) {
+        ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
+        when(paginator.contents()).thenReturn(objects::iterator);
+        when(s3Client.listObjectsV2Paginator(argThat((ListObjectsV2Request request) ->
+                request != null && request.delimiter() == null && prefix.equals(request.prefix()))))
+                .thenReturn(paginator);
+    }
+
+    private void givenFolders(String prefix, List<String> folders) {
+        ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
+        List<CommonPrefix> commonPrefixes = folders.stream()
+                .map(folder -> CommonPrefix.builder().prefix(folder).build())
+                .toList();
+        when(paginator.commonPrefixes()).thenReturn(commonPrefixes::iterator);
+        when(s3Client.listObjectsV2Paginator(argThat((ListObjectsV2Request request) ->
+                request != null && "/".equals(request.delimiter()) && prefix.equals(request.prefix()))))
+                .thenReturn(paginator);
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return ContentAddress.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
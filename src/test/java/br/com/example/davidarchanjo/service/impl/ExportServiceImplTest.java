@@ -0,0 +1,207 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.ExportJobResponse;
+import br.com.example.davidarchanjo.enumeration.ExportDestination;
+import br.com.example.davidarchanjo.enumeration.ExportFormat;
+import br.com.example.davidarchanjo.enumeration.ExportStatus;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.ExportJobNotFoundException;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ExportRequest;
+import br.com.example.davidarchanjo.model.ListingSummary;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.ParallelListingService;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    @Mock
+    private ParallelListingService listingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path exportDirectory;
+
+    private StorageProperties storageProperties;
+    private ExportServiceImpl exportService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final Instant JAN_1 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant FEB_1 = Instant.parse("2025-02-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getExport().setLocalDirectory(exportDirectory.toString());
+        exportService = new ExportServiceImpl(s3Client, storageService, listingService, storageProperties,
+                eventPublisher, new ObjectMapper(), new SyncTaskExecutor());
+
+        lenient().when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        lenient().when(listingService.scan(eq(TEST_BUCKET), any(), any())).thenAnswer(invocation -> {
+            Consumer<List<ObjectSummary>> consumer = invocation.getArgument(2);
+            consumer.accept(List.of(object("client-001/a.txt", JAN_1), object("client-001/b,c.txt", FEB_1)));
+            consumer.accept(List.of(object("client-002/d.txt", FEB_1)));
+            return ListingSummary.builder().objects(3).pages(2).partitions(2).build();
+        });
+    }
+
+    @Test
+    void testStartExport_LocalCsv_WritesInventoryFile() throws IOException {
+        ExportJobResponse response = exportService.startExport(request(ExportFormat.CSV, null));
+
+        ExportJobResponse status = exportService.getExport(response.getJobId());
+        assertEquals(ExportStatus.COMPLETED.name(), status.getStatus());
+        assertEquals(3L, status.getObjectsExported());
+        assertNotNull(status.getSnapshotAt());
+
+        List<String> lines = Files.readAllLines(Path.of(status.getLocation()));
+        assertEquals(List.of(
+                "key,size,etag,last_modified",
+                "client-001/a.txt,10,etag,2025-01-01T00:00:00Z",
+                "\"client-001/b,c.txt\",10,etag,2025-02-01T00:00:00Z",
+                "client-002/d.txt,10,etag,2025-02-01T00:00:00Z"
+        ), lines);
+        assertTrue(status.getBytesWritten() > 0);
+    }
+
+    @Test
+    void testStartExport_Since_WritesOnlyChangedObjects() throws IOException {
+        ExportJobResponse response = exportService.startExport(request(ExportFormat.NDJSON, FEB_1));
+
+        ExportJobResponse status = exportService.getExport(response.getJobId());
+        assertEquals(3L, status.getObjectsScanned());
+        assertEquals(2L, status.getObjectsExported());
+
+        String content = Files.readString(Path.of(status.getLocation()), StandardCharsets.UTF_8);
+        assertFalse(content.contains("client-001/a.txt"));
+        assertTrue(content.contains("{\"key\":\"client-002/d.txt\",\"size\":10,\"eTag\":\"etag\""));
+    }
+
+    @Test
+    void testStartExport_Since_AllowsForClockSkew() {
+        // The backend clock runs a minute behind the gateway that took the snapshot
+        ExportJobResponse response = exportService.startExport(request(ExportFormat.NDJSON, FEB_1.plusSeconds(60)));
+        assertEquals(2L, exportService.getExport(response.getJobId()).getObjectsExported());
+
+        storageProperties.getExport().setSinceSkewMs(0);
+        response = exportService.startExport(request(ExportFormat.NDJSON, FEB_1.plusSeconds(60)));
+        assertEquals(0L, exportService.getExport(response.getJobId()).getObjectsExported());
+    }
+
+    @Test
+    void testStartExport_Bucket_UploadsInventoryAndPublishesEvent() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().eTag("\"inventory\"").build());
+
+        ExportJobResponse response = exportService.startExport(ExportRequest.builder()
+                .bucketName(TEST_BUCKET)
+                .destination(ExportDestination.BUCKET)
+                .build());
+
+        assertEquals(ExportStatus.COMPLETED.name(), exportService.getExport(response.getJobId()).getStatus());
+        assertEquals("exports/" + TEST_BUCKET + "/" + response.getJobId() + ".csv", response.getLocation());
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals(response.getLocation(), captor.getValue().key());
+        assertEquals("text/csv", captor.getValue().contentType());
+
+        ArgumentCaptor<ObjectChangeEvent> event = ArgumentCaptor.forClass(ObjectChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ObjectChangeType.CREATED, event.getValue().getType());
+        assertEquals(response.getLocation(), event.getValue().getKey());
+    }
+
+    @Test
+    void testStartExport_ListingFails_MarksJobFailedAndRemovesPartialFile() throws IOException {
+        when(listingService.scan(anyString(), isNull(), any()))
+                .thenThrow(new StorageException("Failed to list objects: Access Denied",
+                        S3Exception.builder().message("Access Denied").build()));
+
+        ExportJobResponse response = exportService.startExport(request(ExportFormat.CSV, null));
+
+        ExportJobResponse status = exportService.getExport(response.getJobId());
+        assertEquals(ExportStatus.FAILED.name(), status.getStatus());
+        assertTrue(status.getError().contains("Access Denied"));
+        assertNotNull(status.getFinishedAt());
+        try (var files = Files.walk(exportDirectory)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+
+    @Test
+    void testStartExport_QueueFull_ThrowsException() {
+        exportService = new ExportServiceImpl(s3Client, storageService, listingService, storageProperties,
+                eventPublisher, new ObjectMapper(), task -> {
+                    throw new TaskRejectedException("full");
+                });
+
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                () -> exportService.startExport(request(ExportFormat.CSV, null)));
+        assertEquals(30L, e.getRetryAfterSeconds());
+        assertTrue(exportService.listExports().isEmpty());
+    }
+
+    @Test
+    void testGetExport_UnknownJob_ThrowsException() {
+        assertThrows(ExportJobNotFoundException.class, () -> exportService.getExport("missing"));
+    }
+
+    private ExportRequest request(ExportFormat format, Instant since) {
+        return ExportRequest.builder()
+                .bucketName(TEST_BUCKET)
+                .format(format)
+                .destination(ExportDestination.LOCAL)
+                .since(since)
+                .build();
+    }
+
+    private ObjectSummary object(String key, Instant lastModified) {
+        return ObjectSummary.builder().key(key).size(10L).eTag("\"etag\"").lastModified(lastModified).build();
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HedgedReadServiceImpl
+ */
+class HedgedReadServiceImplTest {
+
+    private static final GetObjectRequest REQUEST = GetObjectRequest.builder()
+            .bucket("shared-storage")
+            .key("photo.jpg")
+            .build();
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private HedgedReadServiceImpl hedgedReadService;
+
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getHedge().setEnabled(true);
+        storageProperties.getHedge().setInitialDelayMs(20);
+        storageProperties.getHedge().setBudgetPercent(100);
+
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        hedgedReadService = new HedgedReadServiceImpl(storageProperties, meterRegistry, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowRelease.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testGetObject_SlowPrimary_HedgeWinsAndLoserIsAborted() throws Exception {
+        AtomicBoolean primaryAborted = new AtomicBoolean();
+        AtomicInteger calls = new AtomicInteger();
+        Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> fetch = request -> {
+            if (calls.incrementAndGet() == 1) {
+                await(slowRelease);
+                return response("primary", primaryAborted);
+            }
+            return response("hedge", new AtomicBoolean());
+        };
+
+        ResponseInputStream<GetObjectResponse> result = hedgedReadService.getObject(REQUEST, fetch);
+
+        assertEquals("hedge", new String(result.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("storage.hedge.issued").count());
+        assertEquals(1.0, meterRegistry.counter("storage.hedge.wins").count());
+
+        slowRelease.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!primaryAborted.get() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(primaryAborted.get());
+    }
+
+    @Test
+    void testGetObject_FastPrimary_NoHedge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseInputStream<GetObjectResponse> result = hedgedReadService.getObject(REQUEST, request -> {
+            calls.incrementAndGet();
+            return response("primary", new AtomicBoolean());
+        });
+
+        assertEquals("primary", new String(result.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("storage.hedge.requests").count());
+        assertEquals(0.0, meterRegistry.counter("storage.hedge.issued").count());
+    }
+
+    @Test
+    void testGetObject_BudgetExhausted_WaitsForPrimary() throws Exception {
+        storageProperties.getHedge().setBudgetPercent(0);
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseInputStream<GetObjectResponse> result = hedgedReadService.getObject(REQUEST, request -> {
+            calls.incrementAndGet();
+            sleep(100);
+            return response("primary", new AtomicBoolean());
+        });
+
+        assertEquals("primary", new String(result.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("storage.hedge.budget.exhausted").count());
+    }
+
+    @Test
+    void testGetObject_Failure_RethrowsSdkException() {
+        NoSuchKeyException missing = NoSuchKeyException.builder().message("missing").build();
+
+        NoSuchKeyException thrown = assertThrows(NoSuchKeyException.class,
+                () -> hedgedReadService.getObject(REQUEST, request -> {
+                    throw missing;
+                }));
+
+        assertSame(missing, thrown);
+    }
+
+    @Test
+    void testGetObject_Disabled_CallsThrough() {
+        storageProperties.getHedge().setEnabled(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        hedgedReadService.getObject(REQUEST, request -> {
+            calls.incrementAndGet();
+            return response("primary", new AtomicBoolean());
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(0.0, meterRegistry.counter("storage.hedge.requests").count());
+    }
+
+    @Test
+    void testHedgeDelayMs_FollowsObservedPercentileWithinBounds() {
+        storageProperties.getHedge().setMinSamples(5);
+        storageProperties.getHedge().setMaxDelayMs(10_000);
+
+        assertEquals(20, hedgedReadService.hedgeDelayMs());
+        for (int i = 0; i < 5; i++) {
+            hedgedReadService.getObject(REQUEST, request -> response("primary", new AtomicBoolean()));
+        }
+
+        assertEquals(storageProperties.getHedge().getMinDelayMs(), hedgedReadService.hedgeDelayMs());
+    }
+
+    private static ResponseInputStream<GetObjectResponse> response(String body, AtomicBoolean aborted) {
+        return new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(
+                        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                        () -> aborted.set(true)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
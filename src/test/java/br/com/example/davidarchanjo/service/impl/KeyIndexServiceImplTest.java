@@ -0,0 +1,185 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.KeyIndexListingResponse;
+import br.com.example.davidarchanjo.dto.PrefixCountResponse;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.enumeration.KeyLayout;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeyIndexServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class KeyIndexServiceImplTest {
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    private StorageProperties storageProperties;
+    private KeyIndexServiceImpl keyIndexService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getKeyIndex().setEnabled(true);
+        storageProperties.getKeyIndex().setBlockSize(2);
+        keyIndexService = new KeyIndexServiceImpl(storageService, storageProperties, Runnable::run);
+
+        lenient().when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        lenient().when(storageService.listObjects(eq(TEST_BUCKET), isNull())).thenAnswer(invocation -> List.of(
+                "client-001/dev/notes.txt",
+                "client-001/prod/a.pdf",
+                "client-001/prod/reports/2025/q1.pdf",
+                "client-001/prod/reports/2025/q2.pdf",
+                "client-001/prod/reports/summary.pdf",
+                "client-001/prod/z.pdf",
+                "client-002/prod/b.pdf"
+        ).stream().map(key -> ObjectSummary.builder().key(key).size(1L).build()));
+    }
+
+    @Test
+    void testList_WithDelimiter_GroupsFoldersWithCounts() {
+        KeyIndexListingResponse response = keyIndexService.list(TEST_BUCKET, "client-001/prod/", "/", null, 100);
+
+        assertEquals(List.of("client-001/prod/a.pdf", "client-001/prod/z.pdf"), response.getKeys());
+        assertEquals(1, response.getCommonPrefixes().size());
+        assertEquals("client-001/prod/reports/", response.getCommonPrefixes().get(0).getPrefix());
+        assertEquals(3L, response.getCommonPrefixes().get(0).getCount());
+        assertFalse(response.getTruncated());
+    }
+
+    @Test
+    void testList_Paginates_WithStartAfterFolder() {
+        KeyIndexListingResponse first = keyIndexService.list(TEST_BUCKET, "client-001/prod/", "/", null, 2);
+        assertTrue(first.getTruncated());
+        assertEquals("client-001/prod/reports/", first.getNextStartAfter());
+
+        KeyIndexListingResponse second = keyIndexService.list(TEST_BUCKET, "client-001/prod/", "/",
+                first.getNextStartAfter(), 2);
+        assertEquals(List.of("client-001/prod/z.pdf"), second.getKeys());
+        assertFalse(second.getTruncated());
+
+        // Index is built once and reused
+        verify(storageService, times(1)).listObjects(TEST_BUCKET, null);
+    }
+
+    @Test
+    void testRecord_AppliesGatewayChangesBetweenRebuilds() {
+        keyIndexService.rebuild(TEST_BUCKET);
+
+        keyIndexService.onObjectChange(event(ObjectChangeType.CREATED, "client-001/prod/reports/2025/q3.pdf"));
+        keyIndexService.onObjectChange(event(ObjectChangeType.DELETED, "client-001/prod/a.pdf"));
+        keyIndexService.onObjectChange(event(ObjectChangeType.CREATED, ".cas/blobs/ab/abcdef"));
+
+        PrefixCountResponse count = keyIndexService.count(TEST_BUCKET, "client-001/prod/");
+        assertEquals(5L, count.getCount());
+
+        KeyIndexListingResponse flat = keyIndexService.list(TEST_BUCKET, "client-001/prod/reports/2025/", null,
+                null, 100);
+        assertEquals(List.of(
+                "client-001/prod/reports/2025/q1.pdf",
+                "client-001/prod/reports/2025/q2.pdf",
+                "client-001/prod/reports/2025/q3.pdf"
+        ), flat.getKeys());
+        assertEquals(0L, keyIndexService.count(TEST_BUCKET, ".cas/").getCount());
+    }
+
+    @Test
+    void testRecord_CompactsOverlayPastLimit() {
+        storageProperties.getKeyIndex().setOverlayLimit(2);
+        keyIndexService.rebuild(TEST_BUCKET);
+
+        for (int i = 0; i < 5; i++) {
+            keyIndexService.onObjectChange(event(ObjectChangeType.CREATED, "client-003/prod/file-" + i));
+        }
+        keyIndexService.onObjectChange(event(ObjectChangeType.DELETED, "client-002/prod/b.pdf"));
+
+        KeyIndexListingResponse response = keyIndexService.list(TEST_BUCKET, "", "/", null, 100);
+        assertEquals(List.of("client-001/", "client-003/"), response.getCommonPrefixes().stream()
+                .map(PrefixCountResponse::getPrefix)
+                .collect(Collectors.toList()));
+        assertEquals(5L, response.getCommonPrefixes().get(1).getCount());
+        assertEquals(0L, keyIndexService.rebuild(TEST_BUCKET).getPendingChanges());
+    }
+
+    @Test
+    void testList_FirstBuildRunsInBackground() {
+        List<Runnable> pending = new ArrayList<>();
+        keyIndexService = new KeyIndexServiceImpl(storageService, storageProperties, pending::add);
+
+        assertThrows(ServiceOverloadedException.class, () -> keyIndexService.count(TEST_BUCKET, null));
+        assertThrows(ServiceOverloadedException.class, () -> keyIndexService.count(TEST_BUCKET, null));
+        // One build for both requests, and nothing listed on the request thread
+        assertEquals(1, pending.size());
+        verify(storageService, never()).listObjects(anyString(), any());
+
+        pending.remove(0).run();
+        assertEquals(7L, keyIndexService.count(TEST_BUCKET, null).getCount());
+    }
+
+    @Test
+    void testRebuild_ShardedLayout_SortsListing() {
+        storageProperties.setKeyLayout(KeyLayout.HASH_SHARDED);
+        when(storageService.listObjects(eq(TEST_BUCKET), isNull())).thenAnswer(invocation -> List.of(
+                "client-001/prod/z.pdf",
+                "client-001/prod/a.pdf",
+                "client-001/dev/notes.txt"
+        ).stream().map(key -> ObjectSummary.builder().key(key).size(1L).build()));
+
+        keyIndexService.rebuild(TEST_BUCKET);
+
+        assertEquals(List.of("client-001/dev/notes.txt", "client-001/prod/a.pdf", "client-001/prod/z.pdf"),
+                keyIndexService.list(TEST_BUCKET, "", null, null, 100).getKeys());
+    }
+
+    @Test
+    void testSorted_MergesRuns() {
+        List<String> keys = List.of("d", "b", "e", "a", "c", "g", "f");
+
+        List<String> sorted = new ArrayList<>();
+        KeyIndexServiceImpl.sorted(keys.iterator(), 2, 3).forEach(sorted::add);
+
+        assertEquals(List.of("a", "b", "c", "d", "e", "f", "g"), sorted);
+    }
+
+    @Test
+    void testList_DisabledOrUnindexedBucket_ThrowsException() {
+        storageProperties.getKeyIndex().setBuckets(List.of("other-bucket"));
+        assertThrows(StorageException.class, () -> keyIndexService.count(TEST_BUCKET, null));
+
+        storageProperties.getKeyIndex().setEnabled(false);
+        assertThrows(StorageException.class, () -> keyIndexService.count("other-bucket", null));
+        verify(storageService, never()).listObjects(anyString(), any());
+    }
+
+    private ObjectChangeEvent event(ObjectChangeType type, String key) {
+        return ObjectChangeEvent.builder()
+                .type(type)
+                .bucketName(TEST_BUCKET)
+                .key(key)
+                .size(1L)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.KeyLayout;
+import br.com.example.davidarchanjo.util.FrontCodedKeySet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeyLayoutServiceImpl
+ */
+class KeyLayoutServiceImplTest {
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    private final ForkJoinPool listingPool = new ForkJoinPool(4);
+    private final TreeSet<String> bucket = new TreeSet<>(FrontCodedKeySet::compareKeys);
+    private KeyLayoutServiceImpl keyLayoutService;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setKeyLayout(KeyLayout.HASH_SHARDED);
+        storageProperties.getSharding().setShardCount(8);
+        keyLayoutService = new KeyLayoutServiceImpl(storageProperties, listingPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listingPool.shutdown();
+    }
+
+    @Test
+    void testToPhysical_RewritesRequestKey() {
+        GetObjectRequest request = GetObjectRequest.builder().bucket(TEST_BUCKET).key("client-1/dev/cat.jpg").build();
+
+        GetObjectRequest physical = (GetObjectRequest) keyLayoutService.toPhysical(request);
+
+        assertEquals(keyLayoutService.toPhysicalKey("client-1/dev/cat.jpg"), physical.key());
+        assertNotEquals(request.key(), physical.key());
+        assertEquals(TEST_BUCKET, physical.bucket());
+    }
+
+    @Test
+    void testListObjects_MergesShardsInLogicalOrderAcrossPages() {
+        List<String> logical = IntStream.range(0, 50)
+                .mapToObj(i -> String.format("client-1/dev/file-%03d.txt", i))
+                .toList();
+        logical.forEach(key -> bucket.add(keyLayoutService.toPhysicalKey(key)));
+        bucket.add(keyLayoutService.toPhysicalKey("client-2/dev/other.txt"));
+
+        List<String> listed = new ArrayList<>();
+        String token = null;
+        do {
+            ListObjectsV2Response page = keyLayoutService.listObjects(ListObjectsV2Request.builder()
+                    .bucket(TEST_BUCKET)
+                    .prefix("client-1/dev/")
+                    .maxKeys(7)
+                    .continuationToken(token)
+                    .build(), this::list);
+            assertTrue(page.contents().size() <= 7);
+            page.contents().forEach(object -> listed.add(object.key()));
+            token = page.nextContinuationToken();
+        } while (token != null);
+
+        assertEquals(logical, listed);
+    }
+
+    @Test
+    void testListObjects_DelimiterMergesFoldersOfAllShards() {
+        Set<String> logical = new LinkedHashSet<>();
+        for (int i = 0; i < 20; i++) {
+            logical.add("client-1/dev/photos/" + i + ".jpg");
+            logical.add("client-1/dev/videos/" + i + ".mp4");
+        }
+        logical.add("client-1/dev/readme.txt");
+        logical.forEach(key -> bucket.add(keyLayoutService.toPhysicalKey(key)));
+
+        ListObjectsV2Response page = keyLayoutService.listObjects(ListObjectsV2Request.builder()
+                .bucket(TEST_BUCKET)
+                .prefix("client-1/dev/")
+                .delimiter("/")
+                .build(), this::list);
+
+        assertEquals(List.of("client-1/dev/photos/", "client-1/dev/videos/"),
+                page.commonPrefixes().stream().map(CommonPrefix::prefix).toList());
+        assertEquals(List.of("client-1/dev/readme.txt"), page.contents().stream().map(S3Object::key).toList());
+        assertFalse(page.isTruncated());
+    }
+
+    @Test
+    void testListObjects_AboveShardFoldersMapsKeysBack() {
+        bucket.add(keyLayoutService.toPhysicalKey("client-1/dev/cat.jpg"));
+        bucket.add("top-level.txt");
+
+        ListObjectsV2Response page = keyLayoutService.listObjects(ListObjectsV2Request.builder()
+                .bucket(TEST_BUCKET)
+                .build(), this::list);
+
+        assertEquals(Set.of("client-1/dev/cat.jpg", "top-level.txt"),
+                Set.copyOf(page.contents().stream().map(S3Object::key).toList()));
+    }
+
+    /**
+     * Minimal ListObjectsV2 over the in-memory bucket: prefix, start-after, max-keys and delimiter
+     */
+    private ListObjectsV2Response list(ListObjectsV2Request request) {
+        String prefix = request.prefix() != null ? request.prefix() : "";
+        int maxKeys = request.maxKeys() != null ? request.maxKeys() : 1000;
+        List<S3Object> contents = new ArrayList<>();
+        Set<String> folders = new LinkedHashSet<>();
+        boolean truncated = false;
+        for (String key : bucket) {
+            if (!key.startsWith(prefix)
+                    || request.startAfter() != null && FrontCodedKeySet.compareKeys(key, request.startAfter()) <= 0) {
+                continue;
+            }
+            int slash = request.delimiter() != null ? key.indexOf(request.delimiter(), prefix.length()) : -1;
+            String folder = slash >= 0 ? key.substring(0, slash + 1) : null;
+            if (folder != null && folders.contains(folder)) {
+                continue;
+            }
+            if (contents.size() + folders.size() == maxKeys) {
+                truncated = true;
+                break;
+            }
+            if (folder != null) {
+                folders.add(folder);
+            } else {
+                contents.add(S3Object.builder().key(key).build());
+            }
+        }
+        return ListObjectsV2Response.builder()
+                .contents(contents)
+                .commonPrefixes(folders.stream().map(folder -> CommonPrefix.builder().prefix(folder).build()).toList())
+                .isTruncated(truncated)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.service.MemoryBudgetService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MemoryBudgetServiceImpl
+ */
+class MemoryBudgetServiceImplTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private MemoryBudgetServiceImpl memoryBudgetService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        StorageProperties.MemoryBudget settings = storageProperties.getMemoryBudget();
+        settings.setEnabled(true);
+        settings.setMaxMb(100);
+        settings.setMinMb(1);
+        settings.setMaxWaitMs(0);
+        meterRegistry = new SimpleMeterRegistry();
+        memoryBudgetService = new MemoryBudgetServiceImpl(storageProperties, meterRegistry, () -> Long.MAX_VALUE);
+    }
+
+    @Test
+    void testReserve_DisabledChargesNothing() {
+        storageProperties.getMemoryBudget().setEnabled(false);
+
+        try (MemoryBudgetService.Reservation reservation = memoryBudgetService.reserve(500 * MB)) {
+            assertNotNull(reservation);
+            assertEquals(0, memoryBudgetService.reserved());
+        }
+    }
+
+    @Test
+    void testReserve_RejectsWithRetryAfterWhenBudgetIsTaken() {
+        storageProperties.getMemoryBudget().setRetryAfterSeconds(3);
+
+        try (MemoryBudgetService.Reservation held = memoryBudgetService.reserve(80 * MB)) {
+            assertEquals(80 * MB, meterRegistry.get("storage.memory.budget.reserved").gauge().value());
+
+            ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                    () -> memoryBudgetService.reserve(30 * MB));
+            assertEquals(3, e.getRetryAfterSeconds());
+            assertEquals(1.0, meterRegistry.get("storage.memory.budget.rejected").counter().count());
+        }
+        assertEquals(0, memoryBudgetService.reserved());
+    }
+
+    @Test
+    void testReservation_ReleasesOnlyOnce() {
+        MemoryBudgetService.Reservation first = memoryBudgetService.reserve(40 * MB);
+        MemoryBudgetService.Reservation second = memoryBudgetService.reserve(40 * MB);
+
+        first.close();
+        first.close();
+
+        assertEquals(40 * MB, memoryBudgetService.reserved());
+        second.close();
+        assertEquals(0, memoryBudgetService.reserved());
+    }
+
+    @Test
+    void testCapacity_CappedByDirectMemoryHeadroomButNotBelowMinimum() {
+        storageProperties.getMemoryBudget().setMinMb(8);
+
+        MemoryBudgetServiceImpl scarce = new MemoryBudgetServiceImpl(storageProperties, meterRegistry, () -> 20 * MB);
+        assertEquals(20 * MB, scarce.capacity());
+
+        MemoryBudgetServiceImpl exhausted = new MemoryBudgetServiceImpl(storageProperties, meterRegistry, () -> 0);
+        assertEquals(8 * MB, exhausted.capacity());
+    }
+
+    @Test
+    void testReserveDownload_ChargesBuffersNotObjectSize() {
+        StorageProperties.RangedDownload ranged = storageProperties.getRangedDownload();
+        ranged.setEnabled(true);
+        ranged.setThresholdMb(16);
+        ranged.setMaxBufferMb(64);
+
+        try (MemoryBudgetService.Reservation small = memoryBudgetService.reserveDownload(1000L)) {
+            assertEquals(1000, memoryBudgetService.reserved());
+        }
+        try (MemoryBudgetService.Reservation streamed = memoryBudgetService.reserveDownload(10 * MB)) {
+            assertEquals(MB, memoryBudgetService.reserved());
+        }
+        try (MemoryBudgetService.Reservation rangedDownload = memoryBudgetService.reserveDownload(2048 * MB)) {
+            assertEquals(65 * MB, memoryBudgetService.reserved());
+        }
+    }
+}
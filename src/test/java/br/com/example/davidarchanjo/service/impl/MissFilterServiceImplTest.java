@@ -0,0 +1,157 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MissFilterServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class MissFilterServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3ClientRegistryService clientRegistry;
+
+    private StorageProperties storageProperties;
+    private MissFilterServiceImpl missFilterService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getMissFilter().setEnabled(true);
+        storageProperties.getMissFilter().setExpectedKeys(1_000);
+        missFilterService = new MissFilterServiceImpl(s3Client, clientRegistry, storageProperties);
+        lenient().when(clientRegistry.isShared(anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void testIsMissing_AfterRebuild_AnswersFromFilter() {
+        listing("client-001/a.txt", "client-001/b.txt");
+
+        missFilterService.rebuild(TEST_BUCKET);
+
+        assertFalse(missFilterService.isMissing(TEST_BUCKET, "client-001/a.txt"));
+        assertTrue(missFilterService.isMissing(TEST_BUCKET, "client-001/missing.txt"));
+        assertFalse(missFilterService.isMissing("other-bucket", "client-001/missing.txt"));
+    }
+
+    @Test
+    void testIsMissing_KeyOnTenantClient_IsNotAnsweredFromFilter() {
+        listing("client-001/a.txt");
+        when(clientRegistry.isShared(TEST_BUCKET, "client-002/b.txt")).thenReturn(false);
+
+        missFilterService.rebuild(TEST_BUCKET);
+
+        assertFalse(missFilterService.isMissing(TEST_BUCKET, "client-002/b.txt"));
+        assertTrue(missFilterService.isMissing(TEST_BUCKET, "client-001/missing.txt"));
+    }
+
+    @Test
+    void testRecord_WriteThroughGateway_IsNotReportedMissing() {
+        listing("client-001/a.txt");
+        missFilterService.rebuild(TEST_BUCKET);
+        missFilterService.recordMissing(TEST_BUCKET, "client-001/new.txt");
+
+        missFilterService.onObjectChange(event(ObjectChangeType.CREATED, "client-001/new.txt"));
+
+        assertFalse(missFilterService.isMissing(TEST_BUCKET, "client-001/new.txt"));
+    }
+
+    @Test
+    void testRecordMissing_WithoutFilter_UsesNegativeCache() {
+        assertFalse(missFilterService.isMissing(TEST_BUCKET, "client-001/a.txt"));
+
+        missFilterService.recordMissing(TEST_BUCKET, "client-001/a.txt");
+        missFilterService.recordMissingBucket("gone-bucket");
+
+        assertTrue(missFilterService.isMissing(TEST_BUCKET, "client-001/a.txt"));
+        assertTrue(missFilterService.isBucketMissing("gone-bucket"));
+        assertFalse(missFilterService.isBucketMissing(TEST_BUCKET));
+    }
+
+    @Test
+    void testRecord_Delete_IsReportedMissing() {
+        missFilterService.onObjectChange(event(ObjectChangeType.DELETED, "client-001/a.txt"));
+
+        assertTrue(missFilterService.isMissing(TEST_BUCKET, "client-001/a.txt"));
+    }
+
+    @Test
+    void testRebuild_BucketNotFound_RemembersMissingBucket() {
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenThrow(NoSuchBucketException.builder().build());
+
+        missFilterService.rebuild(TEST_BUCKET);
+
+        assertTrue(missFilterService.isBucketMissing(TEST_BUCKET));
+    }
+
+    @Test
+    void testRebuild_BucketNotFoundWithTenantClients_DoesNotRememberMissingBucket() {
+        storageProperties.getClientRegistry().setEnabled(true);
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenThrow(NoSuchBucketException.builder().build());
+
+        missFilterService.rebuild(TEST_BUCKET);
+
+        assertFalse(missFilterService.isBucketMissing(TEST_BUCKET));
+    }
+
+    @Test
+    void testDisabled_NeverReportsMissing() {
+        storageProperties.getMissFilter().setEnabled(false);
+
+        missFilterService.recordMissing(TEST_BUCKET, "client-001/a.txt");
+
+        assertFalse(missFilterService.isMissing(TEST_BUCKET, "client-001/a.txt"));
+        assertThrows(StorageException.class, () -> missFilterService.rebuild(TEST_BUCKET));
+    }
+
+    private void listing(String... keys) {
+        List<S3Object> objects = Arrays.stream(keys)
+                .map(key -> S3Object.builder().key(key).size(1L).build())
+                .toList();
+        ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class))).thenReturn(paginator);
+        when(paginator.contents()).thenReturn(objects::iterator);
+    }
+
+    private ObjectChangeEvent event(ObjectChangeType type, String key) {
+        return ObjectChangeEvent.builder()
+                .type(type)
+                .bucketName(TEST_BUCKET)
+                .key(key)
+                .size(1L)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
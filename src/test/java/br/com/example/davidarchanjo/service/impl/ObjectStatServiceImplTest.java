@@ -0,0 +1,181 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
+import br.com.example.davidarchanjo.exception.FileNotFoundException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectStat;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.CompressionService;
+import br.com.example.davidarchanjo.service.MissFilterService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ObjectStatServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class ObjectStatServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3ClientRegistryService clientRegistry;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    @Mock
+    private CompressionService compressionService;
+
+    @Mock
+    private MissFilterService missFilterService;
+
+    private StorageProperties storageProperties;
+    private ObjectStatServiceImpl objectStatService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final String TEST_KEY = "client-001/report.pdf";
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        objectStatService = new ObjectStatServiceImpl(clientRegistry, bucketManagementService, compressionService,
+                missFilterService, storageProperties);
+        lenient().when(clientRegistry.clientFor(any(), any())).thenReturn(s3Client);
+        lenient().when(compressionService.storedCodec(anyMap())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testStat_CachesMetadataWithoutReadingBytes() {
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentLength(1024L)
+                .contentType("application/pdf")
+                .eTag("\"abc\"")
+                .lastModified(Instant.parse("2025-01-15T10:30:00Z"))
+                .checksumCRC32C("yZRlqg==")
+                .build());
+
+        ObjectStat first = objectStatService.stat(TEST_BUCKET, TEST_KEY);
+        ObjectStat second = objectStatService.stat(TEST_BUCKET, TEST_KEY);
+
+        assertSame(first, second);
+        assertEquals(1024L, first.getSize());
+        assertEquals("application/pdf", first.getContentType());
+        assertEquals(ChecksumType.CRC32C, first.getChecksumType());
+        verify(s3Client, times(1)).headObject(any(HeadObjectRequest.class));
+        verify(s3Client, never()).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void testStat_WriteThroughGateway_Revalidates() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength(10L).build())
+                .thenReturn(HeadObjectResponse.builder().contentLength(20L).build());
+
+        assertEquals(10L, objectStatService.stat(TEST_BUCKET, TEST_KEY).getSize());
+        objectStatService.onObjectChange(ObjectChangeEvent.builder()
+                .type(ObjectChangeType.CREATED)
+                .bucketName(TEST_BUCKET)
+                .key(TEST_KEY)
+                .size(20L)
+                .occurredAt(Instant.now())
+                .build());
+
+        assertEquals(20L, objectStatService.stat(TEST_BUCKET, TEST_KEY).getSize());
+    }
+
+    @Test
+    void testStat_CompressedObject_ReportsOriginalSize() {
+        Map<String, String> metadata = Map.of(
+                GatewayMetadata.ENCODING, "zstd",
+                GatewayMetadata.ORIGINAL_LENGTH, "4096");
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentLength(512L)
+                .metadata(metadata)
+                .checksumCRC32C("yZRlqg==")
+                .build());
+        when(compressionService.storedCodec(metadata)).thenReturn(Optional.of(CompressionCodec.ZSTD));
+
+        ObjectStat stat = objectStatService.stat(TEST_BUCKET, TEST_KEY);
+
+        assertEquals(4096L, stat.getSize());
+        assertEquals(512L, stat.getStoredSize());
+        assertEquals(CompressionCodec.ZSTD, stat.getCodec());
+        assertNull(stat.getChecksum());
+    }
+
+    @Test
+    void testStat_DeduplicatedReference_DescribesBlob() {
+        String digest = "ab".repeat(32);
+        String scope = "client-001/";
+        when(bucketManagementService.tenantPrefix(TEST_BUCKET, TEST_KEY)).thenReturn(scope);
+        when(s3Client.headObject(argThat((HeadObjectRequest request) ->
+                request != null && TEST_KEY.equals(request.key()))))
+                .thenReturn(HeadObjectResponse.builder()
+                        .contentLength(0L)
+                        .contentType("application/pdf")
+                        .metadata(Map.of(GatewayMetadata.CONTENT_SHA256, digest,
+                                GatewayMetadata.ORIGINAL_LENGTH, "2048"))
+                        .build());
+        when(s3Client.headObject(argThat((HeadObjectRequest request) ->
+                request != null && ContentAddress.blobKey(scope, digest).equals(request.key()))))
+                .thenReturn(HeadObjectResponse.builder()
+                        .contentLength(2048L)
+                        .contentType("application/octet-stream")
+                        .eTag("\"blob\"")
+                        .checksumCRC32C("yZRlqg==")
+                        .build());
+
+        ObjectStat stat = objectStatService.stat(TEST_BUCKET, TEST_KEY);
+
+        assertEquals(2048L, stat.getSize());
+        assertEquals(2048L, stat.getStoredSize());
+        assertEquals("application/pdf", stat.getContentType());
+        assertEquals("\"blob\"", stat.getETag());
+        assertEquals(ChecksumType.CRC32C, stat.getChecksumType());
+    }
+
+    @Test
+    void testStat_NotFound_RecordsMissAndIsNotCached() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().build());
+
+        assertThrows(FileNotFoundException.class, () -> objectStatService.stat(TEST_BUCKET, TEST_KEY));
+        assertThrows(FileNotFoundException.class, () -> objectStatService.stat(TEST_BUCKET, TEST_KEY));
+
+        verify(missFilterService, times(2)).recordMissing(TEST_BUCKET, TEST_KEY);
+    }
+
+    @Test
+    void testStat_KnownMiss_SkipsBackend() {
+        when(missFilterService.isMissing(TEST_BUCKET, TEST_KEY)).thenReturn(true);
+
+        assertThrows(FileNotFoundException.class, () -> objectStatService.stat(TEST_BUCKET, TEST_KEY));
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+}
@@ -0,0 +1,175 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.dto.PrefixStatsEntry;
+import br.com.example.davidarchanjo.dto.PrefixStatsResponse;
+import br.com.example.davidarchanjo.exception.BucketNotFoundException;
+import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.ListingSummary;
+import br.com.example.davidarchanjo.service.S3BucketStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ParallelListingServiceImpl against a simulated ListObjectsV2
+ */
+@ExtendWith(MockitoExtension.class)
+class ParallelListingServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3BucketStorageService storageService;
+
+    private ForkJoinPool listingPool;
+    private StorageProperties storageProperties;
+    private ParallelListingServiceImpl listingService;
+
+    private static final String TEST_BUCKET = "shared-storage";
+    private static final List<String> KEYS = List.of(
+            ".cas/blobs/ab/abcdef",
+            "client-001/dev/a.txt",
+            "client-001/prod/",
+            "client-001/prod/a.txt",
+            "client-001/prod/b.txt",
+            "client-001/prod/reports/c.txt",
+            "client-002/prod/d.txt",
+            "readme.txt"
+    );
+
+    @BeforeEach
+    void setUp() {
+        listingPool = new ForkJoinPool(4);
+        storageProperties = new StorageProperties();
+        storageProperties.getListing().setPageSize(1);
+        listingService = new ParallelListingServiceImpl(s3Client, storageService, storageProperties, listingPool);
+
+        lenient().when(storageService.bucketExists(TEST_BUCKET)).thenReturn(true);
+        lenient().when(s3Client.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenAnswer(invocation -> list(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        listingPool.shutdownNow();
+    }
+
+    @Test
+    void testScan_ListsEveryObjectOnceAcrossPartitions() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        ListingSummary summary = listingService.scan(TEST_BUCKET, null,
+                page -> page.forEach(object -> seen.add(object.getKey())));
+
+        assertEquals(List.of(
+                "client-001/dev/a.txt",
+                "client-001/prod/a.txt",
+                "client-001/prod/b.txt",
+                "client-001/prod/reports/c.txt",
+                "client-002/prod/d.txt",
+                "readme.txt"
+        ), seen.stream().sorted().toList());
+        assertEquals(6, summary.getObjects());
+        // Root, two clients and three environments; the internal prefix is never listed
+        assertEquals(6, summary.getPartitions());
+    }
+
+    @Test
+    void testPrefixStats_AggregatesPerSubPrefix() {
+        PrefixStatsResponse response = listingService.prefixStats(TEST_BUCKET, "client-001/", 1);
+
+        assertEquals(4L, response.getTotalObjects());
+        assertEquals(4L * 10, response.getTotalBytes());
+        assertEquals(List.of("client-001/dev/", "client-001/prod/"), response.getPrefixes().stream()
+                .map(PrefixStatsEntry::getPrefix)
+                .collect(Collectors.toList()));
+        assertEquals(3L, response.getPrefixes().get(1).getObjects());
+    }
+
+    @Test
+    void testPrefixStats_DepthZero_GroupsUnderPrefix() {
+        PrefixStatsResponse response = listingService.prefixStats(TEST_BUCKET, "", 0);
+
+        assertEquals(1, response.getPrefixes().size());
+        assertEquals("", response.getPrefixes().get(0).getPrefix());
+        assertEquals(6L, response.getPrefixes().get(0).getObjects());
+    }
+
+    @Test
+    void testPrefixStats_BucketNotFound_ThrowsException() {
+        when(storageService.bucketExists("missing")).thenReturn(false);
+
+        assertThrows(BucketNotFoundException.class, () -> listingService.prefixStats("missing", null, 1));
+        verify(s3Client, never()).listObjectsV2(any(ListObjectsV2Request.class));
+    }
+
+    @Test
+    void testScan_PartitionFailure_ThrowsStorageException() {
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Request request = invocation.getArgument(0);
+            if ("client-002/".equals(request.prefix())) {
+                throw S3Exception.builder().message("Slow down").build();
+            }
+            return list(request);
+        });
+
+        assertThrows(StorageException.class, () -> listingService.scan(TEST_BUCKET, null, page -> { }));
+    }
+
+    /**
+     * Minimal ListObjectsV2: prefix, delimiter, max-keys and an index as continuation token
+     */
+    private ListObjectsV2Response list(ListObjectsV2Request request) {
+        String prefix = request.prefix() != null ? request.prefix() : "";
+        List<Object> entries = new ArrayList<>();
+        Set<String> folders = new LinkedHashSet<>();
+        for (String key : KEYS) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+            int at = request.delimiter() != null ? key.indexOf(request.delimiter(), prefix.length()) : -1;
+            if (at >= 0 && at < key.length() - 1) {
+                String folder = key.substring(0, at + 1);
+                if (folders.add(folder)) {
+                    entries.add(CommonPrefix.builder().prefix(folder).build());
+                }
+            } else {
+                entries.add(S3Object.builder().key(key).size(10L).build());
+            }
+        }
+
+        int from = request.continuationToken() != null ? Integer.parseInt(request.continuationToken()) : 0;
+        int to = Math.min(entries.size(), from + request.maxKeys());
+        List<Object> page = entries.subList(from, to);
+        return ListObjectsV2Response.builder()
+                .contents(page.stream().filter(S3Object.class::isInstance).map(S3Object.class::cast).toList())
+                .commonPrefixes(page.stream().filter(CommonPrefix.class::isInstance).map(CommonPrefix.class::cast)
+                        .toList())
+                .isTruncated(to < entries.size())
+                .nextContinuationToken(to < entries.size() ? String.valueOf(to) : null)
+                .build();
+    }
+}
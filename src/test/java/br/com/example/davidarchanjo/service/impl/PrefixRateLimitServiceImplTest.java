@@ -0,0 +1,145 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.S3OperationType;
+import br.com.example.davidarchanjo.exception.BackendThrottledException;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrefixRateLimitServiceImpl
+ */
+class PrefixRateLimitServiceImplTest {
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private PrefixRateLimitServiceImpl prefixRateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getRequestShaping().setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        prefixRateLimitService = new PrefixRateLimitServiceImpl(storageProperties, meterRegistry);
+    }
+
+    @Test
+    void testCall_SlowDown_BacksOffOnlyThatPrefix() {
+        PutObjectRequest busy = put("client-1/dev/photos/a.jpg");
+        S3Exception slowDown = (S3Exception) S3Exception.builder()
+                .statusCode(503)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("SlowDown").build())
+                .build();
+
+        BackendThrottledException thrown = assertThrows(BackendThrottledException.class,
+                () -> prefixRateLimitService.call(S3OperationType.WRITE, busy, () -> {
+                    throw slowDown;
+                }));
+
+        assertTrue(thrown.getMessage().contains("shared-storage/client-1/dev/"));
+        assertEquals(1750, prefixRateLimitService.rate(S3OperationType.WRITE, "shared-storage/client-1/dev/"), 1);
+        assertEquals(1.0, meterRegistry.counter("storage.prefix.throttled",
+                "operation", "write", "prefix", "shared-storage/client-1/dev/").count());
+        assertEquals(-1, prefixRateLimitService.rate(S3OperationType.WRITE, "shared-storage/client-2/dev/"));
+    }
+
+    @Test
+    void testCall_OtherErrors_PassThroughWithoutBackoff() throws Throwable {
+        GetObjectRequest get = GetObjectRequest.builder().bucket(TEST_BUCKET).key("client-1/dev/a.jpg").build();
+        prefixRateLimitService.call(S3OperationType.READ, get, () -> "warm");
+
+        assertThrows(NoSuchKeyException.class, () -> prefixRateLimitService.call(S3OperationType.READ, get, () -> {
+            throw NoSuchKeyException.builder().statusCode(404).build();
+        }));
+
+        assertEquals(5500, prefixRateLimitService.rate(S3OperationType.READ, "shared-storage/client-1/dev/"), 0.001);
+    }
+
+    @Test
+    void testCall_RateExceeded_RejectsAfterMaxWait() throws Throwable {
+        storageProperties.getRequestShaping().setWriteRate(1);
+        storageProperties.getRequestShaping().setMinRate(1);
+        storageProperties.getRequestShaping().setBurstSeconds(0);
+        storageProperties.getRequestShaping().setMaxWaitMs(10);
+        PutObjectRequest request = put("client-1/dev/a.jpg");
+
+        assertEquals("first", prefixRateLimitService.call(S3OperationType.WRITE, request, () -> "first"));
+        assertThrows(BackendThrottledException.class,
+                () -> prefixRateLimitService.call(S3OperationType.WRITE, request, () -> "second"));
+        assertEquals(1.0, meterRegistry.counter("storage.prefix.rejected",
+                "operation", "write", "prefix", "shared-storage/client-1/dev/").count());
+    }
+
+    @Test
+    void testCall_ListingUsesPrefixAndReadRate() throws Throwable {
+        ListObjectsV2Request listing = ListObjectsV2Request.builder()
+                .bucket(TEST_BUCKET)
+                .prefix("client-1/dev/photos/")
+                .build();
+
+        prefixRateLimitService.call(S3OperationType.LIST, listing, () -> "listed");
+
+        assertTrue(prefixRateLimitService.rate(S3OperationType.READ, "shared-storage/client-1/dev/") > 0);
+    }
+
+    @Test
+    void testCall_PrefixDropped_RemovesItsMeters() throws Throwable {
+        storageProperties.getRequestShaping().setMaxPrefixes(1);
+        prefixRateLimitService = new PrefixRateLimitServiceImpl(storageProperties, meterRegistry);
+
+        for (int client = 0; client < 5; client++) {
+            prefixRateLimitService.call(S3OperationType.WRITE, put("client-" + client + "/dev/a.jpg"), () -> "ok");
+        }
+
+        // Eviction runs in the background; every meter left belongs to the one prefix still tracked
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            List<String> prefixes = meterRegistry.getMeters().stream()
+                    .map(Meter::getId)
+                    .filter(id -> id.getName().startsWith("storage.prefix."))
+                    .map(id -> id.getTag("prefix"))
+                    .distinct()
+                    .toList();
+            assertEquals(1, prefixes.size());
+            assertTrue(prefixRateLimitService.rate(S3OperationType.WRITE, prefixes.get(0)) > 0);
+        });
+        assertEquals(3, meterRegistry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("storage.prefix."))
+                .count());
+    }
+
+    @Test
+    void testCall_Disabled_CallsThrough() throws Throwable {
+        storageProperties.getRequestShaping().setEnabled(false);
+
+        assertEquals("ok", prefixRateLimitService.call(S3OperationType.WRITE, put("a.jpg"), () -> "ok"));
+        assertEquals(-1, prefixRateLimitService.rate(S3OperationType.WRITE, "shared-storage/"));
+    }
+
+    @Test
+    void testPrefixOf_TakesLeadingFolders() {
+        assertEquals("client-1/dev/", PrefixRateLimitServiceImpl.prefixOf("client-1/dev/photos/a.jpg", 2));
+        assertEquals("client-1/", PrefixRateLimitServiceImpl.prefixOf("client-1/a.jpg", 2));
+        assertEquals("", PrefixRateLimitServiceImpl.prefixOf("a.jpg", 2));
+        assertEquals("", PrefixRateLimitServiceImpl.prefixOf("client-1/dev/a.jpg", 0));
+    }
+
+    private static PutObjectRequest put(String key) {
+        return PutObjectRequest.builder().bucket(TEST_BUCKET).key(key).build();
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RangedDownloadServiceImpl
+ */
+class RangedDownloadServiceImplTest {
+
+    private static final int MB = 1024 * 1024;
+    private static final GetObjectRequest REQUEST = GetObjectRequest.builder()
+            .bucket("shared-storage")
+            .key("video.mp4")
+            .build();
+
+    private StorageProperties storageProperties;
+    private RangedDownloadServiceImpl rangedDownloadService;
+
+    private final List<GetObjectRequest> requests = new ArrayList<>();
+    private final AtomicBoolean firstAborted = new AtomicBoolean();
+    private String storedCrc32c;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getRangedDownload().setEnabled(true);
+        storageProperties.getRangedDownload().setThresholdMb(1);
+        storageProperties.getRangedDownload().setMinPartSizeMb(1);
+        storageProperties.getRangedDownload().setMaxPartSizeMb(1);
+        storageProperties.getRangedDownload().setMaxParallelism(2);
+        rangedDownloadService = new RangedDownloadServiceImpl(storageProperties, new SyncTaskExecutor());
+    }
+
+    @Test
+    void testGetObject_LargeObject_ReassemblesRangesInOrder() throws IOException {
+        byte[] object = randomBytes(3 * MB + 123);
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        assertArrayEquals(object, result.readAllBytes());
+        assertEquals((long) object.length, result.response().contentLength());
+        assertTrue(firstAborted.get());
+        assertEquals(List.of("bytes=1048576-2097151", "bytes=2097152-3145727", "bytes=3145728-3145850"),
+                requests.stream().skip(1).map(GetObjectRequest::range).toList());
+        assertTrue(requests.stream().skip(1).allMatch(request -> "\"etag\"".equals(request.ifMatch())));
+        assertTrue(rangedDownloadService.rangeThroughput() > 0);
+    }
+
+    @Test
+    void testGetObject_SmallObject_SingleGet() throws IOException {
+        byte[] object = randomBytes(MB);
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        assertArrayEquals(object, result.readAllBytes());
+        assertEquals(1, requests.size());
+        assertNull(requests.get(0).range());
+    }
+
+    @Test
+    void testGetObject_Disabled_SingleGet() throws IOException {
+        storageProperties.getRangedDownload().setEnabled(false);
+        byte[] object = randomBytes(3 * MB);
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        assertArrayEquals(object, result.readAllBytes());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testGetObject_ShortRange_FailsRead() {
+        byte[] object = randomBytes(2 * MB + 10);
+        Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> truncating = request -> {
+            ResponseInputStream<GetObjectResponse> response = serving(object).apply(request);
+            return request.range() == null
+                    ? response
+                    : new ResponseInputStream<>(response.response(), new ByteArrayInputStream(new byte[5]));
+        };
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, truncating);
+
+        assertThrows(IOException.class, result::readAllBytes);
+    }
+
+    @Test
+    void testGetObject_StoredChecksum_VerifiedOverReassembledObject() throws IOException {
+        byte[] object = randomBytes(3 * MB + 123);
+        storedCrc32c = crc32c(object);
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        assertArrayEquals(object, result.readAllBytes());
+        assertTrue(firstAborted.get());
+    }
+
+    @Test
+    void testGetObject_StoredChecksumMismatch_FailsRead() {
+        byte[] object = randomBytes(3 * MB + 123);
+        storedCrc32c = crc32c(new byte[]{1, 2, 3});
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        IOException error = assertThrows(IOException.class, result::readAllBytes);
+        assertTrue(error.getMessage().contains("CRC32C mismatch"));
+    }
+
+    @Test
+    void testGetObject_CompositeChecksum_NotVerified() throws IOException {
+        byte[] object = randomBytes(3 * MB + 123);
+        storedCrc32c = crc32c(new byte[]{1, 2, 3}) + "-4";
+
+        ResponseInputStream<GetObjectResponse> result = rangedDownloadService.getObject(REQUEST, serving(object));
+
+        assertArrayEquals(object, result.readAllBytes());
+    }
+
+    @Test
+    void testClose_AbortsRangesStillStreaming() throws IOException {
+        byte[] object = randomBytes(2 * MB + 10);
+        List<Runnable> fetches = new ArrayList<>();
+        rangedDownloadService = new RangedDownloadServiceImpl(storageProperties, fetches::add);
+        AtomicReference<InputStream> result = new AtomicReference<>();
+        AtomicBoolean rangeAborted = new AtomicBoolean();
+        Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> closingMidRange = request -> {
+            ResponseInputStream<GetObjectResponse> response = serving(object).apply(request);
+            if (request.range() == null) {
+                return response;
+            }
+            // The client goes away while the range body is still being read
+            InputStream body = new ByteArrayInputStream(new byte[0]) {
+                @Override
+                public synchronized int read(byte[] buffer, int offset, int length) {
+                    try {
+                        result.get().close();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return -1;
+                }
+            };
+            return new ResponseInputStream<>(response.response(),
+                    AbortableInputStream.create(body, () -> rangeAborted.set(true)));
+        };
+
+        result.set(rangedDownloadService.getObject(REQUEST, closingMidRange));
+        fetches.forEach(Runnable::run);
+
+        assertTrue(rangeAborted.get());
+        assertTrue(firstAborted.get());
+    }
+
+    /**
+     * Backend serving whole-object GETs and single byte ranges of one object
+     */
+    private Function<GetObjectRequest, ResponseInputStream<GetObjectResponse>> serving(byte[] object) {
+        return request -> {
+            requests.add(request);
+            byte[] body = object;
+            if (request.range() != null) {
+                String[] bounds = request.range().substring("bytes=".length()).split("-");
+                body = Arrays.copyOfRange(object, Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]) + 1);
+            }
+            GetObjectResponse response = GetObjectResponse.builder()
+                    .contentLength((long) body.length)
+                    .eTag("\"etag\"")
+                    .checksumCRC32C(request.range() == null ? storedCrc32c : null)
+                    .build();
+            boolean first = request.range() == null;
+            return new ResponseInputStream<>(response, AbortableInputStream.create(new ByteArrayInputStream(body),
+                    () -> firstAborted.set(first)));
+        };
+    }
+
+    private static String crc32c(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        long value = crc.getValue();
+        return Base64.getEncoder().encodeToString(
+                new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import br.com.example.davidarchanjo.exception.ServiceOverloadedException;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.util.RequestPriorityContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RequestPriorityServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestPriorityServiceImplTest {
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    private StorageProperties storageProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private RequestPriorityServiceImpl priorityService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        StorageProperties.Priority settings = storageProperties.getPriority();
+        settings.setEnabled(true);
+        settings.setMaxConnections(4);
+        settings.setBulkMaxConnections(1);
+        settings.setBulkMaxWaitMs(0);
+        meterRegistry = new SimpleMeterRegistry();
+        priorityService = new RequestPriorityServiceImpl(storageProperties, bucketManagementService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestPriorityContext.clear();
+    }
+
+    @Test
+    void testClassify_HeaderThenBulkPaths() {
+        assertEquals(RequestPriority.BULK, priorityService.classify("/api/v1/storage/b/download/f.txt", "bulk"));
+        assertEquals(RequestPriority.INTERACTIVE,
+                priorityService.classify("/api/v1/storage/b/batch/fetch", "Interactive"));
+        assertEquals(RequestPriority.BULK, priorityService.classify("/api/v1/storage/b/batch/fetch", "urgent"));
+        assertEquals(RequestPriority.BULK, priorityService.classify("/api/v1/exports/123", null));
+        assertNull(priorityService.classify("/api/v1/storage/b/download/f.txt", null));
+    }
+
+    @Test
+    void testCall_HoldsSlotUntilStreamedBodyIsClosed() throws Throwable {
+        Object result = priorityService.call(get("a.txt"), () -> response());
+        assertEquals(1, priorityService.inUse(RequestPriority.INTERACTIVE));
+
+        ((InputStream) result).close();
+        ((InputStream) result).close();
+        assertEquals(0, priorityService.inUse(RequestPriority.INTERACTIVE));
+
+        priorityService.call(get("a.txt"), () -> HeadObjectResponse.builder().build());
+        assertEquals(0, priorityService.inUse(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void testCall_RejectsBulkBeyondItsQuota() throws Throwable {
+        RequestPriorityContext.set(RequestPriority.BULK);
+        ResponseInputStream<GetObjectResponse> held =
+                (ResponseInputStream<GetObjectResponse>) priorityService.call(get("a.txt"), () -> response());
+
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                () -> priorityService.call(get("b.txt"), () -> response()));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("storage.priority.rejected").tag("priority", "bulk").counter().count());
+
+        // Interactive calls still find room
+        RequestPriorityContext.clear();
+        priorityService.call(get("c.txt"), () -> null);
+
+        held.abort();
+        assertEquals(0, priorityService.inUse(RequestPriority.BULK));
+    }
+
+    @Test
+    void testCall_AppliesTenantPolicyWhenRequestHasNoClass() throws Throwable {
+        storageProperties.getPriority().getTenants().put("client-1", RequestPriority.BULK);
+        when(bucketManagementService.resolveTenant(TEST_BUCKET, "client-1/dev/a.txt"))
+                .thenReturn(Optional.of(TenantLocation.builder().clientId("client-1").build()));
+
+        priorityService.call(get("client-1/dev/a.txt"), () -> {
+            assertEquals(1, priorityService.inUse(RequestPriority.BULK));
+            return null;
+        });
+        assertEquals(0, priorityService.inUse(RequestPriority.BULK));
+    }
+
+    @Test
+    void testCall_DisabledProceedsWithoutSlot() throws Throwable {
+        storageProperties.getPriority().setEnabled(false);
+        storageProperties.getPriority().getTenants().put("client-1", RequestPriority.BULK);
+
+        assertEquals("done", priorityService.call(get("client-1/dev/a.txt"), () -> {
+            assertEquals(0, priorityService.inUse(RequestPriority.INTERACTIVE));
+            return "done";
+        }));
+        verifyNoInteractions(bucketManagementService);
+    }
+
+    private static GetObjectRequest get(String key) {
+        return GetObjectRequest.builder().bucket(TEST_BUCKET).key(key).build();
+    }
+
+    private static ResponseInputStream<GetObjectResponse> response() {
+        return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(new byte[8])));
+    }
+}
@@ -1,30 +1,56 @@
 package br.com.example.davidarchanjo.service.impl;
 
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import br.com.example.davidarchanjo.enumeration.CompressionCodec;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.enumeration.ObjectChangeType;
+import br.com.example.davidarchanjo.event.ObjectChangeEvent;
 import br.com.example.davidarchanjo.exception.BucketNotFoundException;
 import br.com.example.davidarchanjo.exception.FileNotFoundException;
 import br.com.example.davidarchanjo.exception.FileUploadException;
 import br.com.example.davidarchanjo.exception.StorageException;
+import br.com.example.davidarchanjo.model.GatewayMetadata;
+import br.com.example.davidarchanjo.model.ObjectContent;
+import br.com.example.davidarchanjo.model.ObjectSummary;
+import br.com.example.davidarchanjo.model.ObjectWriteResult;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BandwidthService;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import br.com.example.davidarchanjo.service.CompressionService;
+import br.com.example.davidarchanjo.service.MissFilterService;
+import br.com.example.davidarchanjo.service.S3ClientRegistryService;
+import br.com.example.davidarchanjo.util.ContentAddress;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.Abortable;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -38,6 +64,27 @@ class S3BucketStorageServiceImplTest {
     @Mock
     private S3Client s3Client;
 
+    @Mock
+    private S3ClientRegistryService clientRegistry;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    @Mock
+    private CompressionService compressionService;
+
+    @Spy
+    private StorageProperties storageProperties = new StorageProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MissFilterService missFilterService;
+
+    @Mock
+    private BandwidthService bandwidthService;
+
     @InjectMocks
     private S3BucketStorageServiceImpl service;
 
@@ -48,6 +95,9 @@ class S3BucketStorageServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(clientRegistry.clientFor(anyString(), any())).thenReturn(s3Client);
+        lenient().when(bandwidthService.throttle(anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(3));
         // Mock bucket exists by default using lenient to avoid unnecessary stubbing warnings
         lenient().when(s3Client.headBucket(any(HeadBucketRequest.class)))
                 .thenReturn(HeadBucketResponse.builder().build());
@@ -71,6 +121,45 @@ class S3BucketStorageServiceImplTest {
         verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
     }
 
+    @Test
+    void testUploadFile_TenantKey_ProvisionsBucketInsteadOfHeadingIt() {
+        String key = "client-001/prod/report.pdf";
+        when(bucketManagementService.resolveTenant(TEST_BUCKET, key))
+                .thenReturn(Optional.of(TenantLocation.builder()
+                        .clientId("client-001")
+                        .environment(Environment.PRODUCTION)
+                        .build()));
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        service.uploadFile(TEST_BUCKET, key, TEST_CONTENT_LENGTH, TEST_CONTENT_TYPE,
+                new ByteArrayInputStream("test content".getBytes()));
+
+        verify(bucketManagementService).createBucketIfNotExists(TEST_BUCKET, null, s3Client);
+        verify(s3Client, never()).headBucket(any(HeadBucketRequest.class));
+    }
+
+    @Test
+    void testUploadFile_TenantOnOwnClient_ProvisionsBucketThroughIt() {
+        String key = "client-001/prod/report.pdf";
+        S3Client tenantClient = mock(S3Client.class);
+        when(bucketManagementService.resolveTenant(TEST_BUCKET, key))
+                .thenReturn(Optional.of(TenantLocation.builder()
+                        .clientId("client-001")
+                        .environment(Environment.PRODUCTION)
+                        .build()));
+        when(clientRegistry.partitionFor(TEST_BUCKET, key)).thenReturn("client-001");
+        when(clientRegistry.clientFor(TEST_BUCKET, key)).thenReturn(tenantClient);
+        when(tenantClient.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        service.uploadFile(TEST_BUCKET, key, TEST_CONTENT_LENGTH, TEST_CONTENT_TYPE,
+                new ByteArrayInputStream("test content".getBytes()));
+
+        verify(bucketManagementService).createBucketIfNotExists(TEST_BUCKET, "client-001", tenantClient);
+        verify(tenantClient).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
     @Test
     void testUploadFile_BucketNotFound_ThrowsException() {
         // Reset the default stubbing for this test
@@ -172,13 +261,14 @@ class S3BucketStorageServiceImplTest {
         S3Object object1 = S3Object.builder().key("file1.pdf").build();
         S3Object object2 = S3Object.builder().key("file2.txt").build();
         S3Object directory = S3Object.builder().key("folder/").build();
+        S3Object blob = S3Object.builder().key(".cas/blobs/ab/ab12").build();
 
         ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
         when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
                 .thenReturn(paginator);
 
         when(paginator.contents())
-                .thenReturn(() -> List.of(object1, object2, directory).iterator());
+                .thenReturn(() -> List.of(object1, object2, directory, blob).iterator());
 
         List<String> files = service.listFiles(TEST_BUCKET);
 
@@ -187,6 +277,35 @@ class S3BucketStorageServiceImplTest {
         assertTrue(files.contains("file1.pdf"));
         assertTrue(files.contains("file2.txt"));
         assertFalse(files.contains("folder/")); // Directories should be filtered out
+        assertFalse(files.contains(".cas/blobs/ab/ab12")); // Deduplicated blobs are internal
+    }
+
+    @Test
+    void testTenantEndpoint_BucketCheckUploadAndListingUseTenantClient() {
+        // The tenant's bucket lives on its own endpoint; the shared backend does not have it
+        S3Client tenantClient = mock(S3Client.class);
+        String key = "client-001/prod/report.pdf";
+        String prefix = "client-001/prod/";
+        when(clientRegistry.clientFor(TEST_BUCKET, key)).thenReturn(tenantClient);
+        when(clientRegistry.clientFor(TEST_BUCKET, prefix)).thenReturn(tenantClient);
+        when(s3Client.headBucket(any(HeadBucketRequest.class))).thenThrow(NoSuchBucketException.builder().build());
+        when(tenantClient.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+        ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
+        when(tenantClient.listObjectsV2Paginator(any(ListObjectsV2Request.class))).thenReturn(paginator);
+        when(paginator.contents()).thenReturn(() -> List.of(S3Object.builder().key(key).build()).iterator());
+
+        assertTrue(service.bucketExists(TEST_BUCKET, key));
+        service.uploadFile(TEST_BUCKET, key, TEST_CONTENT_LENGTH, TEST_CONTENT_TYPE,
+                new ByteArrayInputStream("test content".getBytes()));
+        assertEquals(List.of(key), service.listFiles(TEST_BUCKET, prefix));
+
+        assertFalse(service.bucketExists(TEST_BUCKET));
+        verify(tenantClient, times(3)).headBucket(any(HeadBucketRequest.class));
+        verify(tenantClient).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(tenantClient).listObjectsV2Paginator(argThat((ListObjectsV2Request request) ->
+                request != null && prefix.equals(request.prefix())));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
     }
 
     @Test
@@ -347,4 +466,254 @@ class S3BucketStorageServiceImplTest {
                         request.key().equals(TEST_KEY)
         ));
     }
+
+    @Test
+    void testOpenObject_ReturnsStreamAndMetadata() throws Exception {
+        byte[] testContent = "streamed content".getBytes();
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder()
+                .contentLength((long) testContent.length)
+                .contentType("text/plain")
+                .eTag("\"abc\"")
+                .build();
+
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenReturn(new ResponseInputStream<>(getObjectResponse, new ByteArrayInputStream(testContent)));
+
+        try (ObjectContent content = service.openObject(TEST_BUCKET, TEST_KEY)) {
+            assertEquals(testContent.length, content.getContentLength());
+            assertEquals("text/plain", content.getContentType());
+            assertEquals("\"abc\"", content.getETag());
+            assertArrayEquals(testContent, content.getContent().readAllBytes());
+        }
+
+        verify(s3Client, never()).headBucket(any(HeadBucketRequest.class));
+    }
+
+    @Test
+    void testOpenObject_FileNotFound_ThrowsException() {
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().build());
+
+        assertThrows(FileNotFoundException.class, () -> service.openObject(TEST_BUCKET, TEST_KEY));
+        verify(missFilterService).recordMissing(TEST_BUCKET, TEST_KEY);
+    }
+
+    @Test
+    void testOpenObject_KnownMiss_SkipsBackend() {
+        when(missFilterService.isMissing(TEST_BUCKET, TEST_KEY)).thenReturn(true);
+
+        assertThrows(FileNotFoundException.class, () -> service.openObject(TEST_BUCKET, TEST_KEY));
+        verify(s3Client, never()).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void testDownloadFile_KnownMissingBucket_SkipsBackend() {
+        when(missFilterService.isBucketMissing(TEST_BUCKET)).thenReturn(true);
+
+        assertThrows(BucketNotFoundException.class, () -> service.downloadFile(TEST_BUCKET, TEST_KEY));
+        verify(s3Client, never()).headBucket(any(HeadBucketRequest.class));
+    }
+
+    @Test
+    void testListObjects_ReturnsSummariesWithoutDirectories() {
+        S3Object object1 = S3Object.builder().key("reports/a.pdf").size(10L).eTag("\"a\"").build();
+        S3Object directory = S3Object.builder().key("reports/").size(0L).build();
+
+        ListObjectsV2Iterable paginator = mock(ListObjectsV2Iterable.class);
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenReturn(paginator);
+        when(paginator.contents())
+                .thenReturn(() -> List.of(object1, directory).iterator());
+
+        List<ObjectSummary> summaries = service.listObjects(TEST_BUCKET, "reports/").toList();
+
+        assertEquals(1, summaries.size());
+        assertEquals("reports/a.pdf", summaries.get(0).getKey());
+        assertEquals(10L, summaries.get(0).getSize());
+        verify(s3Client).listObjectsV2Paginator(argThat((ListObjectsV2Request request) ->
+                request.prefix().equals("reports/")));
+    }
+
+    @Test
+    void testUploadFile_CompressibleContent_StoresCompressedWithMetadata() throws Exception {
+        byte[] compressed = new byte[]{1, 2, 3};
+        when(compressionService.selectCodec(TEST_BUCKET, "application/json", TEST_CONTENT_LENGTH))
+                .thenReturn(Optional.of(CompressionCodec.ZSTD));
+        when(compressionService.compress(any(InputStream.class), eq(CompressionCodec.ZSTD), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write(compressed);
+                    return (long) compressed.length;
+                });
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        service.uploadFile(TEST_BUCKET, TEST_KEY, TEST_CONTENT_LENGTH, "application/json",
+                new ByteArrayInputStream("{}".getBytes()));
+
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                request.contentLength() == 3L &&
+                        "zstd".equals(request.contentEncoding()) &&
+                        "zstd".equals(request.metadata().get(GatewayMetadata.ENCODING)) &&
+                        "1024".equals(request.metadata().get(GatewayMetadata.ORIGINAL_LENGTH))
+        ), any(RequestBody.class));
+    }
+
+    @Test
+    void testOpenObject_CompressedAndAccepted_ServesStoredBytes() throws Exception {
+        byte[] stored = new byte[]{7, 7, 7};
+        Map<String, String> metadata = Map.of(
+                GatewayMetadata.ENCODING, "gzip",
+                GatewayMetadata.ORIGINAL_LENGTH, "100"
+        );
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder()
+                .contentLength((long) stored.length)
+                .metadata(metadata)
+                .build();
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenReturn(new ResponseInputStream<>(getObjectResponse, new ByteArrayInputStream(stored)));
+        when(compressionService.storedCodec(metadata)).thenReturn(Optional.of(CompressionCodec.GZIP));
+        when(compressionService.accepts("gzip", CompressionCodec.GZIP)).thenReturn(true);
+
+        try (ObjectContent content = service.openObject(TEST_BUCKET, TEST_KEY, "gzip")) {
+            assertEquals("gzip", content.getContentEncoding());
+            assertEquals(3L, content.getContentLength());
+            assertArrayEquals(stored, content.getContent().readAllBytes());
+        }
+        verify(compressionService, never()).decompress(any(), any());
+    }
+
+    @Test
+    void testOpenObject_CompressedNotAccepted_Decompresses() throws Exception {
+        byte[] original = "original".getBytes();
+        Map<String, String> metadata = Map.of(
+                GatewayMetadata.ENCODING, "gzip",
+                GatewayMetadata.ORIGINAL_LENGTH, String.valueOf(original.length)
+        );
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder()
+                .contentLength(3L)
+                .metadata(metadata)
+                .build();
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenReturn(new ResponseInputStream<>(getObjectResponse, new ByteArrayInputStream(new byte[3])));
+        when(compressionService.storedCodec(metadata)).thenReturn(Optional.of(CompressionCodec.GZIP));
+        when(compressionService.decompress(any(InputStream.class), eq(CompressionCodec.GZIP)))
+                .thenReturn(new ByteArrayInputStream(original));
+
+        try (ObjectContent content = service.openObject(TEST_BUCKET, TEST_KEY, null)) {
+            assertNull(content.getContentEncoding());
+            assertNull(content.getChecksum());
+            assertEquals((long) original.length, content.getContentLength());
+            assertArrayEquals(original, content.getContent().readAllBytes());
+        }
+    }
+
+    @Test
+    void testOpenObject_DecompressFails_AbortsStoredBody() throws Exception {
+        Map<String, String> metadata = Map.of(GatewayMetadata.ENCODING, "gzip");
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder()
+                .contentLength(3L)
+                .metadata(metadata)
+                .build();
+        Abortable abortable = mock(Abortable.class);
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                getObjectResponse, AbortableInputStream.create(new ByteArrayInputStream(new byte[3]), abortable)));
+        when(compressionService.storedCodec(metadata)).thenReturn(Optional.of(CompressionCodec.GZIP));
+        when(compressionService.decompress(any(InputStream.class), eq(CompressionCodec.GZIP)))
+                .thenThrow(new IOException("Not in GZIP format"));
+
+        assertThrows(StorageException.class, () -> service.openObject(TEST_BUCKET, TEST_KEY, null));
+        verify(abortable).abort();
+    }
+
+    @Test
+    void testOpenObject_DeduplicatedReference_ReadsBlob() throws Exception {
+        String digest = "ab".repeat(32);
+        String scope = "client-001/prod/";
+        byte[] original = "shared bytes".getBytes();
+        when(bucketManagementService.tenantPrefix(TEST_BUCKET, TEST_KEY)).thenReturn(scope);
+        GetObjectResponse reference = GetObjectResponse.builder()
+                .contentLength(0L)
+                .contentType("text/plain")
+                .metadata(Map.of(GatewayMetadata.CONTENT_SHA256, digest))
+                .build();
+        GetObjectResponse blob = GetObjectResponse.builder()
+                .contentLength((long) original.length)
+                .contentType("application/octet-stream")
+                .build();
+        when(s3Client.getObject(argThat((GetObjectRequest request) ->
+                request != null && TEST_KEY.equals(request.key()))))
+                .thenReturn(new ResponseInputStream<>(reference, new ByteArrayInputStream(new byte[0])));
+        when(s3Client.getObject(argThat((GetObjectRequest request) ->
+                request != null && ContentAddress.blobKey(scope, digest).equals(request.key()))))
+                .thenReturn(new ResponseInputStream<>(blob, new ByteArrayInputStream(original)));
+
+        try (ObjectContent content = service.openObject(TEST_BUCKET, TEST_KEY)) {
+            assertEquals(TEST_KEY, content.getKey());
+            assertEquals("text/plain", content.getContentType());
+            assertEquals((long) original.length, content.getContentLength());
+            assertArrayEquals(original, content.getContent().readAllBytes());
+        }
+    }
+
+    @Test
+    void testUploadFile_RequestsChecksumAndReturnsIt() {
+        when(s3Client.headBucket(any(HeadBucketRequest.class)))
+                .thenReturn(HeadBucketResponse.builder().build());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().checksumCRC32C("yZRlqg==").build());
+
+        ObjectWriteResult result = service.uploadFile(TEST_BUCKET, TEST_KEY, TEST_CONTENT_LENGTH, TEST_CONTENT_TYPE,
+                new ByteArrayInputStream(new byte[1024]));
+
+        assertEquals(ChecksumType.CRC32C, result.getChecksumType());
+        assertEquals("yZRlqg==", result.getChecksum());
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                request.checksumAlgorithm() == ChecksumAlgorithm.CRC32_C), any(RequestBody.class));
+    }
+
+    @Test
+    void testUploadFile_ChecksumDisabled_SendsNoAlgorithm() {
+        storageProperties.getChecksum().setEnabled(false);
+        when(s3Client.headBucket(any(HeadBucketRequest.class)))
+                .thenReturn(HeadBucketResponse.builder().build());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        ObjectWriteResult result = service.uploadFile(TEST_BUCKET, TEST_KEY, TEST_CONTENT_LENGTH, TEST_CONTENT_TYPE,
+                new ByteArrayInputStream(new byte[1024]));
+
+        assertNull(result.getChecksumType());
+        verify(s3Client).putObject(argThat((PutObjectRequest request) ->
+                request.checksumAlgorithm() == null), any(RequestBody.class));
+    }
+
+    @Test
+    void testOpenObject_ValidatesAndExposesStoredChecksum() throws Exception {
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder()
+                .contentLength(3L)
+                .checksumSHA256("47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=")
+                .build();
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenReturn(new ResponseInputStream<>(getObjectResponse, new ByteArrayInputStream(new byte[3])));
+
+        try (ObjectContent content = service.openObject(TEST_BUCKET, TEST_KEY)) {
+            assertEquals(ChecksumType.SHA256, content.getChecksumType());
+            assertEquals("47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=", content.getChecksum());
+        }
+        verify(s3Client).getObject(argThat((GetObjectRequest request) ->
+                request.checksumMode() == ChecksumMode.ENABLED));
+    }
+
+    @Test
+    void testDeleteFile_PublishesChangeEvent() {
+        when(s3Client.headBucket(any(HeadBucketRequest.class)))
+                .thenReturn(HeadBucketResponse.builder().build());
+
+        service.deleteFile(TEST_BUCKET, TEST_KEY);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ObjectChangeEvent change &&
+                        change.getType() == ObjectChangeType.DELETED &&
+                        TEST_KEY.equals(change.getKey())));
+    }
 }
@@ -0,0 +1,145 @@
+package br.com.example.davidarchanjo.service.impl;
+
+import br.com.example.davidarchanjo.config.S3ClientFactory;
+import br.com.example.davidarchanjo.config.StorageProperties;
+import br.com.example.davidarchanjo.enumeration.ClientPartition;
+import br.com.example.davidarchanjo.enumeration.Environment;
+import br.com.example.davidarchanjo.model.TenantLocation;
+import br.com.example.davidarchanjo.service.BucketManagementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for S3ClientRegistryServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class S3ClientRegistryServiceImplTest {
+
+    private static final String TEST_BUCKET = "shared-storage";
+
+    @Mock
+    private S3Client sharedClient;
+
+    @Mock
+    private S3ClientFactory s3ClientFactory;
+
+    @Mock
+    private BucketManagementService bucketManagementService;
+
+    private StorageProperties storageProperties;
+    private S3ClientRegistryServiceImpl clientRegistry;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getClientRegistry().setEnabled(true);
+        clientRegistry = new S3ClientRegistryServiceImpl(
+                sharedClient, s3ClientFactory, bucketManagementService, storageProperties, new SimpleMeterRegistry());
+
+        lenient().when(bucketManagementService.resolveTenant(eq(TEST_BUCKET), anyString())).thenAnswer(invocation -> {
+            String[] segments = invocation.<String>getArgument(1).split("/", 3);
+            return segments.length < 3
+                    ? Optional.empty()
+                    : Optional.of(TenantLocation.builder()
+                            .clientId(segments[0])
+                            .environment(Environment.fromValue(segments[1]))
+                            .build());
+        });
+        lenient().when(s3ClientFactory.create(anyString(), any(), anyInt()))
+                .thenAnswer(invocation -> mock(S3Client.class));
+    }
+
+    @Test
+    void testClientFor_Disabled_ReturnsSharedClient() {
+        storageProperties.getClientRegistry().setEnabled(false);
+
+        assertSame(sharedClient, clientRegistry.clientFor(TEST_BUCKET, "client-001/dev/file.txt"));
+        verify(s3ClientFactory, never()).create(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void testClientFor_Tenant_CreatesOneClientPerTenant() {
+        S3Client first = clientRegistry.clientFor(TEST_BUCKET, "client-001/dev/a.txt");
+        S3Client second = clientRegistry.clientFor(TEST_BUCKET, "client-001/prod/b.txt");
+        S3Client other = clientRegistry.clientFor(TEST_BUCKET, "client-002/dev/a.txt");
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertNotSame(sharedClient, first);
+        assertEquals(2, clientRegistry.size());
+    }
+
+    @Test
+    void testIsShared_TenantKey_WithoutCreatingClient() {
+        assertFalse(clientRegistry.isShared(TEST_BUCKET, "client-001/dev/a.txt"));
+        assertTrue(clientRegistry.isShared(TEST_BUCKET, "loose.txt"));
+
+        storageProperties.getClientRegistry().setEnabled(false);
+        assertTrue(clientRegistry.isShared(TEST_BUCKET, "client-001/dev/a.txt"));
+        verify(s3ClientFactory, never()).create(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void testClientFor_Environment_SharedAcrossTenants() {
+        storageProperties.getClientRegistry().setPartition(ClientPartition.ENVIRONMENT);
+
+        S3Client dev = clientRegistry.clientFor(TEST_BUCKET, "client-001/dev/a.txt");
+
+        assertSame(dev, clientRegistry.clientFor(TEST_BUCKET, "client-002/dev/a.txt"));
+        assertNotSame(dev, clientRegistry.clientFor(TEST_BUCKET, "client-001/prod/a.txt"));
+    }
+
+    @Test
+    void testClientFor_EndpointOverride_UsesItsSettings() {
+        StorageProperties.ClientRegistry.Endpoint endpoint = new StorageProperties.ClientRegistry.Endpoint();
+        endpoint.setEndpointUrl("http://minio-eu:9000");
+        endpoint.setMaxConnections(5);
+        storageProperties.getClientRegistry().getEndpoints().put("client-001", endpoint);
+
+        clientRegistry.clientFor(TEST_BUCKET, "client-001/dev/a.txt");
+        clientRegistry.clientFor(TEST_BUCKET, "client-002/dev/a.txt");
+
+        verify(s3ClientFactory).create(eq("client-001"), eq(endpoint), eq(5));
+        verify(s3ClientFactory).create(eq("client-002"),
+                argThat(settings -> settings.getEndpointUrl() == null), eq(50));
+    }
+
+    @Test
+    void testClientFor_UnknownTenant_ReturnsSharedClient() {
+        assertSame(sharedClient, clientRegistry.clientFor(TEST_BUCKET, "loose-file.txt"));
+        assertSame(sharedClient, clientRegistry.clientFor(TEST_BUCKET, null));
+    }
+
+    @Test
+    void testDestroy_ClosesTenantClients() {
+        S3Client client = mock(S3Client.class);
+        when(s3ClientFactory.create(eq("client-001"), any(), anyInt())).thenReturn(client);
+        clientRegistry.clientFor(TEST_BUCKET, "client-001/dev/a.txt");
+
+        clientRegistry.destroy();
+
+        verify(client, times(1)).close();
+        verify(sharedClient, never()).close();
+        assertEquals(0, clientRegistry.size());
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimit
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testTryAcquire_RejectsBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.2, 1.5, 100, 0.9);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void testRelease_GrowsWhileLatencyHoldsAndSaturated() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.2, 1.5, 100, 0.9);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limit);
+            drain(limit, FAST);
+        }
+
+        assertTrue(limit.getLimit() > 10);
+    }
+
+    @Test
+    void testRelease_ShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, 0.2, 1.5, 100, 0.9);
+        saturate(limit);
+        drain(limit, FAST);
+        int before = limit.getLimit();
+
+        saturate(limit);
+        drain(limit, FAST * 10);
+
+        assertTrue(limit.getLimit() < before, limit.getLimit() + " should be below " + before);
+    }
+
+    @Test
+    void testRelease_DropsBackOffEvenWhenIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, 1.0, 1.5, 100, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(FAST, true);
+
+        assertEquals(25, limit.getLimit());
+    }
+
+    @Test
+    void testRelease_NeverBelowMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 4, 100, 1.0, 1.5, 100, 0.1);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST, true);
+        }
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // Fill every slot
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimit limit, long rtt) {
+        while (limit.getInFlight() > 0) {
+            limit.release(rtt, false);
+        }
+    }
+}
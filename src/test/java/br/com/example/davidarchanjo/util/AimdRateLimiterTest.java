@@ -0,0 +1,74 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AimdRateLimiter
+ */
+class AimdRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void testReserve_SpacesPermitsByRate() {
+        AimdRateLimiter limiter = new AimdRateLimiter(10, 1, 10, 0.5, 1, 0, now::get);
+
+        assertEquals(0, limiter.reserve(SECOND));
+        assertEquals(SECOND / 10, limiter.reserve(SECOND));
+        assertEquals(2 * SECOND / 10, limiter.reserve(SECOND));
+    }
+
+    @Test
+    void testReserve_RejectsBeyondMaxWaitWithoutReserving() {
+        AimdRateLimiter limiter = new AimdRateLimiter(1, 1, 1, 0.5, 1, 0, now::get);
+
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(-1, limiter.reserve(SECOND / 2));
+        assertEquals(SECOND, limiter.reserve(SECOND));
+    }
+
+    @Test
+    void testReserve_IdleTimeAccruesOnlyABurst() {
+        AimdRateLimiter limiter = new AimdRateLimiter(10, 1, 10, 0.5, 1, 0.2, now::get);
+        now.addAndGet(60 * SECOND);
+
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(-1, limiter.reserve(0));
+    }
+
+    @Test
+    void testOnThrottle_CutsOncePerSecondThenRecoversAdditively() {
+        AimdRateLimiter limiter = new AimdRateLimiter(100, 10, 100, 0.5, 10, 0, now::get);
+
+        assertTrue(limiter.onThrottle());
+        assertFalse(limiter.onThrottle());
+        assertEquals(50, limiter.getRate(), 0.001);
+
+        now.addAndGet(SECOND);
+        assertTrue(limiter.onThrottle());
+        assertEquals(25, limiter.getRate(), 0.001);
+
+        for (int i = 0; i < 25; i++) {
+            limiter.onSuccess();
+        }
+        assertTrue(limiter.getRate() > 30 && limiter.getRate() < 35, "rate " + limiter.getRate());
+    }
+
+    @Test
+    void testOnThrottle_NeverBelowMinimum() {
+        AimdRateLimiter limiter = new AimdRateLimiter(20, 10, 100, 0.1, 10, 0, now::get);
+
+        limiter.onThrottle();
+
+        assertEquals(10, limiter.getRate(), 0.001);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter
+ */
+class BloomFilterTest {
+
+    private static final List<String> KEYS = IntStream.range(0, 10_000)
+            .mapToObj(i -> String.format("client-%03d/prod/reports/file-%05d.pdf", i % 7, i))
+            .toList();
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(KEYS.size(), 0.01);
+        KEYS.forEach(filter::put);
+
+        assertTrue(KEYS.stream().allMatch(filter::mightContain));
+        assertEquals(KEYS.size(), filter.insertions());
+    }
+
+    @Test
+    void testMightContain_FalsePositivesNearTarget() {
+        BloomFilter filter = BloomFilter.create(KEYS.size(), 0.01);
+        KEYS.forEach(filter::put);
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .mapToObj(i -> String.format("client-%03d/prod/reports/missing-%05d.pdf", i % 7, i))
+                .filter(filter::mightContain)
+                .count();
+
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void testCreate_SizesForTarget() {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // About 9.6 bits and 7 hashes per key at 1%
+        assertEquals(7, filter.hashFunctions());
+        assertTrue(filter.memoryBytes() > 1_100_000 && filter.memoryBytes() < 1_300_000);
+    }
+
+    @Test
+    void testCreate_InvalidArguments_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
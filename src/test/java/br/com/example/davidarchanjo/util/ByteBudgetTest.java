@@ -0,0 +1,87 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ByteBudget
+ */
+class ByteBudgetTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void testReserve_TimesOutWhenCapacityIsTaken() throws InterruptedException {
+        ByteBudget budget = new ByteBudget(() -> 100);
+
+        assertEquals(60, budget.reserve(60, 0));
+        assertEquals(-1, budget.reserve(50, 0));
+        assertEquals(40, budget.reserve(40, 0));
+        assertEquals(100, budget.reserved());
+
+        budget.release(60);
+        assertEquals(50, budget.reserve(50, 0));
+        assertEquals(0, budget.queued());
+    }
+
+    @Test
+    void testReserve_ChargesAtMostTheCapacity() throws InterruptedException {
+        ByteBudget budget = new ByteBudget(() -> 100);
+
+        assertEquals(100, budget.reserve(1_000, 0));
+        assertEquals(-1, budget.reserve(1, 0));
+    }
+
+    @Test
+    void testReserve_LaterCallersQueueBehindLargeReservation() throws Exception {
+        ByteBudget budget = new ByteBudget(() -> 100);
+        assertEquals(80, budget.reserve(80, 0));
+
+        CompletableFuture<Long> large = CompletableFuture.supplyAsync(() -> reserve(budget, 50));
+        awaitQueued(budget);
+
+        // Fits in what is left, but the large reservation came first
+        assertEquals(-1, budget.reserve(10, 0));
+
+        budget.release(80);
+        assertEquals(50, large.get(5, TimeUnit.SECONDS));
+        assertEquals(10, budget.reserve(10, 0));
+    }
+
+    @Test
+    void testReserve_FollowsCapacityChanges() throws Exception {
+        AtomicLong capacity = new AtomicLong(10);
+        ByteBudget budget = new ByteBudget(capacity::get);
+        assertEquals(10, budget.reserve(10, 0));
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> reserve(budget, 20));
+        awaitQueued(budget);
+
+        capacity.set(100);
+        budget.release(0);
+        assertEquals(20, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(30, budget.reserved());
+    }
+
+    private static long reserve(ByteBudget budget, long bytes) {
+        try {
+            return budget.reserve(bytes, WAIT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static void awaitQueued(ByteBudget budget) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT;
+        while (budget.queued() == 0) {
+            assertTrue(System.nanoTime() < deadline, "No caller queued");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ByteRateLimiter
+ */
+class ByteRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void testReserve_SpacesChunksByTheirSize() {
+        ByteRateLimiter limiter = new ByteRateLimiter(1000, 0, now::get);
+
+        assertEquals(0, limiter.reserve(500));
+        assertEquals(SECOND / 2, limiter.reserve(100));
+        assertEquals(6 * SECOND / 10, limiter.reserve(1000));
+        assertEquals(16 * SECOND / 10, limiter.reserve(1));
+    }
+
+    @Test
+    void testReserve_UnlimitedNeverWaits() {
+        ByteRateLimiter limiter = new ByteRateLimiter(0, 0, now::get);
+
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE / 2));
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE / 2));
+        assertEquals(0, limiter.getRate());
+    }
+
+    @Test
+    void testReserve_IdleTimeAccruesOnlyABurst() {
+        ByteRateLimiter limiter = new ByteRateLimiter(1000, 0.5, now::get);
+        now.addAndGet(60 * SECOND);
+
+        assertEquals(0, limiter.reserve(250));
+        assertEquals(0, limiter.reserve(250));
+        assertEquals(0, limiter.reserve(250));
+        assertEquals(SECOND / 4, limiter.reserve(250));
+    }
+
+    @Test
+    void testSetRate_AppliesToLaterChunks() {
+        ByteRateLimiter limiter = new ByteRateLimiter(1000, 0, now::get);
+
+        assertEquals(0, limiter.reserve(1000));
+        limiter.setRate(100);
+        assertEquals(SECOND, limiter.reserve(100));
+        assertEquals(2 * SECOND, limiter.reserve(100));
+        assertEquals(100, limiter.getRate(), 0.001);
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.example.davidarchanjo.util;
 
 import br.com.example.davidarchanjo.enumeration.DuplicateFileStrategy;
+import br.com.example.davidarchanjo.enumeration.IdFormat;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,7 +18,15 @@ class FileNameGeneratorTest {
         assertNotNull(fileName);
         assertTrue(fileName.startsWith("document_"));
         assertTrue(fileName.endsWith(".pdf"));
-        assertTrue(fileName.matches("document_[a-f0-9]{8}\\.pdf"));
+        assertTrue(fileName.matches("document_[0-9A-Z]{26}\\.pdf"), fileName);
+    }
+
+    @Test
+    void testGenerateFileName_UuidSuffix_UsesRequestedIdFormat() {
+        String fileName = FileNameGenerator.generateFileName(
+                "document.pdf", DuplicateFileStrategy.UUID_SUFFIX, null, IdFormat.SHORT);
+
+        assertTrue(fileName.matches("document_[a-f0-9]{8}\\.pdf"), fileName);
     }
 
     @Test
@@ -78,7 +87,7 @@ class FileNameGeneratorTest {
 
         assertNotNull(fileName);
         assertTrue(fileName.startsWith("README_"));
-        assertTrue(fileName.matches("README_[a-f0-9]{8}"));
+        assertTrue(fileName.matches("README_[0-9A-Z]{26}"));
         assertFalse(fileName.contains("."));
     }
 
@@ -105,7 +114,7 @@ class FileNameGeneratorTest {
         assertNotNull(fileName);
         assertTrue(fileName.startsWith("file.name.with.dots_"));
         assertTrue(fileName.endsWith(".txt"));
-        assertTrue(fileName.matches("file\\.name\\.with\\.dots_[a-f0-9]{8}\\.txt"));
+        assertTrue(fileName.matches("file\\.name\\.with\\.dots_[0-9A-Z]{26}\\.txt"));
     }
 
     @Test
@@ -0,0 +1,69 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FrontCodedKeySet
+ */
+class FrontCodedKeySetTest {
+
+    private static final List<String> KEYS = IntStream.range(0, 500)
+            .mapToObj(i -> String.format("client-%03d/prod/reports/file-%05d.pdf", i % 7, i))
+            .sorted()
+            .toList();
+
+    @Test
+    void testOf_RoundTripsKeysInOrder() {
+        FrontCodedKeySet set = FrontCodedKeySet.of(KEYS.iterator(), 16);
+
+        List<String> decoded = new ArrayList<>();
+        set.forEach(decoded::add);
+
+        assertEquals(KEYS, decoded);
+        assertEquals(KEYS.size(), set.size());
+        assertTrue(set.memoryBytes() < KEYS.stream().mapToLong(String::length).sum());
+    }
+
+    @Test
+    void testContainsAndCount() {
+        FrontCodedKeySet set = FrontCodedKeySet.of(KEYS.iterator(), 8);
+
+        assertTrue(set.contains(KEYS.get(0)));
+        assertTrue(set.contains(KEYS.get(KEYS.size() - 1)));
+        assertFalse(set.contains("client-000/prod/"));
+
+        for (int client = 0; client < 7; client++) {
+            String prefix = String.format("client-%03d/", client);
+            assertEquals(KEYS.stream().filter(key -> key.startsWith(prefix)).count(), set.count(prefix));
+        }
+        assertEquals(KEYS.size(), set.count(""));
+        assertEquals(0, set.count("missing/"));
+    }
+
+    @Test
+    void testOf_DropsDuplicatesAndRejectsUnsortedKeys() {
+        assertEquals(2, FrontCodedKeySet.of(List.of("a", "a", "b").iterator(), 4).size());
+        assertThrows(IllegalArgumentException.class, () -> FrontCodedKeySet.of(List.of("b", "a").iterator(), 4));
+        assertEquals(0, FrontCodedKeySet.of(List.<String>of().iterator(), 4).size());
+    }
+
+    @Test
+    void testCompareKeys_MatchesUtf8ByteOrder() {
+        List<String> keys = List.of("a", "ab", "b", "zé", "￯", "😀", "퟿");
+        for (String a : keys) {
+            for (String b : keys) {
+                int expected = Arrays.compareUnsigned(
+                        a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+                assertEquals(Integer.signum(expected), Integer.signum(FrontCodedKeySet.compareKeys(a, b)));
+            }
+        }
+    }
+}
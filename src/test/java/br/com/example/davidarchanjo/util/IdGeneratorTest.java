@@ -0,0 +1,98 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.IdFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdGenerator
+ */
+class IdGeneratorTest {
+
+    @Test
+    void testUuidV7_IsVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UUID.fromString(IdGenerator.uuidV7());
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1, "timestamp " + millis);
+    }
+
+    @Test
+    void testSecureUuidV7_IsVersion7AndOrderedWithOtherIds() {
+        String first = IdGenerator.uuidV7();
+        UUID secure = UUID.fromString(IdGenerator.secureUuidV7());
+
+        assertEquals(7, secure.version());
+        assertEquals(2, secure.variant());
+        assertTrue(secure.toString().compareTo(first) > 0);
+    }
+
+    @Test
+    void testUlid_UsesCrockfordAlphabet() {
+        String ulid = IdGenerator.ulid();
+
+        assertEquals(26, ulid.length());
+        assertTrue(ulid.matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"), ulid);
+    }
+
+    @Test
+    void testNext_IdsOfOneThreadAreStrictlyIncreasing() {
+        for (IdFormat format : List.of(IdFormat.UUID_V7, IdFormat.ULID)) {
+            String previous = IdGenerator.next(format);
+            // Far more than one counter's worth, so the timestamp has to move ahead within a millisecond
+            for (int i = 0; i < 20_000; i++) {
+                String id = IdGenerator.next(format);
+                assertTrue(id.compareTo(previous) > 0, format + ": " + id + " after " + previous);
+                previous = id;
+            }
+        }
+    }
+
+    @Test
+    void testNext_UniqueAcrossThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(IdGenerator.uuidV7());
+                        ids.add(IdGenerator.ulid());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(160_000, ids.size());
+    }
+
+    @Test
+    void testAppendTo_WritesIdOfFormatLength() {
+        StringBuilder name = new StringBuilder("report_");
+
+        IdGenerator.appendTo(name, IdFormat.SHORT);
+
+        assertTrue(name.toString().matches("report_[a-f0-9]{8}"), name.toString());
+        assertEquals(IdFormat.ULID.getLength(), IdGenerator.next(IdFormat.ULID).length());
+        assertEquals(IdFormat.UUID_V7.getLength(), IdGenerator.next(IdFormat.UUID_V7).length());
+    }
+}
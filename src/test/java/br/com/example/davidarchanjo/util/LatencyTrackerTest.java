@@ -0,0 +1,49 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyTracker
+ */
+class LatencyTrackerTest {
+
+    @Test
+    void testPercentile_EmptyReturnsMinusOne() {
+        LatencyTracker tracker = new LatencyTracker(10, 95, 1);
+
+        assertEquals(-1, tracker.percentile());
+        assertEquals(0, tracker.count());
+    }
+
+    @Test
+    void testPercentile_ReportsRankWithinWindow() {
+        LatencyTracker tracker = new LatencyTracker(100, 95, 1);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertEquals(95, tracker.percentile());
+        assertEquals(100, tracker.count());
+    }
+
+    @Test
+    void testPercentile_ForgetsSamplesOutsideWindow() {
+        LatencyTracker tracker = new LatencyTracker(10, 50, 1);
+        for (int i = 0; i < 10; i++) {
+            tracker.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(5);
+        }
+
+        assertEquals(5, tracker.percentile());
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyTracker(10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyTracker(10, 101, 1));
+    }
+}
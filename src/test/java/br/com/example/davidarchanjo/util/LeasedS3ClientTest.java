@@ -0,0 +1,76 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LeasedS3Client
+ */
+class LeasedS3ClientTest {
+
+    private static final GetObjectRequest GET = GetObjectRequest.builder().bucket("bucket").key("key").build();
+
+    @Test
+    void testRetire_OpenBody_ClosesOnlyAfterBodyIsClosed() throws Exception {
+        S3Client backend = mock(S3Client.class);
+        when(backend.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(new byte[]{1, 2, 3}))));
+        LeasedS3Client leased = LeasedS3Client.wrap(backend);
+
+        ResponseInputStream<GetObjectResponse> body = leased.client().getObject(GET);
+        assertEquals(1, leased.leases());
+        leased.retire(Duration.ZERO);
+
+        await().during(Duration.ofMillis(200)).atMost(Duration.ofSeconds(1))
+                .untilAsserted(() -> verify(backend, never()).close());
+        assertEquals(3, body.readAllBytes().length);
+        body.close();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> verify(backend, times(1)).close());
+        assertEquals(0, leased.leases());
+    }
+
+    @Test
+    void testLease_AbortedBodyAndFailedCall_ReleaseTheirLease() {
+        S3Client backend = mock(S3Client.class);
+        when(backend.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(new byte[0]))));
+        when(backend.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+        LeasedS3Client leased = LeasedS3Client.wrap(backend);
+
+        leased.client().getObject(GET).abort();
+        assertThrows(NoSuchKeyException.class, () -> leased.client().headObject(HeadObjectRequest.builder()
+                .bucket("bucket").key("key").build()));
+
+        assertEquals(0, leased.leases());
+    }
+
+    @Test
+    void testRetire_Idle_ClosesAfterGrace() {
+        S3Client backend = mock(S3Client.class);
+        when(backend.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+        LeasedS3Client leased = LeasedS3Client.wrap(backend);
+        leased.client().headObject(HeadObjectRequest.builder().bucket("bucket").key("key").build());
+
+        leased.retire(Duration.ofMillis(50));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> verify(backend, times(1)).close());
+    }
+}
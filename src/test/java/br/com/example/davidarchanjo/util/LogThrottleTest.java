@@ -0,0 +1,28 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogThrottle
+ */
+class LogThrottleTest {
+
+    @Test
+    void testTryAcquire_AllowsOnePerIntervalAndCountsSuppressed() {
+        AtomicLong now = new AtomicLong(1_000);
+        LogThrottle throttle = new LogThrottle(Duration.ofNanos(100), now::get);
+
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+
+        now.addAndGet(100);
+        assertEquals(2, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.ChecksumType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MultipartUploadOutputStream
+ */
+@ExtendWith(MockitoExtension.class)
+class MultipartUploadOutputStreamTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    private static final int PART_SIZE = MultipartUploadOutputStream.MIN_PART_SIZE;
+
+    @Test
+    void testClose_LargeOutput_UploadsPartsAndCompletes() throws IOException {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("\"part\"").build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag("\"object\"").build());
+
+        MultipartUploadOutputStream upload = new MultipartUploadOutputStream(
+                s3Client, "bucket", "exports/inventory.csv", "text/csv", ChecksumType.CRC32C, PART_SIZE);
+        upload.write(new byte[PART_SIZE * 2 + 10]);
+        upload.close();
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(parts.capture(), any(RequestBody.class));
+        assertEquals(10L, parts.getAllValues().get(2).contentLength());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertEquals(3, complete.getValue().multipartUpload().parts().size());
+        assertEquals("\"object\"", upload.getETag());
+        assertEquals(PART_SIZE * 2L + 10, upload.getBytesWritten());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testClose_SmallOutput_UsesSinglePut() throws IOException {
+        MultipartUploadOutputStream upload = new MultipartUploadOutputStream(
+                s3Client, "bucket", "exports/inventory.csv", "text/csv", null, PART_SIZE);
+        upload.write("key,size\n".getBytes());
+        upload.close();
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        assertThrows(IOException.class, () -> upload.write(1));
+    }
+
+    @Test
+    void testAbort_DiscardsStartedUpload() throws IOException {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("\"part\"").build());
+
+        MultipartUploadOutputStream upload = new MultipartUploadOutputStream(
+                s3Client, "bucket", "exports/inventory.csv", "text/csv", null, PART_SIZE);
+        upload.write(new byte[PART_SIZE]);
+        upload.abort();
+        upload.close();
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+}
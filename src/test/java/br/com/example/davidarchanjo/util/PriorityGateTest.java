@@ -0,0 +1,85 @@
+package br.com.example.davidarchanjo.util;
+
+import br.com.example.davidarchanjo.enumeration.RequestPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PriorityGate
+ */
+class PriorityGateTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void testAcquire_BulkIsCappedByItsQuotaAndInteractiveByThePool() throws InterruptedException {
+        PriorityGate gate = new PriorityGate(3, Map.of(RequestPriority.BULK, 1));
+
+        assertTrue(gate.acquire(RequestPriority.BULK, 0));
+        assertFalse(gate.acquire(RequestPriority.BULK, 0));
+        assertTrue(gate.acquire(RequestPriority.INTERACTIVE, 0));
+        assertTrue(gate.acquire(RequestPriority.INTERACTIVE, 0));
+        assertFalse(gate.acquire(RequestPriority.INTERACTIVE, 0));
+
+        gate.release(RequestPriority.BULK);
+        assertEquals(0, gate.inUse(RequestPriority.BULK));
+        assertTrue(gate.acquire(RequestPriority.INTERACTIVE, 0));
+        assertEquals(3, gate.inUse(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void testRelease_HandsTheSlotToWaitingInteractiveBeforeBulk() throws Exception {
+        PriorityGate gate = new PriorityGate(1, Map.of());
+        assertTrue(gate.acquire(RequestPriority.INTERACTIVE, 0));
+
+        CompletableFuture<Boolean> bulk = CompletableFuture.supplyAsync(() -> acquire(gate, RequestPriority.BULK));
+        awaitWaiting(gate, RequestPriority.BULK);
+        CompletableFuture<Boolean> interactive =
+                CompletableFuture.supplyAsync(() -> acquire(gate, RequestPriority.INTERACTIVE));
+        awaitWaiting(gate, RequestPriority.INTERACTIVE);
+
+        gate.release(RequestPriority.INTERACTIVE);
+        assertTrue(interactive.get(5, TimeUnit.SECONDS));
+        assertFalse(bulk.isDone());
+
+        gate.release(RequestPriority.INTERACTIVE);
+        assertTrue(bulk.get(5, TimeUnit.SECONDS));
+        assertEquals(1, gate.inUse(RequestPriority.BULK));
+    }
+
+    @Test
+    void testAcquire_InteractiveHeldBackByItsQuotaDoesNotBlockBulk() throws Exception {
+        PriorityGate gate = new PriorityGate(3, Map.of(RequestPriority.INTERACTIVE, 1));
+        assertTrue(gate.acquire(RequestPriority.INTERACTIVE, 0));
+
+        CompletableFuture<Boolean> interactive =
+                CompletableFuture.supplyAsync(() -> acquire(gate, RequestPriority.INTERACTIVE));
+        awaitWaiting(gate, RequestPriority.INTERACTIVE);
+
+        assertTrue(gate.acquire(RequestPriority.BULK, 0));
+        gate.release(RequestPriority.INTERACTIVE);
+        assertTrue(interactive.get(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean acquire(PriorityGate gate, RequestPriority priority) {
+        try {
+            return gate.acquire(priority, WAIT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitWaiting(PriorityGate gate, RequestPriority priority) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT;
+        while (gate.waiting(priority) == 0) {
+            assertTrue(System.nanoTime() < deadline, "No " + priority + " waiter");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.example.davidarchanjo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardedKeyLayout
+ */
+class ShardedKeyLayoutTest {
+
+    private final ShardedKeyLayout layout = new ShardedKeyLayout(16, 2);
+
+    @Test
+    void testToPhysical_InsertsShardBelowTenantFolders() {
+        String physical = layout.toPhysical("client-1/dev/photos/cat.jpg");
+
+        assertTrue(physical.matches("client-1/dev/_[0-9a-f]/photos/cat\\.jpg"), physical);
+        assertEquals("client-1/dev/photos/cat.jpg", layout.toLogical(physical));
+    }
+
+    @Test
+    void testToPhysical_LeavesShallowAndInternalKeysAlone() {
+        assertEquals("cat.jpg", layout.toPhysical("cat.jpg"));
+        assertEquals("client-1/cat.jpg", layout.toPhysical("client-1/cat.jpg"));
+        assertEquals(ContentAddress.BLOB_PREFIX + "ab/abcd", layout.toPhysical(ContentAddress.BLOB_PREFIX + "ab/abcd"));
+    }
+
+    @Test
+    void testToLogical_KeepsKeysNotWrittenThroughLayout() {
+        String misplaced = layout.inShard("client-1/dev/cat.jpg", (layout.shardOf("client-1/dev/cat.jpg") + 1) % 16);
+
+        assertEquals(misplaced, layout.toLogical(misplaced));
+        assertEquals("client-1/dev/_zz/cat.jpg", layout.toLogical("client-1/dev/_zz/cat.jpg"));
+    }
+
+    @Test
+    void testShardOf_SpreadsKeysOverShards() {
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            shards.add(layout.shardOf("client-1/dev/upload-" + i + ".jpg"));
+        }
+
+        assertEquals(16, shards.size());
+    }
+
+    @Test
+    void testShardPrefixes_OnlyForPrefixesNamingTenantFolders() {
+        assertFalse(layout.spansShards("client-1/"));
+        assertTrue(layout.spansShards("client-1/dev/"));
+        assertEquals("client-1/dev/_0/ph", layout.shardPrefixes("client-1/dev/ph").get(0));
+        assertEquals(16, layout.shardPrefixes("client-1/dev/").size());
+        assertEquals("client-1/dev/photos/", layout.toLogicalPrefix("client-1/dev/_c/photos/"));
+    }
+}